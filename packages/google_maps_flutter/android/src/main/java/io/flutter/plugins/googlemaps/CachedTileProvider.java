@@ -0,0 +1,357 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import android.util.LruCache;
+import com.google.android.gms.maps.model.Tile;
+import com.google.android.gms.maps.model.TileProvider;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Provides the tiles of a URL template through a memory cache and a disk cache.
+ *
+ * <p>Tiles that are in neither cache are downloaded on a shared executor, which bounds the number
+ * of concurrent downloads. Concurrent requests of the same tile share a single download.
+ */
+final class CachedTileProvider implements TileProvider {
+  private static final int MEMORY_CACHE_BYTES = 4 * 1024 * 1024;
+  private static final int TIMEOUT_MS = 15000;
+  private static final int DEFAULT_TILE_SIZE = 256;
+  private static final long DEFAULT_DISK_CACHE_SIZE = 50 * 1024 * 1024;
+  // Number of tiles a prefetch downloads at the same time, leaving room for the visible tiles.
+  private static final int PREFETCH_PARALLELISM = 2;
+
+  /** Receives the result of a prefetch on a background thread. */
+  interface PrefetchListener {
+    void onPrefetchComplete(int cachedTileCount);
+  }
+
+  private final ExecutorService executor;
+  private final File cacheRoot;
+  private final Map<String, Future<Tile>> pendingTiles = new HashMap<>();
+  // Options, guarded by lock.
+  private final Object lock = new Object();
+  private String urlTemplate;
+  private int tileSize = DEFAULT_TILE_SIZE;
+  private long diskCacheSize = DEFAULT_DISK_CACHE_SIZE;
+  private TileDiskCache diskCache;
+  private LruCache<String, Tile> memoryCache = createMemoryCache();
+  // Whether the options changed what the tiles show since the last call to clearChanged.
+  private boolean changed;
+
+  CachedTileProvider(ExecutorService executor, File cacheRoot) {
+    this.executor = executor;
+    this.cacheRoot = cacheRoot;
+  }
+
+  void setUrlTemplate(String urlTemplate) {
+    synchronized (lock) {
+      if (!urlTemplate.equals(this.urlTemplate)) {
+        this.urlTemplate = urlTemplate;
+        // Tiles of different templates are cached in different directories.
+        diskCache = new TileDiskCache(new File(cacheRoot, hash(urlTemplate)), diskCacheSize);
+        memoryCache = createMemoryCache();
+        changed = true;
+      }
+    }
+  }
+
+  void setTileSize(int tileSize) {
+    synchronized (lock) {
+      if (this.tileSize != tileSize) {
+        this.tileSize = tileSize;
+        memoryCache = createMemoryCache();
+        changed = true;
+      }
+    }
+  }
+
+  void setDiskCacheSize(long diskCacheSize) {
+    synchronized (lock) {
+      this.diskCacheSize = diskCacheSize;
+      if (diskCache != null) {
+        diskCache.setMaxSize(diskCacheSize);
+      }
+    }
+  }
+
+  int getMemoryCacheBytes() {
+    synchronized (lock) {
+      return memoryCache.size();
+    }
+  }
+
+  /** Returns whether the tiles changed since the last call, and resets the change flag. */
+  boolean clearChanged() {
+    synchronized (lock) {
+      final boolean wasChanged = changed;
+      changed = false;
+      return wasChanged;
+    }
+  }
+
+  /** Removes all the tiles from the memory and disk caches. */
+  void clearCache() {
+    final TileDiskCache currentDiskCache;
+    synchronized (lock) {
+      memoryCache = createMemoryCache();
+      currentDiskCache = diskCache;
+    }
+    if (currentDiskCache != null) {
+      currentDiskCache.clear();
+    }
+  }
+
+  @Override
+  public Tile getTile(int x, int y, int zoom) {
+    final String template;
+    final int size;
+    final TileDiskCache currentDiskCache;
+    final LruCache<String, Tile> currentMemoryCache;
+    synchronized (lock) {
+      if (urlTemplate == null) {
+        return NO_TILE;
+      }
+      template = urlTemplate;
+      size = tileSize;
+      currentDiskCache = diskCache;
+      currentMemoryCache = memoryCache;
+    }
+    final String key = tileKey(x, y, zoom);
+    final Tile cachedTile = currentMemoryCache.get(key);
+    if (cachedTile != null) {
+      return cachedTile;
+    }
+    try {
+      return loadTile(template, size, currentDiskCache, currentMemoryCache, key, x, y, zoom)
+          .get();
+    } catch (ExecutionException | RejectedExecutionException e) {
+      // Returning null makes the map request the tile again later.
+      return null;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return null;
+    }
+  }
+
+  /**
+   * Downloads into the disk cache the tiles that aren't cached yet, {@code PREFETCH_PARALLELISM}
+   * at a time.
+   *
+   * <p>The listener is called once, with the number of tiles cached so far if the map is disposed
+   * before the prefetch completes.
+   *
+   * @param tiles the x, y and zoom of every tile.
+   */
+  void prefetch(List<int[]> tiles, final PrefetchListener listener) {
+    final Iterator<int[]> iterator = tiles.iterator();
+    final AtomicInteger remaining = new AtomicInteger(tiles.size());
+    final AtomicInteger cached = new AtomicInteger();
+    final AtomicBoolean completed = new AtomicBoolean();
+    if (tiles.isEmpty()) {
+      listener.onPrefetchComplete(0);
+      return;
+    }
+    final Runnable complete =
+        new Runnable() {
+          @Override
+          public void run() {
+            if (completed.compareAndSet(false, true)) {
+              listener.onPrefetchComplete(cached.get());
+            }
+          }
+        };
+    final Runnable prefetchNext =
+        new Runnable() {
+          @Override
+          public void run() {
+            final int[] tile;
+            synchronized (iterator) {
+              if (!iterator.hasNext()) {
+                return;
+              }
+              tile = iterator.next();
+            }
+            try {
+              if (prefetchTile(tile[0], tile[1], tile[2])) {
+                cached.incrementAndGet();
+              }
+            } finally {
+              if (remaining.decrementAndGet() == 0 || !execute(this)) {
+                complete.run();
+              }
+            }
+          }
+        };
+    for (int i = 0; i < PREFETCH_PARALLELISM; i++) {
+      if (!execute(prefetchNext)) {
+        complete.run();
+        return;
+      }
+    }
+  }
+
+  // Returns false if the map was disposed, and the runnable won't run.
+  private boolean execute(Runnable runnable) {
+    try {
+      executor.execute(runnable);
+      return true;
+    } catch (RejectedExecutionException e) {
+      return false;
+    }
+  }
+
+  private boolean prefetchTile(int x, int y, int zoom) {
+    final TileDiskCache currentDiskCache;
+    final String template;
+    synchronized (lock) {
+      currentDiskCache = diskCache;
+      template = urlTemplate;
+    }
+    if (currentDiskCache == null) {
+      return false;
+    }
+    final String key = tileKey(x, y, zoom);
+    if (currentDiskCache.contains(key)) {
+      return true;
+    }
+    try {
+      final byte[] data = download(template, x, y, zoom);
+      if (data != null) {
+        currentDiskCache.put(key, data);
+        return true;
+      }
+    } catch (IOException e) {
+      // The tile is downloaded again when it is shown.
+    }
+    return false;
+  }
+
+  // Returns the pending read of the tile from the disk cache or the server.
+  private Future<Tile> loadTile(
+      final String template,
+      final int size,
+      final TileDiskCache diskCache,
+      final LruCache<String, Tile> memoryCache,
+      final String key,
+      final int x,
+      final int y,
+      final int zoom) {
+    // The template is part of the key, so that a tile of a previous template is never reused.
+    final String pendingKey = template + "\n" + key;
+    synchronized (pendingTiles) {
+      final Future<Tile> pending = pendingTiles.get(pendingKey);
+      if (pending != null) {
+        return pending;
+      }
+      final Future<Tile> future =
+          executor.submit(
+              new Callable<Tile>() {
+                @Override
+                public Tile call() throws IOException {
+                  try {
+                    final Tile tile = readTile(template, size, diskCache, key, x, y, zoom);
+                    memoryCache.put(key, tile);
+                    return tile;
+                  } finally {
+                    synchronized (pendingTiles) {
+                      pendingTiles.remove(pendingKey);
+                    }
+                  }
+                }
+              });
+      pendingTiles.put(pendingKey, future);
+      return future;
+    }
+  }
+
+  private static Tile readTile(
+      String template, int size, TileDiskCache diskCache, String key, int x, int y, int zoom)
+      throws IOException {
+    byte[] data = diskCache.get(key);
+    if (data == null) {
+      data = download(template, x, y, zoom);
+      if (data == null) {
+        return NO_TILE;
+      }
+      diskCache.put(key, data);
+    }
+    return new Tile(size, size, data);
+  }
+
+  // Returns the image of the tile, or null if the server has no tile.
+  private static byte[] download(String template, int x, int y, int zoom) throws IOException {
+    final URL url =
+        new URL(
+            template
+                .replace("{x}", Integer.toString(x))
+                .replace("{y}", Integer.toString(y))
+                .replace("{z}", Integer.toString(zoom)));
+    final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+    try {
+      connection.setConnectTimeout(TIMEOUT_MS);
+      connection.setReadTimeout(TIMEOUT_MS);
+      final int status = connection.getResponseCode();
+      if (status == HttpURLConnection.HTTP_NO_CONTENT
+          || status == HttpURLConnection.HTTP_NOT_FOUND) {
+        return null;
+      }
+      if (status != HttpURLConnection.HTTP_OK) {
+        throw new IOException("Unexpected status " + status + " for " + url);
+      }
+      final InputStream input = connection.getInputStream();
+      try {
+        return TileDiskCache.readFully(input);
+      } finally {
+        input.close();
+      }
+    } finally {
+      connection.disconnect();
+    }
+  }
+
+  private static String tileKey(int x, int y, int zoom) {
+    return zoom + "/" + x + "/" + y;
+  }
+
+  private static String hash(String value) {
+    try {
+      final byte[] digest = MessageDigest.getInstance("SHA-1").digest(value.getBytes("UTF-8"));
+      final StringBuilder builder = new StringBuilder(digest.length * 2);
+      for (byte b : digest) {
+        builder.append(String.format("%02x", b & 0xff));
+      }
+      return builder.toString();
+    } catch (NoSuchAlgorithmException | IOException e) {
+      return Integer.toHexString(value.hashCode());
+    }
+  }
+
+  private static LruCache<String, Tile> createMemoryCache() {
+    return new LruCache<String, Tile>(MEMORY_CACHE_BYTES) {
+      @Override
+      protected int sizeOf(String key, Tile tile) {
+        return tile.data == null ? 1 : tile.data.length;
+      }
+    };
+  }
+}
@@ -0,0 +1,109 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import com.google.android.gms.maps.model.CameraPosition;
+
+/**
+ * Limits the rate of camera move events, delivering only the latest camera position when events
+ * are coalesced.
+ */
+class CameraMoveThrottler {
+  interface Listener {
+    void onCameraMove(CameraPosition position);
+  }
+
+  private final Listener listener;
+  private final Handler handler = new Handler(Looper.getMainLooper());
+  private final Runnable scheduledDelivery =
+      new Runnable() {
+        @Override
+        public void run() {
+          deliveryScheduled = false;
+          deliverPendingPosition();
+        }
+      };
+  // Minimum time between two events, 0 if unlimited.
+  private long minIntervalMs;
+  private float minZoomDelta;
+  private double minDistanceMeters;
+  private CameraPosition lastDeliveredPosition;
+  private long lastDeliveryTime;
+  // The latest position waiting for the rate limit.
+  private CameraPosition pendingPosition;
+  // The latest position that didn't exceed the thresholds.
+  private CameraPosition skippedPosition;
+  private boolean deliveryScheduled;
+
+  CameraMoveThrottler(Listener listener) {
+    this.listener = listener;
+  }
+
+  void setThrottling(int maxEventsPerSecond, float minZoomDelta, double minDistanceMeters) {
+    this.minIntervalMs = maxEventsPerSecond > 0 ? 1000 / maxEventsPerSecond : 0;
+    this.minZoomDelta = minZoomDelta;
+    this.minDistanceMeters = minDistanceMeters;
+  }
+
+  void onCameraMove(CameraPosition position) {
+    // Once a move is pending, later moves replace it even if they don't exceed the thresholds.
+    if (pendingPosition == null && !exceedsThresholds(position)) {
+      skippedPosition = position;
+      return;
+    }
+    skippedPosition = null;
+    pendingPosition = position;
+    final long elapsed = SystemClock.uptimeMillis() - lastDeliveryTime;
+    if (elapsed >= minIntervalMs) {
+      deliverPendingPosition();
+    } else if (!deliveryScheduled) {
+      deliveryScheduled = true;
+      handler.postDelayed(scheduledDelivery, minIntervalMs - elapsed);
+    }
+  }
+
+  /** Delivers right away the latest camera position that wasn't delivered, if any. */
+  void flush() {
+    handler.removeCallbacks(scheduledDelivery);
+    deliveryScheduled = false;
+    if (pendingPosition == null) {
+      pendingPosition = skippedPosition;
+    }
+    skippedPosition = null;
+    deliverPendingPosition();
+  }
+
+  void cancel() {
+    handler.removeCallbacks(scheduledDelivery);
+    deliveryScheduled = false;
+    pendingPosition = null;
+    skippedPosition = null;
+  }
+
+  private void deliverPendingPosition() {
+    if (pendingPosition == null) {
+      return;
+    }
+    lastDeliveredPosition = pendingPosition;
+    lastDeliveryTime = SystemClock.uptimeMillis();
+    pendingPosition = null;
+    listener.onCameraMove(lastDeliveredPosition);
+  }
+
+  private boolean exceedsThresholds(CameraPosition position) {
+    if (lastDeliveredPosition == null || (minZoomDelta <= 0 && minDistanceMeters <= 0)) {
+      return true;
+    }
+    if (minZoomDelta > 0 && Math.abs(position.zoom - lastDeliveredPosition.zoom) >= minZoomDelta) {
+      return true;
+    }
+    return minDistanceMeters > 0
+        && SpatialIndex.distanceMeters(position.target, lastDeliveredPosition.target)
+            >= minDistanceMeters;
+  }
+}
@@ -7,7 +7,6 @@ package io.flutter.plugins.googlemaps;
 import com.google.android.gms.maps.GoogleMap;
 import com.google.android.gms.maps.model.Circle;
 import com.google.android.gms.maps.model.CircleOptions;
-import io.flutter.plugin.common.MethodChannel;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -16,19 +15,25 @@ class CirclesController {
 
   private final Map<String, CircleController> circleIdToController;
   private final Map<String, String> googleMapsCircleIdToDartCircleId;
-  private final MethodChannel methodChannel;
+  private final MapEventBatcher eventBatcher;
+  private final SpatialIndex spatialIndex;
   private GoogleMap googleMap;
 
-  CirclesController(MethodChannel methodChannel) {
+  CirclesController(MapEventBatcher eventBatcher, SpatialIndex spatialIndex) {
     this.circleIdToController = new HashMap<>();
     this.googleMapsCircleIdToDartCircleId = new HashMap<>();
-    this.methodChannel = methodChannel;
+    this.eventBatcher = eventBatcher;
+    this.spatialIndex = spatialIndex;
   }
 
   void setGoogleMap(GoogleMap googleMap) {
     this.googleMap = googleMap;
   }
 
+  int getCircleCount() {
+    return circleIdToController.size();
+  }
+
   void addCircles(List<Object> circlesToAdd) {
     if (circlesToAdd != null) {
       for (Object circleToAdd : circlesToAdd) {
@@ -54,6 +59,7 @@ class CirclesController {
         continue;
       }
       String circleId = (String) rawCircleId;
+      spatialIndex.remove(SpatialIndex.TYPE_CIRCLE, circleId);
       final CircleController circleController = circleIdToController.remove(circleId);
       if (circleController != null) {
         circleController.remove();
@@ -67,7 +73,7 @@ class CirclesController {
     if (circleId == null) {
       return false;
     }
-    methodChannel.invokeMethod("circle#onTap", Convert.circleIdToJson(circleId));
+    eventBatcher.add("circle#onTap", circleId);
     CircleController circleController = circleIdToController.get(circleId);
     if (circleController != null) {
       return circleController.consumeTapEvents();
@@ -81,6 +87,7 @@ class CirclesController {
     }
     CircleBuilder circleBuilder = new CircleBuilder();
     String circleId = Convert.interpretCircleOptions(circle, circleBuilder);
+    indexCircle(circleId, circle);
     CircleOptions options = circleBuilder.build();
     addCircle(circleId, options, circleBuilder.consumeTapEvents());
   }
@@ -100,6 +107,20 @@ class CirclesController {
     CircleController circleController = circleIdToController.get(circleId);
     if (circleController != null) {
       Convert.interpretCircleOptions(circle, circleController);
+      indexCircle(circleId, circle);
+    }
+  }
+
+  private void indexCircle(String circleId, Object circle) {
+    final Map<?, ?> circleMap = (Map<?, ?>) circle;
+    final Object center = circleMap.get("center");
+    final Object radius = circleMap.get("radius");
+    if (center != null && radius != null) {
+      spatialIndex.putCircle(
+          SpatialIndex.TYPE_CIRCLE,
+          circleId,
+          Convert.toLatLng(center),
+          ((Number) radius).doubleValue());
     }
   }
 
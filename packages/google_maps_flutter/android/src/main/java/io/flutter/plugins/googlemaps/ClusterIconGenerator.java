@@ -0,0 +1,95 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import com.google.android.gms.maps.model.BitmapDescriptor;
+import com.google.android.gms.maps.model.BitmapDescriptorFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+/** Draws the default icons of cluster markers: a filled circle showing the marker count. */
+class ClusterIconGenerator {
+  private static final int[] BUCKETS = {10, 20, 50, 100, 200, 500, 1000};
+
+  private final float density;
+  private final Map<String, BitmapDescriptor> labelToIcon;
+  private int color;
+  private int textColor;
+
+  ClusterIconGenerator(float density) {
+    this.density = density;
+    this.labelToIcon = new HashMap<>();
+  }
+
+  void setColors(int color, int textColor) {
+    if (this.color == color && this.textColor == textColor) {
+      return;
+    }
+    this.color = color;
+    this.textColor = textColor;
+    labelToIcon.clear();
+  }
+
+  /**
+   * Returns the icon for a cluster of {@code count} markers.
+   *
+   * <p>Large counts are rounded down to a bucket ("10+", "20+", ...), so only a handful of bitmaps
+   * are ever drawn.
+   */
+  BitmapDescriptor getIcon(int count) {
+    final String label = getLabel(count);
+    BitmapDescriptor icon = labelToIcon.get(label);
+    if (icon == null) {
+      icon = BitmapDescriptorFactory.fromBitmap(drawIcon(label));
+      labelToIcon.put(label, icon);
+    }
+    return icon;
+  }
+
+  int getCachedIconCount() {
+    return labelToIcon.size();
+  }
+
+  static String getLabel(int count) {
+    if (count < BUCKETS[0]) {
+      return String.valueOf(count);
+    }
+    int bucket = BUCKETS[0];
+    for (int candidate : BUCKETS) {
+      if (candidate <= count) {
+        bucket = candidate;
+      }
+    }
+    return bucket + "+";
+  }
+
+  private Bitmap drawIcon(String label) {
+    final float diameter = (28 + 6 * label.length()) * density;
+    final int size = (int) Math.ceil(diameter);
+    final float center = size / 2f;
+    final Bitmap bitmap = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+    final Canvas canvas = new Canvas(bitmap);
+
+    final Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    paint.setStyle(Paint.Style.FILL);
+    final int haloColor =
+        Color.argb(Color.alpha(color) / 3, Color.red(color), Color.green(color), Color.blue(color));
+    paint.setColor(haloColor);
+    canvas.drawCircle(center, center, center, paint);
+    paint.setColor(color);
+    canvas.drawCircle(center, center, center * 0.78f, paint);
+
+    paint.setColor(textColor);
+    paint.setTextAlign(Paint.Align.CENTER);
+    paint.setFakeBoldText(true);
+    paint.setTextSize(12 * density);
+    canvas.drawText(label, center, center - (paint.descent() + paint.ascent()) / 2, paint);
+    return bitmap;
+  }
+}
@@ -26,6 +26,7 @@ import com.google.android.gms.maps.model.SquareCap;
 import io.flutter.view.FlutterMain;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -33,7 +34,11 @@ import java.util.Map;
 /** Conversions between JSON-like values and GoogleMaps data types. */
 class Convert {
 
-  private static BitmapDescriptor toBitmapDescriptor(Object o) {
+  static BitmapDescriptor toBitmapDescriptor(Object o) {
+    if (o instanceof MarkerIcon) {
+      // Usually decoded off the main thread by MapObjectDecoder.
+      return BitmapDescriptorFactory.fromBitmap(((MarkerIcon) o).getBitmap());
+    }
     final List<?> data = toList(o);
     switch (toString(data.get(0))) {
       case "defaultMarker":
@@ -66,10 +71,14 @@ class Convert {
   }
 
   private static BitmapDescriptor getBitmapFromBytes(List<?> data) {
+    return BitmapDescriptorFactory.fromBitmap(decodeBitmapFromBytes(data));
+  }
+
+  /** Decodes the image of a {@code fromBytes} bitmap descriptor, on any thread. */
+  static Bitmap decodeBitmapFromBytes(List<?> data) {
     if (data.size() == 2) {
       try {
-        Bitmap bitmap = toBitmap(data.get(1));
-        return BitmapDescriptorFactory.fromBitmap(bitmap);
+        return toBitmap(data.get(1));
       } catch (Exception e) {
         throw new IllegalArgumentException("Unable to interpret bytes as a valid image.", e);
       }
@@ -161,46 +170,18 @@ class Convert {
     return arguments;
   }
 
-  static Object markerIdToJson(String markerId) {
-    if (markerId == null) {
-      return null;
-    }
-    final Map<String, Object> data = new HashMap<>(1);
-    data.put("markerId", markerId);
-    return data;
-  }
-
-  static Object polygonIdToJson(String polygonId) {
-    if (polygonId == null) {
-      return null;
-    }
-    final Map<String, Object> data = new HashMap<>(1);
-    data.put("polygonId", polygonId);
-    return data;
+  static Object latLngToJson(LatLng latLng) {
+    return Arrays.asList(latLng.latitude, latLng.longitude);
   }
 
-  static Object polylineIdToJson(String polylineId) {
-    if (polylineId == null) {
-      return null;
+  static Object mapObjectsToJson(Collection<SpatialIndex.Entry> entries) {
+    final List<Object> data = new ArrayList<>(entries.size());
+    for (SpatialIndex.Entry entry : entries) {
+      data.add(Arrays.asList(entry.type, entry.id));
     }
-    final Map<String, Object> data = new HashMap<>(1);
-    data.put("polylineId", polylineId);
     return data;
   }
 
-  static Object circleIdToJson(String circleId) {
-    if (circleId == null) {
-      return null;
-    }
-    final Map<String, Object> data = new HashMap<>(1);
-    data.put("circleId", circleId);
-    return data;
-  }
-
-  static Object latLngToJson(LatLng latLng) {
-    return Arrays.asList(latLng.latitude, latLng.longitude);
-  }
-
   static LatLng toLatLng(Object o) {
     final List<?> data = toList(o);
     return new LatLng(toDouble(data.get(0)), toDouble(data.get(1)));
@@ -218,7 +199,7 @@ class Convert {
     return data;
   }
 
-  private static LatLngBounds toLatLngBounds(Object o) {
+  static LatLngBounds toLatLngBounds(Object o) {
     if (o == null) {
       return null;
     }
@@ -336,6 +317,45 @@ class Convert {
     if (buildingsEnabled != null) {
       sink.setBuildingsEnabled(toBoolean(buildingsEnabled));
     }
+    final Object liteModeEnabled = data.get("liteModeEnabled");
+    if (liteModeEnabled != null) {
+      sink.setLiteModeEnabled(toBoolean(liteModeEnabled));
+    }
+    final Object cameraMoveThrottling = data.get("cameraMoveThrottling");
+    if (cameraMoveThrottling != null) {
+      final List<?> throttlingData = toList(cameraMoveThrottling);
+      sink.setCameraMoveThrottling(
+          toInt(throttlingData.get(0)),
+          toFloat(throttlingData.get(1)),
+          toDouble(throttlingData.get(2)));
+    }
+    final Object markerCullingEnabled = data.get("markerCullingEnabled");
+    if (markerCullingEnabled != null) {
+      sink.setMarkerCullingEnabled(toBoolean(markerCullingEnabled));
+    }
+    final Object markerClustering = data.get("markerClustering");
+    if (markerClustering != null) {
+      sink.setMarkerClustering(toMarkerClusteringOptions(markerClustering));
+    }
+  }
+
+  private static MarkerClusteringOptions toMarkerClusteringOptions(Object o) {
+    final Map<?, ?> data = toMap(o);
+    final MarkerClusteringOptions defaults = MarkerClusteringOptions.DISABLED;
+    final Object enabled = data.get("enabled");
+    final Object gridSize = data.get("gridSize");
+    final Object minClusterSize = data.get("minClusterSize");
+    final Object maxZoom = data.get("maxZoom");
+    final Object color = data.get("color");
+    final Object textColor = data.get("textColor");
+    return new MarkerClusteringOptions(
+        enabled != null && toBoolean(enabled),
+        gridSize != null ? toFloat(gridSize) : defaults.gridSize,
+        minClusterSize != null ? toInt(minClusterSize) : defaults.minClusterSize,
+        maxZoom != null ? toFloat(maxZoom) : defaults.maxZoom,
+        color != null ? toInt(color) : defaults.color,
+        textColor != null ? toInt(textColor) : defaults.textColor,
+        data.get("icon"));
   }
 
   /** Returns the dartMarkerId of the interpreted marker. */
@@ -444,6 +464,10 @@ class Convert {
     if (points != null) {
       sink.setPoints(toPoints(points));
     }
+    final Object holes = data.get("holes");
+    if (holes != null) {
+      sink.setHoles(toHoles(holes));
+    }
     final String polygonId = (String) data.get("polygonId");
     if (polygonId == null) {
       throw new IllegalArgumentException("polygonId was null");
@@ -548,17 +572,127 @@ class Convert {
     }
   }
 
-  private static List<LatLng> toPoints(Object o) {
+  static String interpretHeatmapOptions(Object o, HeatmapOptionsSink sink) {
+    final Map<?, ?> data = toMap(o);
+    final Object points = data.get("data");
+    if (points != null) {
+      sink.setData((double[]) points);
+    }
+    final Object gradient = data.get("gradient");
+    if (gradient != null) {
+      final List<?> gradientData = toList(gradient);
+      final List<?> colors = toList(gradientData.get(0));
+      final List<?> startPoints = toList(gradientData.get(1));
+      if (colors.isEmpty() || colors.size() != startPoints.size()) {
+        throw new IllegalArgumentException("Invalid heatmap gradient: " + gradient);
+      }
+      final int[] gradientColors = new int[colors.size()];
+      final float[] gradientStartPoints = new float[startPoints.size()];
+      for (int i = 0; i < gradientColors.length; i++) {
+        gradientColors[i] = toInt(colors.get(i));
+        gradientStartPoints[i] = toFloat(startPoints.get(i));
+      }
+      sink.setGradient(gradientColors, gradientStartPoints);
+    }
+    // Heatmaps are always sent whole, so a missing maximum intensity means it is computed.
+    final Object maxIntensity = data.get("maxIntensity");
+    sink.setMaxIntensity(maxIntensity != null ? toDouble(maxIntensity) : 0);
+    final Object opacity = data.get("opacity");
+    if (opacity != null) {
+      sink.setOpacity(toFloat(opacity));
+    }
+    final Object radius = data.get("radius");
+    if (radius != null) {
+      sink.setRadius(toInt(radius));
+    }
+    final Object visible = data.get("visible");
+    if (visible != null) {
+      sink.setVisible(toBoolean(visible));
+    }
+    final Object zIndex = data.get("zIndex");
+    if (zIndex != null) {
+      sink.setZIndex(toFloat(zIndex));
+    }
+    final String heatmapId = (String) data.get("heatmapId");
+    if (heatmapId == null) {
+      throw new IllegalArgumentException("heatmapId was null");
+    } else {
+      return heatmapId;
+    }
+  }
+
+  static String interpretTileOverlayOptions(Object o, TileOverlayOptionsSink sink) {
+    final Map<?, ?> data = toMap(o);
+    final Object urlTemplate = data.get("urlTemplate");
+    if (urlTemplate != null) {
+      sink.setUrlTemplate(toString(urlTemplate));
+    }
+    final Object tileSize = data.get("tileSize");
+    if (tileSize != null) {
+      sink.setTileSize(toInt(tileSize));
+    }
+    final Object diskCacheSize = data.get("diskCacheSize");
+    if (diskCacheSize != null) {
+      sink.setDiskCacheSize(((Number) diskCacheSize).longValue());
+    }
+    final Object fadeIn = data.get("fadeIn");
+    if (fadeIn != null) {
+      sink.setFadeIn(toBoolean(fadeIn));
+    }
+    final Object transparency = data.get("transparency");
+    if (transparency != null) {
+      sink.setTransparency(toFloat(transparency));
+    }
+    final Object visible = data.get("visible");
+    if (visible != null) {
+      sink.setVisible(toBoolean(visible));
+    }
+    final Object zIndex = data.get("zIndex");
+    if (zIndex != null) {
+      sink.setZIndex(toFloat(zIndex));
+    }
+    final String tileOverlayId = (String) data.get("tileOverlayId");
+    if (tileOverlayId == null) {
+      throw new IllegalArgumentException("tileOverlayId was null");
+    } else {
+      return tileOverlayId;
+    }
+  }
+
+  static List<LatLng> toPoints(Object o) {
+    if (o instanceof double[]) {
+      // Large lists of points are packed as alternating latitudes and longitudes.
+      final double[] data = (double[]) o;
+      final List<LatLng> points = new ArrayList<>(data.length / 2);
+      for (int i = 0; i + 1 < data.length; i += 2) {
+        points.add(new LatLng(data[i], data[i + 1]));
+      }
+      return points;
+    }
     final List<?> data = toList(o);
     final List<LatLng> points = new ArrayList<>(data.size());
 
     for (Object ob : data) {
+      if (ob instanceof LatLng) {
+        // Converted off the main thread by MapObjectDecoder.
+        points.add((LatLng) ob);
+        continue;
+      }
       final List<?> point = toList(ob);
-      points.add(new LatLng(toFloat(point.get(0)), toFloat(point.get(1))));
+      points.add(new LatLng(toDouble(point.get(0)), toDouble(point.get(1))));
     }
     return points;
   }
 
+  static List<List<LatLng>> toHoles(Object o) {
+    final List<?> data = toList(o);
+    final List<List<LatLng>> holes = new ArrayList<>(data.size());
+    for (Object hole : data) {
+      holes.add(toPoints(hole));
+    }
+    return holes;
+  }
+
   private static List<PatternItem> toPattern(Object o) {
     final List<?> data = toList(o);
 
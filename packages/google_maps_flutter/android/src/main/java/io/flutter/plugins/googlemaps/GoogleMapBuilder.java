@@ -24,6 +24,13 @@ class GoogleMapBuilder implements GoogleMapOptionsSink {
   private Object initialPolygons;
   private Object initialPolylines;
   private Object initialCircles;
+  private Object initialHeatmaps;
+  private Object initialTileOverlays;
+  private MarkerClusteringOptions markerClustering = MarkerClusteringOptions.DISABLED;
+  private boolean markerCullingEnabled = false;
+  private int cameraMoveMaxEventsPerSecond = 0;
+  private float cameraMoveMinZoomDelta = 0;
+  private double cameraMoveMinDistanceMeters = 0;
   private Rect padding = new Rect(0, 0, 0, 0);
 
   GoogleMapController build(
@@ -37,10 +44,16 @@ class GoogleMapBuilder implements GoogleMapOptionsSink {
     controller.setTrafficEnabled(trafficEnabled);
     controller.setBuildingsEnabled(buildingsEnabled);
     controller.setTrackCameraPosition(trackCameraPosition);
+    controller.setMarkerClustering(markerClustering);
+    controller.setMarkerCullingEnabled(markerCullingEnabled);
+    controller.setCameraMoveThrottling(
+        cameraMoveMaxEventsPerSecond, cameraMoveMinZoomDelta, cameraMoveMinDistanceMeters);
     controller.setInitialMarkers(initialMarkers);
     controller.setInitialPolygons(initialPolygons);
     controller.setInitialPolylines(initialPolylines);
     controller.setInitialCircles(initialCircles);
+    controller.setInitialHeatmaps(initialHeatmaps);
+    controller.setInitialTileOverlays(initialTileOverlays);
     controller.setPadding(padding.top, padding.left, padding.bottom, padding.right);
     return controller;
   }
@@ -124,6 +137,11 @@ class GoogleMapBuilder implements GoogleMapOptionsSink {
     this.buildingsEnabled = buildingsEnabled;
   }
 
+  @Override
+  public void setLiteModeEnabled(boolean liteModeEnabled) {
+    options.liteMode(liteModeEnabled);
+  }
+
   @Override
   public void setMyLocationEnabled(boolean myLocationEnabled) {
     this.myLocationEnabled = myLocationEnabled;
@@ -153,4 +171,32 @@ class GoogleMapBuilder implements GoogleMapOptionsSink {
   public void setInitialCircles(Object initialCircles) {
     this.initialCircles = initialCircles;
   }
+
+  @Override
+  public void setInitialHeatmaps(Object initialHeatmaps) {
+    this.initialHeatmaps = initialHeatmaps;
+  }
+
+  @Override
+  public void setInitialTileOverlays(Object initialTileOverlays) {
+    this.initialTileOverlays = initialTileOverlays;
+  }
+
+  @Override
+  public void setMarkerClustering(MarkerClusteringOptions markerClustering) {
+    this.markerClustering = markerClustering;
+  }
+
+  @Override
+  public void setMarkerCullingEnabled(boolean markerCullingEnabled) {
+    this.markerCullingEnabled = markerCullingEnabled;
+  }
+
+  @Override
+  public void setCameraMoveThrottling(
+      int maxEventsPerSecond, float minZoomDelta, double minDistanceMeters) {
+    this.cameraMoveMaxEventsPerSecond = maxEventsPerSecond;
+    this.cameraMoveMinZoomDelta = minZoomDelta;
+    this.cameraMoveMinDistanceMeters = minDistanceMeters;
+  }
 }
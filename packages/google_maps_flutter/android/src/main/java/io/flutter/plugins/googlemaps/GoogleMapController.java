@@ -19,6 +19,8 @@ import android.content.Context;
 import android.content.pm.PackageManager;
 import android.graphics.Point;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
 import android.view.View;
 import com.google.android.gms.maps.CameraUpdate;
@@ -38,6 +40,7 @@ import io.flutter.plugin.common.MethodCall;
 import io.flutter.plugin.common.MethodChannel;
 import io.flutter.plugin.common.PluginRegistry;
 import io.flutter.plugin.platform.PlatformView;
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -65,9 +68,19 @@ final class GoogleMapController
         PlatformView {
 
   private static final String TAG = "GoogleMapController";
+  // Directory of the app cache directory where the tiles of tile overlays are cached.
+  private static final String TILE_CACHE_DIRECTORY = "google_maps_flutter_tiles";
+  private static final int MAX_PREFETCH_TILES = 10000;
   private final int id;
   private final AtomicInteger activityState;
   private final MethodChannel methodChannel;
+  // Decodes map object updates off the main thread before they reach onMethodCall.
+  private final MethodCallPipeline methodCallPipeline;
+  private final MapStats stats = new MapStats();
+  private final MapSnapshotter snapshotter = new MapSnapshotter();
+  // The style set by map#setStyle, part of the keys of the cached snapshots.
+  private String mapStyle;
+  private final Handler mainHandler = new Handler(Looper.getMainLooper());
   private final PluginRegistry.Registrar registrar;
   private final MapView mapView;
   private GoogleMap googleMap;
@@ -82,14 +95,23 @@ final class GoogleMapController
   private MethodChannel.Result mapReadyResult;
   private final int registrarActivityHashCode;
   private final Context context;
+  private final SpatialIndex spatialIndex;
   private final MarkersController markersController;
   private final PolygonsController polygonsController;
   private final PolylinesController polylinesController;
   private final CirclesController circlesController;
+  private final HeatmapsController heatmapsController;
+  private final TileOverlaysController tileOverlaysController;
+  private final CameraMoveThrottler cameraMoveThrottler;
+  private final InitialObjectsLoader initialObjectsLoader;
+  // Batches the tap and drag events of markers, polygons, polylines and circles.
+  private final MapEventBatcher eventBatcher;
   private List<Object> initialMarkers;
   private List<Object> initialPolygons;
   private List<Object> initialPolylines;
   private List<Object> initialCircles;
+  private List<Object> initialHeatmaps;
+  private List<Object> initialTileOverlays;
 
   GoogleMapController(
       int id,
@@ -105,12 +127,56 @@ final class GoogleMapController
     this.density = context.getResources().getDisplayMetrics().density;
     methodChannel =
         new MethodChannel(registrar.messenger(), "plugins.flutter.io/google_maps_" + id);
-    methodChannel.setMethodCallHandler(this);
+    methodCallPipeline = new MethodCallPipeline(this, stats);
+    methodChannel.setMethodCallHandler(methodCallPipeline);
     this.registrarActivityHashCode = registrar.activity().hashCode();
-    this.markersController = new MarkersController(methodChannel);
-    this.polygonsController = new PolygonsController(methodChannel);
-    this.polylinesController = new PolylinesController(methodChannel, density);
-    this.circlesController = new CirclesController(methodChannel);
+    this.spatialIndex = new SpatialIndex();
+    this.eventBatcher = new MapEventBatcher(methodChannel);
+    this.markersController =
+        new MarkersController(methodChannel, eventBatcher, spatialIndex, snapshotter, density);
+    this.polygonsController = new PolygonsController(eventBatcher, spatialIndex);
+    this.polylinesController = new PolylinesController(eventBatcher, spatialIndex, density);
+    this.circlesController = new CirclesController(eventBatcher, spatialIndex);
+    this.heatmapsController = new HeatmapsController();
+    this.tileOverlaysController =
+        new TileOverlaysController(new File(context.getCacheDir(), TILE_CACHE_DIRECTORY));
+    this.cameraMoveThrottler =
+        new CameraMoveThrottler(
+            new CameraMoveThrottler.Listener() {
+              @Override
+              public void onCameraMove(CameraPosition position) {
+                stats.recordCameraMoveEvent();
+                final Map<String, Object> arguments = new HashMap<>(2);
+                arguments.put("position", Convert.cameraPositionToJson(position));
+                methodChannel.invokeMethod("camera#onMove", arguments);
+              }
+            });
+    this.initialObjectsLoader =
+        new InitialObjectsLoader(
+            new InitialObjectsLoader.Sink() {
+              @Override
+              public void addObjects(int type, List<Object> objects) {
+                switch (type) {
+                  case InitialObjectsLoader.TYPE_MARKER:
+                    markersController.addMarkers(objects);
+                    break;
+                  case InitialObjectsLoader.TYPE_POLYGON:
+                    polygonsController.addPolygons(objects);
+                    break;
+                  case InitialObjectsLoader.TYPE_POLYLINE:
+                    polylinesController.addPolylines(objects);
+                    break;
+                  case InitialObjectsLoader.TYPE_CIRCLE:
+                    circlesController.addCircles(objects);
+                    break;
+                }
+              }
+
+              @Override
+              public void onObjectsLoaded() {
+                methodChannel.invokeMethod("map#onObjectsLoaded", null);
+              }
+            });
   }
 
   @Override
@@ -194,14 +260,30 @@ final class GoogleMapController
     polygonsController.setGoogleMap(googleMap);
     polylinesController.setGoogleMap(googleMap);
     circlesController.setGoogleMap(googleMap);
-    updateInitialMarkers();
-    updateInitialPolygons();
-    updateInitialPolylines();
-    updateInitialCircles();
+    heatmapsController.setGoogleMap(googleMap);
+    tileOverlaysController.setGoogleMap(googleMap);
+    // Markers, polygons, polylines and circles are added over the next frames, so that they don't
+    // delay the first frame of the map.
+    initialObjectsLoader.load(
+        initialMarkers,
+        initialPolygons,
+        initialPolylines,
+        initialCircles,
+        googleMap.getProjection().getVisibleRegion().latLngBounds);
+    updateInitialHeatmaps();
+    updateInitialTileOverlays();
   }
 
   @Override
   public void onMethodCall(MethodCall call, MethodChannel.Result result) {
+    if (usesMapObjects(call.method)) {
+      // The call must see all the initial objects.
+      initialObjectsLoader.flush();
+    }
+    if (call.method.endsWith("#update") || call.method.equals("markers#animate")) {
+      // The cached snapshots may no longer show the map.
+      snapshotter.clearCache();
+    }
     switch (call.method) {
       case "map#waitForMap":
         if (googleMap != null) {
@@ -229,6 +311,112 @@ final class GoogleMapController
           }
           break;
         }
+      case "map#queryRegion":
+        {
+          final Object bounds = call.argument("bounds");
+          if (bounds == null) {
+            result.error("Invalid arguments", "queryRegion requires bounds", null);
+            break;
+          }
+          final List<SpatialIndex.Entry> entries = new ArrayList<>();
+          spatialIndex.search(Convert.toLatLngBounds(bounds), entries);
+          result.success(Convert.mapObjectsToJson(entries));
+          break;
+        }
+      case "map#nearest":
+        {
+          final Object position = call.argument("position");
+          final Integer count = call.argument("count");
+          if (position == null || count == null) {
+            result.error("Invalid arguments", "nearest requires a position and a count", null);
+            break;
+          }
+          final List<SpatialIndex.Entry> entries =
+              spatialIndex.nearest(Convert.toLatLng(position), count);
+          result.success(Convert.mapObjectsToJson(entries));
+          break;
+        }
+      case "map#getStats":
+        {
+          final Map<String, Object> data = new HashMap<>();
+          data.put("markerCount", markersController.getMarkerCount());
+          data.put("shownMarkerCount", markersController.getShownMarkerCount());
+          data.put("polygonCount", polygonsController.getPolygonCount());
+          data.put("polylineCount", polylinesController.getPolylineCount());
+          data.put("circleCount", circlesController.getCircleCount());
+          data.put("heatmapCount", heatmapsController.getHeatmapCount());
+          data.put("tileOverlayCount", tileOverlaysController.getTileOverlayCount());
+          data.put("clusterIconCount", markersController.getCachedClusterIconCount());
+          data.put("tileCacheBytes", tileOverlaysController.getCachedTileBytes());
+          data.put("heatmapTileCacheBytes", heatmapsController.getCachedTileBytes());
+          stats.toJson(data);
+          if (Boolean.TRUE.equals(call.argument("reset"))) {
+            stats.reset();
+          }
+          result.success(data);
+          break;
+        }
+      case "map#snapshot":
+        {
+          if (googleMap == null) {
+            result.error(
+                "GoogleMap uninitialized", "snapshot called prior to map initialization", null);
+            break;
+          }
+          final String key =
+              googleMap.getCameraPosition()
+                  + "\n"
+                  + googleMap.getMapType()
+                  + "\n"
+                  + mapView.getWidth()
+                  + "x"
+                  + mapView.getHeight()
+                  + "\n"
+                  + mapStyle;
+          // Same defaults as GoogleMapController.takeSnapshot on the Dart side.
+          final String format = call.argument("format");
+          final Integer quality = call.argument("quality");
+          final String path = call.argument("path");
+          // Moving markers aren't part of the key, and overlay tiles may still be loading.
+          final boolean cacheable =
+              !markersController.isAnimating()
+                  && tileOverlaysController.getTileOverlayCount() == 0
+                  && heatmapsController.getHeatmapCount() == 0;
+          snapshotter.snapshot(
+              googleMap,
+              key,
+              cacheable,
+              format != null ? format : "png",
+              quality != null ? quality : 100,
+              path,
+              result);
+          break;
+        }
+      case "map#shapesContaining":
+        {
+          final List<LatLng> points = Convert.toPoints(call.argument("points"));
+          final List<Object> shapes = new ArrayList<>(points.size());
+          final List<SpatialIndex.Entry> entries = new ArrayList<>();
+          for (LatLng point : points) {
+            entries.clear();
+            spatialIndex.searchContaining(point, entries);
+            shapes.add(Convert.mapObjectsToJson(entries));
+          }
+          result.success(shapes);
+          break;
+        }
+      case "map#distanceToPolyline":
+        {
+          final String polylineId = call.argument("polylineId");
+          final LatLng point = Convert.toLatLng(call.argument("point"));
+          final double distance = spatialIndex.distanceToPolyline(polylineId, point);
+          if (Double.isNaN(distance)) {
+            result.error("Unknown polyline", "No polyline with id " + polylineId, null);
+          } else {
+            result.success(distance);
+          }
+          break;
+        }
       case "map#getScreenCoordinate":
         {
           if (googleMap != null) {
@@ -282,6 +470,20 @@ final class GoogleMapController
           result.success(null);
           break;
         }
+      case "markers#animate":
+        {
+          Object animations = call.argument("animations");
+          markersController.animateMarkers((List<Object>) animations);
+          result.success(null);
+          break;
+        }
+      case "markers#stopAnimations":
+        {
+          Object markerIds = call.argument("markerIds");
+          markersController.stopMarkerAnimations((List<Object>) markerIds);
+          result.success(null);
+          break;
+        }
       case "polygons#update":
         {
           Object polygonsToAdd = call.argument("polygonsToAdd");
@@ -315,6 +517,80 @@ final class GoogleMapController
           result.success(null);
           break;
         }
+      case "heatmaps#update":
+        {
+          Object heatmapsToAdd = call.argument("heatmapsToAdd");
+          heatmapsController.addHeatmaps((List<Object>) heatmapsToAdd);
+          Object heatmapsToChange = call.argument("heatmapsToChange");
+          heatmapsController.changeHeatmaps((List<Object>) heatmapsToChange);
+          Object heatmapIdsToRemove = call.argument("heatmapIdsToRemove");
+          heatmapsController.removeHeatmaps((List<Object>) heatmapIdsToRemove);
+          result.success(null);
+          break;
+        }
+      case "tileOverlays#update":
+        {
+          Object tileOverlaysToAdd = call.argument("tileOverlaysToAdd");
+          tileOverlaysController.addTileOverlays((List<Object>) tileOverlaysToAdd);
+          Object tileOverlaysToChange = call.argument("tileOverlaysToChange");
+          tileOverlaysController.changeTileOverlays((List<Object>) tileOverlaysToChange);
+          Object tileOverlayIdsToRemove = call.argument("tileOverlayIdsToRemove");
+          tileOverlaysController.removeTileOverlays((List<Object>) tileOverlayIdsToRemove);
+          result.success(null);
+          break;
+        }
+      case "tileOverlays#clearTileCache":
+        {
+          String tileOverlayId = call.argument("tileOverlayId");
+          if (tileOverlaysController.clearTileCache(tileOverlayId)) {
+            result.success(null);
+          } else {
+            result.error(
+                "Unknown tile overlay", "No tile overlay with id " + tileOverlayId, null);
+          }
+          break;
+        }
+      case "tileOverlays#prefetchTiles":
+        {
+          String tileOverlayId = call.argument("tileOverlayId");
+          LatLngBounds bounds = Convert.toLatLngBounds(call.argument("bounds"));
+          Integer minZoom = call.argument("minZoom");
+          Integer maxZoom = call.argument("maxZoom");
+          if (bounds == null || minZoom == null || maxZoom == null) {
+            result.error(
+                "Invalid arguments",
+                "prefetchTiles requires bounds, a minZoom and a maxZoom",
+                null);
+            break;
+          }
+          if (TileOverlaysController.countTiles(bounds, minZoom, maxZoom) > MAX_PREFETCH_TILES) {
+            result.error(
+                "Too many tiles",
+                "prefetchTiles is limited to " + MAX_PREFETCH_TILES + " tiles",
+                null);
+            break;
+          }
+          final MethodChannel.Result prefetchResult = result;
+          final CachedTileProvider.PrefetchListener listener =
+              new CachedTileProvider.PrefetchListener() {
+                @Override
+                public void onPrefetchComplete(final int cachedTileCount) {
+                  mainHandler.post(
+                      new Runnable() {
+                        @Override
+                        public void run() {
+                          prefetchResult.success(cachedTileCount);
+                        }
+                      });
+                }
+              };
+          if (!tileOverlaysController.prefetchTiles(
+              tileOverlayId, bounds, minZoom, maxZoom, listener)) {
+            result.error(
+                "Unknown tile overlay", "No tile overlay with id " + tileOverlayId, null);
+          }
+          break;
+        }
       case "map#isCompassEnabled":
         {
           result.success(googleMap.getUiSettings().isCompassEnabled());
@@ -371,6 +647,8 @@ final class GoogleMapController
       case "map#setStyle":
         {
           String mapStyle = (String) call.arguments;
+          this.mapStyle = mapStyle;
+          snapshotter.clearCache();
           boolean mapStyleSet;
           if (mapStyle == null) {
             mapStyleSet = googleMap.setMapStyle(null);
@@ -391,6 +669,25 @@ final class GoogleMapController
     }
   }
 
+  // Returns whether the method reads or updates the markers, polygons, polylines or circles.
+  private static boolean usesMapObjects(String method) {
+    switch (method) {
+      case "map#queryRegion":
+      case "map#nearest":
+      case "map#shapesContaining":
+      case "map#distanceToPolyline":
+      case "markers#update":
+      case "markers#animate":
+      case "markers#stopAnimations":
+      case "polygons#update":
+      case "polylines#update":
+      case "circles#update":
+        return true;
+      default:
+        return false;
+    }
+  }
+
   @Override
   public void onMapClick(LatLng latLng) {
     final Map<String, Object> arguments = new HashMap<>(2);
@@ -420,16 +717,22 @@ final class GoogleMapController
 
   @Override
   public void onCameraMove() {
+    stats.recordCameraMove();
+    markersController.onCameraMove();
     if (!trackCameraPosition) {
       return;
     }
-    final Map<String, Object> arguments = new HashMap<>(2);
-    arguments.put("position", Convert.cameraPositionToJson(googleMap.getCameraPosition()));
-    methodChannel.invokeMethod("camera#onMove", arguments);
+    cameraMoveThrottler.onCameraMove(googleMap.getCameraPosition());
   }
 
   @Override
   public void onCameraIdle() {
+    markersController.onCameraIdle();
+    polygonsController.onCameraIdle();
+    polylinesController.onCameraIdle();
+    if (trackCameraPosition) {
+      cameraMoveThrottler.flush();
+    }
     methodChannel.invokeMethod("camera#onIdle", Collections.singletonMap("map", id));
   }
 
@@ -439,10 +742,14 @@ final class GoogleMapController
   }
 
   @Override
-  public void onMarkerDragStart(Marker marker) {}
+  public void onMarkerDragStart(Marker marker) {
+    markersController.onMarkerDragStart(marker.getId(), marker.getPosition());
+  }
 
   @Override
-  public void onMarkerDrag(Marker marker) {}
+  public void onMarkerDrag(Marker marker) {
+    markersController.onMarkerDrag(marker.getId(), marker.getPosition());
+  }
 
   @Override
   public void onMarkerDragEnd(Marker marker) {
@@ -470,7 +777,14 @@ final class GoogleMapController
       return;
     }
     disposed = true;
+    cameraMoveThrottler.cancel();
+    initialObjectsLoader.cancel();
+    eventBatcher.cancel();
+    snapshotter.dispose();
+    markersController.stopMarkerAnimations(null);
+    tileOverlaysController.dispose();
     methodChannel.setMethodCallHandler(null);
+    methodCallPipeline.dispose();
     mapView.onDestroy();
     registrar.activity().getApplication().unregisterActivityLifecycleCallbacks(this);
   }
@@ -684,6 +998,46 @@ final class GoogleMapController
     circlesController.addCircles(initialCircles);
   }
 
+  @Override
+  public void setInitialHeatmaps(Object initialHeatmaps) {
+    this.initialHeatmaps = (List<Object>) initialHeatmaps;
+    if (googleMap != null) {
+      updateInitialHeatmaps();
+    }
+  }
+
+  private void updateInitialHeatmaps() {
+    heatmapsController.addHeatmaps(initialHeatmaps);
+  }
+
+  @Override
+  public void setInitialTileOverlays(Object initialTileOverlays) {
+    this.initialTileOverlays = (List<Object>) initialTileOverlays;
+    if (googleMap != null) {
+      updateInitialTileOverlays();
+    }
+  }
+
+  private void updateInitialTileOverlays() {
+    tileOverlaysController.addTileOverlays(initialTileOverlays);
+  }
+
+  @Override
+  public void setMarkerClustering(MarkerClusteringOptions markerClustering) {
+    markersController.setClusteringOptions(markerClustering);
+  }
+
+  @Override
+  public void setMarkerCullingEnabled(boolean markerCullingEnabled) {
+    markersController.setCullingEnabled(markerCullingEnabled);
+  }
+
+  @Override
+  public void setCameraMoveThrottling(
+      int maxEventsPerSecond, float minZoomDelta, double minDistanceMeters) {
+    cameraMoveThrottler.setThrottling(maxEventsPerSecond, minZoomDelta, minDistanceMeters);
+  }
+
   @SuppressLint("MissingPermission")
   private void updateMyLocationSettings() {
     if (hasLocationPermission()) {
@@ -727,4 +1081,10 @@ final class GoogleMapController
   public void setBuildingsEnabled(boolean buildingsEnabled) {
     this.buildingsEnabled = buildingsEnabled;
   }
+
+  @Override
+  public void setLiteModeEnabled(boolean liteModeEnabled) {
+    // Reached only by map#update, which doesn't send unchanged options.
+    throw new IllegalArgumentException("liteModeEnabled can only be set when the map is created");
+  }
 }
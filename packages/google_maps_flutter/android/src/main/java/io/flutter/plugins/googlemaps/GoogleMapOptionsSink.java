@@ -38,6 +38,8 @@ interface GoogleMapOptionsSink {
 
   void setTrafficEnabled(boolean trafficEnabled);
 
+  void setLiteModeEnabled(boolean liteModeEnabled);
+
   void setBuildingsEnabled(boolean buildingsEnabled);
 
   void setInitialMarkers(Object initialMarkers);
@@ -47,4 +49,15 @@ interface GoogleMapOptionsSink {
   void setInitialPolylines(Object initialPolylines);
 
   void setInitialCircles(Object initialCircles);
+
+  void setInitialHeatmaps(Object initialHeatmaps);
+
+  void setInitialTileOverlays(Object initialTileOverlays);
+
+  void setMarkerClustering(MarkerClusteringOptions markerClustering);
+
+  void setMarkerCullingEnabled(boolean markerCullingEnabled);
+
+  void setCameraMoveThrottling(
+      int maxEventsPerSecond, float minZoomDelta, double minDistanceMeters);
 }
@@ -0,0 +1,60 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import com.google.android.gms.maps.model.TileOverlayOptions;
+
+class HeatmapBuilder implements HeatmapOptionsSink {
+  private final TileOverlayOptions tileOverlayOptions;
+  private final HeatmapTileProvider tileProvider;
+
+  HeatmapBuilder() {
+    this.tileProvider = new HeatmapTileProvider();
+    this.tileOverlayOptions = new TileOverlayOptions().tileProvider(tileProvider);
+  }
+
+  TileOverlayOptions build() {
+    return tileOverlayOptions;
+  }
+
+  HeatmapTileProvider getTileProvider() {
+    return tileProvider;
+  }
+
+  @Override
+  public void setData(double[] data) {
+    tileProvider.setData(data);
+  }
+
+  @Override
+  public void setGradient(int[] colors, float[] startPoints) {
+    tileProvider.setGradient(colors, startPoints);
+  }
+
+  @Override
+  public void setMaxIntensity(double maxIntensity) {
+    tileProvider.setMaxIntensity(maxIntensity);
+  }
+
+  @Override
+  public void setOpacity(float opacity) {
+    tileOverlayOptions.transparency(1 - opacity);
+  }
+
+  @Override
+  public void setRadius(int radius) {
+    tileProvider.setRadius(radius);
+  }
+
+  @Override
+  public void setVisible(boolean visible) {
+    tileOverlayOptions.visible(visible);
+  }
+
+  @Override
+  public void setZIndex(float zIndex) {
+    tileOverlayOptions.zIndex(zIndex);
+  }
+}
@@ -0,0 +1,68 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import com.google.android.gms.maps.model.TileOverlay;
+
+/** Controller of a single Heatmap on the map. */
+class HeatmapController implements HeatmapOptionsSink {
+  private final TileOverlay tileOverlay;
+  private final HeatmapTileProvider tileProvider;
+
+  HeatmapController(TileOverlay tileOverlay, HeatmapTileProvider tileProvider) {
+    this.tileOverlay = tileOverlay;
+    this.tileProvider = tileProvider;
+  }
+
+  void remove() {
+    tileOverlay.remove();
+  }
+
+  HeatmapTileProvider getTileProvider() {
+    return tileProvider;
+  }
+
+  /** Redraws the tiles if the options changed what they show. */
+  void refreshTiles() {
+    if (tileProvider.clearChanged()) {
+      tileOverlay.clearTileCache();
+    }
+  }
+
+  @Override
+  public void setData(double[] data) {
+    tileProvider.setData(data);
+  }
+
+  @Override
+  public void setGradient(int[] colors, float[] startPoints) {
+    tileProvider.setGradient(colors, startPoints);
+  }
+
+  @Override
+  public void setMaxIntensity(double maxIntensity) {
+    tileProvider.setMaxIntensity(maxIntensity);
+  }
+
+  @Override
+  public void setOpacity(float opacity) {
+    tileOverlay.setTransparency(1 - opacity);
+  }
+
+  @Override
+  public void setRadius(int radius) {
+    tileProvider.setRadius(radius);
+  }
+
+  @Override
+  public void setVisible(boolean visible) {
+    tileOverlay.setVisible(visible);
+  }
+
+  @Override
+  public void setZIndex(float zIndex) {
+    tileOverlay.setZIndex(zIndex);
+  }
+}
@@ -0,0 +1,25 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+/** Receiver of Heatmap configuration options. */
+interface HeatmapOptionsSink {
+
+  /** Sets the weighted points, packed as consecutive latitudes, longitudes and weights. */
+  void setData(double[] data);
+
+  void setGradient(int[] colors, float[] startPoints);
+
+  /** Sets the intensity shown with the last color of the gradient, or 0 to compute it. */
+  void setMaxIntensity(double maxIntensity);
+
+  void setOpacity(float opacity);
+
+  void setRadius(int radius);
+
+  void setVisible(boolean visible);
+
+  void setZIndex(float zIndex);
+}
@@ -0,0 +1,422 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import android.graphics.Bitmap;
+import android.util.LruCache;
+import com.google.android.gms.maps.model.Tile;
+import com.google.android.gms.maps.model.TileProvider;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Draws the tiles of a heatmap from weighted points.
+ *
+ * <p>The map requests tiles on background threads. The points are indexed in a k-d tree, and each
+ * tile is drawn by adding the weights of the nearby points into a grid of pixels that is blurred
+ * with a gaussian kernel, and then colored with the gradient.
+ */
+final class HeatmapTileProvider implements TileProvider {
+  private static final int TILE_SIZE = 256;
+  private static final int COLOR_MAP_SIZE = 1000;
+  private static final int MAX_ZOOM = 22;
+  private static final int TILE_CACHE_BYTES = 4 * 1024 * 1024;
+  private static final int DEFAULT_RADIUS = 20;
+  private static final int[] DEFAULT_COLORS = {0xff66e100, 0xffff0000};
+  private static final float[] DEFAULT_START_POINTS = {0.2f, 1f};
+
+  // Options, guarded by lock.
+  private final Object lock = new Object();
+  private double[] data = new double[0];
+  private int[] colors = DEFAULT_COLORS;
+  private float[] startPoints = DEFAULT_START_POINTS;
+  private double maxIntensity;
+  private int radius = DEFAULT_RADIUS;
+  // Whether the options changed what the tiles show since the last call to clearChanged.
+  private boolean changed;
+  // Draws the tiles for the current options, created when a tile is first requested.
+  private Renderer renderer;
+
+  void setData(double[] data) {
+    synchronized (lock) {
+      if (!Arrays.equals(this.data, data)) {
+        this.data = data;
+        invalidate();
+      }
+    }
+  }
+
+  void setGradient(int[] colors, float[] startPoints) {
+    synchronized (lock) {
+      if (!Arrays.equals(this.colors, colors) || !Arrays.equals(this.startPoints, startPoints)) {
+        this.colors = colors;
+        this.startPoints = startPoints;
+        invalidate();
+      }
+    }
+  }
+
+  void setMaxIntensity(double maxIntensity) {
+    synchronized (lock) {
+      if (this.maxIntensity != maxIntensity) {
+        this.maxIntensity = maxIntensity;
+        invalidate();
+      }
+    }
+  }
+
+  void setRadius(int radius) {
+    synchronized (lock) {
+      if (this.radius != radius) {
+        this.radius = radius;
+        invalidate();
+      }
+    }
+  }
+
+  /** Returns the size in bytes of the tiles drawn for the current options. */
+  int getCachedTileBytes() {
+    synchronized (lock) {
+      return renderer == null ? 0 : renderer.tiles.size();
+    }
+  }
+
+  /** Returns whether the tiles changed since the last call, and resets the change flag. */
+  boolean clearChanged() {
+    synchronized (lock) {
+      final boolean wasChanged = changed;
+      changed = false;
+      return wasChanged;
+    }
+  }
+
+  @Override
+  public Tile getTile(int x, int y, int zoom) {
+    final Renderer current;
+    synchronized (lock) {
+      if (renderer == null) {
+        renderer = new Renderer(data, colors, startPoints, radius, maxIntensity);
+      }
+      current = renderer;
+    }
+    return current.getTile(x, y, zoom);
+  }
+
+  private void invalidate() {
+    renderer = null;
+    changed = true;
+  }
+
+  /** Draws tiles for a fixed set of options. */
+  private static final class Renderer {
+    // Ranges of points at most this long aren't split in the k-d tree.
+    private static final int LEAF_SIZE = 8;
+
+    private final int count;
+    // Points in normalized Web Mercator coordinates, ordered as a k-d tree.
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] weights;
+    private final int[] colorMap;
+    private final int radius;
+    private final double[] kernel;
+    private final double maxIntensity;
+    // Estimated maximum intensity of each zoom level, computed on demand.
+    private final double[] zoomMaxIntensity = new double[MAX_ZOOM + 1];
+    private final LruCache<String, Tile> tiles =
+        new LruCache<String, Tile>(TILE_CACHE_BYTES) {
+          @Override
+          protected int sizeOf(String key, Tile tile) {
+            return tile.data == null ? 1 : tile.data.length;
+          }
+        };
+
+    Renderer(double[] data, int[] colors, float[] startPoints, int radius, double maxIntensity) {
+      count = data.length / 3;
+      xs = new double[count];
+      ys = new double[count];
+      weights = new double[count];
+      for (int i = 0; i < count; i++) {
+        ys[i] = SpatialIndex.latitudeToY(data[i * 3]);
+        xs[i] = SpatialIndex.longitudeToX(data[i * 3 + 1]);
+        weights[i] = data[i * 3 + 2];
+      }
+      buildTree(0, count, 0);
+      this.colorMap = createColorMap(colors, startPoints);
+      this.radius = Math.max(1, radius);
+      this.kernel = createKernel(this.radius);
+      this.maxIntensity = maxIntensity;
+      Arrays.fill(zoomMaxIntensity, Double.NaN);
+    }
+
+    Tile getTile(int x, int y, int zoom) {
+      final String key = zoom + "/" + x + "/" + y;
+      final Tile cached = tiles.get(key);
+      if (cached != null) {
+        return cached;
+      }
+      final Tile tile = drawTile(x, y, zoom);
+      tiles.put(key, tile);
+      return tile;
+    }
+
+    private Tile drawTile(int x, int y, int zoom) {
+      final int gridSize = TILE_SIZE + 2 * radius;
+      final double worldSize = TILE_SIZE * Math.pow(2, zoom);
+      final Grid grid =
+          new Grid(gridSize, x * TILE_SIZE - radius, y * TILE_SIZE - radius, worldSize);
+      final double minX = grid.originX / worldSize;
+      final double maxX = (grid.originX + gridSize) / worldSize;
+      final double minY = grid.originY / worldSize;
+      final double maxY = (grid.originY + gridSize) / worldSize;
+      addPoints(0, count, 0, minX, minY, maxX, maxY, 0, grid);
+      // Points across the antimeridian are drawn on the edge tiles of the other side.
+      if (minX < 0) {
+        addPoints(0, count, 0, minX + 1, minY, 1, maxY, -1, grid);
+      }
+      if (maxX > 1) {
+        addPoints(0, count, 0, 0, minY, maxX - 1, maxY, 1, grid);
+      }
+      if (!grid.hasPoints) {
+        return NO_TILE;
+      }
+
+      final double[] intensities = blur(grid.values, gridSize);
+      final double max = maxIntensity > 0 ? maxIntensity : getZoomMaxIntensity(zoom);
+      final int[] pixels = new int[TILE_SIZE * TILE_SIZE];
+      for (int i = 0; i < pixels.length; i++) {
+        final double intensity = intensities[i];
+        if (intensity > 0) {
+          final int index = (int) (intensity / max * (COLOR_MAP_SIZE - 1));
+          pixels[i] = colorMap[Math.min(index, COLOR_MAP_SIZE - 1)];
+        }
+      }
+      final Bitmap bitmap =
+          Bitmap.createBitmap(pixels, TILE_SIZE, TILE_SIZE, Bitmap.Config.ARGB_8888);
+      final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+      bitmap.compress(Bitmap.CompressFormat.PNG, 100, stream);
+      bitmap.recycle();
+      return new Tile(TILE_SIZE, TILE_SIZE, stream.toByteArray());
+    }
+
+    // Blurs the grid, returning the intensities of the pixels of the tile at its center.
+    private double[] blur(double[] values, int gridSize) {
+      // Horizontal pass, spreading the non-empty cells of every row.
+      final double[] rows = new double[gridSize * TILE_SIZE];
+      for (int row = 0; row < gridSize; row++) {
+        for (int column = 0; column < gridSize; column++) {
+          final double value = values[row * gridSize + column];
+          if (value == 0) {
+            continue;
+          }
+          final int first = Math.max(0, column - 2 * radius);
+          final int last = Math.min(TILE_SIZE - 1, column);
+          for (int target = first; target <= last; target++) {
+            rows[row * TILE_SIZE + target] += value * kernel[column - target];
+          }
+        }
+      }
+      // Vertical pass.
+      final double[] result = new double[TILE_SIZE * TILE_SIZE];
+      for (int row = 0; row < TILE_SIZE; row++) {
+        for (int k = 0; k <= 2 * radius; k++) {
+          final double factor = kernel[k];
+          final int source = (row + k) * TILE_SIZE;
+          final int target = row * TILE_SIZE;
+          for (int column = 0; column < TILE_SIZE; column++) {
+            result[target + column] += rows[source + column] * factor;
+          }
+        }
+      }
+      return result;
+    }
+
+    /**
+     * Estimates the maximum intensity at {@code zoom} as the largest total weight of the points
+     * inside a cell of the size of the radius.
+     */
+    private double getZoomMaxIntensity(int zoom) {
+      final int level = Math.max(0, Math.min(MAX_ZOOM, zoom));
+      synchronized (zoomMaxIntensity) {
+        if (Double.isNaN(zoomMaxIntensity[level])) {
+          final double cellsPerSide = Math.ceil(TILE_SIZE * Math.pow(2, level) / radius);
+          final Map<Long, Double> cellWeights = new HashMap<>();
+          double max = 0;
+          for (int i = 0; i < count; i++) {
+            final long column = (long) Math.min(cellsPerSide - 1, xs[i] * cellsPerSide);
+            final long row = (long) Math.min(cellsPerSide - 1, ys[i] * cellsPerSide);
+            final Long cell = row * (long) cellsPerSide + column;
+            final Double previous = cellWeights.get(cell);
+            final double weight = (previous == null ? 0 : previous) + weights[i];
+            cellWeights.put(cell, weight);
+            max = Math.max(max, weight);
+          }
+          zoomMaxIntensity[level] = max > 0 ? max : 1;
+        }
+        return zoomMaxIntensity[level];
+      }
+    }
+
+    // Adds to the grid the points of [lo, hi) inside the bounds, shifted by offsetX worlds.
+    private void addPoints(
+        int lo,
+        int hi,
+        int depth,
+        double minX,
+        double minY,
+        double maxX,
+        double maxY,
+        double offsetX,
+        Grid grid) {
+      if (hi - lo <= LEAF_SIZE) {
+        for (int i = lo; i < hi; i++) {
+          if (xs[i] >= minX && xs[i] <= maxX && ys[i] >= minY && ys[i] <= maxY) {
+            grid.add(xs[i] + offsetX, ys[i], weights[i]);
+          }
+        }
+        return;
+      }
+      final int mid = (lo + hi) >>> 1;
+      final boolean splitX = depth % 2 == 0;
+      final double split = splitX ? xs[mid] : ys[mid];
+      final double min = splitX ? minX : minY;
+      final double max = splitX ? maxX : maxY;
+      if (xs[mid] >= minX && xs[mid] <= maxX && ys[mid] >= minY && ys[mid] <= maxY) {
+        grid.add(xs[mid] + offsetX, ys[mid], weights[mid]);
+      }
+      if (min <= split) {
+        addPoints(lo, mid, depth + 1, minX, minY, maxX, maxY, offsetX, grid);
+      }
+      if (max >= split) {
+        addPoints(mid + 1, hi, depth + 1, minX, minY, maxX, maxY, offsetX, grid);
+      }
+    }
+
+    // Orders [lo, hi) so that each range's median splits it on alternating axes.
+    private void buildTree(int lo, int hi, int depth) {
+      if (hi - lo <= LEAF_SIZE) {
+        return;
+      }
+      final int mid = (lo + hi) >>> 1;
+      select(lo, hi - 1, mid, depth % 2 == 0 ? xs : ys);
+      buildTree(lo, mid, depth + 1);
+      buildTree(mid + 1, hi, depth + 1);
+    }
+
+    // Moves the k-th smallest value of keys[left..right] to k, smaller values before it and larger
+    // ones after it.
+    private void select(int left, int right, int k, double[] keys) {
+      while (left < right) {
+        final double pivot = keys[(left + right) >>> 1];
+        int i = left;
+        int j = right;
+        while (i <= j) {
+          while (keys[i] < pivot) {
+            i++;
+          }
+          while (keys[j] > pivot) {
+            j--;
+          }
+          if (i <= j) {
+            swap(i++, j--);
+          }
+        }
+        if (k <= j) {
+          right = j;
+        } else if (k >= i) {
+          left = i;
+        } else {
+          return;
+        }
+      }
+    }
+
+    private void swap(int i, int j) {
+      final double x = xs[i];
+      xs[i] = xs[j];
+      xs[j] = x;
+      final double y = ys[i];
+      ys[i] = ys[j];
+      ys[j] = y;
+      final double weight = weights[i];
+      weights[i] = weights[j];
+      weights[j] = weight;
+    }
+  }
+
+  /** The weights of the points around a tile, binned into pixels. */
+  private static final class Grid {
+    final double[] values;
+    final int size;
+    // Position of the first pixel, in pixels of the world.
+    final double originX;
+    final double originY;
+    final double worldSize;
+    boolean hasPoints;
+
+    Grid(int size, double originX, double originY, double worldSize) {
+      this.values = new double[size * size];
+      this.size = size;
+      this.originX = originX;
+      this.originY = originY;
+      this.worldSize = worldSize;
+    }
+
+    void add(double x, double y, double weight) {
+      final int column = (int) (x * worldSize - originX);
+      final int row = (int) (y * worldSize - originY);
+      if (column >= 0 && column < size && row >= 0 && row < size && weight > 0) {
+        values[row * size + column] += weight;
+        hasPoints = true;
+      }
+    }
+  }
+
+  // Gaussian kernel with a peak of 1, so that a single point reaches its own weight.
+  private static double[] createKernel(int radius) {
+    final double[] kernel = new double[2 * radius + 1];
+    final double sigma = radius / 3.0;
+    for (int i = -radius; i <= radius; i++) {
+      kernel[i + radius] = Math.exp(-i * i / (2 * sigma * sigma));
+    }
+    return kernel;
+  }
+
+  // Maps intensities to colors. Intensities below the first start point fade in to its color.
+  private static int[] createColorMap(int[] colors, float[] startPoints) {
+    final int[] colorMap = new int[COLOR_MAP_SIZE];
+    int segment = 0;
+    for (int i = 0; i < COLOR_MAP_SIZE; i++) {
+      final float fraction = i / (float) (COLOR_MAP_SIZE - 1);
+      while (segment < startPoints.length - 1 && fraction >= startPoints[segment + 1]) {
+        segment++;
+      }
+      if (fraction < startPoints[0]) {
+        final int alpha = (int) ((colors[0] >>> 24) * fraction / startPoints[0]);
+        colorMap[i] = (alpha << 24) | (colors[0] & 0xffffff);
+      } else if (segment == startPoints.length - 1) {
+        colorMap[i] = colors[segment];
+      } else {
+        final float t =
+            (fraction - startPoints[segment])
+                / (startPoints[segment + 1] - startPoints[segment]);
+        colorMap[i] = interpolateColor(colors[segment], colors[segment + 1], t);
+      }
+    }
+    return colorMap;
+  }
+
+  private static int interpolateColor(int from, int to, float t) {
+    int color = 0;
+    for (int shift = 0; shift < 32; shift += 8) {
+      final int a = (from >>> shift) & 0xff;
+      final int b = (to >>> shift) & 0xff;
+      color |= Math.round(a + (b - a) * t) << shift;
+    }
+    return color;
+  }
+}
@@ -0,0 +1,221 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import android.view.Choreographer;
+import com.google.android.gms.maps.model.LatLng;
+import com.google.android.gms.maps.model.LatLngBounds;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Adds the initial markers, polygons, polylines and circles of a map over several frames, so that
+ * the first frame of the map isn't delayed by large sets of objects.
+ *
+ * <p>The objects in the visible region are added first. Every frame adds objects in chunks until
+ * its time budget is spent, and the sink is notified once all the objects have been added.
+ */
+final class InitialObjectsLoader implements Choreographer.FrameCallback {
+  static final int TYPE_MARKER = 0;
+  static final int TYPE_POLYGON = 1;
+  static final int TYPE_POLYLINE = 2;
+  static final int TYPE_CIRCLE = 3;
+  // Number of objects added at once, between two checks of the time budget.
+  private static final int CHUNK_SIZE = 25;
+  private static final long FRAME_BUDGET_NANOS = 8000000;
+  // Maximum number of points of a shape checked against the visible region.
+  private static final int MAX_CHECKED_POINTS = 64;
+
+  /** Adds the objects to the map. */
+  interface Sink {
+    void addObjects(int type, List<Object> objects);
+
+    void onObjectsLoaded();
+  }
+
+  private final Sink sink;
+  // Objects waiting to be added, in order, and their types.
+  private Object[] queue = new Object[0];
+  private int[] queueTypes = new int[0];
+  private int nextIndex;
+  private boolean frameScheduled;
+  private boolean loading;
+
+  InitialObjectsLoader(Sink sink) {
+    this.sink = sink;
+  }
+
+  /**
+   * Starts adding the given objects, the ones in {@code visibleRegion} first. Objects that are
+   * still pending from a previous load are added right away.
+   *
+   * @param visibleRegion the visible region of the map, or null to keep the given order.
+   */
+  void load(
+      List<Object> markers,
+      List<Object> polygons,
+      List<Object> polylines,
+      List<Object> circles,
+      LatLngBounds visibleRegion) {
+    flush();
+    final List<Object> visible = new ArrayList<>();
+    final List<Object> hidden = new ArrayList<>();
+    final List<Integer> visibleTypes = new ArrayList<>();
+    final List<Integer> hiddenTypes = new ArrayList<>();
+    final List<?>[] objectsByType = {markers, polygons, polylines, circles};
+    for (int type = 0; type < objectsByType.length; type++) {
+      if (objectsByType[type] == null) {
+        continue;
+      }
+      for (Object object : objectsByType[type]) {
+        if (object == null) {
+          continue;
+        }
+        if (visibleRegion == null || isVisible(type, object, visibleRegion)) {
+          visible.add(object);
+          visibleTypes.add(type);
+        } else {
+          hidden.add(object);
+          hiddenTypes.add(type);
+        }
+      }
+    }
+    queue = new Object[visible.size() + hidden.size()];
+    queueTypes = new int[queue.length];
+    int index = 0;
+    for (int i = 0; i < visible.size(); i++, index++) {
+      queue[index] = visible.get(i);
+      queueTypes[index] = visibleTypes.get(i);
+    }
+    for (int i = 0; i < hidden.size(); i++, index++) {
+      queue[index] = hidden.get(i);
+      queueTypes[index] = hiddenTypes.get(i);
+    }
+    nextIndex = 0;
+    loading = true;
+    scheduleFrame();
+  }
+
+  /** Returns whether some objects haven't been added yet. */
+  boolean isLoading() {
+    return loading;
+  }
+
+  /** Adds all the pending objects right away. */
+  void flush() {
+    if (!loading) {
+      return;
+    }
+    cancelFrame();
+    addObjects(queue.length);
+    finish();
+  }
+
+  /** Drops the pending objects without notifying the sink. */
+  void cancel() {
+    cancelFrame();
+    queue = new Object[0];
+    queueTypes = new int[0];
+    loading = false;
+  }
+
+  @Override
+  public void doFrame(long frameTimeNanos) {
+    frameScheduled = false;
+    final long start = System.nanoTime();
+    while (nextIndex < queue.length && System.nanoTime() - start < FRAME_BUDGET_NANOS) {
+      addObjects(Math.min(queue.length, nextIndex + CHUNK_SIZE));
+    }
+    if (nextIndex < queue.length) {
+      scheduleFrame();
+    } else {
+      finish();
+    }
+  }
+
+  // Adds the queued objects up to end, excluded, grouped by type.
+  private void addObjects(int end) {
+    while (nextIndex < end) {
+      final int type = queueTypes[nextIndex];
+      final List<Object> objects = new ArrayList<>();
+      while (nextIndex < end && queueTypes[nextIndex] == type) {
+        objects.add(queue[nextIndex]);
+        queue[nextIndex] = null;
+        nextIndex++;
+      }
+      sink.addObjects(type, objects);
+    }
+  }
+
+  private void finish() {
+    queue = new Object[0];
+    queueTypes = new int[0];
+    nextIndex = 0;
+    loading = false;
+    sink.onObjectsLoaded();
+  }
+
+  private void scheduleFrame() {
+    if (!frameScheduled) {
+      frameScheduled = true;
+      Choreographer.getInstance().postFrameCallback(this);
+    }
+  }
+
+  private void cancelFrame() {
+    if (frameScheduled) {
+      frameScheduled = false;
+      Choreographer.getInstance().removeFrameCallback(this);
+    }
+  }
+
+  private static boolean isVisible(int type, Object object, LatLngBounds visibleRegion) {
+    final Map<?, ?> data = (Map<?, ?>) object;
+    try {
+      switch (type) {
+        case TYPE_MARKER:
+          return contains(visibleRegion, data.get("position"));
+        case TYPE_CIRCLE:
+          return contains(visibleRegion, data.get("center"));
+        default:
+          return containsAnyPoint(visibleRegion, data.get("points"));
+      }
+    } catch (RuntimeException e) {
+      // Malformed options are reported when the object is added.
+      return true;
+    }
+  }
+
+  private static boolean contains(LatLngBounds bounds, Object position) {
+    return position == null || bounds.contains(Convert.toLatLng(position));
+  }
+
+  // Checks up to MAX_CHECKED_POINTS points evenly spread over the shape.
+  private static boolean containsAnyPoint(LatLngBounds bounds, Object points) {
+    if (points == null) {
+      return true;
+    }
+    if (points instanceof double[]) {
+      final double[] data = (double[]) points;
+      final int count = data.length / 2;
+      final int step = Math.max(1, count / MAX_CHECKED_POINTS);
+      for (int i = 0; i < count; i += step) {
+        if (bounds.contains(new LatLng(data[2 * i], data[2 * i + 1]))) {
+          return true;
+        }
+      }
+      return false;
+    }
+    final List<?> data = (List<?>) points;
+    final int step = Math.max(1, data.size() / MAX_CHECKED_POINTS);
+    for (int i = 0; i < data.size(); i += step) {
+      if (contains(bounds, data.get(i))) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
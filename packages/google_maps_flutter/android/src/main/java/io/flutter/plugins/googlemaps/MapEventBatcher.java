@@ -0,0 +1,88 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import android.view.Choreographer;
+import com.google.android.gms.maps.model.LatLng;
+import io.flutter.plugin.common.MethodChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends the tap and drag events of map objects to Dart in a single {@code map#onEvents} call per
+ * frame.
+ *
+ * <p>Each event is a list of the name of the event, the id of the object and, for drag events,
+ * the latitude and longitude of the marker. The drag events of a marker that are sent in the same
+ * frame are coalesced into its latest position.
+ */
+final class MapEventBatcher implements Choreographer.FrameCallback {
+  private final MethodChannel methodChannel;
+  private List<Object> events = new ArrayList<>();
+  // The marker#onDrag event of each marker, updated in place until the batch is sent or another
+  // event of the marker is added after it.
+  private final Map<String, List<Object>> markerIdToDragEvent = new HashMap<>();
+  private boolean frameScheduled;
+
+  MapEventBatcher(MethodChannel methodChannel) {
+    this.methodChannel = methodChannel;
+  }
+
+  /** Adds an event without position, such as {@code polygon#onTap}. */
+  void add(String event, String objectId) {
+    markerIdToDragEvent.remove(objectId);
+    addEvent(Arrays.<Object>asList(event, objectId));
+  }
+
+  /** Adds an event of a marker with its position, such as {@code marker#onDragEnd}. */
+  void add(String event, String markerId, LatLng position) {
+    markerIdToDragEvent.remove(markerId);
+    addEvent(Arrays.<Object>asList(event, markerId, position.latitude, position.longitude));
+  }
+
+  /** Adds a {@code marker#onDrag} event, replacing the pending one of the marker if any. */
+  void addDrag(String markerId, LatLng position) {
+    final List<Object> pending = markerIdToDragEvent.get(markerId);
+    if (pending != null) {
+      pending.set(2, position.latitude);
+      pending.set(3, position.longitude);
+      return;
+    }
+    final List<Object> event =
+        Arrays.<Object>asList("marker#onDrag", markerId, position.latitude, position.longitude);
+    markerIdToDragEvent.put(markerId, event);
+    addEvent(event);
+  }
+
+  /** Drops the pending events. */
+  void cancel() {
+    if (frameScheduled) {
+      frameScheduled = false;
+      Choreographer.getInstance().removeFrameCallback(this);
+    }
+    events = new ArrayList<>();
+    markerIdToDragEvent.clear();
+  }
+
+  @Override
+  public void doFrame(long frameTimeNanos) {
+    frameScheduled = false;
+    final List<Object> batch = events;
+    events = new ArrayList<>();
+    markerIdToDragEvent.clear();
+    methodChannel.invokeMethod("map#onEvents", batch);
+  }
+
+  private void addEvent(List<Object> event) {
+    events.add(event);
+    if (!frameScheduled) {
+      frameScheduled = true;
+      Choreographer.getInstance().postFrameCallback(this);
+    }
+  }
+}
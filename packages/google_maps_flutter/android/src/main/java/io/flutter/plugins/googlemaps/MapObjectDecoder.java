@@ -0,0 +1,117 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Does the expensive parts of interpreting map object updates, which don't need the map, so that
+ * they can run on a background thread.
+ *
+ * <p>The arguments of an update are copied into immutable maps in which the icons sent as bytes
+ * are replaced by {@link MarkerIcon}s, decoded ahead of time, the points of polylines and polygons
+ * by {@link PreparedPoints}, and the holes of polygons by lists of {@link
+ * com.google.android.gms.maps.model.LatLng}s. The {@link Convert} methods and the controllers
+ * accept both forms.
+ */
+final class MapObjectDecoder {
+
+  private MapObjectDecoder() {}
+
+  /** Returns whether the arguments of {@code method} can be decoded. */
+  static boolean canDecode(String method) {
+    switch (method) {
+      case "markers#update":
+      case "polygons#update":
+      case "polylines#update":
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /** Returns the decoded arguments of an update, for a method for which canDecode is true. */
+  static Object decode(String method, Object arguments) {
+    final Map<?, ?> updates = (Map<?, ?>) arguments;
+    final Map<Object, Object> result = new HashMap<>(updates);
+    switch (method) {
+      case "markers#update":
+        result.put("markersToAdd", decodeMarkers(updates.get("markersToAdd")));
+        result.put("markersToChange", decodeMarkers(updates.get("markersToChange")));
+        break;
+      case "polygons#update":
+        result.put("polygonsToAdd", decodeShapes(updates.get("polygonsToAdd"), true));
+        result.put("polygonsToChange", decodeShapes(updates.get("polygonsToChange"), true));
+        break;
+      case "polylines#update":
+        result.put("polylinesToAdd", decodeShapes(updates.get("polylinesToAdd"), false));
+        result.put("polylinesToChange", decodeShapes(updates.get("polylinesToChange"), false));
+        break;
+      default:
+        throw new IllegalArgumentException("Cannot decode " + method);
+    }
+    return Collections.unmodifiableMap(result);
+  }
+
+  private static List<Object> decodeMarkers(Object markers) {
+    if (markers == null) {
+      return null;
+    }
+    final List<?> markerList = (List<?>) markers;
+    final List<Object> result = new ArrayList<>(markerList.size());
+    // Markers of the same icon share it.
+    final Map<MarkerIcon, MarkerIcon> icons = new HashMap<>();
+    for (Object marker : markerList) {
+      if (marker == null) {
+        result.add(null);
+        continue;
+      }
+      final Map<Object, Object> decoded = new HashMap<Object, Object>((Map<?, ?>) marker);
+      final Object icon = decoded.get("icon");
+      if (icon instanceof List && "fromBytes".equals(((List<?>) icon).get(0))) {
+        final MarkerIcon markerIcon = MarkerIcon.fromBytes((List<?>) icon);
+        MarkerIcon sharedIcon = icons.get(markerIcon);
+        if (sharedIcon == null) {
+          sharedIcon = markerIcon;
+          icons.put(markerIcon, markerIcon);
+          markerIcon.prefetch();
+        }
+        decoded.put("icon", sharedIcon);
+      }
+      result.add(Collections.unmodifiableMap(decoded));
+    }
+    return Collections.unmodifiableList(result);
+  }
+
+  private static List<Object> decodeShapes(Object shapes, boolean closed) {
+    if (shapes == null) {
+      return null;
+    }
+    final List<?> shapeList = (List<?>) shapes;
+    final List<Object> result = new ArrayList<>(shapeList.size());
+    for (Object shape : shapeList) {
+      if (shape == null) {
+        result.add(null);
+        continue;
+      }
+      final Map<Object, Object> decoded = new HashMap<Object, Object>((Map<?, ?>) shape);
+      final Object points = decoded.get("points");
+      if (points != null) {
+        final boolean simplify = Boolean.TRUE.equals(decoded.get("simplify"));
+        decoded.put("points", PreparedPoints.prepare(points, simplify, closed));
+      }
+      final Object holes = decoded.get("holes");
+      if (holes != null) {
+        decoded.put("holes", Convert.toHoles(holes));
+      }
+      result.add(Collections.unmodifiableMap(decoded));
+    }
+    return Collections.unmodifiableList(result);
+  }
+}
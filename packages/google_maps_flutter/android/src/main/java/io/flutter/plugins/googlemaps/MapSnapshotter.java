@@ -0,0 +1,175 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import android.graphics.Bitmap;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.LruCache;
+import com.google.android.gms.maps.GoogleMap;
+import io.flutter.plugin.common.MethodChannel;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Takes snapshots of a map and encodes them on a background thread.
+ *
+ * <p>Encoded snapshots are cached by a key describing what the map shows, such as its camera
+ * position and style, so that taking the same snapshot again doesn't render the map. The cache is
+ * cleared whenever the objects or options of the map change, and on every frame of a marker
+ * animation.
+ */
+final class MapSnapshotter {
+  private static final int CACHE_BYTES = 4 * 1024 * 1024;
+
+  private final ExecutorService executor = Executors.newSingleThreadExecutor();
+  private final Handler mainHandler = new Handler(Looper.getMainLooper());
+  // Accessed on the main thread and on the executor.
+  private final LruCache<String, byte[]> cache =
+      new LruCache<String, byte[]>(CACHE_BYTES) {
+        @Override
+        protected int sizeOf(String key, byte[] value) {
+          return value.length;
+        }
+      };
+  // Incremented when the cache is cleared, so that snapshots taken before aren't cached.
+  private volatile int generation;
+
+  /**
+   * Takes a snapshot of {@code googleMap}, and sends to {@code result} the encoded image, or the
+   * path of the file it was written to if {@code path} isn't null.
+   *
+   * @param key describes what the map shows, excluding the format of the snapshot.
+   * @param cacheable whether the snapshot may be read from and written to the cache.
+   */
+  void snapshot(
+      GoogleMap googleMap,
+      String key,
+      final boolean cacheable,
+      String format,
+      int quality,
+      final String path,
+      final MethodChannel.Result result) {
+    final Bitmap.CompressFormat compressFormat = toCompressFormat(format);
+    final int clampedQuality = Math.max(0, Math.min(100, quality));
+    final String cacheKey = key + "\n" + compressFormat + "\n" + clampedQuality;
+    final int snapshotGeneration = generation;
+    final byte[] cached = cacheable ? cache.get(cacheKey) : null;
+    if (cached != null) {
+      if (path == null) {
+        result.success(cached);
+      } else {
+        execute(
+            new Runnable() {
+              @Override
+              public void run() {
+                write(cached, path, result);
+              }
+            },
+            result);
+      }
+      return;
+    }
+    googleMap.snapshot(
+        new GoogleMap.SnapshotReadyCallback() {
+          @Override
+          public void onSnapshotReady(final Bitmap bitmap) {
+            if (bitmap == null) {
+              result.error("Snapshot failed", "The map couldn't be rendered", null);
+              return;
+            }
+            execute(
+                new Runnable() {
+                  @Override
+                  public void run() {
+                    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+                    bitmap.compress(compressFormat, clampedQuality, output);
+                    bitmap.recycle();
+                    final byte[] data = output.toByteArray();
+                    if (cacheable && snapshotGeneration == generation) {
+                      cache.put(cacheKey, data);
+                    }
+                    if (path == null) {
+                      postSuccess(result, data);
+                    } else {
+                      write(data, path, result);
+                    }
+                  }
+                },
+                result);
+          }
+        });
+  }
+
+  void clearCache() {
+    generation++;
+    cache.evictAll();
+  }
+
+  void dispose() {
+    executor.shutdownNow();
+    cache.evictAll();
+  }
+
+  private void execute(Runnable runnable, MethodChannel.Result result) {
+    try {
+      executor.execute(runnable);
+    } catch (RejectedExecutionException e) {
+      result.error("Snapshot failed", "The map was disposed", null);
+    }
+  }
+
+  // Writes the snapshot to a file, on the executor.
+  private void write(byte[] data, String path, final MethodChannel.Result result) {
+    final File file = new File(path);
+    final File parent = file.getParentFile();
+    if (parent != null) {
+      parent.mkdirs();
+    }
+    try {
+      final FileOutputStream output = new FileOutputStream(file);
+      try {
+        output.write(data);
+      } finally {
+        output.close();
+      }
+      postSuccess(result, file.getAbsolutePath());
+    } catch (final IOException e) {
+      mainHandler.post(
+          new Runnable() {
+            @Override
+            public void run() {
+              result.error("Snapshot failed", e.getMessage(), null);
+            }
+          });
+    }
+  }
+
+  private void postSuccess(final MethodChannel.Result result, final Object value) {
+    mainHandler.post(
+        new Runnable() {
+          @Override
+          public void run() {
+            result.success(value);
+          }
+        });
+  }
+
+  private static Bitmap.CompressFormat toCompressFormat(String format) {
+    switch (format) {
+      case "png":
+        return Bitmap.CompressFormat.PNG;
+      case "jpeg":
+        return Bitmap.CompressFormat.JPEG;
+      default:
+        throw new IllegalArgumentException("Unknown snapshot format " + format);
+    }
+  }
+}
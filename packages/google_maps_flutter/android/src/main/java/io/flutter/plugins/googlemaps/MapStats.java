@@ -0,0 +1,87 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import android.os.SystemClock;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Performance counters of a map, returned by {@code map#getStats}.
+ *
+ * <p>Method calls are recorded from the decoding thread and the main thread, so all the counters
+ * are guarded by the instance.
+ */
+final class MapStats {
+
+  private static final class MethodStats {
+    int count;
+    long decodeNanos;
+    long applyNanos;
+    long maxApplyNanos;
+  }
+
+  private final Map<String, MethodStats> methodToStats = new HashMap<>();
+  private long startTimeMs = SystemClock.uptimeMillis();
+  // Camera moves reported by the map, and camera#onMove events sent after throttling.
+  private int cameraMoveCount;
+  private int cameraMoveEventCount;
+
+  /** Records the time spent decoding the arguments of a call off the main thread. */
+  synchronized void recordDecode(String method, long nanos) {
+    getMethodStats(method).decodeNanos += nanos;
+  }
+
+  /** Records the time spent handling a call on the main thread. */
+  synchronized void recordApply(String method, long nanos) {
+    final MethodStats stats = getMethodStats(method);
+    stats.count++;
+    stats.applyNanos += nanos;
+    stats.maxApplyNanos = Math.max(stats.maxApplyNanos, nanos);
+  }
+
+  synchronized void recordCameraMove() {
+    cameraMoveCount++;
+  }
+
+  synchronized void recordCameraMoveEvent() {
+    cameraMoveEventCount++;
+  }
+
+  /** Returns the counters recorded since the last reset, to which {@code data} is added. */
+  synchronized Map<String, Object> toJson(Map<String, Object> data) {
+    final Map<String, Object> methodCalls = new HashMap<>();
+    for (Map.Entry<String, MethodStats> entry : methodToStats.entrySet()) {
+      final MethodStats stats = entry.getValue();
+      final Map<String, Object> json = new HashMap<>(4);
+      json.put("count", stats.count);
+      json.put("decodeMicros", stats.decodeNanos / 1000);
+      json.put("applyMicros", stats.applyNanos / 1000);
+      json.put("maxApplyMicros", stats.maxApplyNanos / 1000);
+      methodCalls.put(entry.getKey(), json);
+    }
+    data.put("durationMs", SystemClock.uptimeMillis() - startTimeMs);
+    data.put("methodCalls", methodCalls);
+    data.put("cameraMoves", cameraMoveCount);
+    data.put("cameraMoveEvents", cameraMoveEventCount);
+    return data;
+  }
+
+  synchronized void reset() {
+    methodToStats.clear();
+    startTimeMs = SystemClock.uptimeMillis();
+    cameraMoveCount = 0;
+    cameraMoveEventCount = 0;
+  }
+
+  private MethodStats getMethodStats(String method) {
+    MethodStats stats = methodToStats.get(method);
+    if (stats == null) {
+      stats = new MethodStats();
+      methodToStats.put(method, stats);
+    }
+    return stats;
+  }
+}
@@ -0,0 +1,201 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import android.view.Choreographer;
+import com.google.android.gms.maps.model.LatLng;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves markers along paths on every frame, driven by the {@link Choreographer} of the main thread.
+ *
+ * <p>Positions are interpolated at a constant speed in Web Mercator coordinates, so markers move
+ * along straight lines on the map.
+ */
+final class MarkerAnimator implements Choreographer.FrameCallback {
+
+  /** Receives the animated positions of the markers. */
+  interface Listener {
+    /** Called for every animated marker on every frame, with a null rotation if not animated. */
+    void onMarkerAnimated(String markerId, LatLng position, Float rotation);
+
+    /** Called after a frame in which animations were updated, listing the ones that ended. */
+    void onAnimationFrameEnd(List<String> endedMarkerIds);
+  }
+
+  private final Listener listener;
+  private final Map<String, Animation> markerIdToAnimation = new LinkedHashMap<>();
+  private boolean frameScheduled;
+
+  MarkerAnimator(Listener listener) {
+    this.listener = listener;
+  }
+
+  /**
+   * Starts moving a marker from {@code position} along {@code path}, replacing its current
+   * animation.
+   *
+   * @param rotation the rotation at the end of the animation, or null to keep the rotation.
+   * @param rotateAlongPath whether the marker is rotated to face the direction of the path.
+   */
+  void animate(
+      String markerId,
+      LatLng position,
+      float startRotation,
+      List<LatLng> path,
+      long durationMs,
+      Float rotation,
+      boolean rotateAlongPath) {
+    markerIdToAnimation.put(
+        markerId,
+        new Animation(position, startRotation, path, durationMs, rotation, rotateAlongPath));
+    if (!frameScheduled) {
+      frameScheduled = true;
+      Choreographer.getInstance().postFrameCallback(this);
+    }
+  }
+
+  /** Stops the animations of the given markers, leaving them where they are. */
+  void stop(List<String> markerIds) {
+    for (String markerId : markerIds) {
+      markerIdToAnimation.remove(markerId);
+    }
+    if (markerIdToAnimation.isEmpty()) {
+      cancel();
+    }
+  }
+
+  /** Stops all the animations. */
+  void stopAll() {
+    markerIdToAnimation.clear();
+    cancel();
+  }
+
+  boolean isAnimating(String markerId) {
+    return markerIdToAnimation.containsKey(markerId);
+  }
+
+  /** Returns whether any marker is being animated. */
+  boolean isAnimating() {
+    return !markerIdToAnimation.isEmpty();
+  }
+
+  @Override
+  public void doFrame(long frameTimeNanos) {
+    frameScheduled = false;
+    final List<String> endedMarkerIds = new ArrayList<>();
+    final Iterator<Map.Entry<String, Animation>> iterator =
+        markerIdToAnimation.entrySet().iterator();
+    while (iterator.hasNext()) {
+      final Map.Entry<String, Animation> entry = iterator.next();
+      final Animation animation = entry.getValue();
+      if (animation.startTimeNanos < 0) {
+        animation.startTimeNanos = frameTimeNanos;
+      }
+      final double fraction =
+          animation.durationNanos > 0
+              ? Math.min(1, (frameTimeNanos - animation.startTimeNanos) / animation.durationNanos)
+              : 1;
+      animation.update(fraction);
+      listener.onMarkerAnimated(entry.getKey(), animation.position, animation.rotation);
+      if (fraction >= 1) {
+        endedMarkerIds.add(entry.getKey());
+        iterator.remove();
+      }
+    }
+    listener.onAnimationFrameEnd(endedMarkerIds);
+    if (!markerIdToAnimation.isEmpty()) {
+      frameScheduled = true;
+      Choreographer.getInstance().postFrameCallback(this);
+    }
+  }
+
+  private void cancel() {
+    if (frameScheduled) {
+      frameScheduled = false;
+      Choreographer.getInstance().removeFrameCallback(this);
+    }
+  }
+
+  private static final class Animation {
+    // Vertices of the path in Web Mercator coordinates, starting at the position of the marker.
+    // Longitudes are unwrapped so that each segment takes the shortest way around the world.
+    private final double[] xs;
+    private final double[] ys;
+    // Distance from the start of the path to each vertex.
+    private final double[] distances;
+    private final double durationNanos;
+    private final float startRotation;
+    private final Float endRotation;
+    private final boolean rotateAlongPath;
+    private long startTimeNanos = -1;
+    private int segment;
+    LatLng position;
+    Float rotation;
+
+    Animation(
+        LatLng start,
+        float startRotation,
+        List<LatLng> path,
+        long durationMs,
+        Float endRotation,
+        boolean rotateAlongPath) {
+      final int count = path.size() + 1;
+      xs = new double[count];
+      ys = new double[count];
+      distances = new double[count];
+      xs[0] = SpatialIndex.longitudeToX(start.longitude);
+      ys[0] = SpatialIndex.latitudeToY(start.latitude);
+      for (int i = 1; i < count; i++) {
+        final LatLng point = path.get(i - 1);
+        double x = SpatialIndex.longitudeToX(point.longitude);
+        x += Math.rint(xs[i - 1] - x);
+        xs[i] = x;
+        ys[i] = SpatialIndex.latitudeToY(point.latitude);
+        distances[i] = distances[i - 1] + Math.hypot(xs[i] - xs[i - 1], ys[i] - ys[i - 1]);
+      }
+      this.durationNanos = durationMs * 1e6;
+      this.startRotation = startRotation;
+      this.endRotation = endRotation;
+      this.rotateAlongPath = rotateAlongPath;
+      this.position = start;
+    }
+
+    void update(double fraction) {
+      final int last = xs.length - 1;
+      final double distance = distances[last] * fraction;
+      while (segment < last - 1 && distances[segment + 1] < distance) {
+        segment++;
+      }
+      double x = xs[last];
+      double y = ys[last];
+      if (fraction < 1 && last > 0) {
+        final double length = distances[segment + 1] - distances[segment];
+        final double t = length > 0 ? (distance - distances[segment]) / length : 1;
+        x = xs[segment] + (xs[segment + 1] - xs[segment]) * t;
+        y = ys[segment] + (ys[segment + 1] - ys[segment]) * t;
+      }
+      x -= Math.floor(x);
+      position = new LatLng(SpatialIndex.yToLatitude(y), (x - 0.5) * 360);
+
+      if (rotateAlongPath && last > 0) {
+        final double dx = xs[segment + 1] - xs[segment];
+        final double dy = ys[segment + 1] - ys[segment];
+        if (dx != 0 || dy != 0) {
+          // The y axis points south, and rotations are clockwise from north.
+          rotation = (float) ((Math.toDegrees(Math.atan2(dx, -dy)) + 360) % 360);
+        }
+      } else if (endRotation != null) {
+        // Rotates the shortest way.
+        final float delta = ((endRotation - startRotation) % 360 + 540) % 360 - 180;
+        rotation = (float) ((startRotation + delta * fraction + 360) % 360);
+      }
+    }
+  }
+}
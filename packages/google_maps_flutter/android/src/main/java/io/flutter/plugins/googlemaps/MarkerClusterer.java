@@ -0,0 +1,102 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import com.google.android.gms.maps.model.LatLng;
+import com.google.android.gms.maps.model.LatLngBounds;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Groups markers that are close to each other on screen into clusters.
+ *
+ * <p>The world is divided into a grid of square cells of {@link MarkerClusteringOptions#gridSize}
+ * density independent pixels at the current zoom level, and every cell holding at least {@link
+ * MarkerClusteringOptions#minClusterSize} markers becomes a cluster.
+ */
+final class MarkerClusterer {
+
+  /** A group of markers shown as a single cluster marker. */
+  static final class Cluster {
+    // Identifies the cluster across recomputations, so that unchanged clusters are kept on the map.
+    final String key;
+    final LatLng position;
+    final List<MarkerItem> items;
+
+    Cluster(String key, LatLng position, List<MarkerItem> items) {
+      this.key = key;
+      this.position = position;
+      this.items = items;
+    }
+  }
+
+  /** The clusters and individual markers to show for a camera position. */
+  static final class Result {
+    final List<Cluster> clusters = new ArrayList<>();
+    final List<MarkerItem> singles = new ArrayList<>();
+  }
+
+  // Size in density independent pixels of the whole world at zoom level 0.
+  private static final double WORLD_SIZE = 256;
+
+  private MarkerClusterer() {}
+
+  /** Clusters the {@code items} inside {@code bounds} as seen at zoom level {@code zoom}. */
+  static Result cluster(
+      Iterable<MarkerItem> items,
+      LatLngBounds bounds,
+      float zoom,
+      MarkerClusteringOptions options) {
+    final Result result = new Result();
+    if (zoom > options.maxZoom) {
+      for (MarkerItem item : items) {
+        if (bounds.contains(item.position)) {
+          result.singles.add(item);
+        }
+      }
+      return result;
+    }
+
+    // The grid is aligned to whole zoom levels so that clusters stay stable while zooming within
+    // a level.
+    final int gridZoom = (int) Math.floor(zoom);
+    final double cellSize = options.gridSize / (WORLD_SIZE * Math.pow(2, gridZoom));
+    final Map<Long, List<MarkerItem>> cells = new HashMap<>();
+    for (MarkerItem item : items) {
+      if (!bounds.contains(item.position)) {
+        continue;
+      }
+      final long cellX = (long) Math.floor(item.x / cellSize);
+      final long cellY = (long) Math.floor(item.y / cellSize);
+      final Long cellKey = (cellX << 32) | cellY;
+      List<MarkerItem> cell = cells.get(cellKey);
+      if (cell == null) {
+        cell = new ArrayList<>();
+        cells.put(cellKey, cell);
+      }
+      cell.add(item);
+    }
+
+    for (Map.Entry<Long, List<MarkerItem>> entry : cells.entrySet()) {
+      final List<MarkerItem> cell = entry.getValue();
+      if (cell.size() < options.minClusterSize) {
+        result.singles.addAll(cell);
+        continue;
+      }
+      double latitude = 0;
+      double longitude = 0;
+      for (MarkerItem item : cell) {
+        latitude += item.position.latitude;
+        longitude += item.position.longitude;
+      }
+      final LatLng centroid = new LatLng(latitude / cell.size(), longitude / cell.size());
+      final String key = gridZoom + "/" + entry.getKey() + "/" + cell.size();
+      result.clusters.add(new Cluster(key, centroid, cell));
+    }
+    return result;
+  }
+}
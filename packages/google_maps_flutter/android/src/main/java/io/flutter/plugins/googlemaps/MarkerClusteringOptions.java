@@ -0,0 +1,91 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import java.util.Arrays;
+import java.util.List;
+
+/** Configuration of the marker clustering of a map. */
+final class MarkerClusteringOptions {
+  static final MarkerClusteringOptions DISABLED =
+      new MarkerClusteringOptions(false, 60, 4, 20, 0xff2196f3, 0xffffffff, null);
+
+  final boolean enabled;
+  final float gridSize;
+  final int minClusterSize;
+  final float maxZoom;
+  final int color;
+  final int textColor;
+  // Raw icon data, converted lazily as bitmap descriptors can only be created once the map is
+  // ready.
+  final Object icon;
+
+  MarkerClusteringOptions(
+      boolean enabled,
+      float gridSize,
+      int minClusterSize,
+      float maxZoom,
+      int color,
+      int textColor,
+      Object icon) {
+    this.enabled = enabled;
+    this.gridSize = gridSize;
+    this.minClusterSize = minClusterSize;
+    this.maxZoom = maxZoom;
+    this.color = color;
+    this.textColor = textColor;
+    this.icon = icon;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    MarkerClusteringOptions that = (MarkerClusteringOptions) o;
+    return enabled == that.enabled
+        && gridSize == that.gridSize
+        && minClusterSize == that.minClusterSize
+        && maxZoom == that.maxZoom
+        && color == that.color
+        && textColor == that.textColor
+        && iconEquals(icon, that.icon);
+  }
+
+  @Override
+  public int hashCode() {
+    int result = enabled ? 1 : 0;
+    result = 31 * result + Float.floatToIntBits(gridSize);
+    result = 31 * result + minClusterSize;
+    result = 31 * result + Float.floatToIntBits(maxZoom);
+    result = 31 * result + color;
+    result = 31 * result + textColor;
+    return result;
+  }
+
+  // Icons may hold the bytes of an image, which List.equals would compare by identity.
+  private static boolean iconEquals(Object a, Object b) {
+    if (a instanceof byte[] && b instanceof byte[]) {
+      return Arrays.equals((byte[]) a, (byte[]) b);
+    }
+    if (a instanceof List && b instanceof List) {
+      final List<?> listA = (List<?>) a;
+      final List<?> listB = (List<?>) b;
+      if (listA.size() != listB.size()) {
+        return false;
+      }
+      for (int i = 0; i < listA.size(); i++) {
+        if (!iconEquals(listA.get(i), listB.get(i))) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return a == null ? b == null : a.equals(b);
+  }
+}
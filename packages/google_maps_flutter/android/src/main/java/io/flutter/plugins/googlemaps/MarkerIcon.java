@@ -0,0 +1,83 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import android.graphics.Bitmap;
+import android.util.LruCache;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The encoded image of a {@code fromBytes} marker icon, equal to the icons of the same bytes.
+ *
+ * <p>Markers keep their icon encoded, and the decoded bitmaps are shared through a cache bounded in
+ * bytes, so that markers which aren't shown, because of culling or clustering, don't each hold a
+ * bitmap.
+ */
+final class MarkerIcon {
+  private static final int CACHE_BYTES = 8 * 1024 * 1024;
+
+  private static final LruCache<MarkerIcon, Bitmap> bitmapCache =
+      new LruCache<MarkerIcon, Bitmap>(CACHE_BYTES) {
+        @Override
+        protected int sizeOf(MarkerIcon key, Bitmap value) {
+          return value.getByteCount();
+        }
+      };
+
+  private final byte[] bytes;
+  private final int hashCode;
+
+  private MarkerIcon(byte[] bytes) {
+    this.bytes = bytes;
+    this.hashCode = Arrays.hashCode(bytes);
+  }
+
+  /** Returns the icon of the arguments of a {@code fromBytes} bitmap descriptor. */
+  static MarkerIcon fromBytes(List<?> data) {
+    if (data.size() != 2) {
+      throw new IllegalArgumentException(
+          "fromBytes should have exactly one argument, the bytes. Got: " + data.size());
+    }
+    return new MarkerIcon((byte[]) data.get(1));
+  }
+
+  /** Returns the decoded icon, decoding it if it isn't cached, on any thread. */
+  Bitmap getBitmap() {
+    Bitmap bitmap = bitmapCache.get(this);
+    if (bitmap == null) {
+      bitmap = Convert.decodeBitmapFromBytes(Arrays.asList("fromBytes", bytes));
+      bitmapCache.put(this, bitmap);
+    }
+    return bitmap;
+  }
+
+  /**
+   * Decodes the icon ahead of {@link #getBitmap} if the cache has room for it, so that the main
+   * thread usually finds it decoded.
+   */
+  void prefetch() {
+    if (bitmapCache.size() < bitmapCache.maxSize()) {
+      getBitmap();
+    }
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof MarkerIcon)) {
+      return false;
+    }
+    final MarkerIcon other = (MarkerIcon) o;
+    return hashCode == other.hashCode && Arrays.equals(bytes, other.bytes);
+  }
+
+  @Override
+  public int hashCode() {
+    return hashCode;
+  }
+}
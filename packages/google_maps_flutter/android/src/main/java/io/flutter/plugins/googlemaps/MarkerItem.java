@@ -0,0 +1,35 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import com.google.android.gms.maps.model.LatLng;
+
+/**
+ * A marker known to the {@link MarkersController}, whether or not it is currently added to the
+ * map.
+ */
+final class MarkerItem {
+  final String markerId;
+  // The options of the marker as sent over the method channel.
+  Object data;
+  LatLng position;
+  // Rotation set by an animation, overriding the one of the options, or null.
+  Float rotation;
+  // Position of the marker in normalized Web Mercator coordinates, both in [0, 1].
+  double x;
+  double y;
+
+  MarkerItem(String markerId, Object data, LatLng position) {
+    this.markerId = markerId;
+    this.data = data;
+    setPosition(position);
+  }
+
+  void setPosition(LatLng position) {
+    this.position = position;
+    this.x = SpatialIndex.longitudeToX(position.longitude);
+    this.y = SpatialIndex.latitudeToY(position.latitude);
+  }
+}
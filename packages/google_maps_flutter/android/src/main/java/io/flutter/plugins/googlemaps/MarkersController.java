@@ -4,37 +4,121 @@
 
 package io.flutter.plugins.googlemaps;
 
+import android.os.SystemClock;
 import com.google.android.gms.maps.GoogleMap;
+import com.google.android.gms.maps.model.BitmapDescriptor;
 import com.google.android.gms.maps.model.LatLng;
+import com.google.android.gms.maps.model.LatLngBounds;
 import com.google.android.gms.maps.model.Marker;
 import com.google.android.gms.maps.model.MarkerOptions;
 import io.flutter.plugin.common.MethodChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
-class MarkersController {
+class MarkersController implements MarkerAnimator.Listener {
+  // Minimum time between two updates of the visible markers while the camera moves.
+  private static final long CULLING_INTERVAL_MS = 200;
 
+  // All the markers set by the Dart side, including the ones hidden in clusters.
+  private final Map<String, MarkerItem> markerIdToItem;
+  private final SpatialIndex spatialIndex;
+  // The markers currently added to the map.
   private final Map<String, MarkerController> markerIdToController;
   private final Map<String, String> googleMapsMarkerIdToDartMarkerId;
+  private final Map<String, Marker> clusterKeyToMarker;
+  private final Map<String, MarkerClusterer.Cluster> googleMapsMarkerIdToCluster;
   private final MethodChannel methodChannel;
+  private final MapEventBatcher eventBatcher;
+  private final ClusterIconGenerator clusterIconGenerator;
+  private final MarkerAnimator markerAnimator;
+  private final MapSnapshotter snapshotter;
+  private MarkerClusteringOptions clusteringOptions = MarkerClusteringOptions.DISABLED;
+  private BitmapDescriptor clusterIcon;
+  private boolean cullingEnabled;
+  private long lastVisibleMarkersUpdateTime;
   private GoogleMap googleMap;
 
-  MarkersController(MethodChannel methodChannel) {
+  MarkersController(
+      MethodChannel methodChannel,
+      MapEventBatcher eventBatcher,
+      SpatialIndex spatialIndex,
+      MapSnapshotter snapshotter,
+      float density) {
+    this.markerIdToItem = new HashMap<>();
+    this.spatialIndex = spatialIndex;
     this.markerIdToController = new HashMap<>();
     this.googleMapsMarkerIdToDartMarkerId = new HashMap<>();
+    this.clusterKeyToMarker = new HashMap<>();
+    this.googleMapsMarkerIdToCluster = new HashMap<>();
     this.methodChannel = methodChannel;
+    this.eventBatcher = eventBatcher;
+    this.clusterIconGenerator = new ClusterIconGenerator(density);
+    this.markerAnimator = new MarkerAnimator(this);
+    this.snapshotter = snapshotter;
   }
 
   void setGoogleMap(GoogleMap googleMap) {
     this.googleMap = googleMap;
   }
 
+  /** Returns the number of markers, including the ones not added to the map. */
+  int getMarkerCount() {
+    return markerIdToItem.size();
+  }
+
+  /** Returns whether any marker is being animated. */
+  boolean isAnimating() {
+    return markerAnimator.isAnimating();
+  }
+
+  /** Returns the number of markers and cluster markers added to the map. */
+  int getShownMarkerCount() {
+    return markerIdToController.size() + clusterKeyToMarker.size();
+  }
+
+  int getCachedClusterIconCount() {
+    return clusterIconGenerator.getCachedIconCount();
+  }
+
+  void setClusteringOptions(MarkerClusteringOptions clusteringOptions) {
+    if (this.clusteringOptions.equals(clusteringOptions)) {
+      return;
+    }
+    this.clusteringOptions = clusteringOptions;
+    this.clusterIcon = null;
+    clusterIconGenerator.setColors(clusteringOptions.color, clusteringOptions.textColor);
+    if (googleMap == null) {
+      return;
+    }
+    // The cluster icons may have changed, so the cluster markers are always recreated.
+    removeClusterMarkers();
+    updateVisibleMarkers();
+  }
+
+  void setCullingEnabled(boolean cullingEnabled) {
+    if (this.cullingEnabled == cullingEnabled) {
+      return;
+    }
+    this.cullingEnabled = cullingEnabled;
+    if (googleMap != null) {
+      updateVisibleMarkers();
+    }
+  }
+
   void addMarkers(List<Object> markersToAdd) {
     if (markersToAdd != null) {
       for (Object markerToAdd : markersToAdd) {
         addMarker(markerToAdd);
       }
+      if (!markersToAdd.isEmpty() && isLimitingVisibleMarkers()) {
+        updateVisibleMarkers();
+      }
     }
   }
 
@@ -43,6 +127,9 @@ class MarkersController {
       for (Object markerToChange : markersToChange) {
         changeMarker(markerToChange);
       }
+      if (!markersToChange.isEmpty() && isLimitingVisibleMarkers()) {
+        updateVisibleMarkers();
+      }
     }
   }
 
@@ -55,20 +142,110 @@ class MarkersController {
         continue;
       }
       String markerId = (String) rawMarkerId;
-      final MarkerController markerController = markerIdToController.remove(markerId);
-      if (markerController != null) {
-        markerController.remove();
-        googleMapsMarkerIdToDartMarkerId.remove(markerController.getGoogleMapsMarkerId());
+      markerAnimator.stop(Collections.singletonList(markerId));
+      markerIdToItem.remove(markerId);
+      spatialIndex.remove(SpatialIndex.TYPE_MARKER, markerId);
+      hideMarker(markerId);
+    }
+    if (!markerIdsToRemove.isEmpty() && isLimitingVisibleMarkers()) {
+      updateVisibleMarkers();
+    }
+  }
+
+  void animateMarkers(List<Object> animations) {
+    for (Object rawAnimation : animations) {
+      final Map<?, ?> animation = (Map<?, ?>) rawAnimation;
+      final String markerId = (String) animation.get("markerId");
+      final MarkerItem item = markerIdToItem.get(markerId);
+      if (item == null) {
+        continue;
       }
+      final Object rotation = animation.get("rotation");
+      final Object rotateAlongPath = animation.get("rotateAlongPath");
+      markerAnimator.animate(
+          markerId,
+          item.position,
+          getItemRotation(item),
+          Convert.toPoints(animation.get("path")),
+          ((Number) animation.get("durationMs")).longValue(),
+          rotation != null ? ((Number) rotation).floatValue() : null,
+          rotateAlongPath != null && (Boolean) rotateAlongPath);
+    }
+  }
+
+  /** Stops the animations of the given markers, or of all markers if {@code markerIds} is null. */
+  void stopMarkerAnimations(List<Object> markerIds) {
+    if (markerIds == null) {
+      markerAnimator.stopAll();
+      return;
+    }
+    final List<String> ids = new ArrayList<>(markerIds.size());
+    for (Object markerId : markerIds) {
+      ids.add((String) markerId);
+    }
+    markerAnimator.stop(ids);
+  }
+
+  @Override
+  public void onMarkerAnimated(String markerId, LatLng position, Float rotation) {
+    final MarkerItem item = markerIdToItem.get(markerId);
+    if (item == null) {
+      return;
+    }
+    setItemPosition(item, position);
+    if (rotation != null) {
+      item.rotation = rotation;
+    }
+    final MarkerController markerController = markerIdToController.get(markerId);
+    if (markerController != null) {
+      markerController.setPosition(position);
+      if (rotation != null) {
+        markerController.setRotation(rotation);
+      }
+    }
+  }
+
+  @Override
+  public void onAnimationFrameEnd(List<String> endedMarkerIds) {
+    // The markers moved, so snapshots taken before this frame no longer show the map.
+    snapshotter.clearCache();
+    // Markers moving in or out of the visible region or of clusters are updated periodically.
+    if (googleMap != null
+        && isLimitingVisibleMarkers()
+        && (!endedMarkerIds.isEmpty()
+            || SystemClock.uptimeMillis() - lastVisibleMarkersUpdateTime
+                >= CULLING_INTERVAL_MS)) {
+      updateVisibleMarkers();
+    }
+  }
+
+  void onCameraMove() {
+    if (!cullingEnabled || clusteringOptions.enabled) {
+      return;
+    }
+    final long now = SystemClock.uptimeMillis();
+    if (now - lastVisibleMarkersUpdateTime >= CULLING_INTERVAL_MS) {
+      updateVisibleMarkers();
+    }
+  }
+
+  void onCameraIdle() {
+    if (isLimitingVisibleMarkers()) {
+      updateVisibleMarkers();
     }
   }
 
   boolean onMarkerTap(String googleMarkerId) {
+    MarkerClusterer.Cluster cluster = googleMapsMarkerIdToCluster.get(googleMarkerId);
+    if (cluster != null) {
+      methodChannel.invokeMethod("cluster#onTap", clusterToJson(cluster));
+      return false;
+    }
     String markerId = googleMapsMarkerIdToDartMarkerId.get(googleMarkerId);
     if (markerId == null) {
       return false;
     }
-    methodChannel.invokeMethod("marker#onTap", Convert.markerIdToJson(markerId));
+    eventBatcher.add("marker#onTap", markerId);
     MarkerController markerController = markerIdToController.get(markerId);
     if (markerController != null) {
       return markerController.consumeTapEvents();
@@ -76,15 +253,30 @@ class MarkersController {
     return false;
   }
 
+  void onMarkerDragStart(String googleMarkerId, LatLng latLng) {
+    String markerId = googleMapsMarkerIdToDartMarkerId.get(googleMarkerId);
+    if (markerId != null) {
+      eventBatcher.add("marker#onDragStart", markerId, latLng);
+    }
+  }
+
+  void onMarkerDrag(String googleMarkerId, LatLng latLng) {
+    String markerId = googleMapsMarkerIdToDartMarkerId.get(googleMarkerId);
+    if (markerId != null) {
+      eventBatcher.addDrag(markerId, latLng);
+    }
+  }
+
   void onMarkerDragEnd(String googleMarkerId, LatLng latLng) {
     String markerId = googleMapsMarkerIdToDartMarkerId.get(googleMarkerId);
     if (markerId == null) {
       return;
     }
-    final Map<String, Object> data = new HashMap<>();
-    data.put("markerId", markerId);
-    data.put("position", Convert.latLngToJson(latLng));
-    methodChannel.invokeMethod("marker#onDragEnd", data);
+    MarkerItem item = markerIdToItem.get(markerId);
+    if (item != null) {
+      setItemPosition(item, latLng);
+    }
+    eventBatcher.add("marker#onDragEnd", markerId, latLng);
   }
 
   void onInfoWindowTap(String googleMarkerId) {
@@ -92,17 +284,19 @@ class MarkersController {
     if (markerId == null) {
       return;
     }
-    methodChannel.invokeMethod("infoWindow#onTap", Convert.markerIdToJson(markerId));
+    eventBatcher.add("infoWindow#onTap", markerId);
   }
 
   private void addMarker(Object marker) {
     if (marker == null) {
       return;
     }
-    MarkerBuilder markerBuilder = new MarkerBuilder();
-    String markerId = Convert.interpretMarkerOptions(marker, markerBuilder);
-    MarkerOptions options = markerBuilder.build();
-    addMarker(markerId, options, markerBuilder.consumeTapEvents());
+    MarkerItem item = new MarkerItem(getMarkerId(marker), marker, getMarkerPosition(marker));
+    markerIdToItem.put(item.markerId, item);
+    spatialIndex.putPoint(SpatialIndex.TYPE_MARKER, item.markerId, item.position);
+    if (!isLimitingVisibleMarkers()) {
+      showMarker(item);
+    }
   }
 
   private void addMarker(String markerId, MarkerOptions markerOptions, boolean consumeTapEvents) {
@@ -117,15 +311,190 @@ class MarkersController {
       return;
     }
     String markerId = getMarkerId(marker);
+    MarkerItem item = markerIdToItem.get(markerId);
+    if (item == null) {
+      return;
+    }
+    item.data = marker;
+    // A running animation sets the position and rotation again on the next frame.
+    item.rotation = null;
+    setItemPosition(item, getMarkerPosition(marker));
     MarkerController markerController = markerIdToController.get(markerId);
     if (markerController != null) {
       Convert.interpretMarkerOptions(marker, markerController);
     }
   }
 
+  private void showMarker(MarkerItem item) {
+    MarkerBuilder markerBuilder = new MarkerBuilder();
+    Convert.interpretMarkerOptions(item.data, markerBuilder);
+    // The position may have been changed by dragging since the options were sent.
+    markerBuilder.setPosition(item.position);
+    if (item.rotation != null) {
+      markerBuilder.setRotation(item.rotation);
+    }
+    addMarker(item.markerId, markerBuilder.build(), markerBuilder.consumeTapEvents());
+  }
+
+  private void hideMarker(String markerId) {
+    final MarkerController markerController = markerIdToController.remove(markerId);
+    if (markerController != null) {
+      markerController.remove();
+      googleMapsMarkerIdToDartMarkerId.remove(markerController.getGoogleMapsMarkerId());
+    }
+  }
+
+  private void setItemPosition(MarkerItem item, LatLng position) {
+    if (position.equals(item.position)) {
+      return;
+    }
+    item.setPosition(position);
+    spatialIndex.putPoint(SpatialIndex.TYPE_MARKER, item.markerId, position);
+  }
+
+  private static float getItemRotation(MarkerItem item) {
+    if (item.rotation != null) {
+      return item.rotation;
+    }
+    final Object rotation = ((Map<?, ?>) item.data).get("rotation");
+    return rotation != null ? ((Number) rotation).floatValue() : 0;
+  }
+
+  // True if only some of the markers are added to the map.
+  private boolean isLimitingVisibleMarkers() {
+    return clusteringOptions.enabled || cullingEnabled;
+  }
+
+  private void updateVisibleMarkers() {
+    if (googleMap == null) {
+      return;
+    }
+    lastVisibleMarkersUpdateTime = SystemClock.uptimeMillis();
+    if (clusteringOptions.enabled) {
+      updateClusters();
+    } else if (cullingEnabled) {
+      showOnly(searchMarkers(getSearchBounds()));
+    } else {
+      showOnly(markerIdToItem.values());
+    }
+  }
+
+  // Adds the given markers to the map, and removes all the others.
+  private void showOnly(Collection<MarkerItem> items) {
+    final Set<String> visibleMarkerIds = new HashSet<>();
+    for (MarkerItem item : items) {
+      visibleMarkerIds.add(item.markerId);
+      if (!markerIdToController.containsKey(item.markerId)) {
+        showMarker(item);
+      }
+    }
+    for (String markerId : new ArrayList<>(markerIdToController.keySet())) {
+      if (!visibleMarkerIds.contains(markerId)) {
+        hideMarker(markerId);
+      }
+    }
+  }
+
+  private List<MarkerItem> searchMarkers(LatLngBounds bounds) {
+    final List<SpatialIndex.Entry> entries = new ArrayList<>();
+    spatialIndex.search(bounds, entries);
+    final List<MarkerItem> items = new ArrayList<>(entries.size());
+    for (SpatialIndex.Entry entry : entries) {
+      if (entry.type.equals(SpatialIndex.TYPE_MARKER)) {
+        items.add(markerIdToItem.get(entry.id));
+      }
+    }
+    return items;
+  }
+
+  private void updateClusters() {
+    final LatLngBounds bounds = getSearchBounds();
+    final MarkerClusterer.Result result =
+        MarkerClusterer.cluster(
+            searchMarkers(bounds), bounds, googleMap.getCameraPosition().zoom, clusteringOptions);
+    showOnly(result.singles);
+
+    // Cluster markers that are still valid are kept on the map to avoid flickering.
+    final Map<String, Marker> clusterMarkers = new HashMap<>();
+    for (MarkerClusterer.Cluster cluster : result.clusters) {
+      Marker marker = clusterKeyToMarker.remove(cluster.key);
+      if (marker == null) {
+        marker = googleMap.addMarker(toClusterMarkerOptions(cluster));
+      } else {
+        marker.setPosition(cluster.position);
+      }
+      clusterMarkers.put(cluster.key, marker);
+      googleMapsMarkerIdToCluster.put(marker.getId(), cluster);
+    }
+    removeClusterMarkers();
+    clusterKeyToMarker.putAll(clusterMarkers);
+  }
+
+  private void removeClusterMarkers() {
+    for (Marker marker : clusterKeyToMarker.values()) {
+      googleMapsMarkerIdToCluster.remove(marker.getId());
+      marker.remove();
+    }
+    clusterKeyToMarker.clear();
+  }
+
+  private MarkerOptions toClusterMarkerOptions(MarkerClusterer.Cluster cluster) {
+    final MarkerOptions options = new MarkerOptions().position(cluster.position);
+    if (clusteringOptions.icon != null) {
+      if (clusterIcon == null) {
+        clusterIcon = Convert.toBitmapDescriptor(clusteringOptions.icon);
+      }
+      return options.icon(clusterIcon).title(String.valueOf(cluster.items.size()));
+    }
+    return options
+        .icon(clusterIconGenerator.getIcon(cluster.items.size()))
+        .anchor(0.5f, 0.5f);
+  }
+
+  private static Object clusterToJson(MarkerClusterer.Cluster cluster) {
+    final List<Object> markerIds = new ArrayList<>(cluster.items.size());
+    for (MarkerItem item : cluster.items) {
+      markerIds.add(item.markerId);
+    }
+    final Map<String, Object> data = new HashMap<>(2);
+    data.put("position", Convert.latLngToJson(cluster.position));
+    data.put("markerIds", markerIds);
+    return data;
+  }
+
+  private LatLngBounds getSearchBounds() {
+    return expandBounds(googleMap.getProjection().getVisibleRegion().latLngBounds);
+  }
+
+  // Markers are added for a margin around the visible region so that small camera moves don't
+  // reveal empty or unclustered areas before the markers are updated.
+  private static LatLngBounds expandBounds(LatLngBounds bounds) {
+    final double latitudeMargin = (bounds.northeast.latitude - bounds.southwest.latitude) / 4;
+    double longitudeSpan = bounds.northeast.longitude - bounds.southwest.longitude;
+    if (longitudeSpan < 0) {
+      longitudeSpan += 360;
+    }
+    final double longitudeMargin = longitudeSpan / 4;
+    final double south = Math.max(-90, bounds.southwest.latitude - latitudeMargin);
+    final double north = Math.min(90, bounds.northeast.latitude + latitudeMargin);
+    if (longitudeSpan + 2 * longitudeMargin >= 360) {
+      return new LatLngBounds(new LatLng(south, -180), new LatLng(north, 179.999999));
+    }
+    return new LatLngBounds(
+        new LatLng(south, bounds.southwest.longitude - longitudeMargin),
+        new LatLng(north, bounds.northeast.longitude + longitudeMargin));
+  }
+
   @SuppressWarnings("unchecked")
   private static String getMarkerId(Object marker) {
     Map<String, Object> markerMap = (Map<String, Object>) marker;
     return (String) markerMap.get("markerId");
   }
+
+  @SuppressWarnings("unchecked")
+  private static LatLng getMarkerPosition(Object marker) {
+    Map<String, Object> markerMap = (Map<String, Object>) marker;
+    final Object position = markerMap.get("position");
+    return position != null ? Convert.toLatLng(position) : new LatLng(0, 0);
+  }
 }
@@ -0,0 +1,135 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import android.os.Handler;
+import android.os.Looper;
+import io.flutter.plugin.common.MethodCall;
+import io.flutter.plugin.common.MethodChannel;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Handles method calls on the main thread, in the order they are received, after decoding the
+ * arguments of map object updates on a background thread.
+ *
+ * <p>While an update is being decoded, the calls received after it wait for it to be handled. The
+ * time spent in both stages is recorded in the {@link MapStats} of the map.
+ */
+final class MethodCallPipeline implements MethodChannel.MethodCallHandler {
+  private final MethodChannel.MethodCallHandler handler;
+  private final MapStats stats;
+  // A single thread, so that the decoded calls are posted back in order.
+  private final ExecutorService decodeExecutor;
+  private final Executor mainThreadExecutor;
+  // Number of calls waiting to be handled, only accessed on the main thread.
+  private int pendingCallCount;
+  private boolean disposed;
+
+  MethodCallPipeline(MethodChannel.MethodCallHandler handler, MapStats stats) {
+    this(
+        handler,
+        stats,
+        Executors.newSingleThreadExecutor(),
+        new Executor() {
+          private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+          @Override
+          public void execute(Runnable command) {
+            mainHandler.post(command);
+          }
+        });
+  }
+
+  // Visible for testing.
+  MethodCallPipeline(
+      MethodChannel.MethodCallHandler handler,
+      MapStats stats,
+      ExecutorService decodeExecutor,
+      Executor mainThreadExecutor) {
+    this.handler = handler;
+    this.stats = stats;
+    this.decodeExecutor = decodeExecutor;
+    this.mainThreadExecutor = mainThreadExecutor;
+  }
+
+  @Override
+  public void onMethodCall(MethodCall call, MethodChannel.Result result) {
+    final boolean decode = MapObjectDecoder.canDecode(call.method);
+    if (!decode && pendingCallCount == 0) {
+      apply(call, result);
+      return;
+    }
+    pendingCallCount++;
+    final MethodCall pendingCall = call;
+    final MethodChannel.Result pendingResult = result;
+    try {
+      decodeExecutor.execute(
+          new Runnable() {
+            @Override
+            public void run() {
+              MethodCall decodedCall = pendingCall;
+              RuntimeException error = null;
+              if (decode) {
+                final long start = System.nanoTime();
+                try {
+                  decodedCall =
+                      new MethodCall(
+                          pendingCall.method,
+                          MapObjectDecoder.decode(pendingCall.method, pendingCall.arguments));
+                } catch (RuntimeException e) {
+                  error = e;
+                }
+                stats.recordDecode(pendingCall.method, System.nanoTime() - start);
+              }
+              post(decodedCall, pendingResult, error);
+            }
+          });
+    } catch (RejectedExecutionException e) {
+      // Disposed.
+      pendingCallCount--;
+    }
+  }
+
+  void dispose() {
+    disposed = true;
+    decodeExecutor.shutdownNow();
+  }
+
+  private void post(
+      final MethodCall call, final MethodChannel.Result result, final RuntimeException error) {
+    mainThreadExecutor.execute(
+        new Runnable() {
+          @Override
+          public void run() {
+            pendingCallCount--;
+            if (disposed) {
+              return;
+            }
+            if (error != null) {
+              result.error("error", error.getMessage(), null);
+              return;
+            }
+            try {
+              apply(call, result);
+            } catch (RuntimeException e) {
+              // Mirrors how the method channel reports the exceptions of its handler.
+              result.error("error", e.getMessage(), null);
+            }
+          }
+        });
+  }
+
+  private void apply(MethodCall call, MethodChannel.Result result) {
+    final long start = System.nanoTime();
+    try {
+      handler.onMethodCall(call, result);
+    } finally {
+      stats.recordApply(call.method, System.nanoTime() - start);
+    }
+  }
+}
@@ -39,6 +39,13 @@ class PolygonBuilder implements PolygonOptionsSink {
     polygonOptions.addAll(points);
   }
 
+  @Override
+  public void setHoles(List<List<LatLng>> holes) {
+    for (List<LatLng> hole : holes) {
+      polygonOptions.addHole(hole);
+    }
+  }
+
   @Override
   public void setConsumeTapEvents(boolean consumeTapEvents) {
     this.consumeTapEvents = consumeTapEvents;
@@ -50,6 +50,11 @@ class PolygonController implements PolygonOptionsSink {
     polygon.setPoints(points);
   }
 
+  @Override
+  public void setHoles(List<List<LatLng>> holes) {
+    polygon.setHoles(holes);
+  }
+
   @Override
   public void setVisible(boolean visible) {
     polygon.setVisible(visible);
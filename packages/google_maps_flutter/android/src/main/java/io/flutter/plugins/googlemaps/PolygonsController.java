@@ -5,9 +5,10 @@
 package io.flutter.plugins.googlemaps;
 
 import com.google.android.gms.maps.GoogleMap;
+import com.google.android.gms.maps.model.LatLng;
 import com.google.android.gms.maps.model.Polygon;
 import com.google.android.gms.maps.model.PolygonOptions;
-import io.flutter.plugin.common.MethodChannel;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -16,17 +17,27 @@ class PolygonsController {
 
   private final Map<String, PolygonController> polygonIdToController;
   private final Map<String, String> googleMapsPolygonIdToDartPolygonId;
-  private final MethodChannel methodChannel;
+  private final MapEventBatcher eventBatcher;
+  private final SpatialIndex spatialIndex;
+  private final Map<String, SimplifiedPoints> polygonIdToSimplifiedPoints;
   private GoogleMap googleMap;
+  private int zoomBand;
 
-  PolygonsController(MethodChannel methodChannel) {
+  PolygonsController(MapEventBatcher eventBatcher, SpatialIndex spatialIndex) {
     this.polygonIdToController = new HashMap<>();
     this.googleMapsPolygonIdToDartPolygonId = new HashMap<>();
-    this.methodChannel = methodChannel;
+    this.eventBatcher = eventBatcher;
+    this.spatialIndex = spatialIndex;
+    this.polygonIdToSimplifiedPoints = new HashMap<>();
   }
 
   void setGoogleMap(GoogleMap googleMap) {
     this.googleMap = googleMap;
+    this.zoomBand = SimplifiedPoints.getZoomBand(googleMap.getCameraPosition().zoom);
+  }
+
+  int getPolygonCount() {
+    return polygonIdToController.size();
   }
 
   void addPolygons(List<Object> polygonsToAdd) {
@@ -54,6 +65,8 @@ class PolygonsController {
         continue;
       }
       String polygonId = (String) rawPolygonId;
+      spatialIndex.remove(SpatialIndex.TYPE_POLYGON, polygonId);
+      polygonIdToSimplifiedPoints.remove(polygonId);
       final PolygonController polygonController = polygonIdToController.remove(polygonId);
       if (polygonController != null) {
         polygonController.remove();
@@ -62,12 +75,26 @@ class PolygonsController {
     }
   }
 
+  void onCameraIdle() {
+    final int newZoomBand = SimplifiedPoints.getZoomBand(googleMap.getCameraPosition().zoom);
+    if (newZoomBand == zoomBand) {
+      return;
+    }
+    zoomBand = newZoomBand;
+    for (Map.Entry<String, SimplifiedPoints> entry : polygonIdToSimplifiedPoints.entrySet()) {
+      final PolygonController polygonController = polygonIdToController.get(entry.getKey());
+      if (polygonController != null) {
+        polygonController.setPoints(entry.getValue().getPoints(zoomBand));
+      }
+    }
+  }
+
   boolean onPolygonTap(String googlePolygonId) {
     String polygonId = googleMapsPolygonIdToDartPolygonId.get(googlePolygonId);
     if (polygonId == null) {
       return false;
     }
-    methodChannel.invokeMethod("polygon#onTap", Convert.polygonIdToJson(polygonId));
+    eventBatcher.add("polygon#onTap", polygonId);
     PolygonController polygonController = polygonIdToController.get(polygonId);
     if (polygonController != null) {
       return polygonController.consumeTapEvents();
@@ -80,7 +107,7 @@ class PolygonsController {
       return;
     }
     PolygonBuilder polygonBuilder = new PolygonBuilder();
-    String polygonId = Convert.interpretPolygonOptions(polygon, polygonBuilder);
+    String polygonId = interpretPolygonOptions(polygon, polygonBuilder);
     PolygonOptions options = polygonBuilder.build();
     addPolygon(polygonId, options, polygonBuilder.consumeTapEvents());
   }
@@ -100,8 +127,44 @@ class PolygonsController {
     String polygonId = getPolygonId(polygon);
     PolygonController polygonController = polygonIdToController.get(polygonId);
     if (polygonController != null) {
-      Convert.interpretPolygonOptions(polygon, polygonController);
+      interpretPolygonOptions(polygon, polygonController);
+    }
+  }
+
+  /**
+   * Interprets the options of a polygon, updates its bounds in the spatial index, and simplifies
+   * its points if requested.
+   */
+  private String interpretPolygonOptions(Object polygon, PolygonOptionsSink sink) {
+    final Map<?, ?> data = (Map<?, ?>) polygon;
+    final Object rawPoints = data.get("points");
+    if (rawPoints == null) {
+      return Convert.interpretPolygonOptions(polygon, sink);
+    }
+    // The points and holes are converted only once, and the points are not handed to the sink
+    // when simplified.
+    final Map<Object, Object> options = new HashMap<Object, Object>(data);
+    options.remove("points");
+    options.remove("holes");
+    final String polygonId = Convert.interpretPolygonOptions(options, sink);
+    // The points may have been prepared off the main thread by MapObjectDecoder.
+    final PreparedPoints prepared =
+        PreparedPoints.prepare(rawPoints, Boolean.TRUE.equals(data.get("simplify")), true);
+    final Object rawHoles = data.get("holes");
+    final List<List<LatLng>> holes =
+        rawHoles != null ? Convert.toHoles(rawHoles) : Collections.<List<LatLng>>emptyList();
+    spatialIndex.putPolygon(polygonId, prepared.points, holes);
+    if (rawHoles != null) {
+      sink.setHoles(holes);
+    }
+    if (prepared.simplifiedPoints != null) {
+      polygonIdToSimplifiedPoints.put(polygonId, prepared.simplifiedPoints);
+      sink.setPoints(prepared.simplifiedPoints.getPoints(zoomBand));
+    } else {
+      polygonIdToSimplifiedPoints.remove(polygonId);
+      sink.setPoints(prepared.points);
     }
+    return polygonId;
   }
 
   @SuppressWarnings("unchecked")
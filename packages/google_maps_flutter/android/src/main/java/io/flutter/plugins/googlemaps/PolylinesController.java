@@ -7,7 +7,6 @@ package io.flutter.plugins.googlemaps;
 import com.google.android.gms.maps.GoogleMap;
 import com.google.android.gms.maps.model.Polyline;
 import com.google.android.gms.maps.model.PolylineOptions;
-import io.flutter.plugin.common.MethodChannel;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -16,19 +15,29 @@ class PolylinesController {
 
   private final Map<String, PolylineController> polylineIdToController;
   private final Map<String, String> googleMapsPolylineIdToDartPolylineId;
-  private final MethodChannel methodChannel;
+  private final MapEventBatcher eventBatcher;
+  private final SpatialIndex spatialIndex;
+  private final Map<String, SimplifiedPoints> polylineIdToSimplifiedPoints;
   private GoogleMap googleMap;
+  private int zoomBand;
   private final float density;
 
-  PolylinesController(MethodChannel methodChannel, float density) {
+  PolylinesController(MapEventBatcher eventBatcher, SpatialIndex spatialIndex, float density) {
     this.polylineIdToController = new HashMap<>();
     this.googleMapsPolylineIdToDartPolylineId = new HashMap<>();
-    this.methodChannel = methodChannel;
+    this.eventBatcher = eventBatcher;
+    this.spatialIndex = spatialIndex;
+    this.polylineIdToSimplifiedPoints = new HashMap<>();
     this.density = density;
   }
 
   void setGoogleMap(GoogleMap googleMap) {
     this.googleMap = googleMap;
+    this.zoomBand = SimplifiedPoints.getZoomBand(googleMap.getCameraPosition().zoom);
+  }
+
+  int getPolylineCount() {
+    return polylineIdToController.size();
   }
 
   void addPolylines(List<Object> polylinesToAdd) {
@@ -56,6 +65,8 @@ class PolylinesController {
         continue;
       }
       String polylineId = (String) rawPolylineId;
+      spatialIndex.remove(SpatialIndex.TYPE_POLYLINE, polylineId);
+      polylineIdToSimplifiedPoints.remove(polylineId);
       final PolylineController polylineController = polylineIdToController.remove(polylineId);
       if (polylineController != null) {
         polylineController.remove();
@@ -64,12 +75,26 @@ class PolylinesController {
     }
   }
 
+  void onCameraIdle() {
+    final int newZoomBand = SimplifiedPoints.getZoomBand(googleMap.getCameraPosition().zoom);
+    if (newZoomBand == zoomBand) {
+      return;
+    }
+    zoomBand = newZoomBand;
+    for (Map.Entry<String, SimplifiedPoints> entry : polylineIdToSimplifiedPoints.entrySet()) {
+      final PolylineController polylineController = polylineIdToController.get(entry.getKey());
+      if (polylineController != null) {
+        polylineController.setPoints(entry.getValue().getPoints(zoomBand));
+      }
+    }
+  }
+
   boolean onPolylineTap(String googlePolylineId) {
     String polylineId = googleMapsPolylineIdToDartPolylineId.get(googlePolylineId);
     if (polylineId == null) {
       return false;
     }
-    methodChannel.invokeMethod("polyline#onTap", Convert.polylineIdToJson(polylineId));
+    eventBatcher.add("polyline#onTap", polylineId);
     PolylineController polylineController = polylineIdToController.get(polylineId);
     if (polylineController != null) {
       return polylineController.consumeTapEvents();
@@ -82,7 +107,7 @@ class PolylinesController {
       return;
     }
     PolylineBuilder polylineBuilder = new PolylineBuilder(density);
-    String polylineId = Convert.interpretPolylineOptions(polyline, polylineBuilder);
+    String polylineId = interpretPolylineOptions(polyline, polylineBuilder);
     PolylineOptions options = polylineBuilder.build();
     addPolyline(polylineId, options, polylineBuilder.consumeTapEvents());
   }
@@ -102,8 +127,36 @@ class PolylinesController {
     String polylineId = getPolylineId(polyline);
     PolylineController polylineController = polylineIdToController.get(polylineId);
     if (polylineController != null) {
-      Convert.interpretPolylineOptions(polyline, polylineController);
+      interpretPolylineOptions(polyline, polylineController);
+    }
+  }
+
+  /**
+   * Interprets the options of a polyline, updates its bounds in the spatial index, and simplifies
+   * its points if requested.
+   */
+  private String interpretPolylineOptions(Object polyline, PolylineOptionsSink sink) {
+    final Map<?, ?> data = (Map<?, ?>) polyline;
+    final Object rawPoints = data.get("points");
+    if (rawPoints == null) {
+      return Convert.interpretPolylineOptions(polyline, sink);
+    }
+    // The points are converted only once, and not handed to the sink when simplified.
+    final Map<Object, Object> options = new HashMap<Object, Object>(data);
+    options.remove("points");
+    final String polylineId = Convert.interpretPolylineOptions(options, sink);
+    // The points may have been prepared off the main thread by MapObjectDecoder.
+    final PreparedPoints prepared =
+        PreparedPoints.prepare(rawPoints, Boolean.TRUE.equals(data.get("simplify")), false);
+    spatialIndex.putPoints(SpatialIndex.TYPE_POLYLINE, polylineId, prepared.points);
+    if (prepared.simplifiedPoints != null) {
+      polylineIdToSimplifiedPoints.put(polylineId, prepared.simplifiedPoints);
+      sink.setPoints(prepared.simplifiedPoints.getPoints(zoomBand));
+    } else {
+      polylineIdToSimplifiedPoints.remove(polylineId);
+      sink.setPoints(prepared.points);
     }
+    return polylineId;
   }
 
   @SuppressWarnings("unchecked")
@@ -0,0 +1,35 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import com.google.android.gms.maps.model.LatLng;
+import java.util.Collections;
+import java.util.List;
+
+/** The converted and, if requested, simplified points of a polyline or polygon. */
+final class PreparedPoints {
+  final List<LatLng> points;
+  // Null if the points aren't simplified.
+  final SimplifiedPoints simplifiedPoints;
+
+  private PreparedPoints(List<LatLng> points, SimplifiedPoints simplifiedPoints) {
+    this.points = points;
+    this.simplifiedPoints = simplifiedPoints;
+  }
+
+  /**
+   * Converts the points sent over the method channel, which may be a {@link PreparedPoints}
+   * already.
+   *
+   * @param closed whether the points are the vertices of a polygon.
+   */
+  static PreparedPoints prepare(Object rawPoints, boolean simplify, boolean closed) {
+    if (rawPoints instanceof PreparedPoints) {
+      return (PreparedPoints) rawPoints;
+    }
+    final List<LatLng> points = Collections.unmodifiableList(Convert.toPoints(rawPoints));
+    return new PreparedPoints(points, simplify ? new SimplifiedPoints(points, closed) : null);
+  }
+}
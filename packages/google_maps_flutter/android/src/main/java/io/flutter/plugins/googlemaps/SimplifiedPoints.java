@@ -0,0 +1,166 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import com.google.android.gms.maps.model.LatLng;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Simplified versions of the points of a polyline or polygon, one per band of zoom levels.
+ *
+ * <p>The points are simplified with the Douglas-Peucker algorithm in Web Mercator coordinates. A
+ * single run records for every vertex the largest tolerance at which it is kept, from which the
+ * points of every zoom band are then extracted in linear time.
+ */
+final class SimplifiedPoints {
+  // Number of zoom levels sharing the same simplified points.
+  private static final int ZOOM_BAND_SIZE = 2;
+  private static final int ZOOM_BAND_COUNT = 11;
+  // Maximum distance in density independent pixels between the simplified and the original shape.
+  private static final double TOLERANCE_DP = 1;
+  private static final double WORLD_SIZE_DP = 256;
+
+  private final List<List<LatLng>> levels;
+
+  /**
+   * Simplifies {@code points}.
+   *
+   * @param closed whether the points are the vertices of a polygon, in which case at least three
+   *     of them are kept.
+   */
+  SimplifiedPoints(List<LatLng> points, boolean closed) {
+    final double[] significance = computeSignificance(points, closed);
+    levels = new ArrayList<>(ZOOM_BAND_COUNT + 1);
+    List<LatLng> previous = null;
+    for (int band = 0; band < ZOOM_BAND_COUNT; band++) {
+      // Bands are simplified for their highest zoom level so that they look right on all levels.
+      final int zoom = band * ZOOM_BAND_SIZE + ZOOM_BAND_SIZE - 1;
+      final double tolerance = TOLERANCE_DP / (WORLD_SIZE_DP * Math.pow(2, zoom));
+      final List<LatLng> level = new ArrayList<>();
+      for (int i = 0; i < significance.length; i++) {
+        if (significance[i] >= tolerance) {
+          level.add(points.get(i));
+        }
+      }
+      if (level.size() == points.size()) {
+        previous = points;
+      } else if (previous == null || level.size() != previous.size()) {
+        previous = level;
+      }
+      levels.add(previous);
+    }
+    levels.add(points);
+  }
+
+  /** Returns the index of the zoom band of {@code zoom}. */
+  static int getZoomBand(float zoom) {
+    return Math.min(ZOOM_BAND_COUNT, Math.max(0, (int) zoom / ZOOM_BAND_SIZE));
+  }
+
+  /** Returns the points to show in the zoom band {@code zoomBand}. */
+  List<LatLng> getPoints(int zoomBand) {
+    return levels.get(zoomBand);
+  }
+
+  /**
+   * Returns for every point the largest tolerance, in normalized Web Mercator units, at which the
+   * Douglas-Peucker algorithm keeps it.
+   */
+  private static double[] computeSignificance(List<LatLng> points, boolean closed) {
+    final int count = points.size();
+    final double[] significance = new double[count];
+    if (count == 0) {
+      return significance;
+    }
+    final double[] xs = new double[count];
+    final double[] ys = new double[count];
+    for (int i = 0; i < count; i++) {
+      final LatLng point = points.get(i);
+      xs[i] = SpatialIndex.longitudeToX(point.longitude);
+      ys[i] = SpatialIndex.latitudeToY(point.latitude);
+    }
+
+    significance[0] = Double.POSITIVE_INFINITY;
+    significance[count - 1] = Double.POSITIVE_INFINITY;
+    // Explicit stack of (first, last) ranges and the significance of the vertex that split them.
+    final int[] firsts = new int[count];
+    final int[] lasts = new int[count];
+    final double[] limits = new double[count];
+    int size = 0;
+    if (closed && count > 2) {
+      // The first and last points of a ring may coincide, so the ring is split at the point
+      // farthest from the first one.
+      int farthest = 1;
+      double farthestDistance = -1;
+      for (int i = 1; i < count - 1; i++) {
+        final double dx = xs[i] - xs[0];
+        final double dy = ys[i] - ys[0];
+        final double distance = dx * dx + dy * dy;
+        if (distance > farthestDistance) {
+          farthest = i;
+          farthestDistance = distance;
+        }
+      }
+      significance[farthest] = Double.POSITIVE_INFINITY;
+      firsts[size] = 0;
+      lasts[size] = farthest;
+      limits[size++] = Double.POSITIVE_INFINITY;
+      firsts[size] = farthest;
+      lasts[size] = count - 1;
+      limits[size++] = Double.POSITIVE_INFINITY;
+    } else {
+      firsts[size] = 0;
+      lasts[size] = count - 1;
+      limits[size++] = Double.POSITIVE_INFINITY;
+    }
+
+    while (size > 0) {
+      size--;
+      final int first = firsts[size];
+      final int last = lasts[size];
+      final double limit = limits[size];
+      if (last - first < 2) {
+        continue;
+      }
+      int split = first + 1;
+      double maxDistance = -1;
+      for (int i = first + 1; i < last; i++) {
+        final double distance =
+            segmentDistance(xs[i], ys[i], xs[first], ys[first], xs[last], ys[last]);
+        if (distance > maxDistance) {
+          split = i;
+          maxDistance = distance;
+        }
+      }
+      // A vertex can't be more significant than the vertex that split its range, otherwise it
+      // would be kept without the vertices around it.
+      final double splitSignificance = Math.min(maxDistance, limit);
+      significance[split] = splitSignificance;
+      firsts[size] = first;
+      lasts[size] = split;
+      limits[size++] = splitSignificance;
+      firsts[size] = split;
+      lasts[size] = last;
+      limits[size++] = splitSignificance;
+    }
+    return significance;
+  }
+
+  // Distance from (x, y) to the segment from (x1, y1) to (x2, y2).
+  static double segmentDistance(
+      double x, double y, double x1, double y1, double x2, double y2) {
+    final double dx = x2 - x1;
+    final double dy = y2 - y1;
+    final double lengthSquared = dx * dx + dy * dy;
+    double t = 0;
+    if (lengthSquared > 0) {
+      t = Math.max(0, Math.min(1, ((x - x1) * dx + (y - y1) * dy) / lengthSquared));
+    }
+    final double px = x1 + t * dx - x;
+    final double py = y1 + t * dy - y;
+    return Math.sqrt(px * px + py * py);
+  }
+}
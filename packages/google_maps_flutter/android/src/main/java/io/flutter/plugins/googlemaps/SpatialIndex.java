@@ -0,0 +1,465 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import com.google.android.gms.maps.model.LatLng;
+import com.google.android.gms.maps.model.LatLngBounds;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * A quadtree over the bounding boxes of the objects of a map, in normalized Web Mercator
+ * coordinates.
+ *
+ * <p>Each entry is stored in the deepest node whose region contains its whole bounding box. The
+ * bounding box of an object crossing the antimeridian spans the whole width of the world.
+ */
+final class SpatialIndex {
+  static final String TYPE_MARKER = "marker";
+  static final String TYPE_POLYGON = "polygon";
+  static final String TYPE_POLYLINE = "polyline";
+  static final String TYPE_CIRCLE = "circle";
+
+  private static final int NODE_CAPACITY = 16;
+  private static final int MAX_DEPTH = 20;
+  private static final double EARTH_RADIUS_METERS = 6371009;
+
+  /** An object of the map, its bounding box and the geometry used by the exact queries. */
+  static final class Entry {
+    final String type;
+    final String id;
+    private final double minX;
+    private final double minY;
+    private final double maxX;
+    private final double maxY;
+    // Vertices of polygons and polylines, with longitudes unwrapped so that each segment takes
+    // the shortest way around the world. Null for other objects.
+    private double[] xs;
+    private double[] ys;
+    // Vertices of the holes of polygons, unwrapped next to the outer ring. Null for other objects.
+    private double[][] holeXs;
+    private double[][] holeYs;
+    // Center and radius of circles.
+    private LatLng center;
+    private double radiusMeters;
+
+    private Entry(String type, String id, double minX, double minY, double maxX, double maxY) {
+      this.type = type;
+      this.id = id;
+      this.minX = minX;
+      this.minY = minY;
+      this.maxX = maxX;
+      this.maxY = maxY;
+    }
+  }
+
+  private final Map<String, Entry> keyToEntry = new HashMap<>();
+  private final Node root = new Node(0, 0, 1, 1, 0);
+
+  void putPoint(String type, String id, LatLng position) {
+    final double x = longitudeToX(position.longitude);
+    final double y = latitudeToY(position.latitude);
+    put(new Entry(type, id, x, y, x, y));
+  }
+
+  void putPoints(String type, String id, List<LatLng> points) {
+    if (points.isEmpty()) {
+      remove(type, id);
+      return;
+    }
+    put(createShapeEntry(type, id, points));
+  }
+
+  /** Indexes a polygon, whose holes don't contain points for {@link #searchContaining}. */
+  void putPolygon(String id, List<LatLng> points, List<List<LatLng>> holes) {
+    if (points.isEmpty()) {
+      remove(TYPE_POLYGON, id);
+      return;
+    }
+    final Entry entry = createShapeEntry(TYPE_POLYGON, id, points);
+    entry.holeXs = new double[holes.size()][];
+    entry.holeYs = new double[holes.size()][];
+    for (int i = 0; i < holes.size(); i++) {
+      final List<LatLng> hole = holes.get(i);
+      final double[] xs = new double[hole.size()];
+      final double[] ys = new double[hole.size()];
+      // The first vertex of a hole is unwrapped next to the first vertex of the polygon.
+      unwrap(hole, entry.xs[0], xs, ys);
+      entry.holeXs[i] = xs;
+      entry.holeYs[i] = ys;
+    }
+    put(entry);
+  }
+
+  private static Entry createShapeEntry(String type, String id, List<LatLng> points) {
+    final int count = points.size();
+    final double[] xs = new double[count];
+    final double[] ys = new double[count];
+    unwrap(points, longitudeToX(points.get(0).longitude), xs, ys);
+    double minX = Double.POSITIVE_INFINITY;
+    double minY = Double.POSITIVE_INFINITY;
+    double maxX = Double.NEGATIVE_INFINITY;
+    double maxY = Double.NEGATIVE_INFINITY;
+    for (int i = 0; i < count; i++) {
+      minX = Math.min(minX, xs[i]);
+      minY = Math.min(minY, ys[i]);
+      maxX = Math.max(maxX, xs[i]);
+      maxY = Math.max(maxY, ys[i]);
+    }
+    if (minX < 0 || maxX > 1) {
+      minX = 0;
+      maxX = 1;
+    }
+    final Entry entry = new Entry(type, id, minX, minY, maxX, maxY);
+    entry.xs = xs;
+    entry.ys = ys;
+    return entry;
+  }
+
+  // Projects points, with longitudes unwrapped so that each segment takes the shortest way around
+  // the world, starting next to previousX.
+  private static void unwrap(List<LatLng> points, double previousX, double[] xs, double[] ys) {
+    for (int i = 0; i < points.size(); i++) {
+      final LatLng point = points.get(i);
+      double x = longitudeToX(point.longitude);
+      x += Math.rint(previousX - x);
+      xs[i] = x;
+      ys[i] = latitudeToY(point.latitude);
+      previousX = x;
+    }
+  }
+
+  void putCircle(String type, String id, LatLng center, double radius) {
+    final double latitudeDelta = Math.toDegrees(radius / EARTH_RADIUS_METERS);
+    final double north = Math.min(90, center.latitude + latitudeDelta);
+    final double south = Math.max(-90, center.latitude - latitudeDelta);
+    final double cos = Math.cos(Math.toRadians(center.latitude));
+    final double longitudeDelta = cos > 0 ? latitudeDelta / cos : 180;
+    double minX = longitudeToX(center.longitude - longitudeDelta);
+    double maxX = longitudeToX(center.longitude + longitudeDelta);
+    if (minX < 0 || maxX > 1) {
+      minX = 0;
+      maxX = 1;
+    }
+    final Entry entry = new Entry(type, id, minX, latitudeToY(north), maxX, latitudeToY(south));
+    entry.center = center;
+    entry.radiusMeters = radius;
+    put(entry);
+  }
+
+  void remove(String type, String id) {
+    final Entry entry = keyToEntry.remove(key(type, id));
+    if (entry != null) {
+      root.remove(entry);
+    }
+  }
+
+  /** Adds to {@code result} the entries whose bounding box intersects {@code bounds}. */
+  void search(LatLngBounds bounds, Collection<Entry> result) {
+    final double minX = longitudeToX(bounds.southwest.longitude);
+    final double maxX = longitudeToX(bounds.northeast.longitude);
+    // The y axis points south.
+    final double minY = latitudeToY(bounds.northeast.latitude);
+    final double maxY = latitudeToY(bounds.southwest.latitude);
+    if (minX <= maxX) {
+      root.search(minX, minY, maxX, maxY, result);
+    } else {
+      // The bounds cross the antimeridian, and an entry may intersect both halves.
+      final Set<Entry> entries = new LinkedHashSet<>();
+      root.search(minX, minY, 1, maxY, entries);
+      root.search(0, minY, maxX, maxY, entries);
+      result.addAll(entries);
+    }
+  }
+
+  /**
+   * Returns the {@code count} entries whose bounding box is the closest to {@code position},
+   * closest first.
+   */
+  List<Entry> nearest(LatLng position, int count) {
+    final double x = longitudeToX(position.longitude);
+    final double y = latitudeToY(position.latitude);
+    final List<Entry> result = new ArrayList<>(Math.min(count, keyToEntry.size()));
+    final PriorityQueue<Candidate> queue = new PriorityQueue<>();
+    queue.add(new Candidate(root.distanceTo(x, y), root, null));
+    while (!queue.isEmpty() && result.size() < count) {
+      final Candidate candidate = queue.poll();
+      if (candidate.entry != null) {
+        result.add(candidate.entry);
+        continue;
+      }
+      final Node node = candidate.node;
+      for (Entry entry : node.entries) {
+        queue.add(
+            new Candidate(
+                distance(x, y, entry.minX, entry.minY, entry.maxX, entry.maxY), null, entry));
+      }
+      if (node.children != null) {
+        for (Node child : node.children) {
+          queue.add(new Candidate(child.distanceTo(x, y), child, null));
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Adds to {@code result} the polygons and circles that contain {@code point}.
+   *
+   * <p>The edges of polygons are straight lines in Web Mercator, as drawn when polygons aren't
+   * geodesic. Points in the holes of a polygon aren't contained by it.
+   */
+  void searchContaining(LatLng point, Collection<Entry> result) {
+    final double x = longitudeToX(point.longitude);
+    final double y = latitudeToY(point.latitude);
+    final List<Entry> candidates = new ArrayList<>();
+    root.search(x, y, x, y, candidates);
+    for (Entry entry : candidates) {
+      if (TYPE_POLYGON.equals(entry.type)) {
+        if (polygonContains(entry, x, y)) {
+          result.add(entry);
+        }
+      } else if (TYPE_CIRCLE.equals(entry.type)) {
+        if (distanceMeters(entry.center, point) <= entry.radiusMeters) {
+          result.add(entry);
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the distance in meters from {@code point} to the polyline {@code polylineId}, or NaN
+   * if there is no such polyline.
+   *
+   * <p>The distance is measured in Web Mercator and scaled at the latitude of {@code point}, which
+   * is accurate for nearby polylines.
+   */
+  double distanceToPolyline(String polylineId, LatLng point) {
+    final Entry entry = keyToEntry.get(key(TYPE_POLYLINE, polylineId));
+    if (entry == null) {
+      return Double.NaN;
+    }
+    final double x = longitudeToX(point.longitude);
+    final double y = latitudeToY(point.latitude);
+    double distance = Double.POSITIVE_INFINITY;
+    // The vertices may be unwrapped out of [0, 1].
+    for (int shift = -1; shift <= 1; shift++) {
+      final double shiftedX = x + shift;
+      if (entry.xs.length == 1) {
+        distance = Math.min(distance, Math.hypot(entry.xs[0] - shiftedX, entry.ys[0] - y));
+      }
+      for (int i = 1; i < entry.xs.length; i++) {
+        distance =
+            Math.min(
+                distance,
+                SimplifiedPoints.segmentDistance(
+                    shiftedX, y, entry.xs[i - 1], entry.ys[i - 1], entry.xs[i], entry.ys[i]));
+      }
+    }
+    return distance * 2 * Math.PI * EARTH_RADIUS_METERS * Math.cos(Math.toRadians(point.latitude));
+  }
+
+  /** Returns the normalized Web Mercator x coordinate of a longitude, in [0, 1]. */
+  static double longitudeToX(double longitude) {
+    return longitude / 360 + 0.5;
+  }
+
+  /** Returns the normalized Web Mercator y coordinate of a latitude, in [0, 1], pointing south. */
+  static double latitudeToY(double latitude) {
+    final double sin = Math.sin(Math.toRadians(latitude));
+    final double clamped = Math.max(-0.9999, Math.min(0.9999, sin));
+    return 0.5 - Math.log((1 + clamped) / (1 - clamped)) / (4 * Math.PI);
+  }
+
+  static double yToLatitude(double y) {
+    return Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1 - 2 * y))));
+  }
+
+  /** Returns the great-circle distance in meters between two positions. */
+  static double distanceMeters(LatLng from, LatLng to) {
+    final double lat1 = Math.toRadians(from.latitude);
+    final double lat2 = Math.toRadians(to.latitude);
+    final double sinLat = Math.sin((lat2 - lat1) / 2);
+    final double sinLng = Math.sin(Math.toRadians(to.longitude - from.longitude) / 2);
+    final double a = sinLat * sinLat + Math.cos(lat1) * Math.cos(lat2) * sinLng * sinLng;
+    return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+  }
+
+  private static boolean polygonContains(Entry entry, double x, double y) {
+    // The vertices may be unwrapped out of [0, 1].
+    for (int shift = -1; shift <= 1; shift++) {
+      final double shiftedX = x + shift;
+      if (!ringContains(entry.xs, entry.ys, shiftedX, y)) {
+        continue;
+      }
+      boolean inHole = false;
+      if (entry.holeXs != null) {
+        for (int i = 0; i < entry.holeXs.length && !inHole; i++) {
+          inHole = ringContains(entry.holeXs[i], entry.holeYs[i], shiftedX, y);
+        }
+      }
+      if (!inHole) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // Even-odd test of the point against a closed ring.
+  private static boolean ringContains(double[] xs, double[] ys, double x, double y) {
+    boolean inside = false;
+    for (int i = 0, j = xs.length - 1; i < xs.length; j = i++) {
+      if ((ys[i] > y) != (ys[j] > y)
+          && x < (xs[j] - xs[i]) * (y - ys[i]) / (ys[j] - ys[i]) + xs[i]) {
+        inside = !inside;
+      }
+    }
+    return inside;
+  }
+
+  private void put(Entry entry) {
+    final Entry previous = keyToEntry.put(key(entry.type, entry.id), entry);
+    if (previous != null) {
+      root.remove(previous);
+    }
+    root.add(entry);
+  }
+
+  private static String key(String type, String id) {
+    return type + "/" + id;
+  }
+
+  // Squared distance from a point to a box, 0 if the point is inside.
+  private static double distance(
+      double x, double y, double minX, double minY, double maxX, double maxY) {
+    final double dx = x < minX ? minX - x : (x > maxX ? x - maxX : 0);
+    final double dy = y < minY ? minY - y : (y > maxY ? y - maxY : 0);
+    return dx * dx + dy * dy;
+  }
+
+  private static final class Candidate implements Comparable<Candidate> {
+    private final double distance;
+    private final Node node;
+    private final Entry entry;
+
+    Candidate(double distance, Node node, Entry entry) {
+      this.distance = distance;
+      this.node = node;
+      this.entry = entry;
+    }
+
+    @Override
+    public int compareTo(Candidate other) {
+      return Double.compare(distance, other.distance);
+    }
+  }
+
+  private static final class Node {
+    private final double minX;
+    private final double minY;
+    private final double maxX;
+    private final double maxY;
+    private final int depth;
+    // Entries that don't fit in a single child.
+    private final List<Entry> entries = new ArrayList<>();
+    private Node[] children;
+
+    Node(double minX, double minY, double maxX, double maxY, int depth) {
+      this.minX = minX;
+      this.minY = minY;
+      this.maxX = maxX;
+      this.maxY = maxY;
+      this.depth = depth;
+    }
+
+    void add(Entry entry) {
+      if (children != null) {
+        final Node child = childContaining(entry);
+        if (child != null) {
+          child.add(entry);
+          return;
+        }
+      }
+      entries.add(entry);
+      if (children == null && entries.size() > NODE_CAPACITY && depth < MAX_DEPTH) {
+        split();
+      }
+    }
+
+    boolean remove(Entry entry) {
+      if (children != null) {
+        final Node child = childContaining(entry);
+        if (child != null) {
+          return child.remove(entry);
+        }
+      }
+      return entries.remove(entry);
+    }
+
+    void search(
+        double searchMinX,
+        double searchMinY,
+        double searchMaxX,
+        double searchMaxY,
+        Collection<Entry> result) {
+      if (searchMinX > maxX || searchMaxX < minX || searchMinY > maxY || searchMaxY < minY) {
+        return;
+      }
+      for (Entry entry : entries) {
+        if (entry.minX <= searchMaxX
+            && entry.maxX >= searchMinX
+            && entry.minY <= searchMaxY
+            && entry.maxY >= searchMinY) {
+          result.add(entry);
+        }
+      }
+      if (children != null) {
+        for (Node child : children) {
+          child.search(searchMinX, searchMinY, searchMaxX, searchMaxY, result);
+        }
+      }
+    }
+
+    double distanceTo(double x, double y) {
+      return distance(x, y, minX, minY, maxX, maxY);
+    }
+
+    private void split() {
+      final double midX = (minX + maxX) / 2;
+      final double midY = (minY + maxY) / 2;
+      children =
+          new Node[] {
+            new Node(minX, minY, midX, midY, depth + 1),
+            new Node(midX, minY, maxX, midY, depth + 1),
+            new Node(minX, midY, midX, maxY, depth + 1),
+            new Node(midX, midY, maxX, maxY, depth + 1),
+          };
+      final List<Entry> oldEntries = new ArrayList<>(entries);
+      entries.clear();
+      for (Entry entry : oldEntries) {
+        add(entry);
+      }
+    }
+
+    private Node childContaining(Entry entry) {
+      final double midX = (minX + maxX) / 2;
+      final double midY = (minY + maxY) / 2;
+      final boolean west = entry.maxX < midX;
+      final boolean east = entry.minX >= midX;
+      final boolean north = entry.maxY < midY;
+      final boolean south = entry.minY >= midY;
+      if ((!west && !east) || (!north && !south)) {
+        return null;
+      }
+      return children[(south ? 2 : 0) + (east ? 1 : 0)];
+    }
+  }
+}
@@ -0,0 +1,187 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * A size-bounded cache of tile images in a directory, evicting the least recently used tiles first.
+ *
+ * <p>Methods may be called from any thread. Reads and writes of files happen outside of the lock,
+ * which only guards the bookkeeping of the total size.
+ */
+final class TileDiskCache {
+  private final File directory;
+  private long maxSize;
+  // Total size of the files, or -1 until the directory has been scanned.
+  private long size = -1;
+  private int tempFileCount;
+
+  TileDiskCache(File directory, long maxSize) {
+    this.directory = directory;
+    this.maxSize = maxSize;
+  }
+
+  synchronized void setMaxSize(long maxSize) {
+    this.maxSize = maxSize;
+    if (size >= 0) {
+      trimToSize();
+    }
+  }
+
+  boolean contains(String key) {
+    return fileFor(key).isFile();
+  }
+
+  /** Returns the cached bytes of {@code key}, or null if they aren't cached. */
+  byte[] get(String key) {
+    final File file = fileFor(key);
+    if (!file.isFile()) {
+      return null;
+    }
+    try {
+      final byte[] data = readFile(file);
+      // The modification time orders the files for eviction.
+      file.setLastModified(System.currentTimeMillis());
+      return data;
+    } catch (IOException e) {
+      // The file may have been evicted while it was read.
+      return null;
+    }
+  }
+
+  void put(String key, byte[] data) {
+    final File temp;
+    synchronized (this) {
+      ensureScanned();
+      temp = new File(directory, "tmp" + tempFileCount++);
+    }
+    try {
+      writeFile(temp, data);
+    } catch (IOException e) {
+      temp.delete();
+      return;
+    }
+    synchronized (this) {
+      final File file = fileFor(key);
+      final long previousLength = file.length();
+      if (!temp.renameTo(file)) {
+        temp.delete();
+        return;
+      }
+      size += file.length() - previousLength;
+      trimToSize();
+    }
+  }
+
+  synchronized void clear() {
+    final File[] files = directory.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        file.delete();
+      }
+    }
+    size = 0;
+  }
+
+  private File fileFor(String key) {
+    return new File(directory, key.replace('/', '_'));
+  }
+
+  private void ensureScanned() {
+    if (size >= 0) {
+      return;
+    }
+    directory.mkdirs();
+    size = 0;
+    final File[] files = directory.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        if (file.getName().startsWith("tmp")) {
+          // Left over by a write that didn't complete.
+          file.delete();
+        } else {
+          size += file.length();
+        }
+      }
+    }
+    trimToSize();
+  }
+
+  private void trimToSize() {
+    if (size <= maxSize) {
+      return;
+    }
+    final File[] files = directory.listFiles();
+    if (files == null) {
+      return;
+    }
+    // The modification times are read once, as they may change while sorting.
+    final long[] lastModified = new long[files.length];
+    final Integer[] order = new Integer[files.length];
+    for (int i = 0; i < files.length; i++) {
+      lastModified[i] = files[i].lastModified();
+      order[i] = i;
+    }
+    Arrays.sort(
+        order,
+        new Comparator<Integer>() {
+          @Override
+          public int compare(Integer a, Integer b) {
+            final long difference = lastModified[a] - lastModified[b];
+            return difference < 0 ? -1 : (difference > 0 ? 1 : 0);
+          }
+        });
+    for (Integer index : order) {
+      if (size <= maxSize) {
+        break;
+      }
+      final File file = files[index];
+      if (file.getName().startsWith("tmp")) {
+        continue;
+      }
+      final long length = file.length();
+      if (file.delete()) {
+        size -= length;
+      }
+    }
+  }
+
+  static byte[] readFully(InputStream input) throws IOException {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    final byte[] buffer = new byte[8192];
+    int read;
+    while ((read = input.read(buffer)) != -1) {
+      output.write(buffer, 0, read);
+    }
+    return output.toByteArray();
+  }
+
+  private static byte[] readFile(File file) throws IOException {
+    final InputStream input = new FileInputStream(file);
+    try {
+      return readFully(input);
+    } finally {
+      input.close();
+    }
+  }
+
+  private static void writeFile(File file, byte[] data) throws IOException {
+    final OutputStream output = new FileOutputStream(file);
+    try {
+      output.write(data);
+    } finally {
+      output.close();
+    }
+  }
+}
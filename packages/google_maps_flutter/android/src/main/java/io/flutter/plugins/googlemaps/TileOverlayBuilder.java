@@ -0,0 +1,56 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import com.google.android.gms.maps.model.TileOverlayOptions;
+
+class TileOverlayBuilder implements TileOverlayOptionsSink {
+  private final TileOverlayOptions tileOverlayOptions;
+  private final CachedTileProvider tileProvider;
+
+  TileOverlayBuilder(CachedTileProvider tileProvider) {
+    this.tileProvider = tileProvider;
+    this.tileOverlayOptions = new TileOverlayOptions().tileProvider(tileProvider);
+  }
+
+  TileOverlayOptions build() {
+    return tileOverlayOptions;
+  }
+
+  @Override
+  public void setUrlTemplate(String urlTemplate) {
+    tileProvider.setUrlTemplate(urlTemplate);
+  }
+
+  @Override
+  public void setTileSize(int tileSize) {
+    tileProvider.setTileSize(tileSize);
+  }
+
+  @Override
+  public void setDiskCacheSize(long diskCacheSize) {
+    tileProvider.setDiskCacheSize(diskCacheSize);
+  }
+
+  @Override
+  public void setFadeIn(boolean fadeIn) {
+    tileOverlayOptions.fadeIn(fadeIn);
+  }
+
+  @Override
+  public void setTransparency(float transparency) {
+    tileOverlayOptions.transparency(transparency);
+  }
+
+  @Override
+  public void setVisible(boolean visible) {
+    tileOverlayOptions.visible(visible);
+  }
+
+  @Override
+  public void setZIndex(float zIndex) {
+    tileOverlayOptions.zIndex(zIndex);
+  }
+}
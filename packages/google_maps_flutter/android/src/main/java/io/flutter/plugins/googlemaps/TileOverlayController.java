@@ -0,0 +1,74 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import com.google.android.gms.maps.model.TileOverlay;
+
+/** Controller of a single TileOverlay on the map. */
+class TileOverlayController implements TileOverlayOptionsSink {
+  private final TileOverlay tileOverlay;
+  private final CachedTileProvider tileProvider;
+
+  TileOverlayController(TileOverlay tileOverlay, CachedTileProvider tileProvider) {
+    this.tileOverlay = tileOverlay;
+    this.tileProvider = tileProvider;
+  }
+
+  void remove() {
+    tileOverlay.remove();
+  }
+
+  CachedTileProvider getTileProvider() {
+    return tileProvider;
+  }
+
+  /** Removes the cached tiles and shows them again. */
+  void clearTileCache() {
+    tileProvider.clearCache();
+    tileOverlay.clearTileCache();
+  }
+
+  /** Redraws the tiles if the options changed what they show. */
+  void refreshTiles() {
+    if (tileProvider.clearChanged()) {
+      tileOverlay.clearTileCache();
+    }
+  }
+
+  @Override
+  public void setUrlTemplate(String urlTemplate) {
+    tileProvider.setUrlTemplate(urlTemplate);
+  }
+
+  @Override
+  public void setTileSize(int tileSize) {
+    tileProvider.setTileSize(tileSize);
+  }
+
+  @Override
+  public void setDiskCacheSize(long diskCacheSize) {
+    tileProvider.setDiskCacheSize(diskCacheSize);
+  }
+
+  @Override
+  public void setFadeIn(boolean fadeIn) {
+    tileOverlay.setFadeIn(fadeIn);
+  }
+
+  @Override
+  public void setTransparency(float transparency) {
+    tileOverlay.setTransparency(transparency);
+  }
+
+  @Override
+  public void setVisible(boolean visible) {
+    tileOverlay.setVisible(visible);
+  }
+
+  @Override
+  public void setZIndex(float zIndex) {
+    tileOverlay.setZIndex(zIndex);
+  }
+}
@@ -0,0 +1,23 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+/** Receiver of TileOverlay configuration options. */
+interface TileOverlayOptionsSink {
+
+  void setUrlTemplate(String urlTemplate);
+
+  void setTileSize(int tileSize);
+
+  void setDiskCacheSize(long diskCacheSize);
+
+  void setFadeIn(boolean fadeIn);
+
+  void setTransparency(float transparency);
+
+  void setVisible(boolean visible);
+
+  void setZIndex(float zIndex);
+}
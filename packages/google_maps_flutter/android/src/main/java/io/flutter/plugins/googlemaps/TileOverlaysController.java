@@ -0,0 +1,193 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import com.google.android.gms.maps.GoogleMap;
+import com.google.android.gms.maps.model.LatLngBounds;
+import com.google.android.gms.maps.model.TileOverlay;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+class TileOverlaysController {
+  // Maximum number of tiles downloaded at the same time by all the tile overlays of a map.
+  private static final int MAX_CONCURRENT_DOWNLOADS = 4;
+
+  private final Map<String, TileOverlayController> tileOverlayIdToController;
+  private final File cacheRoot;
+  private final ExecutorService executor;
+  private GoogleMap googleMap;
+
+  TileOverlaysController(File cacheRoot) {
+    this.tileOverlayIdToController = new HashMap<>();
+    this.cacheRoot = cacheRoot;
+    this.executor = Executors.newFixedThreadPool(MAX_CONCURRENT_DOWNLOADS);
+  }
+
+  void setGoogleMap(GoogleMap googleMap) {
+    this.googleMap = googleMap;
+  }
+
+  int getTileOverlayCount() {
+    return tileOverlayIdToController.size();
+  }
+
+  /** Returns the size in bytes of the tiles in the memory caches of the tile overlays. */
+  long getCachedTileBytes() {
+    long bytes = 0;
+    for (TileOverlayController controller : tileOverlayIdToController.values()) {
+      bytes += controller.getTileProvider().getMemoryCacheBytes();
+    }
+    return bytes;
+  }
+
+  void addTileOverlays(List<Object> tileOverlaysToAdd) {
+    if (tileOverlaysToAdd != null) {
+      for (Object tileOverlayToAdd : tileOverlaysToAdd) {
+        addTileOverlay(tileOverlayToAdd);
+      }
+    }
+  }
+
+  void changeTileOverlays(List<Object> tileOverlaysToChange) {
+    if (tileOverlaysToChange != null) {
+      for (Object tileOverlayToChange : tileOverlaysToChange) {
+        changeTileOverlay(tileOverlayToChange);
+      }
+    }
+  }
+
+  void removeTileOverlays(List<Object> tileOverlayIdsToRemove) {
+    if (tileOverlayIdsToRemove == null) {
+      return;
+    }
+    for (Object rawTileOverlayId : tileOverlayIdsToRemove) {
+      if (rawTileOverlayId == null) {
+        continue;
+      }
+      String tileOverlayId = (String) rawTileOverlayId;
+      final TileOverlayController tileOverlayController =
+          tileOverlayIdToController.remove(tileOverlayId);
+      if (tileOverlayController != null) {
+        tileOverlayController.remove();
+      }
+    }
+  }
+
+  /** Returns false if there is no tile overlay with the given id. */
+  boolean clearTileCache(String tileOverlayId) {
+    final TileOverlayController tileOverlayController =
+        tileOverlayIdToController.get(tileOverlayId);
+    if (tileOverlayController == null) {
+      return false;
+    }
+    tileOverlayController.clearTileCache();
+    return true;
+  }
+
+  /**
+   * Downloads into the disk cache the tiles of a tile overlay covering {@code bounds} at the zoom
+   * levels from {@code minZoom} to {@code maxZoom}.
+   *
+   * @return false if there is no tile overlay with the given id.
+   */
+  boolean prefetchTiles(
+      String tileOverlayId,
+      LatLngBounds bounds,
+      int minZoom,
+      int maxZoom,
+      CachedTileProvider.PrefetchListener listener) {
+    final TileOverlayController tileOverlayController =
+        tileOverlayIdToController.get(tileOverlayId);
+    if (tileOverlayController == null) {
+      return false;
+    }
+    tileOverlayController.getTileProvider().prefetch(tiles(bounds, minZoom, maxZoom), listener);
+    return true;
+  }
+
+  /** Returns the number of tiles covering {@code bounds} at the given zoom levels. */
+  static long countTiles(LatLngBounds bounds, int minZoom, int maxZoom) {
+    long count = 0;
+    for (int zoom = minZoom; zoom <= maxZoom; zoom++) {
+      final int[] range = tileRange(bounds, zoom);
+      count += (long) columnCount(range, zoom) * (range[3] - range[2] + 1);
+    }
+    return count;
+  }
+
+  void dispose() {
+    executor.shutdownNow();
+  }
+
+  private static List<int[]> tiles(LatLngBounds bounds, int minZoom, int maxZoom) {
+    final List<int[]> tiles = new ArrayList<>();
+    for (int zoom = minZoom; zoom <= maxZoom; zoom++) {
+      final int[] range = tileRange(bounds, zoom);
+      final int columns = columnCount(range, zoom);
+      for (int y = range[2]; y <= range[3]; y++) {
+        for (int column = 0; column < columns; column++) {
+          // Bounds crossing the antimeridian wrap around to the first column.
+          tiles.add(new int[] {(range[0] + column) % (1 << zoom), y, zoom});
+        }
+      }
+    }
+    return tiles;
+  }
+
+  // Returns the first and last columns, then the first and last rows of the tiles of the bounds.
+  private static int[] tileRange(LatLngBounds bounds, int zoom) {
+    final int tileCount = 1 << zoom;
+    return new int[] {
+      toTile(SpatialIndex.longitudeToX(bounds.southwest.longitude), tileCount),
+      toTile(SpatialIndex.longitudeToX(bounds.northeast.longitude), tileCount),
+      toTile(SpatialIndex.latitudeToY(bounds.northeast.latitude), tileCount),
+      toTile(SpatialIndex.latitudeToY(bounds.southwest.latitude), tileCount),
+    };
+  }
+
+  private static int columnCount(int[] range, int zoom) {
+    return range[0] <= range[1] ? range[1] - range[0] + 1 : (1 << zoom) - range[0] + range[1] + 1;
+  }
+
+  private static int toTile(double coordinate, int tileCount) {
+    return Math.max(0, Math.min(tileCount - 1, (int) Math.floor(coordinate * tileCount)));
+  }
+
+  private void addTileOverlay(Object tileOverlay) {
+    if (tileOverlay == null) {
+      return;
+    }
+    final CachedTileProvider tileProvider = new CachedTileProvider(executor, cacheRoot);
+    TileOverlayBuilder tileOverlayBuilder = new TileOverlayBuilder(tileProvider);
+    String tileOverlayId = Convert.interpretTileOverlayOptions(tileOverlay, tileOverlayBuilder);
+    tileProvider.clearChanged();
+    final TileOverlay overlay = googleMap.addTileOverlay(tileOverlayBuilder.build());
+    tileOverlayIdToController.put(
+        tileOverlayId, new TileOverlayController(overlay, tileProvider));
+  }
+
+  private void changeTileOverlay(Object tileOverlay) {
+    if (tileOverlay == null) {
+      return;
+    }
+    String tileOverlayId = getTileOverlayId(tileOverlay);
+    TileOverlayController tileOverlayController = tileOverlayIdToController.get(tileOverlayId);
+    if (tileOverlayController != null) {
+      Convert.interpretTileOverlayOptions(tileOverlay, tileOverlayController);
+      tileOverlayController.refreshTiles();
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static String getTileOverlayId(Object tileOverlay) {
+    Map<String, Object> tileOverlayMap = (Map<String, Object>) tileOverlay;
+    return (String) tileOverlayMap.get("tileOverlayId");
+  }
+}
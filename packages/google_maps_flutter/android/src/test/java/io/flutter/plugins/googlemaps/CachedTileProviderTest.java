@@ -0,0 +1,37 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.Test;
+
+public class CachedTileProviderTest {
+  @Test
+  public void prefetch_WhenTheMapIsDisposed_CompletesOnce() {
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    executor.shutdown();
+    final CachedTileProvider tileProvider =
+        new CachedTileProvider(executor, new File(System.getProperty("java.io.tmpdir")));
+    final List<Integer> cachedTileCounts = new ArrayList<>();
+
+    tileProvider.prefetch(
+        Arrays.asList(new int[] {0, 0, 1}, new int[] {1, 0, 1}),
+        new CachedTileProvider.PrefetchListener() {
+          @Override
+          public void onPrefetchComplete(int cachedTileCount) {
+            cachedTileCounts.add(cachedTileCount);
+          }
+        });
+
+    assertEquals(Arrays.asList(0), cachedTileCounts);
+  }
+}
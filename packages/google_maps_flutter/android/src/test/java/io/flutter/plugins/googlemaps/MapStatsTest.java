@@ -0,0 +1,57 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MapStatsTest {
+  private MapStats stats;
+
+  @Before
+  public void setUp() {
+    stats = new MapStats();
+  }
+
+  @Test
+  public void toJson_ReturnsTheRecordedTimingsInMicroseconds() {
+    stats.recordDecode("markers#update", 5000000);
+    stats.recordApply("markers#update", 2000000);
+    stats.recordApply("markers#update", 3000000);
+    stats.recordCameraMove();
+    stats.recordCameraMove();
+    stats.recordCameraMoveEvent();
+
+    final Map<String, Object> data = stats.toJson(new HashMap<String, Object>());
+
+    final Map<?, ?> methodCalls = (Map<?, ?>) data.get("methodCalls");
+    final Map<?, ?> markerUpdates = (Map<?, ?>) methodCalls.get("markers#update");
+    assertEquals(2, markerUpdates.get("count"));
+    assertEquals(5000L, markerUpdates.get("decodeMicros"));
+    assertEquals(5000L, markerUpdates.get("applyMicros"));
+    assertEquals(3000L, markerUpdates.get("maxApplyMicros"));
+    assertEquals(2, data.get("cameraMoves"));
+    assertEquals(1, data.get("cameraMoveEvents"));
+  }
+
+  @Test
+  public void reset_ClearsTheTimingsAndEventCounts() {
+    stats.recordApply("markers#update", 2000000);
+    stats.recordCameraMove();
+    stats.recordCameraMoveEvent();
+
+    stats.reset();
+    final Map<String, Object> data = stats.toJson(new HashMap<String, Object>());
+
+    assertTrue(((Map<?, ?>) data.get("methodCalls")).isEmpty());
+    assertEquals(0, data.get("cameraMoves"));
+    assertEquals(0, data.get("cameraMoveEvents"));
+  }
+}
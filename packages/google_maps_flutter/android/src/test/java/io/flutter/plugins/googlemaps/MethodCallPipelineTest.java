@@ -0,0 +1,125 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import static org.junit.Assert.assertEquals;
+
+import io.flutter.plugin.common.MethodCall;
+import io.flutter.plugin.common.MethodChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MethodCallPipelineTest {
+  /** An executor whose tasks only run when {@link #runAll} is called. */
+  private static class QueueExecutorService extends AbstractExecutorService {
+    private final List<Runnable> tasks = new ArrayList<>();
+    private boolean shutdown;
+
+    void runAll() {
+      while (!tasks.isEmpty()) {
+        tasks.remove(0).run();
+      }
+    }
+
+    @Override
+    public void execute(Runnable command) {
+      tasks.add(command);
+    }
+
+    @Override
+    public void shutdown() {
+      shutdown = true;
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+      shutdown = true;
+      final List<Runnable> pendingTasks = new ArrayList<>(tasks);
+      tasks.clear();
+      return pendingTasks;
+    }
+
+    @Override
+    public boolean isShutdown() {
+      return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+      return shutdown && tasks.isEmpty();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) {
+      return isTerminated();
+    }
+  }
+
+  private static class NoopResult implements MethodChannel.Result {
+    @Override
+    public void success(Object result) {}
+
+    @Override
+    public void error(String errorCode, String errorMessage, Object errorDetails) {}
+
+    @Override
+    public void notImplemented() {}
+  }
+
+  private final List<String> handledMethods = new ArrayList<>();
+  private QueueExecutorService decodeExecutor;
+  private MethodCallPipeline pipeline;
+
+  @Before
+  public void setUp() {
+    decodeExecutor = new QueueExecutorService();
+    pipeline =
+        new MethodCallPipeline(
+            new MethodChannel.MethodCallHandler() {
+              @Override
+              public void onMethodCall(MethodCall call, MethodChannel.Result result) {
+                handledMethods.add(call.method);
+              }
+            },
+            new MapStats(),
+            decodeExecutor,
+            new Executor() {
+              @Override
+              public void execute(Runnable command) {
+                command.run();
+              }
+            });
+  }
+
+  @Test
+  public void handlesCallsImmediatelyWhenNothingIsPending() {
+    pipeline.onMethodCall(new MethodCall("map#getVisibleRegion", null), new NoopResult());
+
+    assertEquals(Collections.singletonList("map#getVisibleRegion"), handledMethods);
+  }
+
+  @Test
+  public void keepsTheOrderOfCallsQueuedBehindADecode() {
+    final Map<String, Object> updates = new HashMap<>();
+    updates.put("markersToAdd", Collections.emptyList());
+    pipeline.onMethodCall(new MethodCall("markers#update", updates), new NoopResult());
+    pipeline.onMethodCall(new MethodCall("map#getVisibleRegion", null), new NoopResult());
+
+    assertEquals(Collections.emptyList(), handledMethods);
+
+    decodeExecutor.runAll();
+
+    assertEquals(Arrays.asList("markers#update", "map#getVisibleRegion"), handledMethods);
+  }
+}
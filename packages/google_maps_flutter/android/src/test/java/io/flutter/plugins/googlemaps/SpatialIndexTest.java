@@ -0,0 +1,93 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.android.gms.maps.model.LatLng;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SpatialIndexTest {
+  private SpatialIndex spatialIndex;
+
+  @Before
+  public void setUp() {
+    spatialIndex = new SpatialIndex();
+  }
+
+  @Test
+  public void searchContaining_ExcludesPointsInHoles() {
+    spatialIndex.putPolygon(
+        "polygon_1",
+        rectangle(-10, -10, 10, 10),
+        Collections.singletonList(rectangle(-5, -5, 5, 5)));
+
+    assertEquals(Collections.<String>emptyList(), containing(new LatLng(0, 0)));
+    assertEquals(Collections.singletonList("polygon_1"), containing(new LatLng(7, 7)));
+    assertEquals(Collections.<String>emptyList(), containing(new LatLng(20, 20)));
+  }
+
+  @Test
+  public void searchContaining_AcrossTheAntimeridian() {
+    spatialIndex.putPolygon(
+        "polygon_1",
+        rectangle(-10, 170, 10, -170),
+        Collections.singletonList(rectangle(-2, 178, 2, -178)));
+
+    assertEquals(Collections.singletonList("polygon_1"), containing(new LatLng(5, 179)));
+    assertEquals(Collections.singletonList("polygon_1"), containing(new LatLng(5, -179)));
+    assertEquals(Collections.<String>emptyList(), containing(new LatLng(0, 179.5)));
+    assertEquals(Collections.<String>emptyList(), containing(new LatLng(0, -179.5)));
+    assertEquals(Collections.<String>emptyList(), containing(new LatLng(0, 0)));
+  }
+
+  @Test
+  public void searchContaining_ComparesTheDistanceToCircles() {
+    spatialIndex.putCircle(SpatialIndex.TYPE_CIRCLE, "circle_1", new LatLng(0, 0), 100000);
+
+    assertEquals(Collections.singletonList("circle_1"), containing(new LatLng(0.5, 0)));
+    assertEquals(Collections.<String>emptyList(), containing(new LatLng(1, 0)));
+  }
+
+  @Test
+  public void distanceToPolyline_MeasuresToTheClosestSegment() {
+    spatialIndex.putPoints(
+        SpatialIndex.TYPE_POLYLINE,
+        "polyline_1",
+        Arrays.asList(new LatLng(0, 0), new LatLng(0, 10)));
+
+    final double distance = spatialIndex.distanceToPolyline("polyline_1", new LatLng(1, 5));
+
+    // One degree of latitude is about 111km.
+    assertTrue(Math.abs(distance - 111200) < 1000);
+    assertTrue(Double.isNaN(spatialIndex.distanceToPolyline("polyline_2", new LatLng(1, 5))));
+  }
+
+  private List<String> containing(LatLng point) {
+    final List<SpatialIndex.Entry> entries = new ArrayList<>();
+    spatialIndex.searchContaining(point, entries);
+    final List<String> ids = new ArrayList<>();
+    for (SpatialIndex.Entry entry : entries) {
+      ids.add(entry.id);
+    }
+    return ids;
+  }
+
+  // The closed ring of a rectangle, from its south-west to its north-east corner.
+  private static List<LatLng> rectangle(double south, double west, double north, double east) {
+    return Arrays.asList(
+        new LatLng(south, west),
+        new LatLng(north, west),
+        new LatLng(north, east),
+        new LatLng(south, east),
+        new LatLng(south, west));
+  }
+}
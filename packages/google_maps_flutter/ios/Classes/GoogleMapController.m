@@ -227,6 +227,16 @@ static double ToDouble(NSNumber* data) { return [FLTGoogleMapJsonConversions toD
       [_circlesController removeCircleIds:circleIdsToRemove];
     }
     result(nil);
+  } else if ([call.method isEqualToString:@"markers#animate"] ||
+             [call.method isEqualToString:@"markers#stopAnimations"]) {
+    // Marker animations are not supported on iOS yet.
+    result(nil);
+  } else if ([call.method isEqualToString:@"heatmaps#update"]) {
+    // Heatmaps are not supported on iOS yet.
+    result(nil);
+  } else if ([call.method isEqualToString:@"tileOverlays#update"]) {
+    // Tile overlays are not supported on iOS yet.
+    result(nil);
   } else if ([call.method isEqualToString:@"map#isCompassEnabled"]) {
     NSNumber* isCompassEnabled = @(_mapView.settings.compassButton);
     result(isCompassEnabled);
@@ -45,6 +45,17 @@
   }
   _polygon.path = path;
 }
+- (void)setHoles:(NSArray<NSArray<CLLocation*>*>*)holes {
+  NSMutableArray<GMSPath*>* paths = [NSMutableArray arrayWithCapacity:holes.count];
+  for (NSArray<CLLocation*>* hole in holes) {
+    GMSMutablePath* path = [GMSMutablePath path];
+    for (CLLocation* location in hole) {
+      [path addCoordinate:location.coordinate];
+    }
+    [paths addObject:path];
+  }
+  _polygon.holes = paths;
+}
 
 - (void)setFillColor:(UIColor*)color {
   _polygon.fillColor = color;
@@ -61,7 +72,7 @@ static int ToInt(NSNumber* data) { return [FLTGoogleMapJsonConversions toInt:dat
 
 static BOOL ToBool(NSNumber* data) { return [FLTGoogleMapJsonConversions toBool:data]; }
 
-static NSArray<CLLocation*>* ToPoints(NSArray* data) {
+static NSArray<CLLocation*>* ToPoints(id data) {
   return [FLTGoogleMapJsonConversions toPoints:data];
 }
 
@@ -84,11 +95,21 @@ static void InterpretPolygonOptions(NSDictionary* data, id<FLTGoogleMapPolygonOp
     [sink setZIndex:ToInt(zIndex)];
   }
 
-  NSArray* points = data[@"points"];
+  id points = data[@"points"];
   if (points) {
     [sink setPoints:ToPoints(points)];
   }
 
+  NSArray* holes = data[@"holes"];
+  if (holes) {
+    NSMutableArray<NSArray<CLLocation*>*>* holePoints =
+        [NSMutableArray arrayWithCapacity:holes.count];
+    for (id hole in holes) {
+      [holePoints addObject:ToPoints(hole)];
+    }
+    [sink setHoles:holePoints];
+  }
+
   NSNumber* fillColor = data[@"fillColor"];
   if (fillColor != nil) {
     [sink setFillColor:ToColor(fillColor)];
@@ -14,5 +14,5 @@
 + (CGPoint)toPoint:(NSArray*)data;
 + (NSArray*)positionToJson:(CLLocationCoordinate2D)position;
 + (UIColor*)toColor:(NSNumber*)data;
-+ (NSArray<CLLocation*>*)toPoints:(NSArray*)data;
++ (NSArray<CLLocation*>*)toPoints:(id)data;
 @end
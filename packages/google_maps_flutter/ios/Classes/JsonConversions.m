@@ -44,8 +44,17 @@
                          alpha:((float)((value & 0xFF000000) >> 24)) / 255.0];
 }
 
-+ (NSArray<CLLocation*>*)toPoints:(NSArray*)data {
++ (NSArray<CLLocation*>*)toPoints:(id)data {
   NSMutableArray* points = [[NSMutableArray alloc] init];
+  if ([data isKindOfClass:[FlutterStandardTypedData class]]) {
+    // Large lists of points are packed as alternating latitudes and longitudes.
+    FlutterStandardTypedData* typedData = data;
+    const double* values = typedData.data.bytes;
+    for (unsigned i = 0; i + 1 < typedData.elementCount; i += 2) {
+      [points addObject:[[CLLocation alloc] initWithLatitude:values[i] longitude:values[i + 1]]];
+    }
+    return points;
+  }
   for (unsigned i = 0; i < [data count]; i++) {
     NSNumber* latitude = data[i][0];
     NSNumber* longitude = data[i][1];
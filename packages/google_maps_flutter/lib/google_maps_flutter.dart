@@ -19,11 +19,17 @@ part 'src/camera.dart';
 part 'src/cap.dart';
 part 'src/circle.dart';
 part 'src/circle_updates.dart';
+part 'src/cluster.dart';
 part 'src/controller.dart';
 part 'src/google_map.dart';
+part 'src/heatmap.dart';
+part 'src/heatmap_updates.dart';
 part 'src/joint_type.dart';
 part 'src/location.dart';
+part 'src/map_object.dart';
+part 'src/map_stats.dart';
 part 'src/marker.dart';
+part 'src/marker_animation.dart';
 part 'src/marker_updates.dart';
 part 'src/pattern_item.dart';
 part 'src/polygon.dart';
@@ -31,4 +37,6 @@ part 'src/polygon_updates.dart';
 part 'src/polyline.dart';
 part 'src/polyline_updates.dart';
 part 'src/screen_coordinate.dart';
+part 'src/tile_overlay.dart';
+part 'src/tile_overlay_updates.dart';
 part 'src/ui.dart';
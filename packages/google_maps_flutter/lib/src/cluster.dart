@@ -0,0 +1,151 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+part of google_maps_flutter;
+
+/// Configuration of the native marker clustering of a [GoogleMap].
+///
+/// When clustering is enabled, markers that are close to each other on screen
+/// are grouped into a single cluster marker. Clusters are recomputed when the
+/// camera becomes idle, and only cluster markers and the individual markers
+/// inside the visible region are added to the platform map.
+///
+/// Supported on Android only.
+@immutable
+class MarkerClustering {
+  /// Creates an immutable representation of the marker clustering options.
+  const MarkerClustering({
+    this.enabled = true,
+    this.gridSize = 60,
+    this.minClusterSize = 4,
+    this.maxZoom = 20,
+    this.color = Colors.blue,
+    this.textColor = Colors.white,
+    this.icon,
+  })  : assert(gridSize != null && gridSize > 0),
+        assert(minClusterSize != null && minClusterSize > 1);
+
+  /// Clustering options that keep every marker on the map.
+  static const MarkerClustering disabled = MarkerClustering(enabled: false);
+
+  /// True if markers should be clustered.
+  final bool enabled;
+
+  /// Size in logical pixels of the square grid cells markers are grouped by.
+  final double gridSize;
+
+  /// Minimum number of markers in a grid cell that form a cluster.
+  ///
+  /// Cells holding fewer markers show their markers individually.
+  final int minClusterSize;
+
+  /// Zoom level above which markers are no longer clustered.
+  final double maxZoom;
+
+  /// Fill color of the default cluster icon.
+  final Color color;
+
+  /// Color of the marker count drawn on the default cluster icon.
+  final Color textColor;
+
+  /// Icon used for all cluster markers instead of the default cluster icon.
+  ///
+  /// When set, the number of markers in the cluster is shown as the title of
+  /// the cluster marker's info window.
+  final BitmapDescriptor icon;
+
+  dynamic _toJson() {
+    final Map<String, dynamic> json = <String, dynamic>{};
+
+    void addIfPresent(String fieldName, dynamic value) {
+      if (value != null) {
+        json[fieldName] = value;
+      }
+    }
+
+    addIfPresent('enabled', enabled);
+    addIfPresent('gridSize', gridSize);
+    addIfPresent('minClusterSize', minClusterSize);
+    addIfPresent('maxZoom', maxZoom);
+    addIfPresent('color', color?.value);
+    addIfPresent('textColor', textColor?.value);
+    addIfPresent('icon', icon?._toJson());
+    return json;
+  }
+
+  @override
+  bool operator ==(Object other) {
+    if (identical(this, other)) return true;
+    if (other.runtimeType != runtimeType) return false;
+    final MarkerClustering typedOther = other;
+    return enabled == typedOther.enabled &&
+        gridSize == typedOther.gridSize &&
+        minClusterSize == typedOther.minClusterSize &&
+        maxZoom == typedOther.maxZoom &&
+        color == typedOther.color &&
+        textColor == typedOther.textColor &&
+        icon == typedOther.icon;
+  }
+
+  @override
+  int get hashCode => hashValues(
+      enabled, gridSize, minClusterSize, maxZoom, color, textColor, icon);
+
+  @override
+  String toString() {
+    return 'MarkerClustering{enabled: $enabled, gridSize: $gridSize, '
+        'minClusterSize: $minClusterSize, maxZoom: $maxZoom, color: $color, '
+        'textColor: $textColor, icon: $icon}';
+  }
+}
+
+/// A group of markers that is shown as a single cluster marker.
+///
+/// See also:
+///   * [MarkerClustering], for how markers are grouped.
+///   * [GoogleMap.onClusterTap], which reports taps on cluster markers.
+@immutable
+class Cluster {
+  /// Creates an immutable representation of a marker cluster.
+  const Cluster(this.position, this.markerIds);
+
+  /// Geographical location of the cluster marker.
+  ///
+  /// This is the centroid of the positions of the clustered markers.
+  final LatLng position;
+
+  /// Identifiers of the markers grouped in this cluster.
+  final List<MarkerId> markerIds;
+
+  /// Number of markers grouped in this cluster.
+  int get count => markerIds.length;
+
+  static Cluster _fromJson(dynamic json) {
+    if (json == null) {
+      return null;
+    }
+    final List<dynamic> markerIds = json['markerIds'];
+    return Cluster(
+      LatLng._fromJson(json['position']),
+      markerIds.map<MarkerId>((dynamic id) => MarkerId(id)).toList(),
+    );
+  }
+
+  @override
+  bool operator ==(Object other) {
+    if (identical(this, other)) return true;
+    if (other.runtimeType != runtimeType) return false;
+    final Cluster typedOther = other;
+    return position == typedOther.position &&
+        listEquals(markerIds, typedOther.markerIds);
+  }
+
+  @override
+  int get hashCode => hashValues(position, hashList(markerIds));
+
+  @override
+  String toString() {
+    return 'Cluster{position: $position, count: $count}';
+  }
+}
@@ -80,6 +80,9 @@ class GoogleMapController {
       case 'circle#onTap':
         _googleMapState.onCircleTap(call.arguments['circleId']);
         break;
+      case 'cluster#onTap':
+        _googleMapState.onClusterTap(Cluster._fromJson(call.arguments));
+        break;
       case 'map#onTap':
         _googleMapState.onTap(LatLng._fromJson(call.arguments['position']));
         break;
@@ -87,11 +90,54 @@ class GoogleMapController {
         _googleMapState
             .onLongPress(LatLng._fromJson(call.arguments['position']));
         break;
+      case 'map#onEvents':
+        final List<dynamic> events = call.arguments;
+        for (final dynamic event in events) {
+          _handleEvent(event);
+        }
+        break;
+      case 'map#onObjectsLoaded':
+        if (_googleMapState.widget.onObjectsLoaded != null) {
+          _googleMapState.widget.onObjectsLoaded();
+        }
+        break;
       default:
         throw MissingPluginException();
     }
   }
 
+  // Dispatches an event of a batch sent by the platform: its name, the id of
+  // the object and, for drag events, the latitude and longitude of the marker.
+  void _handleEvent(List<dynamic> event) {
+    final String id = event[1];
+    switch (event[0]) {
+      case 'marker#onTap':
+        _googleMapState.onMarkerTap(id);
+        break;
+      case 'marker#onDragStart':
+        _googleMapState.onMarkerDragStart(id, LatLng(event[2], event[3]));
+        break;
+      case 'marker#onDrag':
+        _googleMapState.onMarkerDrag(id, LatLng(event[2], event[3]));
+        break;
+      case 'marker#onDragEnd':
+        _googleMapState.onMarkerDragEnd(id, LatLng(event[2], event[3]));
+        break;
+      case 'infoWindow#onTap':
+        _googleMapState.onInfoWindowTap(id);
+        break;
+      case 'polyline#onTap':
+        _googleMapState.onPolylineTap(id);
+        break;
+      case 'polygon#onTap':
+        _googleMapState.onPolygonTap(id);
+        break;
+      case 'circle#onTap':
+        _googleMapState.onCircleTap(id);
+        break;
+    }
+  }
+
   /// Updates configuration options of the map user interface.
   ///
   /// Change listeners are notified once the update has been made on the
@@ -164,6 +210,35 @@ class GoogleMapController {
     );
   }
 
+  /// Updates heatmap configuration.
+  ///
+  /// Change listeners are notified once the update has been made on the
+  /// platform side.
+  ///
+  /// The returned [Future] completes after listeners have been notified.
+  Future<void> _updateHeatmaps(_HeatmapUpdates heatmapUpdates) async {
+    assert(heatmapUpdates != null);
+    await channel.invokeMethod<void>(
+      'heatmaps#update',
+      heatmapUpdates._toMap(),
+    );
+  }
+
+  /// Updates tile overlay configuration.
+  ///
+  /// Change listeners are notified once the update has been made on the
+  /// platform side.
+  ///
+  /// The returned [Future] completes after listeners have been notified.
+  Future<void> _updateTileOverlays(
+      _TileOverlayUpdates tileOverlayUpdates) async {
+    assert(tileOverlayUpdates != null);
+    await channel.invokeMethod<void>(
+      'tileOverlays#update',
+      tileOverlayUpdates._toMap(),
+    );
+  }
+
   /// Starts an animated change of the map camera position.
   ///
   /// The returned [Future] completes after the change has been started on the
@@ -216,6 +291,204 @@ class GoogleMapController {
     return LatLngBounds(northeast: northeast, southwest: southwest);
   }
 
+  /// Returns the markers, polygons, polylines and circles whose bounds
+  /// intersect [bounds].
+  ///
+  /// The bounds of the objects are kept in a spatial index on the platform
+  /// side, so the query doesn't scan all the objects of the map. The bounds of
+  /// polygons, polylines and circles are their bounding boxes, so an object may
+  /// be returned even if its outline doesn't intersect [bounds].
+  ///
+  /// Supported on Android only.
+  Future<List<MapObjectId>> queryRegion(LatLngBounds bounds) async {
+    final List<dynamic> objects = await channel.invokeMethod<List<dynamic>>(
+        'map#queryRegion', <String, dynamic>{'bounds': bounds._toList()});
+    return objects.map<MapObjectId>(MapObjectId._fromJson).toList();
+  }
+
+  /// Returns up to [count] markers, polygons, polylines and circles whose
+  /// bounds are the closest to [position], closest first.
+  ///
+  /// Like [queryRegion], this uses the bounding boxes of the objects and their
+  /// distances in the Web Mercator projection, which is accurate for nearby
+  /// objects.
+  ///
+  /// Supported on Android only.
+  Future<List<MapObjectId>> nearest(LatLng position, {int count = 1}) async {
+    assert(count != null && count > 0);
+    final List<dynamic> objects = await channel.invokeMethod<List<dynamic>>(
+        'map#nearest', <String, dynamic>{
+      'position': position._toJson(),
+      'count': count,
+    });
+    return objects.map<MapObjectId>(MapObjectId._fromJson).toList();
+  }
+
+  /// Returns an image of the map, encoded in [format].
+  ///
+  /// The image is encoded off the main thread. Snapshots are cached by camera
+  /// position, map type, size and style until the objects or options of the
+  /// map change, so taking the same snapshot again doesn't render the map.
+  /// [quality] is used by [SnapshotFormat.jpeg], from 0 to 100.
+  ///
+  /// See also [GoogleMap.liteModeEnabled], which makes non-interactive maps
+  /// cheaper to render.
+  ///
+  /// Supported on Android only.
+  Future<Uint8List> takeSnapshot({
+    SnapshotFormat format = SnapshotFormat.png,
+    int quality = 100,
+  }) {
+    return channel.invokeMethod<Uint8List>(
+        'map#snapshot', _snapshotArguments(format, quality, null));
+  }
+
+  /// Writes an image of the map, encoded in [format], to the file at [path].
+  ///
+  /// Like [takeSnapshot], but the image isn't sent back to Dart. Returns the
+  /// absolute path of the file.
+  ///
+  /// Supported on Android only.
+  Future<String> takeSnapshotToFile(
+    String path, {
+    SnapshotFormat format = SnapshotFormat.png,
+    int quality = 100,
+  }) {
+    assert(path != null);
+    return channel.invokeMethod<String>(
+        'map#snapshot', _snapshotArguments(format, quality, path));
+  }
+
+  Map<String, dynamic> _snapshotArguments(
+      SnapshotFormat format, int quality, String path) {
+    assert(format != null);
+    assert(quality != null && quality >= 0 && quality <= 100);
+    return <String, dynamic>{
+      'format': format == SnapshotFormat.png ? 'png' : 'jpeg',
+      'quality': quality,
+      'path': path,
+    };
+  }
+
+  /// Returns the performance counters of the map.
+  ///
+  /// If [reset] is true, the timings and event counts start over after being
+  /// returned.
+  ///
+  /// Supported on Android only.
+  Future<MapStats> getStats({bool reset = false}) async {
+    final dynamic stats = await channel.invokeMethod<dynamic>(
+        'map#getStats', <String, dynamic>{'reset': reset});
+    return MapStats._fromJson(stats);
+  }
+
+  /// Returns for each of [points] the polygons and circles that contain it.
+  ///
+  /// All the points are checked with a single call, and the shapes are
+  /// prefiltered with the spatial index of [queryRegion] before their exact
+  /// geometry is checked. The edges of polygons are straight lines in the Web
+  /// Mercator projection, as drawn when [Polygon.geodesic] is false. Points
+  /// in the [Polygon.holes] of a polygon are not contained by it.
+  ///
+  /// Supported on Android only.
+  Future<List<List<MapObjectId>>> shapesContaining(List<LatLng> points) async {
+    assert(points != null);
+    final List<dynamic> shapes = await channel.invokeMethod<List<dynamic>>(
+        'map#shapesContaining',
+        <String, dynamic>{'points': _latLngsToJson(points)});
+    return shapes
+        .map<List<MapObjectId>>((dynamic objects) =>
+            objects.map<MapObjectId>(MapObjectId._fromJson).toList())
+        .toList();
+  }
+
+  /// Returns the distance in meters from [point] to the polyline with the
+  /// given id.
+  ///
+  /// The distance is measured in the Web Mercator projection and scaled at the
+  /// latitude of [point], which is accurate for nearby polylines.
+  ///
+  /// Supported on Android only.
+  Future<double> distanceToPolyline(PolylineId polylineId, LatLng point) {
+    assert(polylineId != null);
+    assert(point != null);
+    return channel
+        .invokeMethod<double>('map#distanceToPolyline', <String, dynamic>{
+      'polylineId': polylineId.value,
+      'point': point._toJson(),
+    });
+  }
+
+  /// Moves markers along paths, animated on the platform side.
+  ///
+  /// The positions are updated on every frame without any message between
+  /// Dart and the platform, so hundreds of markers can be moved at once. An
+  /// animation replaces the running animation of the same marker, starting
+  /// from where the marker is.
+  ///
+  /// The positions of the [Marker]s given to [GoogleMap] are not changed, so
+  /// an update of a marker moves it back to its position unless that position
+  /// is updated too.
+  ///
+  /// Supported on Android only.
+  Future<void> animateMarkers(List<MarkerAnimation> animations) async {
+    assert(animations != null);
+    await channel.invokeMethod<void>('markers#animate', <String, dynamic>{
+      'animations': animations
+          .map<dynamic>((MarkerAnimation animation) => animation._toJson())
+          .toList(),
+    });
+  }
+
+  /// Stops the animations of the markers [markerIds], or of all the markers
+  /// if null, leaving them where they are.
+  ///
+  /// Supported on Android only.
+  Future<void> stopMarkerAnimations([List<MarkerId> markerIds]) async {
+    final List<dynamic> ids = markerIds
+        ?.map<dynamic>((MarkerId markerId) => markerId.value)
+        ?.toList();
+    await channel.invokeMethod<void>(
+        'markers#stopAnimations', <String, dynamic>{'markerIds': ids});
+  }
+
+  /// Downloads into the disk cache of a tile overlay its tiles covering
+  /// [bounds] at the zoom levels from [minZoom] to [maxZoom].
+  ///
+  /// Tiles that are already cached are not downloaded again. The returned
+  /// [Future] completes with the number of tiles in the cache once all the
+  /// tiles have been downloaded or failed to download. At most 10000 tiles can
+  /// be prefetched at once.
+  ///
+  /// Supported on Android only.
+  Future<int> prefetchTiles(
+    TileOverlayId tileOverlayId,
+    LatLngBounds bounds, {
+    @required int minZoom,
+    @required int maxZoom,
+  }) {
+    assert(tileOverlayId != null);
+    assert(minZoom != null && minZoom >= 0);
+    assert(maxZoom != null && maxZoom >= minZoom);
+    return channel.invokeMethod<int>(
+        'tileOverlays#prefetchTiles', <String, dynamic>{
+      'tileOverlayId': tileOverlayId.value,
+      'bounds': bounds._toList(),
+      'minZoom': minZoom,
+      'maxZoom': maxZoom,
+    });
+  }
+
+  /// Removes the tiles of a tile overlay from its memory and disk caches, and
+  /// downloads the visible tiles again.
+  ///
+  /// Supported on Android only.
+  Future<void> clearTileCache(TileOverlayId tileOverlayId) {
+    assert(tileOverlayId != null);
+    return channel.invokeMethod<void>('tileOverlays#clearTileCache',
+        <String, dynamic>{'tileOverlayId': tileOverlayId.value});
+  }
+
   /// Return [ScreenCoordinate] of the [LatLng] in the current map view.
   ///
   /// A projection is used to translate between on screen location and geographic coordinates.
@@ -45,15 +45,23 @@ class GoogleMap extends StatefulWidget {
     this.indoorViewEnabled = false,
     this.trafficEnabled = false,
     this.buildingsEnabled = true,
+    this.liteModeEnabled = false,
+    this.markerClustering = MarkerClustering.disabled,
+    this.markerCullingEnabled = false,
     this.markers,
     this.polygons,
     this.polylines,
     this.circles,
+    this.heatmaps,
+    this.tileOverlays,
     this.onCameraMoveStarted,
     this.onCameraMove,
+    this.cameraMoveThrottling = CameraMoveThrottling.none,
     this.onCameraIdle,
     this.onTap,
     this.onLongPress,
+    this.onClusterTap,
+    this.onObjectsLoaded,
   })  : assert(initialCameraPosition != null),
         super(key: key);
 
@@ -100,6 +108,22 @@ class GoogleMap extends StatefulWidget {
   /// Markers to be placed on the map.
   final Set<Marker> markers;
 
+  /// How [markers] are grouped into clusters.
+  ///
+  /// Clustering is disabled by default. See [MarkerClustering].
+  final MarkerClustering markerClustering;
+
+  /// True if only the [markers] near the visible region should be added to
+  /// the platform map.
+  ///
+  /// The markers shown are updated while the camera moves, which keeps large
+  /// sets of markers cheap when only a small part of them is visible. Ignored
+  /// when [markerClustering] is enabled, as clustering already limits the
+  /// markers to the visible region.
+  ///
+  /// Supported on Android only.
+  final bool markerCullingEnabled;
+
   /// Polygons to be placed on the map.
   final Set<Polygon> polygons;
 
@@ -109,6 +133,16 @@ class GoogleMap extends StatefulWidget {
   /// Circles to be placed on the map.
   final Set<Circle> circles;
 
+  /// Heatmaps to be placed on the map.
+  ///
+  /// Supported on Android only.
+  final Set<Heatmap> heatmaps;
+
+  /// Tile overlays to be placed on the map.
+  ///
+  /// Supported on Android only.
+  final Set<TileOverlay> tileOverlays;
+
   /// Called when the camera starts moving.
   ///
   /// This can be initiated by the following:
@@ -126,6 +160,11 @@ class GoogleMap extends StatefulWidget {
   /// not perform expensive operations.
   final CameraPositionCallback onCameraMove;
 
+  /// Limits on how often [onCameraMove] is called.
+  ///
+  /// See [CameraMoveThrottling].
+  final CameraMoveThrottling cameraMoveThrottling;
+
   /// Called when camera movement has ended, there are no pending
   /// animations and the user has stopped interacting with the map.
   final VoidCallback onCameraIdle;
@@ -136,6 +175,21 @@ class GoogleMap extends StatefulWidget {
   /// Called every time a [GoogleMap] is long pressed.
   final ArgumentCallback<LatLng> onLongPress;
 
+  /// Called every time a cluster marker is tapped.
+  ///
+  /// Only called when [markerClustering] is enabled.
+  final ArgumentCallback<Cluster> onClusterTap;
+
+  /// Called once the initial [markers], [polygons], [polylines] and [circles]
+  /// have all been added to the map.
+  ///
+  /// The initial objects are added over several frames, the ones in the
+  /// visible region first, so that large sets of objects don't delay the first
+  /// frame of the map.
+  ///
+  /// Supported on Android only.
+  final VoidCallback onObjectsLoaded;
+
   /// True if a "My Location" layer should be shown on the map.
   ///
   /// This layer includes a location indicator at the current device location,
@@ -183,6 +237,15 @@ class GoogleMap extends StatefulWidget {
   /// Enables or disables showing 3D buildings where available
   final bool buildingsEnabled;
 
+  /// True if the map is a static image of the camera position, cheap to show
+  /// in non-interactive cards and lists.
+  ///
+  /// Lite mode can only be set when the map is created. Changing it later is
+  /// an error in debug mode, and has no effect in release mode.
+  ///
+  /// Supported on Android only.
+  final bool liteModeEnabled;
+
   /// Which gestures should be consumed by the map.
   ///
   /// It is possible for other gesture recognizers to be competing with the map on pointer
@@ -207,6 +270,9 @@ class _GoogleMapState extends State<GoogleMap> {
   Map<PolygonId, Polygon> _polygons = <PolygonId, Polygon>{};
   Map<PolylineId, Polyline> _polylines = <PolylineId, Polyline>{};
   Map<CircleId, Circle> _circles = <CircleId, Circle>{};
+  Map<HeatmapId, Heatmap> _heatmaps = <HeatmapId, Heatmap>{};
+  Map<TileOverlayId, TileOverlay> _tileOverlays =
+      <TileOverlayId, TileOverlay>{};
   _GoogleMapOptions _googleMapOptions;
 
   @override
@@ -218,6 +284,8 @@ class _GoogleMapState extends State<GoogleMap> {
       'polygonsToAdd': _serializePolygonSet(widget.polygons),
       'polylinesToAdd': _serializePolylineSet(widget.polylines),
       'circlesToAdd': _serializeCircleSet(widget.circles),
+      'heatmapsToAdd': _serializeHeatmapSet(widget.heatmaps),
+      'tileOverlaysToAdd': _serializeTileOverlaySet(widget.tileOverlays),
     };
     if (defaultTargetPlatform == TargetPlatform.android) {
       return AndroidView(
@@ -249,16 +317,22 @@ class _GoogleMapState extends State<GoogleMap> {
     _polygons = _keyByPolygonId(widget.polygons);
     _polylines = _keyByPolylineId(widget.polylines);
     _circles = _keyByCircleId(widget.circles);
+    _heatmaps = _keyByHeatmapId(widget.heatmaps);
+    _tileOverlays = _keyByTileOverlayId(widget.tileOverlays);
   }
 
   @override
   void didUpdateWidget(GoogleMap oldWidget) {
     super.didUpdateWidget(oldWidget);
+    assert(widget.liteModeEnabled == oldWidget.liteModeEnabled,
+        'GoogleMap.liteModeEnabled can only be set when the map is created.');
     _updateOptions();
     _updateMarkers();
     _updatePolygons();
     _updatePolylines();
     _updateCircles();
+    _updateHeatmaps();
+    _updateTileOverlays();
   }
 
   void _updateOptions() async {
@@ -306,6 +380,22 @@ class _GoogleMapState extends State<GoogleMap> {
     _circles = _keyByCircleId(widget.circles);
   }
 
+  void _updateHeatmaps() async {
+    final GoogleMapController controller = await _controller.future;
+    // ignore: unawaited_futures
+    controller._updateHeatmaps(
+        _HeatmapUpdates.from(_heatmaps.values.toSet(), widget.heatmaps));
+    _heatmaps = _keyByHeatmapId(widget.heatmaps);
+  }
+
+  void _updateTileOverlays() async {
+    final GoogleMapController controller = await _controller.future;
+    // ignore: unawaited_futures
+    controller._updateTileOverlays(_TileOverlayUpdates.from(
+        _tileOverlays.values.toSet(), widget.tileOverlays));
+    _tileOverlays = _keyByTileOverlayId(widget.tileOverlays);
+  }
+
   Future<void> onPlatformViewCreated(int id) async {
     final GoogleMapController controller = await GoogleMapController.init(
       id,
@@ -326,6 +416,22 @@ class _GoogleMapState extends State<GoogleMap> {
     }
   }
 
+  void onMarkerDragStart(String markerIdParam, LatLng position) {
+    assert(markerIdParam != null);
+    final MarkerId markerId = MarkerId(markerIdParam);
+    if (_markers[markerId]?.onDragStart != null) {
+      _markers[markerId].onDragStart(position);
+    }
+  }
+
+  void onMarkerDrag(String markerIdParam, LatLng position) {
+    assert(markerIdParam != null);
+    final MarkerId markerId = MarkerId(markerIdParam);
+    if (_markers[markerId]?.onDrag != null) {
+      _markers[markerId].onDrag(position);
+    }
+  }
+
   void onMarkerDragEnd(String markerIdParam, LatLng position) {
     assert(markerIdParam != null);
     final MarkerId markerId = MarkerId(markerIdParam);
@@ -362,6 +468,13 @@ class _GoogleMapState extends State<GoogleMap> {
     }
   }
 
+  void onClusterTap(Cluster cluster) {
+    assert(cluster != null);
+    if (widget.onClusterTap != null) {
+      widget.onClusterTap(cluster);
+    }
+  }
+
   void onTap(LatLng position) {
     assert(position != null);
     if (widget.onTap != null) {
@@ -399,6 +512,10 @@ class _GoogleMapOptions {
     this.indoorViewEnabled,
     this.trafficEnabled,
     this.buildingsEnabled,
+    this.liteModeEnabled,
+    this.markerClustering,
+    this.markerCullingEnabled,
+    this.cameraMoveThrottling,
   });
 
   static _GoogleMapOptions fromWidget(GoogleMap map) {
@@ -419,6 +536,10 @@ class _GoogleMapOptions {
       indoorViewEnabled: map.indoorViewEnabled,
       trafficEnabled: map.trafficEnabled,
       buildingsEnabled: map.buildingsEnabled,
+      liteModeEnabled: map.liteModeEnabled,
+      markerClustering: map.markerClustering,
+      markerCullingEnabled: map.markerCullingEnabled,
+      cameraMoveThrottling: map.cameraMoveThrottling,
     );
   }
 
@@ -454,6 +575,14 @@ class _GoogleMapOptions {
 
   final bool buildingsEnabled;
 
+  final bool liteModeEnabled;
+
+  final MarkerClustering markerClustering;
+
+  final bool markerCullingEnabled;
+
+  final CameraMoveThrottling cameraMoveThrottling;
+
   Map<String, dynamic> toMap() {
     final Map<String, dynamic> optionsMap = <String, dynamic>{};
 
@@ -484,6 +613,10 @@ class _GoogleMapOptions {
     addIfNonNull('indoorEnabled', indoorViewEnabled);
     addIfNonNull('trafficEnabled', trafficEnabled);
     addIfNonNull('buildingsEnabled', buildingsEnabled);
+    addIfNonNull('liteModeEnabled', liteModeEnabled);
+    addIfNonNull('markerClustering', markerClustering?._toJson());
+    addIfNonNull('markerCullingEnabled', markerCullingEnabled);
+    addIfNonNull('cameraMoveThrottling', cameraMoveThrottling?._toJson());
     return optionsMap;
   }
 
@@ -492,6 +625,8 @@ class _GoogleMapOptions {
 
     return newOptions.toMap()
       ..removeWhere(
-          (String key, dynamic value) => prevOptionsMap[key] == value);
+          (String key, dynamic value) => prevOptionsMap[key] == value)
+      // Lite mode can only be set when the map is created.
+      ..remove('liteModeEnabled');
   }
 }
@@ -0,0 +1,260 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+part of google_maps_flutter;
+
+/// Uniquely identifies a [Heatmap] among [GoogleMap] heatmaps.
+///
+/// This does not have to be globally unique, only unique among the list.
+@immutable
+class HeatmapId {
+  /// Creates an immutable identifier for a [Heatmap].
+  HeatmapId(this.value) : assert(value != null);
+
+  /// value of the [HeatmapId].
+  final String value;
+
+  @override
+  bool operator ==(Object other) {
+    if (identical(this, other)) return true;
+    if (other.runtimeType != runtimeType) return false;
+    final HeatmapId typedOther = other;
+    return value == typedOther.value;
+  }
+
+  @override
+  int get hashCode => value.hashCode;
+
+  @override
+  String toString() {
+    return 'HeatmapId{value: $value}';
+  }
+}
+
+/// A geographical location with a weight, used as the data of a [Heatmap].
+@immutable
+class WeightedLatLng {
+  /// Creates a weighted location.
+  const WeightedLatLng(this.point, {this.weight = 1.0})
+      : assert(point != null),
+        assert(weight != null && weight >= 0);
+
+  /// The location.
+  final LatLng point;
+
+  /// The intensity added by the location to the heatmap.
+  final double weight;
+
+  @override
+  bool operator ==(Object other) {
+    if (identical(this, other)) return true;
+    if (other.runtimeType != runtimeType) return false;
+    final WeightedLatLng typedOther = other;
+    return point == typedOther.point && weight == typedOther.weight;
+  }
+
+  @override
+  int get hashCode => hashValues(point, weight);
+
+  @override
+  String toString() => 'WeightedLatLng($point, weight: $weight)';
+}
+
+/// The colors of a [Heatmap], from the lowest to the highest intensity.
+@immutable
+class HeatmapGradient {
+  /// Creates a gradient from [colors] starting at the fractions [startPoints]
+  /// of the maximum intensity.
+  ///
+  /// [startPoints] must be increasing values between 0 and 1, with one value
+  /// per color.
+  const HeatmapGradient(this.colors, this.startPoints)
+      : assert(colors != null),
+        assert(startPoints != null),
+        assert(colors.length == startPoints.length),
+        assert(colors.length > 0);
+
+  /// The default gradient, from green to red.
+  static const HeatmapGradient standard = HeatmapGradient(
+    <Color>[Color(0xff66e100), Color(0xffff0000)],
+    <double>[0.2, 1.0],
+  );
+
+  /// The colors of the gradient.
+  final List<Color> colors;
+
+  /// The fraction of the maximum intensity at which each color starts.
+  final List<double> startPoints;
+
+  dynamic _toJson() {
+    return <dynamic>[
+      colors.map<int>((Color color) => color.value).toList(),
+      startPoints,
+    ];
+  }
+
+  @override
+  bool operator ==(Object other) {
+    if (identical(this, other)) return true;
+    if (other.runtimeType != runtimeType) return false;
+    final HeatmapGradient typedOther = other;
+    return listEquals(colors, typedOther.colors) &&
+        listEquals(startPoints, typedOther.startPoints);
+  }
+
+  @override
+  int get hashCode => hashValues(hashList(colors), hashList(startPoints));
+}
+
+/// Draws the density of weighted points on the map.
+///
+/// The heatmap is rendered natively in tiles, so it can show hundreds of
+/// thousands of points.
+///
+/// Supported on Android only.
+@immutable
+class Heatmap {
+  /// Creates an immutable representation of a [Heatmap] to draw on
+  /// [GoogleMap].
+  const Heatmap({
+    @required this.heatmapId,
+    this.data = const <WeightedLatLng>[],
+    this.gradient = HeatmapGradient.standard,
+    this.maxIntensity,
+    this.opacity = 0.7,
+    this.radius = 20,
+    this.visible = true,
+    this.zIndex = 0,
+  })  : assert(opacity != null && opacity >= 0 && opacity <= 1),
+        assert(radius != null && radius > 0);
+
+  /// Uniquely identifies a [Heatmap].
+  final HeatmapId heatmapId;
+
+  /// The weighted locations the heatmap shows the density of.
+  final List<WeightedLatLng> data;
+
+  /// The colors of the heatmap.
+  final HeatmapGradient gradient;
+
+  /// The intensity shown with the last color of [gradient].
+  ///
+  /// If null, it is computed from [data] for every zoom level.
+  final double maxIntensity;
+
+  /// The opacity of the heatmap, between 0 and 1.
+  final double opacity;
+
+  /// The radius in logical pixels of the area influenced by each location.
+  final int radius;
+
+  /// True if the heatmap is visible.
+  final bool visible;
+
+  /// The z-index of the heatmap, used to determine relative drawing order of
+  /// map overlays.
+  ///
+  /// Overlays are drawn in order of z-index, so that lower values means drawn
+  /// earlier, and thus appearing to be closer to the surface of the Earth.
+  final int zIndex;
+
+  /// Creates a new [Heatmap] object whose values are the same as this
+  /// instance, unless overwritten by the specified parameters.
+  Heatmap copyWith({
+    List<WeightedLatLng> dataParam,
+    HeatmapGradient gradientParam,
+    double maxIntensityParam,
+    double opacityParam,
+    int radiusParam,
+    bool visibleParam,
+    int zIndexParam,
+  }) {
+    return Heatmap(
+      heatmapId: heatmapId,
+      data: dataParam ?? data,
+      gradient: gradientParam ?? gradient,
+      maxIntensity: maxIntensityParam ?? maxIntensity,
+      opacity: opacityParam ?? opacity,
+      radius: radiusParam ?? radius,
+      visible: visibleParam ?? visible,
+      zIndex: zIndexParam ?? zIndex,
+    );
+  }
+
+  /// Creates a new [Heatmap] object whose values are the same as this
+  /// instance.
+  Heatmap clone() {
+    return copyWith(dataParam: List<WeightedLatLng>.of(data));
+  }
+
+  dynamic _toJson() {
+    final Map<String, dynamic> json = <String, dynamic>{};
+
+    void addIfPresent(String fieldName, dynamic value) {
+      if (value != null) {
+        json[fieldName] = value;
+      }
+    }
+
+    addIfPresent('heatmapId', heatmapId.value);
+    addIfPresent('gradient', gradient?._toJson());
+    addIfPresent('maxIntensity', maxIntensity);
+    addIfPresent('opacity', opacity);
+    addIfPresent('radius', radius);
+    addIfPresent('visible', visible);
+    addIfPresent('zIndex', zIndex);
+
+    if (data != null) {
+      json['data'] = _dataToJson();
+    }
+
+    return json;
+  }
+
+  @override
+  bool operator ==(Object other) {
+    if (identical(this, other)) return true;
+    if (other.runtimeType != runtimeType) return false;
+    final Heatmap typedOther = other;
+    return heatmapId == typedOther.heatmapId &&
+        listEquals(data, typedOther.data) &&
+        gradient == typedOther.gradient &&
+        maxIntensity == typedOther.maxIntensity &&
+        opacity == typedOther.opacity &&
+        radius == typedOther.radius &&
+        visible == typedOther.visible &&
+        zIndex == typedOther.zIndex;
+  }
+
+  @override
+  int get hashCode => heatmapId.hashCode;
+
+  // The data is packed as consecutive latitudes, longitudes and weights.
+  dynamic _dataToJson() {
+    final Float64List result = Float64List(data.length * 3);
+    for (int i = 0; i < data.length; i++) {
+      result[i * 3] = data[i].point.latitude;
+      result[i * 3 + 1] = data[i].point.longitude;
+      result[i * 3 + 2] = data[i].weight;
+    }
+    return result;
+  }
+}
+
+Map<HeatmapId, Heatmap> _keyByHeatmapId(Iterable<Heatmap> heatmaps) {
+  if (heatmaps == null) {
+    return <HeatmapId, Heatmap>{};
+  }
+  return Map<HeatmapId, Heatmap>.fromEntries(heatmaps.map((Heatmap heatmap) =>
+      MapEntry<HeatmapId, Heatmap>(heatmap.heatmapId, heatmap.clone())));
+}
+
+List<Map<String, dynamic>> _serializeHeatmapSet(Set<Heatmap> heatmaps) {
+  if (heatmaps == null) {
+    return null;
+  }
+  return heatmaps
+      .map<Map<String, dynamic>>((Heatmap h) => h._toJson())
+      .toList();
+}
@@ -49,6 +49,27 @@ class LatLng {
   int get hashCode => hashValues(latitude, longitude);
 }
 
+/// Number of points above which a list of points is sent to the platform as a
+/// packed [Float64List] of alternating latitudes and longitudes, rather than as
+/// a list of pairs.
+const int _kPackedPointsThreshold = 64;
+
+dynamic _latLngsToJson(List<LatLng> points) {
+  if (points.length > _kPackedPointsThreshold) {
+    final Float64List result = Float64List(points.length * 2);
+    for (int i = 0; i < points.length; i++) {
+      result[i * 2] = points[i].latitude;
+      result[i * 2 + 1] = points[i].longitude;
+    }
+    return result;
+  }
+  final List<dynamic> result = <dynamic>[];
+  for (final LatLng point in points) {
+    result.add(point._toJson());
+  }
+  return result;
+}
+
 /// A latitude/longitude aligned rectangle.
 ///
 /// The rectangle conceptually includes all points (lat, lng) where
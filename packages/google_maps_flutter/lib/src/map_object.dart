@@ -0,0 +1,83 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+part of google_maps_flutter;
+
+/// Kinds of objects that can be placed on a [GoogleMap].
+enum MapObjectType {
+  /// A [Marker].
+  marker,
+
+  /// A [Polygon].
+  polygon,
+
+  /// A [Polyline].
+  polyline,
+
+  /// A [Circle].
+  circle,
+}
+
+/// Uniquely identifies an object of any [MapObjectType] among the objects of
+/// a [GoogleMap].
+///
+/// Returned by the spatial queries of [GoogleMapController].
+@immutable
+class MapObjectId {
+  /// Creates an immutable identifier of a map object.
+  const MapObjectId(this.type, this.value)
+      : assert(type != null),
+        assert(value != null);
+
+  /// The kind of the identified object.
+  final MapObjectType type;
+
+  /// The value of the [MarkerId], [PolygonId], [PolylineId] or [CircleId] of
+  /// the identified object.
+  final String value;
+
+  /// The identifier of the marker, or null if the object isn't a marker.
+  MarkerId get markerId =>
+      type == MapObjectType.marker ? MarkerId(value) : null;
+
+  /// The identifier of the polygon, or null if the object isn't a polygon.
+  PolygonId get polygonId =>
+      type == MapObjectType.polygon ? PolygonId(value) : null;
+
+  /// The identifier of the polyline, or null if the object isn't a polyline.
+  PolylineId get polylineId =>
+      type == MapObjectType.polyline ? PolylineId(value) : null;
+
+  /// The identifier of the circle, or null if the object isn't a circle.
+  CircleId get circleId =>
+      type == MapObjectType.circle ? CircleId(value) : null;
+
+  static MapObjectId _fromJson(dynamic json) {
+    if (json == null) {
+      return null;
+    }
+    final String type = json[0];
+    return MapObjectId(
+      MapObjectType.values.firstWhere(
+          (MapObjectType value) => value.toString() == 'MapObjectType.$type'),
+      json[1],
+    );
+  }
+
+  @override
+  bool operator ==(Object other) {
+    if (identical(this, other)) return true;
+    if (other.runtimeType != runtimeType) return false;
+    final MapObjectId typedOther = other;
+    return type == typedOther.type && value == typedOther.value;
+  }
+
+  @override
+  int get hashCode => hashValues(type, value);
+
+  @override
+  String toString() {
+    return 'MapObjectId{type: $type, value: $value}';
+  }
+}
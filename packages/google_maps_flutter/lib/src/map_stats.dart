@@ -0,0 +1,163 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+part of google_maps_flutter;
+
+/// Timings of the calls of one method of the map's platform channel.
+@immutable
+class MethodCallStats {
+  /// Creates an immutable representation of the timings of a method.
+  const MethodCallStats({
+    this.count = 0,
+    this.decodeTime = Duration.zero,
+    this.applyTime = Duration.zero,
+    this.maxApplyTime = Duration.zero,
+  });
+
+  /// Number of calls handled.
+  final int count;
+
+  /// Total time spent decoding the arguments of the calls off the main thread.
+  ///
+  /// Only updates of markers, polygons and polylines are decoded off the main
+  /// thread.
+  final Duration decodeTime;
+
+  /// Total time spent handling the calls on the main thread, including the
+  /// Google Maps calls.
+  final Duration applyTime;
+
+  /// Longest time spent handling a single call on the main thread.
+  final Duration maxApplyTime;
+
+  static MethodCallStats _fromJson(dynamic json) {
+    return MethodCallStats(
+      count: json['count'],
+      decodeTime: Duration(microseconds: json['decodeMicros']),
+      applyTime: Duration(microseconds: json['applyMicros']),
+      maxApplyTime: Duration(microseconds: json['maxApplyMicros']),
+    );
+  }
+
+  @override
+  String toString() {
+    return 'MethodCallStats{count: $count, decodeTime: $decodeTime, '
+        'applyTime: $applyTime, maxApplyTime: $maxApplyTime}';
+  }
+}
+
+/// Performance counters of a [GoogleMap], returned by
+/// [GoogleMapController.getStats].
+///
+/// The timings and event counts cover the time since the map was created or
+/// since the counters were last reset. The object counts and cache sizes are
+/// the current ones.
+@immutable
+class MapStats {
+  /// Creates an immutable representation of the counters of a map.
+  const MapStats({
+    this.duration = Duration.zero,
+    this.methodCalls = const <String, MethodCallStats>{},
+    this.cameraMoves = 0,
+    this.cameraMoveEvents = 0,
+    this.markerCount = 0,
+    this.shownMarkerCount = 0,
+    this.polygonCount = 0,
+    this.polylineCount = 0,
+    this.circleCount = 0,
+    this.heatmapCount = 0,
+    this.tileOverlayCount = 0,
+    this.clusterIconCount = 0,
+    this.tileCacheBytes = 0,
+    this.heatmapTileCacheBytes = 0,
+  });
+
+  /// Time covered by the timings and event counts.
+  final Duration duration;
+
+  /// Timings of the platform channel calls, keyed by method name, such as
+  /// `markers#update`.
+  final Map<String, MethodCallStats> methodCalls;
+
+  /// Number of camera moves reported by the platform map.
+  final int cameraMoves;
+
+  /// Number of [GoogleMap.onCameraMove] events sent, after the throttling of
+  /// [GoogleMap.cameraMoveThrottling].
+  final int cameraMoveEvents;
+
+  /// Number of [GoogleMap.onCameraMove] events per second over [duration].
+  double get cameraMoveEventsPerSecond {
+    if (duration <= Duration.zero) {
+      return 0;
+    }
+    return cameraMoveEvents *
+        Duration.microsecondsPerSecond /
+        duration.inMicroseconds;
+  }
+
+  /// Number of markers, including the ones hidden by clustering or culling.
+  final int markerCount;
+
+  /// Number of markers and cluster markers added to the platform map.
+  final int shownMarkerCount;
+
+  /// Number of polygons.
+  final int polygonCount;
+
+  /// Number of polylines.
+  final int polylineCount;
+
+  /// Number of circles.
+  final int circleCount;
+
+  /// Number of heatmaps.
+  final int heatmapCount;
+
+  /// Number of tile overlays.
+  final int tileOverlayCount;
+
+  /// Number of cluster icons drawn and cached.
+  final int clusterIconCount;
+
+  /// Size in bytes of the tiles in the memory caches of the tile overlays.
+  final int tileCacheBytes;
+
+  /// Size in bytes of the tiles drawn and cached by the heatmaps.
+  final int heatmapTileCacheBytes;
+
+  static MapStats _fromJson(dynamic json) {
+    final Map<dynamic, dynamic> methodCalls = json['methodCalls'];
+    return MapStats(
+      duration: Duration(milliseconds: json['durationMs']),
+      methodCalls: methodCalls.map<String, MethodCallStats>(
+          (dynamic method, dynamic stats) => MapEntry<String, MethodCallStats>(
+              method, MethodCallStats._fromJson(stats))),
+      cameraMoves: json['cameraMoves'],
+      cameraMoveEvents: json['cameraMoveEvents'],
+      markerCount: json['markerCount'],
+      shownMarkerCount: json['shownMarkerCount'],
+      polygonCount: json['polygonCount'],
+      polylineCount: json['polylineCount'],
+      circleCount: json['circleCount'],
+      heatmapCount: json['heatmapCount'],
+      tileOverlayCount: json['tileOverlayCount'],
+      clusterIconCount: json['clusterIconCount'],
+      tileCacheBytes: json['tileCacheBytes'],
+      heatmapTileCacheBytes: json['heatmapTileCacheBytes'],
+    );
+  }
+
+  @override
+  String toString() {
+    return 'MapStats{duration: $duration, methodCalls: $methodCalls, '
+        'cameraMoves: $cameraMoves, cameraMoveEvents: $cameraMoveEvents, '
+        'markerCount: $markerCount, shownMarkerCount: $shownMarkerCount, '
+        'polygonCount: $polygonCount, polylineCount: $polylineCount, '
+        'circleCount: $circleCount, heatmapCount: $heatmapCount, '
+        'tileOverlayCount: $tileOverlayCount, '
+        'clusterIconCount: $clusterIconCount, tileCacheBytes: $tileCacheBytes, '
+        'heatmapTileCacheBytes: $heatmapTileCacheBytes}';
+  }
+}
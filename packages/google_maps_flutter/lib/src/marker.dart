@@ -149,7 +149,7 @@ class Marker {
   /// * is visible; [visible] is true
   /// * is placed at the base of the drawing order; [zIndex] is 0.0
   /// * reports [onTap] events
-  /// * reports [onDragEnd] events
+  /// * reports [onDragStart], [onDrag] and [onDragEnd] events
   const Marker({
     @required this.markerId,
     this.alpha = 1.0,
@@ -164,6 +164,8 @@ class Marker {
     this.visible = true,
     this.zIndex = 0.0,
     this.onTap,
+    this.onDragStart,
+    this.onDrag,
     this.onDragEnd,
   }) : assert(alpha == null || (0.0 <= alpha && alpha <= 1.0));
 
@@ -221,6 +223,14 @@ class Marker {
   /// Callbacks to receive tap events for markers placed on this map.
   final VoidCallback onTap;
 
+  /// Signature reporting the [LatLng] at the start of a drag event.
+  final ValueChanged<LatLng> onDragStart;
+
+  /// Signature reporting the [LatLng] of the marker while it is dragged.
+  ///
+  /// Called at most once per frame, with the latest position of the marker.
+  final ValueChanged<LatLng> onDrag;
+
   /// Signature reporting the new [LatLng] at the end of a drag event.
   final ValueChanged<LatLng> onDragEnd;
 
@@ -239,6 +249,8 @@ class Marker {
     bool visibleParam,
     double zIndexParam,
     VoidCallback onTapParam,
+    ValueChanged<LatLng> onDragStartParam,
+    ValueChanged<LatLng> onDragParam,
     ValueChanged<LatLng> onDragEndParam,
   }) {
     return Marker(
@@ -255,6 +267,8 @@ class Marker {
       visible: visibleParam ?? visible,
       zIndex: zIndexParam ?? zIndex,
       onTap: onTapParam ?? onTap,
+      onDragStart: onDragStartParam ?? onDragStart,
+      onDrag: onDragParam ?? onDrag,
       onDragEnd: onDragEndParam ?? onDragEnd,
     );
   }
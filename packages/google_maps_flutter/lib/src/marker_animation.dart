@@ -0,0 +1,100 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+part of google_maps_flutter;
+
+/// Moves a [Marker] along a path, animated on the platform side.
+///
+/// See [GoogleMapController.animateMarkers].
+@immutable
+class MarkerAnimation {
+  /// Creates an animation moving the marker [markerId] from its current
+  /// position through the points of [path] at a constant speed.
+  const MarkerAnimation({
+    @required this.markerId,
+    @required this.path,
+    @required this.duration,
+    this.rotation,
+    this.rotateAlongPath = false,
+  })  : assert(markerId != null),
+        assert(path != null),
+        assert(duration != null),
+        assert(rotateAlongPath != null);
+
+  /// Creates an animation moving the marker [markerId] from its current
+  /// position to [position].
+  MarkerAnimation.to({
+    @required MarkerId markerId,
+    @required LatLng position,
+    @required Duration duration,
+    double rotation,
+    bool rotateAlongPath = false,
+  }) : this(
+          markerId: markerId,
+          path: <LatLng>[position],
+          duration: duration,
+          rotation: rotation,
+          rotateAlongPath: rotateAlongPath,
+        );
+
+  /// The marker to move.
+  final MarkerId markerId;
+
+  /// The points the marker moves through, the last one being where it stops.
+  final List<LatLng> path;
+
+  /// The duration of the whole animation.
+  final Duration duration;
+
+  /// The rotation of the marker at the end of the animation, in degrees.
+  ///
+  /// If null, the rotation is not animated.
+  final double rotation;
+
+  /// True if the marker is rotated to face the direction in which it moves.
+  ///
+  /// When true, [rotation] is ignored.
+  final bool rotateAlongPath;
+
+  dynamic _toJson() {
+    final Map<String, dynamic> json = <String, dynamic>{};
+
+    void addIfPresent(String fieldName, dynamic value) {
+      if (value != null) {
+        json[fieldName] = value;
+      }
+    }
+
+    addIfPresent('markerId', markerId.value);
+    addIfPresent('path', _latLngsToJson(path));
+    addIfPresent('durationMs', duration.inMilliseconds);
+    addIfPresent('rotation', rotation);
+    addIfPresent('rotateAlongPath', rotateAlongPath);
+
+    return json;
+  }
+
+  @override
+  bool operator ==(Object other) {
+    if (identical(this, other)) return true;
+    if (other.runtimeType != runtimeType) return false;
+    final MarkerAnimation typedOther = other;
+    return markerId == typedOther.markerId &&
+        listEquals(path, typedOther.path) &&
+        duration == typedOther.duration &&
+        rotation == typedOther.rotation &&
+        rotateAlongPath == typedOther.rotateAlongPath;
+  }
+
+  @override
+  int get hashCode =>
+      hashValues(markerId, hashList(path), duration, rotation, rotateAlongPath);
+
+  @override
+  String toString() {
+    return 'MarkerAnimation{markerId: $markerId, path: $path, '
+        'duration: $duration, rotation: $rotation, '
+        'rotateAlongPath: $rotateAlongPath}';
+  }
+}
@@ -42,6 +42,8 @@ class Polygon {
     this.fillColor = Colors.black,
     this.geodesic = false,
     this.points = const <LatLng>[],
+    this.holes = const <List<LatLng>>[],
+    this.simplify = false,
     this.strokeColor = Colors.black,
     this.strokeWidth = 10,
     this.visible = true,
@@ -73,6 +75,21 @@ class Polygon {
   /// default; to form a closed polygon, the start and end points must be the same.
   final List<LatLng> points;
 
+  /// The vertices of the holes to be cut out of the polygon.
+  ///
+  /// Each hole must be fully inside the polygon, and holes must not overlap.
+  final List<List<LatLng>> holes;
+
+  /// True if the polygon should be simplified for the current zoom level.
+  ///
+  /// When enabled, simplified versions of [points] are computed once when the
+  /// polygon is added or its points change, and the platform map only receives
+  /// the vertices that are visible at the current zoom level. This keeps very
+  /// large polygons, like long GPS tracks, cheap to render.
+  ///
+  /// Supported on Android only.
+  final bool simplify;
+
   /// True if the marker is visible.
   final bool visible;
 
@@ -102,6 +119,8 @@ class Polygon {
     Color fillColorParam,
     bool geodesicParam,
     List<LatLng> pointsParam,
+    List<List<LatLng>> holesParam,
+    bool simplifyParam,
     Color strokeColorParam,
     int strokeWidthParam,
     bool visibleParam,
@@ -114,6 +133,8 @@ class Polygon {
       fillColor: fillColorParam ?? fillColor,
       geodesic: geodesicParam ?? geodesic,
       points: pointsParam ?? points,
+      holes: holesParam ?? holes,
+      simplify: simplifyParam ?? simplify,
       strokeColor: strokeColorParam ?? strokeColor,
       strokeWidth: strokeWidthParam ?? strokeWidth,
       visible: visibleParam ?? visible,
@@ -124,7 +145,12 @@ class Polygon {
 
   /// Creates a new [Polygon] object whose values are the same as this instance.
   Polygon clone() {
-    return copyWith(pointsParam: List<LatLng>.of(points));
+    return copyWith(
+      pointsParam: List<LatLng>.of(points),
+      holesParam: holes
+          .map<List<LatLng>>((List<LatLng> hole) => List<LatLng>.of(hole))
+          .toList(),
+    );
   }
 
   dynamic _toJson() {
@@ -140,6 +166,7 @@ class Polygon {
     addIfPresent('consumeTapEvents', consumeTapEvents);
     addIfPresent('fillColor', fillColor.value);
     addIfPresent('geodesic', geodesic);
+    addIfPresent('simplify', simplify);
     addIfPresent('strokeColor', strokeColor.value);
     addIfPresent('strokeWidth', strokeWidth);
     addIfPresent('visible', visible);
@@ -149,6 +176,10 @@ class Polygon {
       json['points'] = _pointsToJson();
     }
 
+    if (holes != null) {
+      json['holes'] = _holesToJson();
+    }
+
     return json;
   }
 
@@ -162,6 +193,8 @@ class Polygon {
         fillColor == typedOther.fillColor &&
         geodesic == typedOther.geodesic &&
         listEquals(points, typedOther.points) &&
+        _holesEqual(holes, typedOther.holes) &&
+        simplify == typedOther.simplify &&
         visible == typedOther.visible &&
         strokeColor == typedOther.strokeColor &&
         strokeWidth == typedOther.strokeWidth &&
@@ -172,12 +205,24 @@ class Polygon {
   @override
   int get hashCode => polygonId.hashCode;
 
-  dynamic _pointsToJson() {
-    final List<dynamic> result = <dynamic>[];
-    for (final LatLng point in points) {
-      result.add(point._toJson());
+  dynamic _pointsToJson() => _latLngsToJson(points);
+
+  List<dynamic> _holesToJson() =>
+      holes.map<dynamic>((List<LatLng> hole) => _latLngsToJson(hole)).toList();
+
+  static bool _holesEqual(List<List<LatLng>> a, List<List<LatLng>> b) {
+    if (a == null || b == null) {
+      return a == b;
+    }
+    if (a.length != b.length) {
+      return false;
+    }
+    for (int i = 0; i < a.length; i++) {
+      if (!listEquals(a[i], b[i])) {
+        return false;
+      }
     }
-    return result;
+    return true;
   }
 }
 
@@ -47,6 +47,7 @@ class Polyline {
     this.jointType = JointType.mitered,
     this.points = const <LatLng>[],
     this.patterns = const <PatternItem>[],
+    this.simplify = false,
     this.startCap = Cap.buttCap,
     this.visible = true,
     this.width = 10,
@@ -94,6 +95,16 @@ class Polyline {
   /// default; to form a closed polyline, the start and end points must be the same.
   final List<LatLng> points;
 
+  /// True if the polyline should be simplified for the current zoom level.
+  ///
+  /// When enabled, simplified versions of [points] are computed once when the
+  /// polyline is added or its points change, and the platform map only receives
+  /// the vertices that are visible at the current zoom level. This keeps very
+  /// large polylines, like long GPS tracks, cheap to render.
+  ///
+  /// Supported on Android only.
+  final bool simplify;
+
   /// The cap at the start vertex of the polyline.
   ///
   /// The default start cap is ButtCap.
@@ -137,6 +148,7 @@ class Polyline {
     JointType jointTypeParam,
     List<PatternItem> patternsParam,
     List<LatLng> pointsParam,
+    bool simplifyParam,
     Cap startCapParam,
     bool visibleParam,
     int widthParam,
@@ -152,6 +164,7 @@ class Polyline {
       jointType: jointTypeParam ?? jointType,
       patterns: patternsParam ?? patterns,
       points: pointsParam ?? points,
+      simplify: simplifyParam ?? simplify,
       startCap: startCapParam ?? startCap,
       visible: visibleParam ?? visible,
       width: widthParam ?? width,
@@ -184,6 +197,7 @@ class Polyline {
     addIfPresent('endCap', endCap?._toJson());
     addIfPresent('geodesic', geodesic);
     addIfPresent('jointType', jointType?.value);
+    addIfPresent('simplify', simplify);
     addIfPresent('startCap', startCap?._toJson());
     addIfPresent('visible', visible);
     addIfPresent('width', width);
@@ -212,6 +226,7 @@ class Polyline {
         jointType == typedOther.jointType &&
         listEquals(patterns, typedOther.patterns) &&
         listEquals(points, typedOther.points) &&
+        simplify == typedOther.simplify &&
         startCap == typedOther.startCap &&
         endCap == typedOther.endCap &&
         visible == typedOther.visible &&
@@ -223,13 +238,7 @@ class Polyline {
   @override
   int get hashCode => polylineId.hashCode;
 
-  dynamic _pointsToJson() {
-    final List<dynamic> result = <dynamic>[];
-    for (final LatLng point in points) {
-      result.add(point._toJson());
-    }
-    return result;
-  }
+  dynamic _pointsToJson() => _latLngsToJson(points);
 
   dynamic _patternToJson() {
     final List<dynamic> result = <dynamic>[];
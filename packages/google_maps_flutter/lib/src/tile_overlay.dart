@@ -0,0 +1,182 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+part of google_maps_flutter;
+
+/// Uniquely identifies a [TileOverlay] among [GoogleMap] tile overlays.
+///
+/// This does not have to be globally unique, only unique among the list.
+@immutable
+class TileOverlayId {
+  /// Creates an immutable identifier for a [TileOverlay].
+  TileOverlayId(this.value) : assert(value != null);
+
+  /// value of the [TileOverlayId].
+  final String value;
+
+  @override
+  bool operator ==(Object other) {
+    if (identical(this, other)) return true;
+    if (other.runtimeType != runtimeType) return false;
+    final TileOverlayId typedOther = other;
+    return value == typedOther.value;
+  }
+
+  @override
+  int get hashCode => value.hashCode;
+
+  @override
+  String toString() {
+    return 'TileOverlayId{value: $value}';
+  }
+}
+
+/// Draws raster tiles downloaded from a server on top of the map.
+///
+/// Downloaded tiles are kept in a memory cache and in a disk cache under the
+/// cache directory of the app, so they are shown without downloading them
+/// again, even after the app restarts.
+///
+/// Supported on Android only.
+@immutable
+class TileOverlay {
+  /// Creates an immutable representation of a [TileOverlay] to draw on
+  /// [GoogleMap].
+  const TileOverlay({
+    @required this.tileOverlayId,
+    @required this.urlTemplate,
+    this.tileSize = 256,
+    this.diskCacheSize = 50 * 1024 * 1024,
+    this.fadeIn = true,
+    this.transparency = 0.0,
+    this.visible = true,
+    this.zIndex = 0,
+  })  : assert(urlTemplate != null),
+        assert(tileSize != null && tileSize > 0),
+        assert(diskCacheSize != null && diskCacheSize >= 0),
+        assert(transparency != null &&
+            transparency >= 0.0 &&
+            transparency <= 1.0);
+
+  /// Uniquely identifies a [TileOverlay].
+  final TileOverlayId tileOverlayId;
+
+  /// The URL of the tiles, in which `{x}`, `{y}` and `{z}` are replaced by
+  /// the column, row and zoom level of each tile.
+  ///
+  /// For example `https://tile.example.com/{z}/{x}/{y}.png`. The server may
+  /// answer with a 404 or 204 status when it has no tile.
+  final String urlTemplate;
+
+  /// The width and height in pixels of the tile images.
+  final int tileSize;
+
+  /// The maximum size in bytes of the tiles cached on disk.
+  ///
+  /// The least recently used tiles are removed first.
+  final int diskCacheSize;
+
+  /// True if the tiles should fade in.
+  final bool fadeIn;
+
+  /// The transparency of the tile overlay, from 0.0 (opaque) to 1.0 (fully
+  /// transparent).
+  final double transparency;
+
+  /// True if the tile overlay is visible.
+  final bool visible;
+
+  /// The z-index of the tile overlay, used to determine relative drawing
+  /// order of map overlays.
+  ///
+  /// Overlays are drawn in order of z-index, so that lower values means drawn
+  /// earlier, and thus appearing to be closer to the surface of the Earth.
+  final int zIndex;
+
+  /// Creates a new [TileOverlay] object whose values are the same as this
+  /// instance, unless overwritten by the specified parameters.
+  TileOverlay copyWith({
+    String urlTemplateParam,
+    int tileSizeParam,
+    int diskCacheSizeParam,
+    bool fadeInParam,
+    double transparencyParam,
+    bool visibleParam,
+    int zIndexParam,
+  }) {
+    return TileOverlay(
+      tileOverlayId: tileOverlayId,
+      urlTemplate: urlTemplateParam ?? urlTemplate,
+      tileSize: tileSizeParam ?? tileSize,
+      diskCacheSize: diskCacheSizeParam ?? diskCacheSize,
+      fadeIn: fadeInParam ?? fadeIn,
+      transparency: transparencyParam ?? transparency,
+      visible: visibleParam ?? visible,
+      zIndex: zIndexParam ?? zIndex,
+    );
+  }
+
+  /// Creates a new [TileOverlay] object whose values are the same as this
+  /// instance.
+  TileOverlay clone() => copyWith();
+
+  dynamic _toJson() {
+    final Map<String, dynamic> json = <String, dynamic>{};
+
+    void addIfPresent(String fieldName, dynamic value) {
+      if (value != null) {
+        json[fieldName] = value;
+      }
+    }
+
+    addIfPresent('tileOverlayId', tileOverlayId.value);
+    addIfPresent('urlTemplate', urlTemplate);
+    addIfPresent('tileSize', tileSize);
+    addIfPresent('diskCacheSize', diskCacheSize);
+    addIfPresent('fadeIn', fadeIn);
+    addIfPresent('transparency', transparency);
+    addIfPresent('visible', visible);
+    addIfPresent('zIndex', zIndex);
+
+    return json;
+  }
+
+  @override
+  bool operator ==(Object other) {
+    if (identical(this, other)) return true;
+    if (other.runtimeType != runtimeType) return false;
+    final TileOverlay typedOther = other;
+    return tileOverlayId == typedOther.tileOverlayId &&
+        urlTemplate == typedOther.urlTemplate &&
+        tileSize == typedOther.tileSize &&
+        diskCacheSize == typedOther.diskCacheSize &&
+        fadeIn == typedOther.fadeIn &&
+        transparency == typedOther.transparency &&
+        visible == typedOther.visible &&
+        zIndex == typedOther.zIndex;
+  }
+
+  @override
+  int get hashCode => tileOverlayId.hashCode;
+}
+
+Map<TileOverlayId, TileOverlay> _keyByTileOverlayId(
+    Iterable<TileOverlay> tileOverlays) {
+  if (tileOverlays == null) {
+    return <TileOverlayId, TileOverlay>{};
+  }
+  return Map<TileOverlayId, TileOverlay>.fromEntries(tileOverlays.map(
+      (TileOverlay tileOverlay) => MapEntry<TileOverlayId, TileOverlay>(
+          tileOverlay.tileOverlayId, tileOverlay.clone())));
+}
+
+List<Map<String, dynamic>> _serializeTileOverlaySet(
+    Set<TileOverlay> tileOverlays) {
+  if (tileOverlays == null) {
+    return null;
+  }
+  return tileOverlays
+      .map<Map<String, dynamic>>((TileOverlay t) => t._toJson())
+      .toList();
+}
@@ -25,6 +25,15 @@ enum MapType {
   hybrid,
 }
 
+/// Image formats of [GoogleMapController.takeSnapshot].
+enum SnapshotFormat {
+  /// Lossless PNG.
+  png,
+
+  /// Lossy JPEG, smaller for maps showing satellite imagery.
+  jpeg,
+}
+
 /// Bounds for the map camera target.
 // Used with [GoogleMapOptions] to wrap a [LatLngBounds] value. This allows
 // distinguishing between specifying an unbounded target (null `LatLngBounds`)
@@ -101,6 +110,68 @@ class MinMaxZoomPreference {
   }
 }
 
+/// Limits on how often [GoogleMap.onCameraMove] is called.
+///
+/// Camera moves that are not delivered are coalesced: only the latest camera
+/// position is delivered once the limits allow it, and the final position is
+/// always delivered before [GoogleMap.onCameraIdle].
+///
+/// Supported on Android only.
+class CameraMoveThrottling {
+  /// Creates a immutable representation of the camera move limits.
+  const CameraMoveThrottling({
+    this.maxEventsPerSecond,
+    this.minZoomDelta = 0,
+    this.minDistance = 0,
+  })  : assert(maxEventsPerSecond == null || maxEventsPerSecond > 0),
+        assert(minZoomDelta != null && minZoomDelta >= 0),
+        assert(minDistance != null && minDistance >= 0);
+
+  /// Maximum number of camera moves delivered per second, or null if
+  /// unlimited.
+  final int maxEventsPerSecond;
+
+  /// Minimum change of the zoom level since the last delivered camera move
+  /// for a camera move to be delivered.
+  ///
+  /// A camera move is delivered if either [minZoomDelta] or [minDistance] is
+  /// exceeded.
+  final double minZoomDelta;
+
+  /// Minimum distance in meters between the target of the last delivered
+  /// camera move and the current target for a camera move to be delivered.
+  ///
+  /// A camera move is delivered if either [minZoomDelta] or [minDistance] is
+  /// exceeded.
+  final double minDistance;
+
+  /// Every camera move is delivered.
+  static const CameraMoveThrottling none = CameraMoveThrottling();
+
+  dynamic _toJson() =>
+      <dynamic>[maxEventsPerSecond ?? 0, minZoomDelta, minDistance];
+
+  @override
+  bool operator ==(dynamic other) {
+    if (identical(this, other)) return true;
+    if (runtimeType != other.runtimeType) return false;
+    final CameraMoveThrottling typedOther = other;
+    return maxEventsPerSecond == typedOther.maxEventsPerSecond &&
+        minZoomDelta == typedOther.minZoomDelta &&
+        minDistance == typedOther.minDistance;
+  }
+
+  @override
+  int get hashCode =>
+      hashValues(maxEventsPerSecond, minZoomDelta, minDistance);
+
+  @override
+  String toString() {
+    return 'CameraMoveThrottling(maxEventsPerSecond: $maxEventsPerSecond, '
+        'minZoomDelta: $minZoomDelta, minDistance: $minDistance)';
+  }
+}
+
 /// Exception when a map style is invalid or was unable to be set.
 ///
 /// See also: `setStyle` on [GoogleMapController] for why this exception
@@ -19,6 +19,8 @@ class FakePlatformGoogleMap {
     updatePolygons(params);
     updatePolylines(params);
     updateCircles(params);
+    updateHeatmaps(params);
+    updateTileOverlays(params);
   }
 
   MethodChannel channel;
@@ -51,16 +53,26 @@ class FakePlatformGoogleMap {
 
   bool buildingsEnabled;
 
+  bool liteModeEnabled;
+
   bool myLocationButtonEnabled;
 
   List<dynamic> padding;
 
+  Map<dynamic, dynamic> markerClustering;
+
+  bool markerCullingEnabled;
+
+  List<dynamic> cameraMoveThrottling;
+
   Set<MarkerId> markerIdsToRemove;
 
   Set<Marker> markersToAdd;
 
   Set<Marker> markersToChange;
 
+  List<dynamic> markerAnimations;
+
   Set<PolygonId> polygonIdsToRemove;
 
   Set<Polygon> polygonsToAdd;
@@ -79,6 +91,43 @@ class FakePlatformGoogleMap {
 
   Set<Circle> circlesToChange;
 
+  Set<HeatmapId> heatmapIdsToRemove;
+
+  Set<Heatmap> heatmapsToAdd;
+
+  Set<Heatmap> heatmapsToChange;
+
+  Set<TileOverlayId> tileOverlayIdsToRemove;
+
+  Set<TileOverlay> tileOverlaysToAdd;
+
+  Set<TileOverlay> tileOverlaysToChange;
+
+  bool statsReset;
+
+  /// The reply to `map#getStats`, as sent by the platform.
+  Map<dynamic, dynamic> statsResult;
+
+  List<LatLng> shapesContainingPoints;
+
+  /// The reply to `map#shapesContaining`, as sent by the platform.
+  List<dynamic> shapesContainingResult = <dynamic>[];
+
+  Map<dynamic, dynamic> distanceToPolylineArguments;
+
+  /// The reply to `map#distanceToPolyline`.
+  double distanceToPolylineResult = 0;
+
+  /// Sends a method call to the [GoogleMapController], as the platform does.
+  Future<void> sendToController(String method, [dynamic arguments]) {
+    return ServicesBinding.instance.defaultBinaryMessenger
+        .handlePlatformMessage(
+      channel.name,
+      channel.codec.encodeMethodCall(MethodCall(method, arguments)),
+      (ByteData data) {},
+    );
+  }
+
   Future<dynamic> onMethodCall(MethodCall call) {
     switch (call.method) {
       case 'map#update':
@@ -87,6 +136,9 @@ class FakePlatformGoogleMap {
       case 'markers#update':
         updateMarkers(call.arguments);
         return Future<void>.sync(() {});
+      case 'markers#animate':
+        markerAnimations = call.arguments['animations'];
+        return Future<void>.sync(() {});
       case 'polygons#update':
         updatePolygons(call.arguments);
         return Future<void>.sync(() {});
@@ -96,6 +148,21 @@ class FakePlatformGoogleMap {
       case 'circles#update':
         updateCircles(call.arguments);
         return Future<void>.sync(() {});
+      case 'heatmaps#update':
+        updateHeatmaps(call.arguments);
+        return Future<void>.sync(() {});
+      case 'tileOverlays#update':
+        updateTileOverlays(call.arguments);
+        return Future<void>.sync(() {});
+      case 'map#getStats':
+        statsReset = call.arguments['reset'];
+        return Future<Map<dynamic, dynamic>>.sync(() => statsResult);
+      case 'map#shapesContaining':
+        shapesContainingPoints = _deserializePoints(call.arguments['points']);
+        return Future<List<dynamic>>.sync(() => shapesContainingResult);
+      case 'map#distanceToPolyline':
+        distanceToPolylineArguments = call.arguments;
+        return Future<double>.sync(() => distanceToPolylineResult);
       default:
         return Future<void>.sync(() {});
     }
@@ -198,12 +265,19 @@ class FakePlatformGoogleMap {
       final bool visible = polygonData['visible'];
       final bool geodesic = polygonData['geodesic'];
       final List<LatLng> points = _deserializePoints(polygonData['points']);
+      final List<dynamic> holesData = polygonData['holes'] ?? <dynamic>[];
+      final List<List<LatLng>> holes = holesData
+          .map<List<LatLng>>((dynamic hole) => _deserializePoints(hole))
+          .toList();
+      final bool simplify = polygonData['simplify'];
 
       result.add(Polygon(
         polygonId: PolygonId(polygonId),
         visible: visible,
         geodesic: geodesic,
         points: points,
+        holes: holes,
+        simplify: simplify,
       ));
     }
 
@@ -211,6 +285,10 @@ class FakePlatformGoogleMap {
   }
 
   List<LatLng> _deserializePoints(List<dynamic> points) {
+    if (points is Float64List) {
+      return List<LatLng>.generate(points.length ~/ 2,
+          (int i) => LatLng(points[i * 2], points[i * 2 + 1]));
+    }
     return points.map<LatLng>((dynamic list) {
       return LatLng(list[0], list[1]);
     }).toList();
@@ -256,12 +334,14 @@ class FakePlatformGoogleMap {
       final bool visible = polylineData['visible'];
       final bool geodesic = polylineData['geodesic'];
       final List<LatLng> points = _deserializePoints(polylineData['points']);
+      final bool simplify = polylineData['simplify'];
 
       result.add(Polyline(
         polylineId: PolylineId(polylineId),
         visible: visible,
         geodesic: geodesic,
         points: points,
+        simplify: simplify,
       ));
     }
 
@@ -315,6 +395,121 @@ class FakePlatformGoogleMap {
     return result;
   }
 
+  void updateHeatmaps(Map<dynamic, dynamic> heatmapUpdates) {
+    if (heatmapUpdates == null) {
+      return;
+    }
+    heatmapsToAdd = _deserializeHeatmaps(heatmapUpdates['heatmapsToAdd']);
+    heatmapIdsToRemove =
+        _deserializeHeatmapIds(heatmapUpdates['heatmapIdsToRemove']);
+    heatmapsToChange =
+        _deserializeHeatmaps(heatmapUpdates['heatmapsToChange']);
+  }
+
+  Set<HeatmapId> _deserializeHeatmapIds(List<dynamic> heatmapIds) {
+    if (heatmapIds == null) {
+      // TODO(iskakaushik): Remove this when collection literals makes it to stable.
+      // https://github.com/flutter/flutter/issues/28312
+      // ignore: prefer_collection_literals
+      return Set<HeatmapId>();
+    }
+    return heatmapIds.map((dynamic heatmapId) => HeatmapId(heatmapId)).toSet();
+  }
+
+  Set<Heatmap> _deserializeHeatmaps(dynamic heatmaps) {
+    if (heatmaps == null) {
+      // TODO(iskakaushik): Remove this when collection literals makes it to stable.
+      // https://github.com/flutter/flutter/issues/28312
+      // ignore: prefer_collection_literals
+      return Set<Heatmap>();
+    }
+    final List<dynamic> heatmapsData = heatmaps;
+    // TODO(iskakaushik): Remove this when collection literals makes it to stable.
+    // https://github.com/flutter/flutter/issues/28312
+    // ignore: prefer_collection_literals
+    final Set<Heatmap> result = Set<Heatmap>();
+    for (Map<dynamic, dynamic> heatmapData in heatmapsData) {
+      final String heatmapId = heatmapData['heatmapId'];
+      final bool visible = heatmapData['visible'];
+      final int radius = heatmapData['radius'];
+      final double opacity = heatmapData['opacity'];
+      final List<WeightedLatLng> data = _deserializeWeightedData(
+        heatmapData['data'],
+      );
+
+      result.add(Heatmap(
+        heatmapId: HeatmapId(heatmapId),
+        visible: visible,
+        radius: radius,
+        opacity: opacity,
+        data: data,
+      ));
+    }
+
+    return result;
+  }
+
+  List<WeightedLatLng> _deserializeWeightedData(Float64List data) {
+    final List<WeightedLatLng> result = <WeightedLatLng>[];
+    for (int i = 0; i + 2 < data.length; i += 3) {
+      result.add(WeightedLatLng(LatLng(data[i], data[i + 1]),
+          weight: data[i + 2]));
+    }
+    return result;
+  }
+
+  void updateTileOverlays(Map<dynamic, dynamic> tileOverlayUpdates) {
+    if (tileOverlayUpdates == null) {
+      return;
+    }
+    tileOverlaysToAdd =
+        _deserializeTileOverlays(tileOverlayUpdates['tileOverlaysToAdd']);
+    tileOverlayIdsToRemove = _deserializeTileOverlayIds(
+        tileOverlayUpdates['tileOverlayIdsToRemove']);
+    tileOverlaysToChange =
+        _deserializeTileOverlays(tileOverlayUpdates['tileOverlaysToChange']);
+  }
+
+  Set<TileOverlayId> _deserializeTileOverlayIds(List<dynamic> tileOverlayIds) {
+    if (tileOverlayIds == null) {
+      // TODO(iskakaushik): Remove this when collection literals makes it to stable.
+      // https://github.com/flutter/flutter/issues/28312
+      // ignore: prefer_collection_literals
+      return Set<TileOverlayId>();
+    }
+    return tileOverlayIds
+        .map((dynamic tileOverlayId) => TileOverlayId(tileOverlayId))
+        .toSet();
+  }
+
+  Set<TileOverlay> _deserializeTileOverlays(dynamic tileOverlays) {
+    if (tileOverlays == null) {
+      // TODO(iskakaushik): Remove this when collection literals makes it to stable.
+      // https://github.com/flutter/flutter/issues/28312
+      // ignore: prefer_collection_literals
+      return Set<TileOverlay>();
+    }
+    final List<dynamic> tileOverlaysData = tileOverlays;
+    // TODO(iskakaushik): Remove this when collection literals makes it to stable.
+    // https://github.com/flutter/flutter/issues/28312
+    // ignore: prefer_collection_literals
+    final Set<TileOverlay> result = Set<TileOverlay>();
+    for (Map<dynamic, dynamic> tileOverlayData in tileOverlaysData) {
+      result.add(TileOverlay(
+        tileOverlayId: TileOverlayId(tileOverlayData['tileOverlayId']),
+        urlTemplate: tileOverlayData['urlTemplate'],
+        tileSize: tileOverlayData['tileSize'],
+        diskCacheSize: tileOverlayData['diskCacheSize'],
+        fadeIn: tileOverlayData['fadeIn'],
+        transparency: tileOverlayData['transparency'],
+        visible: tileOverlayData['visible'],
+        zIndex: tileOverlayData['zIndex'],
+      ));
+    }
+
+    return result;
+  }
+
   void updateOptions(Map<dynamic, dynamic> options) {
     if (options.containsKey('compassEnabled')) {
       compassEnabled = options['compassEnabled'];
@@ -363,9 +558,21 @@ class FakePlatformGoogleMap {
     if (options.containsKey('buildingsEnabled')) {
       buildingsEnabled = options['buildingsEnabled'];
     }
+    if (options.containsKey('liteModeEnabled')) {
+      liteModeEnabled = options['liteModeEnabled'];
+    }
     if (options.containsKey('padding')) {
       padding = options['padding'];
     }
+    if (options.containsKey('markerClustering')) {
+      markerClustering = options['markerClustering'];
+    }
+    if (options.containsKey('markerCullingEnabled')) {
+      markerCullingEnabled = options['markerCullingEnabled'];
+    }
+    if (options.containsKey('cameraMoveThrottling')) {
+      cameraMoveThrottling = options['cameraMoveThrottling'];
+    }
   }
 }
 
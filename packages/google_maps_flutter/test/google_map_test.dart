@@ -558,4 +558,333 @@ void main() {
 
     expect(platformGoogleMap.buildingsEnabled, true);
   });
+
+  testWidgets('Can create in lite mode', (WidgetTester tester) async {
+    await tester.pumpWidget(
+      const Directionality(
+        textDirection: TextDirection.ltr,
+        child: GoogleMap(
+          initialCameraPosition: CameraPosition(target: LatLng(10.0, 15.0)),
+          liteModeEnabled: true,
+        ),
+      ),
+    );
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView;
+
+    expect(platformGoogleMap.liteModeEnabled, true);
+  });
+
+  testWidgets('Cannot update liteModeEnabled', (WidgetTester tester) async {
+    await tester.pumpWidget(
+      const Directionality(
+        textDirection: TextDirection.ltr,
+        child: GoogleMap(
+          initialCameraPosition: CameraPosition(target: LatLng(10.0, 15.0)),
+        ),
+      ),
+    );
+
+    await tester.pumpWidget(
+      const Directionality(
+        textDirection: TextDirection.ltr,
+        child: GoogleMap(
+          initialCameraPosition: CameraPosition(target: LatLng(10.0, 15.0)),
+          liteModeEnabled: true,
+        ),
+      ),
+    );
+
+    expect(tester.takeException(), isAssertionError);
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView;
+    expect(platformGoogleMap.liteModeEnabled, false);
+  });
+
+  testWidgets('Can update markerClustering', (WidgetTester tester) async {
+    await tester.pumpWidget(
+      const Directionality(
+        textDirection: TextDirection.ltr,
+        child: GoogleMap(
+          initialCameraPosition: CameraPosition(target: LatLng(10.0, 15.0)),
+        ),
+      ),
+    );
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView;
+
+    expect(platformGoogleMap.markerClustering['enabled'], false);
+
+    await tester.pumpWidget(
+      const Directionality(
+        textDirection: TextDirection.ltr,
+        child: GoogleMap(
+          initialCameraPosition: CameraPosition(target: LatLng(10.0, 15.0)),
+          markerClustering: MarkerClustering(gridSize: 80, minClusterSize: 2),
+        ),
+      ),
+    );
+
+    expect(platformGoogleMap.markerClustering['enabled'], true);
+    expect(platformGoogleMap.markerClustering['gridSize'], 80.0);
+    expect(platformGoogleMap.markerClustering['minClusterSize'], 2);
+  });
+
+  testWidgets('Can update markerCullingEnabled', (WidgetTester tester) async {
+    await tester.pumpWidget(
+      const Directionality(
+        textDirection: TextDirection.ltr,
+        child: GoogleMap(
+          initialCameraPosition: CameraPosition(target: LatLng(10.0, 15.0)),
+          markerCullingEnabled: false,
+        ),
+      ),
+    );
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView;
+
+    expect(platformGoogleMap.markerCullingEnabled, false);
+
+    await tester.pumpWidget(
+      const Directionality(
+        textDirection: TextDirection.ltr,
+        child: GoogleMap(
+          initialCameraPosition: CameraPosition(target: LatLng(10.0, 15.0)),
+          markerCullingEnabled: true,
+        ),
+      ),
+    );
+
+    expect(platformGoogleMap.markerCullingEnabled, true);
+  });
+
+  testWidgets('Can update cameraMoveThrottling', (WidgetTester tester) async {
+    await tester.pumpWidget(
+      const Directionality(
+        textDirection: TextDirection.ltr,
+        child: GoogleMap(
+          initialCameraPosition: CameraPosition(target: LatLng(10.0, 15.0)),
+        ),
+      ),
+    );
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView;
+
+    expect(platformGoogleMap.cameraMoveThrottling, <dynamic>[0, 0.0, 0.0]);
+
+    await tester.pumpWidget(
+      const Directionality(
+        textDirection: TextDirection.ltr,
+        child: GoogleMap(
+          initialCameraPosition: CameraPosition(target: LatLng(10.0, 15.0)),
+          cameraMoveThrottling: CameraMoveThrottling(
+            maxEventsPerSecond: 10,
+            minZoomDelta: 0.5,
+            minDistance: 100,
+          ),
+        ),
+      ),
+    );
+
+    expect(platformGoogleMap.cameraMoveThrottling, <dynamic>[10, 0.5, 100.0]);
+  });
+
+  testWidgets('Sends the initial objects when created',
+      (WidgetTester tester) async {
+    await tester.pumpWidget(
+      Directionality(
+        textDirection: TextDirection.ltr,
+        child: GoogleMap(
+          initialCameraPosition:
+              const CameraPosition(target: LatLng(10.0, 15.0)),
+          markers: <Marker>[Marker(markerId: MarkerId('marker_1'))].toSet(),
+          polygons: <Polygon>[Polygon(polygonId: PolygonId('polygon_1'))]
+              .toSet(),
+          polylines: <Polyline>[
+            Polyline(polylineId: PolylineId('polyline_1'))
+          ].toSet(),
+          circles: <Circle>[Circle(circleId: CircleId('circle_1'))].toSet(),
+        ),
+      ),
+    );
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView;
+
+    expect(platformGoogleMap.markersToAdd.single.markerId,
+        MarkerId('marker_1'));
+    expect(platformGoogleMap.polygonsToAdd.single.polygonId,
+        PolygonId('polygon_1'));
+    expect(platformGoogleMap.polylinesToAdd.single.polylineId,
+        PolylineId('polyline_1'));
+    expect(platformGoogleMap.circlesToAdd.single.circleId,
+        CircleId('circle_1'));
+  });
+
+  testWidgets('Calls onObjectsLoaded when the platform has added them',
+      (WidgetTester tester) async {
+    int loadedCount = 0;
+    await tester.pumpWidget(
+      Directionality(
+        textDirection: TextDirection.ltr,
+        child: GoogleMap(
+          initialCameraPosition:
+              const CameraPosition(target: LatLng(10.0, 15.0)),
+          markers: <Marker>[Marker(markerId: MarkerId('marker_1'))].toSet(),
+          onObjectsLoaded: () => loadedCount++,
+        ),
+      ),
+    );
+    await tester.pumpAndSettle();
+
+    expect(loadedCount, 0);
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView;
+    await platformGoogleMap.sendToController('map#onObjectsLoaded');
+
+    expect(loadedCount, 1);
+  });
+
+  testWidgets('Queries the shapes containing points',
+      (WidgetTester tester) async {
+    GoogleMapController controller;
+    await tester.pumpWidget(
+      Directionality(
+        textDirection: TextDirection.ltr,
+        child: GoogleMap(
+          initialCameraPosition:
+              const CameraPosition(target: LatLng(10.0, 15.0)),
+          onMapCreated: (GoogleMapController value) => controller = value,
+        ),
+      ),
+    );
+    await tester.pumpAndSettle();
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView;
+    // A point in the hole of a polygon, a point of a polygon crossing the
+    // antimeridian and a point of a circle.
+    platformGoogleMap.shapesContainingResult = <dynamic>[
+      <dynamic>[],
+      <dynamic>[
+        <dynamic>['polygon', 'polygon_1']
+      ],
+      <dynamic>[
+        <dynamic>['circle', 'circle_1']
+      ],
+    ];
+    const List<LatLng> points = <LatLng>[
+      LatLng(0.0, 0.0),
+      LatLng(5.0, -179.0),
+      LatLng(40.0, 2.0),
+    ];
+
+    final List<List<MapObjectId>> shapes =
+        await controller.shapesContaining(points);
+
+    expect(platformGoogleMap.shapesContainingPoints, points);
+    expect(shapes.length, 3);
+    expect(shapes[0], isEmpty);
+    expect(shapes[1].single.polygonId, PolygonId('polygon_1'));
+    expect(shapes[2].single.type, MapObjectType.circle);
+    expect(shapes[2].single.circleId, CircleId('circle_1'));
+  });
+
+  testWidgets('Queries the distance to a polyline',
+      (WidgetTester tester) async {
+    GoogleMapController controller;
+    await tester.pumpWidget(
+      Directionality(
+        textDirection: TextDirection.ltr,
+        child: GoogleMap(
+          initialCameraPosition:
+              const CameraPosition(target: LatLng(10.0, 15.0)),
+          onMapCreated: (GoogleMapController value) => controller = value,
+        ),
+      ),
+    );
+    await tester.pumpAndSettle();
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView;
+    platformGoogleMap.distanceToPolylineResult = 1234.5;
+
+    final double distance = await controller.distanceToPolyline(
+        PolylineId('polyline_1'), const LatLng(1.0, 5.0));
+
+    expect(distance, 1234.5);
+    expect(platformGoogleMap.distanceToPolylineArguments['polylineId'],
+        'polyline_1');
+    expect(platformGoogleMap.distanceToPolylineArguments['point'],
+        <dynamic>[1.0, 5.0]);
+  });
+
+  testWidgets('Gets the stats of the map', (WidgetTester tester) async {
+    GoogleMapController controller;
+    await tester.pumpWidget(
+      Directionality(
+        textDirection: TextDirection.ltr,
+        child: GoogleMap(
+          initialCameraPosition:
+              const CameraPosition(target: LatLng(10.0, 15.0)),
+          onMapCreated: (GoogleMapController value) => controller = value,
+        ),
+      ),
+    );
+    await tester.pumpAndSettle();
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView;
+    platformGoogleMap.statsResult = <dynamic, dynamic>{
+      'durationMs': 2000,
+      'methodCalls': <dynamic, dynamic>{
+        'markers#update': <dynamic, dynamic>{
+          'count': 3,
+          'decodeMicros': 1500,
+          'applyMicros': 900,
+          'maxApplyMicros': 500,
+        },
+      },
+      'cameraMoves': 120,
+      'cameraMoveEvents': 30,
+      'markerCount': 1000,
+      'shownMarkerCount': 40,
+      'polygonCount': 2,
+      'polylineCount': 3,
+      'circleCount': 4,
+      'heatmapCount': 1,
+      'tileOverlayCount': 1,
+      'clusterIconCount': 6,
+      'tileCacheBytes': 65536,
+      'heatmapTileCacheBytes': 32768,
+    };
+
+    final MapStats stats = await controller.getStats(reset: true);
+
+    expect(platformGoogleMap.statsReset, true);
+    expect(stats.duration, const Duration(seconds: 2));
+    final MethodCallStats markerUpdates = stats.methodCalls['markers#update'];
+    expect(markerUpdates.count, 3);
+    expect(markerUpdates.decodeTime, const Duration(microseconds: 1500));
+    expect(markerUpdates.applyTime, const Duration(microseconds: 900));
+    expect(markerUpdates.maxApplyTime, const Duration(microseconds: 500));
+    expect(stats.cameraMoves, 120);
+    expect(stats.cameraMoveEvents, 30);
+    expect(stats.cameraMoveEventsPerSecond, 15.0);
+    expect(stats.markerCount, 1000);
+    expect(stats.shownMarkerCount, 40);
+    expect(stats.polygonCount, 2);
+    expect(stats.polylineCount, 3);
+    expect(stats.circleCount, 4);
+    expect(stats.heatmapCount, 1);
+    expect(stats.tileOverlayCount, 1);
+    expect(stats.clusterIconCount, 6);
+    expect(stats.tileCacheBytes, 65536);
+    expect(stats.heatmapTileCacheBytes, 32768);
+  });
 }
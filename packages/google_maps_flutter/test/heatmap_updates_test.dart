@@ -0,0 +1,136 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+import 'package:flutter/services.dart';
+import 'package:flutter/widgets.dart';
+import 'package:flutter_test/flutter_test.dart';
+import 'package:google_maps_flutter/google_maps_flutter.dart';
+
+import 'fake_maps_controllers.dart';
+
+Set<Heatmap> _toSet({Heatmap h1, Heatmap h2, Heatmap h3}) {
+  final Set<Heatmap> res = Set<Heatmap>.identity();
+  if (h1 != null) {
+    res.add(h1);
+  }
+  if (h2 != null) {
+    res.add(h2);
+  }
+  if (h3 != null) {
+    res.add(h3);
+  }
+  return res;
+}
+
+Widget _mapWithHeatmaps(Set<Heatmap> heatmaps) {
+  return Directionality(
+    textDirection: TextDirection.ltr,
+    child: GoogleMap(
+      initialCameraPosition: const CameraPosition(target: LatLng(10.0, 15.0)),
+      heatmaps: heatmaps,
+    ),
+  );
+}
+
+void main() {
+  TestWidgetsFlutterBinding.ensureInitialized();
+
+  final FakePlatformViewsController fakePlatformViewsController =
+      FakePlatformViewsController();
+
+  setUpAll(() {
+    SystemChannels.platform_views.setMockMethodCallHandler(
+        fakePlatformViewsController.fakePlatformViewsMethodHandler);
+  });
+
+  setUp(() {
+    fakePlatformViewsController.reset();
+  });
+
+  testWidgets('Initializing a heatmap', (WidgetTester tester) async {
+    final Heatmap h1 = Heatmap(heatmapId: HeatmapId("heatmap_1"));
+    await tester.pumpWidget(_mapWithHeatmaps(_toSet(h1: h1)));
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView;
+    expect(platformGoogleMap.heatmapsToAdd.length, 1);
+
+    final Heatmap initializedHeatmap = platformGoogleMap.heatmapsToAdd.first;
+    expect(initializedHeatmap, equals(h1));
+    expect(platformGoogleMap.heatmapIdsToRemove.isEmpty, true);
+    expect(platformGoogleMap.heatmapsToChange.isEmpty, true);
+  });
+
+  testWidgets("Adding a heatmap", (WidgetTester tester) async {
+    final Heatmap h1 = Heatmap(heatmapId: HeatmapId("heatmap_1"));
+    final Heatmap h2 = Heatmap(heatmapId: HeatmapId("heatmap_2"));
+
+    await tester.pumpWidget(_mapWithHeatmaps(_toSet(h1: h1)));
+    await tester.pumpWidget(_mapWithHeatmaps(_toSet(h1: h1, h2: h2)));
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView;
+    expect(platformGoogleMap.heatmapsToAdd.length, 1);
+
+    final Heatmap addedHeatmap = platformGoogleMap.heatmapsToAdd.first;
+    expect(addedHeatmap, equals(h2));
+
+    expect(platformGoogleMap.heatmapIdsToRemove.isEmpty, true);
+    expect(platformGoogleMap.heatmapsToChange.isEmpty, true);
+  });
+
+  testWidgets("Removing a heatmap", (WidgetTester tester) async {
+    final Heatmap h1 = Heatmap(heatmapId: HeatmapId("heatmap_1"));
+
+    await tester.pumpWidget(_mapWithHeatmaps(_toSet(h1: h1)));
+    await tester.pumpWidget(_mapWithHeatmaps(null));
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView;
+    expect(platformGoogleMap.heatmapIdsToRemove.length, 1);
+    expect(platformGoogleMap.heatmapIdsToRemove.first, equals(h1.heatmapId));
+
+    expect(platformGoogleMap.heatmapsToChange.isEmpty, true);
+    expect(platformGoogleMap.heatmapsToAdd.isEmpty, true);
+  });
+
+  testWidgets("Updating a heatmap", (WidgetTester tester) async {
+    final Heatmap h1 = Heatmap(heatmapId: HeatmapId("heatmap_1"));
+    final Heatmap h2 = Heatmap(heatmapId: HeatmapId("heatmap_1"), radius: 30);
+
+    await tester.pumpWidget(_mapWithHeatmaps(_toSet(h1: h1)));
+    await tester.pumpWidget(_mapWithHeatmaps(_toSet(h1: h2)));
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView;
+    expect(platformGoogleMap.heatmapsToChange.length, 1);
+
+    final Heatmap update = platformGoogleMap.heatmapsToChange.first;
+    expect(update, equals(h2));
+    expect(update.radius, 30);
+
+    expect(platformGoogleMap.heatmapIdsToRemove.isEmpty, true);
+    expect(platformGoogleMap.heatmapsToAdd.isEmpty, true);
+  });
+
+  testWidgets("Updating the data of a heatmap", (WidgetTester tester) async {
+    final List<WeightedLatLng> data = List<WeightedLatLng>.generate(
+        1000,
+        (int i) => WeightedLatLng(LatLng(i / 100, -i / 50),
+            weight: i.toDouble()));
+    final Heatmap h1 = Heatmap(heatmapId: HeatmapId("heatmap_1"));
+    final Heatmap h2 = h1.copyWith(dataParam: data);
+
+    await tester.pumpWidget(_mapWithHeatmaps(_toSet(h1: h1)));
+    await tester.pumpWidget(_mapWithHeatmaps(_toSet(h1: h2)));
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView;
+    expect(platformGoogleMap.heatmapsToChange.length, 1);
+
+    final Heatmap update = platformGoogleMap.heatmapsToChange.first;
+    expect(update, equals(h2));
+    expect(update.data[999].weight, 999);
+  });
+}
@@ -193,4 +193,81 @@ void main() {
     expect(platformGoogleMap.markerIdsToRemove.isEmpty, true);
     expect(platformGoogleMap.markersToAdd.isEmpty, true);
   });
+
+  testWidgets("Animating markers", (WidgetTester tester) async {
+    final Marker m1 = Marker(markerId: MarkerId("marker_1"));
+    GoogleMapController controller;
+
+    await tester.pumpWidget(Directionality(
+      textDirection: TextDirection.ltr,
+      child: GoogleMap(
+        initialCameraPosition: const CameraPosition(target: LatLng(10.0, 15.0)),
+        markers: _toSet(m1: m1),
+        onMapCreated: (GoogleMapController value) => controller = value,
+      ),
+    ));
+    await tester.pumpAndSettle();
+
+    await controller.animateMarkers(<MarkerAnimation>[
+      MarkerAnimation.to(
+        markerId: m1.markerId,
+        position: const LatLng(1.0, 2.0),
+        duration: const Duration(seconds: 2),
+        rotateAlongPath: true,
+      ),
+    ]);
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView;
+    expect(platformGoogleMap.markerAnimations.length, 1);
+    final Map<dynamic, dynamic> animation =
+        platformGoogleMap.markerAnimations.first;
+    expect(animation['markerId'], "marker_1");
+    expect(animation['path'], <dynamic>[
+      <dynamic>[1.0, 2.0]
+    ]);
+    expect(animation['durationMs'], 2000);
+    expect(animation['rotateAlongPath'], true);
+    expect(animation.containsKey('rotation'), false);
+  });
+
+  testWidgets("Dispatching batched marker events", (WidgetTester tester) async {
+    final List<String> events = <String>[];
+    final Marker m1 = Marker(
+      markerId: MarkerId("marker_1"),
+      draggable: true,
+      onTap: () => events.add('onTap'),
+      onDragStart: (LatLng position) => events.add('onDragStart $position'),
+      onDrag: (LatLng position) => events.add('onDrag $position'),
+      onDragEnd: (LatLng position) => events.add('onDragEnd $position'),
+    );
+
+    await tester.pumpWidget(Directionality(
+      textDirection: TextDirection.ltr,
+      child: GoogleMap(
+        initialCameraPosition: const CameraPosition(target: LatLng(10.0, 15.0)),
+        markers: _toSet(m1: m1),
+        onMapCreated: (GoogleMapController value) {},
+      ),
+    ));
+    await tester.pumpAndSettle();
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView;
+    // The drags of a frame are coalesced into a single marker#onDrag event
+    // with the latest position.
+    await platformGoogleMap.sendToController('map#onEvents', <dynamic>[
+      <dynamic>['marker#onTap', 'marker_1'],
+      <dynamic>['marker#onDragStart', 'marker_1', 1.0, 2.0],
+      <dynamic>['marker#onDrag', 'marker_1', 3.0, 4.0],
+      <dynamic>['marker#onDragEnd', 'marker_1', 5.0, 6.0],
+    ]);
+
+    expect(events, <String>[
+      'onTap',
+      'onDragStart ${const LatLng(1.0, 2.0)}',
+      'onDrag ${const LatLng(3.0, 4.0)}',
+      'onDragEnd ${const LatLng(5.0, 6.0)}',
+    ]);
+  });
 }
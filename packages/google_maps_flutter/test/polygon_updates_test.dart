@@ -130,6 +130,63 @@ void main() {
     expect(update.geodesic, true);
   });
 
+  testWidgets("Updating a polygon simplification",
+      (WidgetTester tester) async {
+    final Polygon p1 = Polygon(polygonId: PolygonId("polygon_1"));
+    final Polygon p2 = p1.copyWith(simplifyParam: true);
+
+    await tester.pumpWidget(_mapWithPolygons(_toSet(p1: p1)));
+    await tester.pumpWidget(_mapWithPolygons(_toSet(p1: p2)));
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView;
+    expect(platformGoogleMap.polygonsToChange.length, 1);
+
+    final Polygon update = platformGoogleMap.polygonsToChange.first;
+    expect(update, equals(p2));
+    expect(update.simplify, true);
+  });
+
+  testWidgets("Updating the holes of a polygon", (WidgetTester tester) async {
+    final Polygon p1 = Polygon(
+      polygonId: PolygonId("polygon_1"),
+      points: const <LatLng>[
+        LatLng(-10.0, -10.0),
+        LatLng(10.0, -10.0),
+        LatLng(10.0, 10.0),
+        LatLng(-10.0, 10.0),
+      ],
+    );
+    final Polygon p2 = p1.copyWith(holesParam: const <List<LatLng>>[
+      <LatLng>[LatLng(-5.0, -5.0), LatLng(5.0, -5.0), LatLng(5.0, 5.0)],
+    ]);
+
+    await tester.pumpWidget(_mapWithPolygons(_toSet(p1: p1)));
+    await tester.pumpWidget(_mapWithPolygons(_toSet(p1: p2)));
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView;
+    expect(platformGoogleMap.polygonsToChange.length, 1);
+
+    final Polygon update = platformGoogleMap.polygonsToChange.first;
+    expect(update, equals(p2));
+    expect(update.holes.single, equals(p2.holes.single));
+  });
+
+  testWidgets("Adding a polygon with many points", (WidgetTester tester) async {
+    final List<LatLng> points =
+        List<LatLng>.generate(1000, (int i) => LatLng(i / 100, -i / 50));
+    final Polygon p1 =
+        Polygon(polygonId: PolygonId("polygon_1"), points: points);
+
+    await tester.pumpWidget(_mapWithPolygons(_toSet(p1: p1)));
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView;
+    expect(platformGoogleMap.polygonsToAdd.length, 1);
+    expect(platformGoogleMap.polygonsToAdd.first.points, equals(points));
+  });
+
   testWidgets("Mutate a polygon", (WidgetTester tester) async {
     final Polygon p1 = Polygon(
       polygonId: PolygonId("polygon_1"),
@@ -130,6 +130,38 @@ void main() {
     expect(update.geodesic, true);
   });
 
+  testWidgets("Updating a polyline simplification",
+      (WidgetTester tester) async {
+    final Polyline p1 = Polyline(polylineId: PolylineId("polyline_1"));
+    final Polyline p2 = p1.copyWith(simplifyParam: true);
+
+    await tester.pumpWidget(_mapWithPolylines(_toSet(p1: p1)));
+    await tester.pumpWidget(_mapWithPolylines(_toSet(p1: p2)));
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView;
+    expect(platformGoogleMap.polylinesToChange.length, 1);
+
+    final Polyline update = platformGoogleMap.polylinesToChange.first;
+    expect(update, equals(p2));
+    expect(update.simplify, true);
+  });
+
+  testWidgets("Adding a polyline with many points",
+      (WidgetTester tester) async {
+    final List<LatLng> points =
+        List<LatLng>.generate(1000, (int i) => LatLng(i / 100, -i / 50));
+    final Polyline p1 =
+        Polyline(polylineId: PolylineId("polyline_1"), points: points);
+
+    await tester.pumpWidget(_mapWithPolylines(_toSet(p1: p1)));
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView;
+    expect(platformGoogleMap.polylinesToAdd.length, 1);
+    expect(platformGoogleMap.polylinesToAdd.first.points, equals(points));
+  });
+
   testWidgets("Mutate a polyline", (WidgetTester tester) async {
     final Polyline p1 = Polyline(
       polylineId: PolylineId("polyline_1"),
@@ -0,0 +1,122 @@
+// Copyright 2019 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+import 'package:flutter/services.dart';
+import 'package:flutter/widgets.dart';
+import 'package:flutter_test/flutter_test.dart';
+import 'package:google_maps_flutter/google_maps_flutter.dart';
+
+import 'fake_maps_controllers.dart';
+
+const String _urlTemplate = 'http://localhost:8080/{z}/{x}/{y}.png';
+
+Set<TileOverlay> _toSet({TileOverlay t1, TileOverlay t2}) {
+  final Set<TileOverlay> res = Set<TileOverlay>.identity();
+  if (t1 != null) {
+    res.add(t1);
+  }
+  if (t2 != null) {
+    res.add(t2);
+  }
+  return res;
+}
+
+Widget _mapWithTileOverlays(Set<TileOverlay> tileOverlays) {
+  return Directionality(
+    textDirection: TextDirection.ltr,
+    child: GoogleMap(
+      initialCameraPosition: const CameraPosition(target: LatLng(10.0, 15.0)),
+      tileOverlays: tileOverlays,
+    ),
+  );
+}
+
+void main() {
+  TestWidgetsFlutterBinding.ensureInitialized();
+
+  final FakePlatformViewsController fakePlatformViewsController =
+      FakePlatformViewsController();
+
+  setUpAll(() {
+    SystemChannels.platform_views.setMockMethodCallHandler(
+        fakePlatformViewsController.fakePlatformViewsMethodHandler);
+  });
+
+  setUp(() {
+    fakePlatformViewsController.reset();
+  });
+
+  testWidgets('Initializing a tile overlay', (WidgetTester tester) async {
+    final TileOverlay t1 = TileOverlay(
+        tileOverlayId: TileOverlayId("tile_overlay_1"),
+        urlTemplate: _urlTemplate);
+    await tester.pumpWidget(_mapWithTileOverlays(_toSet(t1: t1)));
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView;
+    expect(platformGoogleMap.tileOverlaysToAdd.length, 1);
+    expect(platformGoogleMap.tileOverlaysToAdd.first, equals(t1));
+    expect(platformGoogleMap.tileOverlayIdsToRemove.isEmpty, true);
+    expect(platformGoogleMap.tileOverlaysToChange.isEmpty, true);
+  });
+
+  testWidgets("Adding a tile overlay", (WidgetTester tester) async {
+    final TileOverlay t1 = TileOverlay(
+        tileOverlayId: TileOverlayId("tile_overlay_1"),
+        urlTemplate: _urlTemplate);
+    final TileOverlay t2 = TileOverlay(
+        tileOverlayId: TileOverlayId("tile_overlay_2"),
+        urlTemplate: _urlTemplate);
+
+    await tester.pumpWidget(_mapWithTileOverlays(_toSet(t1: t1)));
+    await tester.pumpWidget(_mapWithTileOverlays(_toSet(t1: t1, t2: t2)));
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView;
+    expect(platformGoogleMap.tileOverlaysToAdd.length, 1);
+    expect(platformGoogleMap.tileOverlaysToAdd.first, equals(t2));
+    expect(platformGoogleMap.tileOverlayIdsToRemove.isEmpty, true);
+    expect(platformGoogleMap.tileOverlaysToChange.isEmpty, true);
+  });
+
+  testWidgets("Removing a tile overlay", (WidgetTester tester) async {
+    final TileOverlay t1 = TileOverlay(
+        tileOverlayId: TileOverlayId("tile_overlay_1"),
+        urlTemplate: _urlTemplate);
+
+    await tester.pumpWidget(_mapWithTileOverlays(_toSet(t1: t1)));
+    await tester.pumpWidget(_mapWithTileOverlays(null));
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView;
+    expect(platformGoogleMap.tileOverlayIdsToRemove.length, 1);
+    expect(platformGoogleMap.tileOverlayIdsToRemove.first,
+        equals(t1.tileOverlayId));
+    expect(platformGoogleMap.tileOverlaysToChange.isEmpty, true);
+    expect(platformGoogleMap.tileOverlaysToAdd.isEmpty, true);
+  });
+
+  testWidgets("Updating a tile overlay", (WidgetTester tester) async {
+    final TileOverlay t1 = TileOverlay(
+        tileOverlayId: TileOverlayId("tile_overlay_1"),
+        urlTemplate: _urlTemplate);
+    final TileOverlay t2 =
+        t1.copyWith(transparencyParam: 0.5, diskCacheSizeParam: 1024);
+
+    await tester.pumpWidget(_mapWithTileOverlays(_toSet(t1: t1)));
+    await tester.pumpWidget(_mapWithTileOverlays(_toSet(t1: t2)));
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView;
+    expect(platformGoogleMap.tileOverlaysToChange.length, 1);
+
+    final TileOverlay update = platformGoogleMap.tileOverlaysToChange.first;
+    expect(update, equals(t2));
+    expect(update.transparency, 0.5);
+    expect(update.diskCacheSize, 1024);
+
+    expect(platformGoogleMap.tileOverlayIdsToRemove.isEmpty, true);
+    expect(platformGoogleMap.tileOverlaysToAdd.isEmpty, true);
+  });
+}
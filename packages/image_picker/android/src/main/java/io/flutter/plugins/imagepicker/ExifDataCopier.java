@@ -6,10 +6,240 @@ package io.flutter.plugins.imagepicker;
 
 import android.media.ExifInterface;
 import android.util.Log;
+import androidx.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.FileInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 class ExifDataCopier {
+  private static final int MARKER_SOI = 0xFFD8;
+  private static final int MARKER_EOI = 0xFFD9;
+  private static final int MARKER_SOS = 0xFFDA;
+  private static final int MARKER_APP1 = 0xFFE1;
+  private static final byte[] EXIF_HEADER = {'E', 'x', 'i', 'f', 0, 0};
+  // Offset of the TIFF header in an EXIF segment, after the marker, the length and the EXIF header.
+  private static final int TIFF_OFFSET = 4 + EXIF_HEADER.length;
+  private static final short TIFF_LITTLE_ENDIAN = 0x4949;
+  private static final short TIFF_BIG_ENDIAN = 0x4D4D;
+  private static final short TIFF_MAGIC = 42;
+  private static final int IFD_ENTRY_SIZE = 12;
+  private static final int TAG_IMAGE_WIDTH = 0x0100;
+  private static final int TAG_IMAGE_LENGTH = 0x0101;
+  private static final int TAG_EXIF_IFD_POINTER = 0x8769;
+  private static final int TAG_GPS_IFD_POINTER = 0x8825;
+  private static final int TAG_PIXEL_X_DIMENSION = 0xA002;
+  private static final int TAG_PIXEL_Y_DIMENSION = 0xA003;
+  private static final int TAG_INTEROPERABILITY_IFD_POINTER = 0xA005;
+  private static final short TYPE_SHORT = 3;
+  private static final short TYPE_LONG = 4;
+  // Size in bytes of the TIFF field types, by type, 0 for unknown types.
+  private static final int[] TYPE_SIZES = {0, 1, 1, 2, 4, 8, 1, 1, 2, 4, 8, 4, 8};
+
+  /**
+   * Returns the EXIF APP1 segment of a JPEG file, including its marker and length, or null if the
+   * file has none.
+   *
+   * <p>Only the headers of the file are read, up to the EXIF segment.
+   */
+  @Nullable
+  byte[] readExifSegment(String jpegPath) {
+    try {
+      DataInputStream input =
+          new DataInputStream(new BufferedInputStream(new FileInputStream(jpegPath)));
+      try {
+        if (input.readUnsignedShort() != MARKER_SOI) {
+          return null;
+        }
+        while (true) {
+          int marker = input.readUnsignedShort();
+          if ((marker & 0xFF00) != 0xFF00 || marker == MARKER_SOS || marker == MARKER_EOI) {
+            return null;
+          }
+          int length = input.readUnsignedShort();
+          if (length < 2) {
+            return null;
+          }
+          if (marker != MARKER_APP1) {
+            skipFully(input, length - 2);
+            continue;
+          }
+          byte[] segment = new byte[length + 2];
+          segment[0] = (byte) (marker >> 8);
+          segment[1] = (byte) marker;
+          segment[2] = (byte) (length >> 8);
+          segment[3] = (byte) length;
+          input.readFully(segment, 4, length - 2);
+          if (isExifSegment(segment)) {
+            return segment;
+          }
+        }
+      } finally {
+        input.close();
+      }
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Returns a copy of an EXIF segment that describes an image of {@code width} x {@code height}
+   * pixels, or null if the segment can't be parsed.
+   *
+   * <p>The dimension tags are set to the new size, and IFD1, which holds the thumbnail of the
+   * original image, is unlinked. Its bytes are dropped when nothing but IFD1 follows them, which is
+   * where cameras store it.
+   */
+  @Nullable
+  byte[] resizeExifSegment(byte[] exifSegment, int width, int height) {
+    byte[] segment = exifSegment.clone();
+    ByteBuffer tiff = ByteBuffer.wrap(segment, TIFF_OFFSET, segment.length - TIFF_OFFSET).slice();
+    try {
+      short byteOrder = tiff.getShort(0);
+      if (byteOrder == TIFF_LITTLE_ENDIAN) {
+        tiff.order(ByteOrder.LITTLE_ENDIAN);
+      } else if (byteOrder != TIFF_BIG_ENDIAN) {
+        return null;
+      }
+      if (tiff.getShort(2) != TIFF_MAGIC) {
+        return null;
+      }
+      int ifd0 = tiff.getInt(4);
+      int nextIfdPointer = ifd0 + 2 + IFD_ENTRY_SIZE * (tiff.getShort(ifd0) & 0xFFFF);
+      int ifd1 = tiff.getInt(nextIfdPointer);
+      tiff.putInt(nextIfdPointer, 0);
+
+      // IFD0 and the IFDs it links to, which hold every tag but those of the thumbnail.
+      List<Integer> ifds = new ArrayList<>();
+      ifds.add(ifd0);
+      long dataEnd = 0;
+      for (int i = 0; i < ifds.size(); i++) {
+        int ifd = ifds.get(i);
+        int entryCount = tiff.getShort(ifd) & 0xFFFF;
+        dataEnd = Math.max(dataEnd, ifd + 2 + IFD_ENTRY_SIZE * entryCount + 4);
+        for (int j = 0; j < entryCount; j++) {
+          int entry = ifd + 2 + IFD_ENTRY_SIZE * j;
+          switch (tiff.getShort(entry) & 0xFFFF) {
+            case TAG_IMAGE_WIDTH:
+            case TAG_PIXEL_X_DIMENSION:
+              setDimension(tiff, entry, width);
+              break;
+            case TAG_IMAGE_LENGTH:
+            case TAG_PIXEL_Y_DIMENSION:
+              setDimension(tiff, entry, height);
+              break;
+            case TAG_EXIF_IFD_POINTER:
+            case TAG_GPS_IFD_POINTER:
+            case TAG_INTEROPERABILITY_IFD_POINTER:
+              int pointer = tiff.getInt(entry + 8);
+              if (!ifds.contains(pointer)) {
+                ifds.add(pointer);
+              }
+              break;
+          }
+          dataEnd = Math.max(dataEnd, valueEnd(tiff, entry));
+        }
+      }
+      if (ifd1 <= 0 || ifd1 < dataEnd || TIFF_OFFSET + ifd1 > segment.length) {
+        return segment;
+      }
+      int length = TIFF_OFFSET + ifd1 - 2;
+      byte[] truncatedSegment = Arrays.copyOf(segment, length + 2);
+      truncatedSegment[2] = (byte) (length >> 8);
+      truncatedSegment[3] = (byte) length;
+      return truncatedSegment;
+    } catch (IndexOutOfBoundsException e) {
+      return null;
+    }
+  }
+
+  // Sets a single SHORT or LONG value, widening a SHORT that can't hold it.
+  private static void setDimension(ByteBuffer tiff, int entry, int value) {
+    short type = tiff.getShort(entry + 2);
+    if (tiff.getInt(entry + 4) != 1 || (type != TYPE_SHORT && type != TYPE_LONG)) {
+      return;
+    }
+    if (type == TYPE_SHORT && value <= 0xFFFF) {
+      tiff.putShort(entry + 8, (short) value);
+      tiff.putShort(entry + 10, (short) 0);
+    } else {
+      tiff.putShort(entry + 2, TYPE_LONG);
+      tiff.putInt(entry + 8, value);
+    }
+  }
+
+  // Returns the end of the value of an IFD entry stored outside of the entry, 0 if it fits in the
+  // entry, or Long.MAX_VALUE if its type is unknown.
+  private static long valueEnd(ByteBuffer tiff, int entry) {
+    int type = tiff.getShort(entry + 2) & 0xFFFF;
+    int typeSize = type < TYPE_SIZES.length ? TYPE_SIZES[type] : 0;
+    if (typeSize == 0) {
+      return Long.MAX_VALUE;
+    }
+    long size = (tiff.getInt(entry + 4) & 0xFFFFFFFFL) * typeSize;
+    return size <= 4 ? 0 : (tiff.getInt(entry + 8) & 0xFFFFFFFFL) + size;
+  }
+
+  /**
+   * Returns a stream that writes the EXIF segment right after the start of image marker of the
+   * JPEG stream written to it.
+   */
+  OutputStream spliceExif(OutputStream jpegOutput, final byte[] exifSegment) {
+    return new FilterOutputStream(jpegOutput) {
+      // Number of bytes of the start of image marker written so far.
+      private int markerBytes;
+
+      @Override
+      public void write(int b) throws IOException {
+        out.write(b);
+        if (markerBytes < 2 && ++markerBytes == 2) {
+          out.write(exifSegment);
+        }
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) throws IOException {
+        while (markerBytes < 2 && len > 0) {
+          write(b[off]);
+          off++;
+          len--;
+        }
+        if (len > 0) {
+          out.write(b, off, len);
+        }
+      }
+    };
+  }
+
+  private static boolean isExifSegment(byte[] segment) {
+    if (segment.length < 4 + EXIF_HEADER.length) {
+      return false;
+    }
+    for (int i = 0; i < EXIF_HEADER.length; i++) {
+      if (segment[4 + i] != EXIF_HEADER[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static void skipFully(DataInputStream input, int count) throws IOException {
+    while (count > 0) {
+      int skipped = input.skipBytes(count);
+      if (skipped <= 0) {
+        throw new IOException("Truncated JPEG segment");
+      }
+      count -= skipped;
+    }
+  }
+
   void copyExif(String filePathOri, String filePathDest) {
     try {
       ExifInterface oldExif = new ExifInterface(filePathOri);
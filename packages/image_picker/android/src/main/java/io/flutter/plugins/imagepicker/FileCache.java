@@ -0,0 +1,141 @@
+// Copyright 2019 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.imagepicker;
+
+import java.io.File;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Files of a directory named after a hash of the key they were created from, so that the file of
+ * a key can be found again without an index.
+ *
+ * <p>Only the files whose name starts with the prefix of the cache are managed by it. Once their
+ * total size exceeds the byte budget, the least recently used ones are deleted. Files being written
+ * should end with {@code .tmp} until they are complete, so that they aren't evicted.
+ *
+ * <p>Files returned or added within the last minute are never evicted, since they may still be in
+ * use by another thread.
+ */
+class FileCache {
+  static final long DEFAULT_MAX_BYTES = 100 * 1024 * 1024;
+  static final String TEMPORARY_SUFFIX = ".tmp";
+  private static final long IN_USE_MILLIS = 60 * 1000;
+
+  private final File directory;
+  private final String prefix;
+  private long maxBytes;
+  // The time at which the files were last returned or added by this instance.
+  private final Map<File, Long> fileToUseTime = new HashMap<>();
+
+  FileCache(File directory, String prefix, long maxBytes) {
+    this.directory = directory;
+    this.prefix = prefix;
+    this.maxBytes = maxBytes;
+  }
+
+  /** Returns the file of {@code key}, whether it exists or not. */
+  File getFile(String key, String suffix) {
+    return new File(directory, prefix + hash(key) + suffix);
+  }
+
+  /** Returns the existing file of {@code key}, marking it as recently used, or null. */
+  synchronized File get(String key, String suffix) {
+    File file = getFile(key, suffix);
+    if (!file.isFile()) {
+      return null;
+    }
+    markUsed(file);
+    return file;
+  }
+
+  /** Marks {@code file} as recently used, and evicts other files if the budget is exceeded. */
+  synchronized void onFileAdded(File file) {
+    markUsed(file);
+    trim();
+  }
+
+  synchronized void setMaxBytes(long maxBytes) {
+    this.maxBytes = maxBytes;
+    trim();
+  }
+
+  private void markUsed(File file) {
+    long now = System.currentTimeMillis();
+    file.setLastModified(now);
+    fileToUseTime.put(file, now);
+  }
+
+  // Deletes the least recently used files, except the ones in use, until the budget is met.
+  private void trim() {
+    File[] files = directory.listFiles();
+    if (files == null) {
+      return;
+    }
+    long now = System.currentTimeMillis();
+    Iterator<Long> useTimes = fileToUseTime.values().iterator();
+    while (useTimes.hasNext()) {
+      if (now - useTimes.next() >= IN_USE_MILLIS) {
+        useTimes.remove();
+      }
+    }
+    List<File> cachedFiles = new ArrayList<>();
+    long totalBytes = 0;
+    for (File file : files) {
+      String name = file.getName();
+      if (file.isFile() && name.startsWith(prefix) && !name.endsWith(TEMPORARY_SUFFIX)) {
+        cachedFiles.add(file);
+        totalBytes += file.length();
+      }
+    }
+    if (totalBytes <= maxBytes) {
+      return;
+    }
+    Collections.sort(
+        cachedFiles,
+        new Comparator<File>() {
+          @Override
+          public int compare(File a, File b) {
+            long difference = a.lastModified() - b.lastModified();
+            return difference < 0 ? -1 : (difference > 0 ? 1 : 0);
+          }
+        });
+    for (File file : cachedFiles) {
+      if (totalBytes <= maxBytes) {
+        break;
+      }
+      if (fileToUseTime.containsKey(file)) {
+        continue;
+      }
+      long length = file.length();
+      if (file.delete()) {
+        totalBytes -= length;
+      }
+    }
+  }
+
+  private static String hash(String key) {
+    try {
+      byte[] digest =
+          MessageDigest.getInstance("SHA-1").digest(key.getBytes(Charset.forName("UTF-8")));
+      StringBuilder builder = new StringBuilder(digest.length * 2);
+      for (byte b : digest) {
+        builder.append(Character.forDigit((b >> 4) & 0xf, 16));
+        builder.append(Character.forDigit(b & 0xf, 16));
+      }
+      return builder.toString();
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -30,16 +30,76 @@ import android.database.Cursor;
 import android.net.Uri;
 import android.os.Build;
 import android.os.Environment;
+import android.os.ParcelFileDescriptor;
+import android.os.SystemClock;
 import android.provider.DocumentsContract;
 import android.provider.MediaStore;
 import android.text.TextUtils;
+import android.util.Log;
 import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.Map;
 
 class FileUtils {
+  private static final String TAG = "FileUtils";
+  // Number of bytes transferred at once between file channels.
+  private static final long TRANSFER_CHUNK_SIZE = 8 * 1024 * 1024;
+  private static final int BUFFER_SIZE = 256 * 1024;
+
+  // Copy buffer of each processing thread, reused across copies.
+  private static final ThreadLocal<byte[]> buffers =
+      new ThreadLocal<byte[]>() {
+        @Override
+        protected byte[] initialValue() {
+          return new byte[BUFFER_SIZE];
+        }
+      };
+  // Columns holding the modification time of a content URI, depending on its provider.
+  private static final String[] LAST_MODIFIED_COLUMNS = {"last_modified", "date_modified"};
+
+  private FileCache importCache;
+  private long cacheMaxBytes = FileCache.DEFAULT_MAX_BYTES;
+  // Totals of the copies made by getPathFromRemoteUri, reported by getImportStats.
+  private int copyCount;
+  private long copiedBytes;
+  private long copyMillis;
+
+  synchronized void setCacheMaxBytes(long maxBytes) {
+    cacheMaxBytes = maxBytes;
+    if (importCache != null) {
+      importCache.setMaxBytes(maxBytes);
+    }
+  }
+
+  /** Returns the number of copies made from other apps, and their total size and duration. */
+  synchronized Map<String, Object> getImportStats() {
+    final Map<String, Object> stats = new HashMap<>();
+    stats.put("copyCount", copyCount);
+    stats.put("copiedBytes", copiedBytes);
+    stats.put("copyMillis", copyMillis);
+    return stats;
+  }
+
+  private synchronized void onCopied(long byteCount, long duration) {
+    copyCount++;
+    copiedBytes += byteCount;
+    copyMillis += duration;
+  }
+
+  private synchronized FileCache getImportCache(Context context) {
+    if (importCache == null) {
+      importCache = new FileCache(context.getCacheDir(), "image_picker", cacheMaxBytes);
+    }
+    return importCache;
+  }
 
   String getPathFromUri(final Context context, final Uri uri) {
     String path = getPathFromLocalUri(context, uri);
@@ -137,37 +197,207 @@ class FileUtils {
     return null;
   }
 
-  private static String getPathFromRemoteUri(final Context context, final Uri uri) {
-    // The code below is why Java now has try-with-resources and the Files utility.
+  /**
+   * Copies the content of the URI to the import cache. Content whose size and modification time
+   * are known is cached by its URI, size and modification time, so picking it again returns the
+   * existing copy.
+   */
+  private String getPathFromRemoteUri(final Context context, final Uri uri) {
+    final FileCache cache = getImportCache(context);
+    final String extension = getImageExtension(uri);
+    final String key = getImportKey(context, uri);
+    if (key != null) {
+      File cached = cache.get(key, extension);
+      if (cached != null) {
+        return cached.getPath();
+      }
+    }
     File file = null;
-    InputStream inputStream = null;
-    OutputStream outputStream = null;
     boolean success = false;
     try {
-      String extension = getImageExtension(uri);
-      inputStream = context.getContentResolver().openInputStream(uri);
-      file = File.createTempFile("image_picker", extension, context.getCacheDir());
-      outputStream = new FileOutputStream(file);
-      if (inputStream != null) {
-        copy(inputStream, outputStream);
-        success = true;
+      file =
+          File.createTempFile("image_picker", FileCache.TEMPORARY_SUFFIX, context.getCacheDir());
+      final long startTime = SystemClock.elapsedRealtime();
+      long byteCount = copyFromFileDescriptor(context, uri, file);
+      if (byteCount < 0) {
+        byteCount = copyFromStream(context, uri, file);
+      }
+      success = byteCount >= 0;
+      if (success) {
+        final long duration = SystemClock.elapsedRealtime() - startTime;
+        onCopied(byteCount, duration);
+        if (BuildConfig.DEBUG) {
+          Log.d(
+              TAG,
+              "Copied "
+                  + byteCount
+                  + " bytes in "
+                  + duration
+                  + " ms ("
+                  + (byteCount / 1024 * 1000 / Math.max(1, duration))
+                  + " KB/s)");
+        }
+      }
+      if (success) {
+        File target =
+            key != null
+                ? cache.getFile(key, extension)
+                : File.createTempFile("image_picker", extension, context.getCacheDir());
+        success = file.renameTo(target);
+        if (success) {
+          file = target;
+          cache.onFileAdded(file);
+        }
       }
     } catch (IOException ignored) {
+      success = false;
     } finally {
+      if (!success && file != null) {
+        file.delete();
+      }
+    }
+    return success ? file.getPath() : null;
+  }
+
+  /** @return the cache key of the content, or null if its size or modification time isn't known. */
+  private static String getImportKey(Context context, Uri uri) {
+    Cursor cursor = null;
+    try {
+      cursor = context.getContentResolver().query(uri, null, null, null, null);
+      if (cursor == null || !cursor.moveToFirst()) {
+        return null;
+      }
+      final int sizeIndex = cursor.getColumnIndex("_size");
+      if (sizeIndex == -1 || cursor.isNull(sizeIndex)) {
+        return null;
+      }
+      for (String column : LAST_MODIFIED_COLUMNS) {
+        final int index = cursor.getColumnIndex(column);
+        if (index != -1 && !cursor.isNull(index)) {
+          return uri + "\n" + cursor.getLong(sizeIndex) + "\n" + cursor.getLong(index);
+        }
+      }
+      // Content edited in place would be returned stale if keyed by its size alone.
+      return null;
+    } catch (RuntimeException e) {
+      return null;
+    } finally {
+      if (cursor != null) {
+        cursor.close();
+      }
+    }
+  }
+
+  /**
+   * Copies the content of a URI backed by a regular file with {@link FileChannel#transferTo}, which
+   * doesn't copy the bytes through the Java heap.
+   *
+   * @return the number of bytes copied, or -1 if the provider didn't give a seekable file.
+   */
+  private static long copyFromFileDescriptor(Context context, Uri uri, File file)
+      throws IOException {
+    ParcelFileDescriptor descriptor;
+    try {
+      descriptor = context.getContentResolver().openFileDescriptor(uri, "r");
+    } catch (IOException | SecurityException | IllegalArgumentException e) {
+      return -1;
+    }
+    if (descriptor == null) {
+      return -1;
+    }
+    try {
+      final long size = descriptor.getStatSize();
+      if (size < 0) {
+        // Pipes and sockets can't be transferred from.
+        return -1;
+      }
+      final FileInputStream inputStream = new FileInputStream(descriptor.getFileDescriptor());
+      final FileOutputStream outputStream = new FileOutputStream(file);
       try {
-        if (inputStream != null) inputStream.close();
-      } catch (IOException ignored) {
+        return transfer(inputStream.getChannel(), outputStream.getChannel(), size);
+      } finally {
+        inputStream.close();
+        // If closing the output stream fails, we cannot be sure that the target file was written
+        // in full, so the exception is propagated.
+        outputStream.close();
       }
+    } finally {
+      descriptor.close();
+    }
+  }
+
+  /**
+   * Copies the file at {@code sourcePath} to a file descriptor, such as the one of a document
+   * created by another app, without copying its bytes through the Java heap.
+   *
+   * @return the number of bytes copied.
+   */
+  static long copyFile(String sourcePath, FileDescriptor destination) throws IOException {
+    final FileInputStream inputStream = new FileInputStream(sourcePath);
+    try {
+      final FileOutputStream outputStream = new FileOutputStream(destination);
       try {
-        if (outputStream != null) outputStream.close();
-      } catch (IOException ignored) {
-        // If closing the output stream fails, we cannot be sure that the
-        // target file was written in full. Flushing the stream merely moves
-        // the bytes into the OS, not necessarily to the file.
-        success = false;
+        final FileChannel input = inputStream.getChannel();
+        return transfer(input, outputStream.getChannel(), input.size());
+      } finally {
+        outputStream.close();
       }
+    } finally {
+      inputStream.close();
+    }
+  }
+
+  // Transfers size bytes in chunks, returning the number of bytes transferred. The bytes that
+  // transferTo stops transferring are copied through a buffer, and an input shorter than size fails
+  // rather than leaving a truncated copy.
+  private static long transfer(FileChannel input, FileChannel output, long size)
+      throws IOException {
+    long position = 0;
+    while (position < size) {
+      final long transferred =
+          input.transferTo(position, Math.min(TRANSFER_CHUNK_SIZE, size - position), output);
+      if (transferred <= 0) {
+        break;
+      }
+      position += transferred;
+    }
+    if (position == size) {
+      return position;
+    }
+    final ByteBuffer buffer = ByteBuffer.wrap(buffers.get());
+    input.position(position);
+    while (position < size) {
+      buffer.clear();
+      buffer.limit((int) Math.min(buffer.capacity(), size - position));
+      final int bytesRead = input.read(buffer);
+      if (bytesRead == -1) {
+        throw new IOException("Expected " + size + " bytes, but only " + position + " were read");
+      }
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        output.write(buffer);
+      }
+      position += bytesRead;
+    }
+    return position;
+  }
+
+  /** @return the number of bytes copied, or -1 if the URI couldn't be opened. */
+  private static long copyFromStream(Context context, Uri uri, File file) throws IOException {
+    final InputStream inputStream = context.getContentResolver().openInputStream(uri);
+    if (inputStream == null) {
+      return -1;
+    }
+    try {
+      final OutputStream outputStream = new FileOutputStream(file);
+      try {
+        return copy(inputStream, outputStream);
+      } finally {
+        outputStream.close();
+      }
+    } finally {
+      inputStream.close();
     }
-    return success ? file.getPath() : null;
   }
 
   /** @return extension of image with dot, or default .jpg if it none. */
@@ -191,13 +421,16 @@ class FileUtils {
     return "." + extension;
   }
 
-  private static void copy(InputStream in, OutputStream out) throws IOException {
-    final byte[] buffer = new byte[4 * 1024];
+  private static long copy(InputStream in, OutputStream out) throws IOException {
+    final byte[] buffer = buffers.get();
+    long byteCount = 0;
     int bytesRead;
     while ((bytesRead = in.read(buffer)) != -1) {
       out.write(buffer, 0, bytesRead);
+      byteCount += bytesRead;
     }
     out.flush();
+    return byteCount;
   }
 
   private static boolean isExternalStorageDocument(Uri uri) {
@@ -0,0 +1,126 @@
+// Copyright 2019 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.imagepicker;
+
+import android.annotation.SuppressLint;
+import android.content.ContentResolver;
+import android.content.ContentUris;
+import android.database.Cursor;
+import android.net.Uri;
+import android.os.Build;
+import android.os.Bundle;
+import android.provider.MediaStore;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Queries pages of the images of the gallery from the MediaStore, the most recently taken first.
+ *
+ * <p>Only the columns returned to Dart are read, and the paging is done by the provider, so a page
+ * costs the same whatever the size of the gallery.
+ */
+class GalleryQuery {
+  private static final String[] PROJECTION = {
+    MediaStore.Images.ImageColumns._ID,
+    MediaStore.Images.ImageColumns.DATA,
+    MediaStore.Images.ImageColumns.DATE_TAKEN,
+    MediaStore.Images.ImageColumns.WIDTH,
+    MediaStore.Images.ImageColumns.HEIGHT,
+    MediaStore.Images.ImageColumns.MIME_TYPE,
+  };
+  // Images taken at the same time are ordered by id, so that pages don't overlap.
+  private static final String[] SORT_COLUMNS = {
+    MediaStore.Images.ImageColumns.DATE_TAKEN, MediaStore.Images.ImageColumns._ID
+  };
+  // Build.VERSION_CODES.R, which the compile SDK doesn't define.
+  private static final int ANDROID_R = 30;
+
+  private final ContentResolver contentResolver;
+
+  GalleryQuery(ContentResolver contentResolver) {
+    this.contentResolver = contentResolver;
+  }
+
+  /**
+   * Returns up to {@code limit} images, skipping the {@code offset} most recent ones.
+   *
+   * <p>Each image is a map of its {@code id}, content {@code uri}, file {@code path}, {@code
+   * dateTaken} in milliseconds since the epoch, {@code width}, {@code height} and {@code mimeType}.
+   * Any of them but the id and the uri can be null.
+   *
+   * @throws SecurityException if the app isn't allowed to read the external storage.
+   */
+  List<Map<String, Object>> queryImages(int offset, int limit) {
+    final List<Map<String, Object>> images = new ArrayList<>();
+    if (limit <= 0) {
+      return images;
+    }
+    final Cursor cursor = query(offset, limit);
+    if (cursor == null) {
+      return images;
+    }
+    try {
+      final int idIndex = cursor.getColumnIndex(MediaStore.Images.ImageColumns._ID);
+      final int dataIndex = cursor.getColumnIndex(MediaStore.Images.ImageColumns.DATA);
+      final int dateTakenIndex = cursor.getColumnIndex(MediaStore.Images.ImageColumns.DATE_TAKEN);
+      final int widthIndex = cursor.getColumnIndex(MediaStore.Images.ImageColumns.WIDTH);
+      final int heightIndex = cursor.getColumnIndex(MediaStore.Images.ImageColumns.HEIGHT);
+      final int mimeTypeIndex = cursor.getColumnIndex(MediaStore.Images.ImageColumns.MIME_TYPE);
+      while (cursor.moveToNext() && images.size() < limit) {
+        final long id = cursor.getLong(idIndex);
+        final Map<String, Object> image = new HashMap<>();
+        image.put("id", id);
+        image.put(
+            "uri",
+            ContentUris.withAppendedId(MediaStore.Images.Media.EXTERNAL_CONTENT_URI, id)
+                .toString());
+        image.put("path", getString(cursor, dataIndex));
+        image.put("dateTaken", getLong(cursor, dateTakenIndex));
+        image.put("width", getLong(cursor, widthIndex));
+        image.put("height", getLong(cursor, heightIndex));
+        image.put("mimeType", getString(cursor, mimeTypeIndex));
+        images.add(image);
+      }
+    } finally {
+      cursor.close();
+    }
+    return images;
+  }
+
+  @SuppressLint("NewApi")
+  private Cursor query(int offset, int limit) {
+    final Uri uri = MediaStore.Images.Media.EXTERNAL_CONTENT_URI;
+    if (Build.VERSION.SDK_INT >= ANDROID_R) {
+      // Since Android 11 the MediaStore rejects LIMIT clauses in the sort order.
+      final Bundle queryArgs = new Bundle();
+      queryArgs.putStringArray(ContentResolver.QUERY_ARG_SORT_COLUMNS, SORT_COLUMNS);
+      queryArgs.putInt(
+          ContentResolver.QUERY_ARG_SORT_DIRECTION,
+          ContentResolver.QUERY_SORT_DIRECTION_DESCENDING);
+      queryArgs.putInt(ContentResolver.QUERY_ARG_LIMIT, limit);
+      queryArgs.putInt(ContentResolver.QUERY_ARG_OFFSET, Math.max(0, offset));
+      return contentResolver.query(uri, PROJECTION, queryArgs, null);
+    }
+    final String sortOrder =
+        SORT_COLUMNS[0]
+            + " DESC, "
+            + SORT_COLUMNS[1]
+            + " DESC LIMIT "
+            + limit
+            + " OFFSET "
+            + Math.max(0, offset);
+    return contentResolver.query(uri, PROJECTION, null, null, sortOrder);
+  }
+
+  private static String getString(Cursor cursor, int index) {
+    return index == -1 || cursor.isNull(index) ? null : cursor.getString(index);
+  }
+
+  private static Long getLong(Cursor cursor, int index) {
+    return index == -1 || cursor.isNull(index) ? null : cursor.getLong(index);
+  }
+}
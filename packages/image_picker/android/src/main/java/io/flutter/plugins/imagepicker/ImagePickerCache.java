@@ -39,6 +39,8 @@ class ImagePickerCache {
   private static final String SHARED_PREFERENCE_TYPE_KEY = "flutter_image_picker_type";
   private static final String SHARED_PREFERENCE_PENDING_IMAGE_URI_PATH_KEY =
       "flutter_image_picker_pending_image_uri";
+  private static final String SHARED_PREFERENCE_PENDING_SAVE_SOURCE_PATH_KEY =
+      "flutter_image_picker_pending_save_source_path";
 
   @VisibleForTesting
   static final String SHARED_PREFERENCES_NAME = "flutter_image_picker_shared_preference";
@@ -50,7 +52,8 @@ class ImagePickerCache {
   }
 
   void saveTypeWithMethodCallName(String methodCallName) {
-    if (methodCallName.equals(ImagePickerPlugin.METHOD_CALL_IMAGE)) {
+    if (methodCallName.equals(ImagePickerPlugin.METHOD_CALL_IMAGE)
+        || methodCallName.equals(ImagePickerPlugin.METHOD_CALL_MULTI_IMAGE)) {
       setType("image");
     } else if (methodCallName.equals(ImagePickerPlugin.METHOD_CALL_VIDEO)) {
       setType("video");
@@ -98,6 +101,18 @@ class ImagePickerCache {
     return prefs.getString(SHARED_PREFERENCE_PENDING_IMAGE_URI_PATH_KEY, "");
   }
 
+  void savePendingSaveSourcePath(String path) {
+    prefs.edit().putString(SHARED_PREFERENCE_PENDING_SAVE_SOURCE_PATH_KEY, path).apply();
+  }
+
+  String retrievePendingSaveSourcePath() {
+    return prefs.getString(SHARED_PREFERENCE_PENDING_SAVE_SOURCE_PATH_KEY, null);
+  }
+
+  void removePendingSaveSourcePath() {
+    prefs.edit().remove(SHARED_PREFERENCE_PENDING_SAVE_SOURCE_PATH_KEY).apply();
+  }
+
   void saveResult(
       @Nullable String path, @Nullable String errorCode, @Nullable String errorMessage) {
 
@@ -7,20 +7,18 @@ package io.flutter.plugins.imagepicker;
 
 import android.Manifest;
 import android.app.Activity;
-import android.content.Context;
+import android.content.ClipData;
 import android.content.Intent;
 import android.content.pm.PackageManager;
 import android.content.pm.ResolveInfo;
-import android.database.Cursor;
 import android.media.MediaScannerConnection;
 import android.net.Uri;
 import android.os.Build;
-import android.os.Bundle;
 import android.os.Environment;
+import android.os.Handler;
+import android.os.Looper;
 import android.os.ParcelFileDescriptor;
 import android.provider.MediaStore;
-import android.util.Log;
-import android.util.Pair;
 
 import androidx.annotation.RequiresApi;
 import androidx.annotation.VisibleForTesting;
@@ -34,9 +32,14 @@ import io.flutter.plugin.common.PluginRegistry;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * A delegate class doing the heavy lifting for the plugin.
@@ -76,6 +79,13 @@ import java.util.UUID;
  * Finish with full path for the scaled image as the result.
  *
  * <p>C) User cancels picking an image. Finish with null result.
+ *
+ * <p>{@link #chooseMultiImageFromGallery} lets the user pick several images from the gallery, and
+ * finishes with the list of their paths once all of them have been processed.
+ *
+ * <p>Copying, decoding and resizing the picked images happen on a bounded pool of background
+ * threads, and the result is finished back on the main thread. The executor is shut down by {@link
+ * #cancelImageProcessing} when the activity is destroyed.
  */
 public class ImagePickerDelegate
         implements PluginRegistry.ActivityResultListener,
@@ -89,6 +99,10 @@ public class ImagePickerDelegate
     @VisibleForTesting
     static final int REQUEST_CAMERA_IMAGE_PERMISSION = 2345;
     @VisibleForTesting
+    static final int REQUEST_CODE_CHOOSE_MULTI_IMAGE_FROM_GALLERY = 2346;
+    @VisibleForTesting
+    static final int REQUEST_EXTERNAL_MULTI_IMAGE_STORAGE_PERMISSION = 2347;
+    @VisibleForTesting
     static final int REQUEST_CODE_CHOOSE_VIDEO_FROM_GALLERY = 2352;
     @VisibleForTesting
     static final int REQUEST_CODE_TAKE_VIDEO_WITH_CAMERA = 2353;
@@ -100,6 +114,19 @@ public class ImagePickerDelegate
     @VisibleForTesting
     static final int REQUEST_CREATE_DOCUMENT = 8000;
 
+    // Prefix of the temporary files holding the bytes given to saveImageToGallery.
+    private static final String TEMPORARY_SAVE_FILE_PREFIX = "image_picker_save";
+
+    // Images are decoded at once by at most this many threads, which bounds the memory used.
+    private static final int PROCESSING_THREAD_COUNT =
+            Math.max(1, Math.min(3, Runtime.getRuntime().availableProcessors()));
+
+    // Errors of the results whose file couldn't be processed, or whose processing was cancelled
+    // because the activity was destroyed.
+    private static final String PROCESSING_FAILED_ERROR = "processing_failed";
+    private static final String PROCESSING_CANCELLED_ERROR = "processing_cancelled";
+    private static final String PROCESSING_CANCELLED_MESSAGE = "The activity was destroyed.";
+
     @VisibleForTesting
     final String fileProviderName;
 
@@ -111,8 +138,11 @@ public class ImagePickerDelegate
     private final IntentResolver intentResolver;
     private final FileUriResolver fileUriResolver;
     private final FileUtils fileUtils;
+    private final ExecutorService backgroundExecutor;
+    private final Executor mainThreadExecutor;
 
-    private Bundle mData = new Bundle();
+    private ProgressListener progressListener;
+    private ThumbnailLoader thumbnailLoader;
 
     interface PermissionManager {
         boolean isPermissionGranted(String permissionName);
@@ -136,7 +166,14 @@ public class ImagePickerDelegate
         void onPathReady(String path);
     }
 
+    /** Reports on the main thread how many of the picked images have been processed. */
+    interface ProgressListener {
+        void onProgress(int processedCount, int totalCount);
+    }
+
     private Uri pendingCameraMediaUri;
+    // The file written to the document created by saveImageToGallery.
+    private String pendingSaveSourcePath;
     private MethodChannel.Result pendingResult;
     private MethodCall methodCall;
 
@@ -195,7 +232,16 @@ public class ImagePickerDelegate
                                 });
                     }
                 },
-                new FileUtils());
+                new FileUtils(),
+                Executors.newFixedThreadPool(PROCESSING_THREAD_COUNT),
+                new Executor() {
+                    private final Handler handler = new Handler(Looper.getMainLooper());
+
+                    @Override
+                    public void execute(Runnable runnable) {
+                        handler.post(runnable);
+                    }
+                });
     }
 
     /**
@@ -213,7 +259,9 @@ public class ImagePickerDelegate
             final PermissionManager permissionManager,
             final IntentResolver intentResolver,
             final FileUriResolver fileUriResolver,
-            final FileUtils fileUtils) {
+            final FileUtils fileUtils,
+            final ExecutorService backgroundExecutor,
+            final Executor mainThreadExecutor) {
         this.activity = activity;
         this.externalFilesDirectory = externalFilesDirectory;
         this.imageResizer = imageResizer;
@@ -225,6 +273,37 @@ public class ImagePickerDelegate
         this.fileUriResolver = fileUriResolver;
         this.fileUtils = fileUtils;
         this.cache = cache;
+        this.backgroundExecutor = backgroundExecutor;
+        this.mainThreadExecutor = mainThreadExecutor;
+    }
+
+    /**
+     * Stops processing the picked images. The pending result, if any, is finished with an error
+     * since the images that are being processed are dropped.
+     */
+    void cancelImageProcessing() {
+        backgroundExecutor.shutdownNow();
+        if (pendingResult != null) {
+            finishWithError(PROCESSING_CANCELLED_ERROR, PROCESSING_CANCELLED_MESSAGE);
+        }
+        if (thumbnailLoader != null) {
+            thumbnailLoader.dispose();
+        }
+    }
+
+    /** Sets the byte budget of the caches of imported and of resized images. */
+    void setCacheMaxBytes(long maxBytes) {
+        imageResizer.setCacheMaxBytes(maxBytes);
+        fileUtils.setCacheMaxBytes(maxBytes);
+    }
+
+    /** Returns the statistics of the copies of content picked from other apps. */
+    Map<String, Object> getImportStats() {
+        return fileUtils.getImportStats();
+    }
+
+    void setProgressListener(ProgressListener progressListener) {
+        this.progressListener = progressListener;
     }
 
     void saveStateBeforeResult() {
@@ -237,97 +316,232 @@ public class ImagePickerDelegate
         if (pendingCameraMediaUri != null) {
             cache.savePendingCameraMediaUriPath(pendingCameraMediaUri);
         }
+        if (pendingSaveSourcePath != null) {
+            cache.savePendingSaveSourcePath(pendingSaveSourcePath);
+        }
     }
 
-    void retrieveLostImage(MethodChannel.Result result) {
-        Map<String, Object> resultMap = cache.getCacheMap();
-        String path = (String) resultMap.get(cache.MAP_KEY_PATH);
-        if (path != null) {
-            Double maxWidth = (Double) resultMap.get(cache.MAP_KEY_MAX_WIDTH);
-            Double maxHeight = (Double) resultMap.get(cache.MAP_KEY_MAX_HEIGHT);
-            int imageQuality =
-                    resultMap.get(cache.MAP_KEY_IMAGE_QUALITY) == null
-                            ? 100
-                            : (int) resultMap.get(cache.MAP_KEY_IMAGE_QUALITY);
-
-            String newPath = imageResizer.resizeImageIfNeeded(path, maxWidth, maxHeight, imageQuality);
-            resultMap.put(cache.MAP_KEY_PATH, newPath);
+    void retrieveLostImage(final MethodChannel.Result result) {
+        final Map<String, Object> resultMap = cache.getCacheMap();
+        cache.clear();
+        final String path = (String) resultMap.get(cache.MAP_KEY_PATH);
+        if (path == null) {
+            result.success(resultMap.isEmpty() ? null : resultMap);
+            return;
         }
-        if (resultMap.isEmpty()) {
-            result.success(null);
-        } else {
-            result.success(resultMap);
+        final Double maxWidth = (Double) resultMap.get(cache.MAP_KEY_MAX_WIDTH);
+        final Double maxHeight = (Double) resultMap.get(cache.MAP_KEY_MAX_HEIGHT);
+        final int imageQuality =
+                resultMap.get(cache.MAP_KEY_IMAGE_QUALITY) == null
+                        ? 100
+                        : (int) resultMap.get(cache.MAP_KEY_IMAGE_QUALITY);
+        final boolean submitted =
+                processInBackground(
+                        new Runnable() {
+                            @Override
+                            public void run() {
+                                final String newPath;
+                                try {
+                                    newPath =
+                                            imageResizer.resizeImageIfNeeded(
+                                                    path, maxWidth, maxHeight, imageQuality);
+                                } catch (RuntimeException e) {
+                                    mainThreadExecutor.execute(
+                                            new Runnable() {
+                                                @Override
+                                                public void run() {
+                                                    result.error(
+                                                            PROCESSING_FAILED_ERROR,
+                                                            "Could not process the lost image.",
+                                                            null);
+                                                }
+                                            });
+                                    return;
+                                }
+                                mainThreadExecutor.execute(
+                                        new Runnable() {
+                                            @Override
+                                            public void run() {
+                                                resultMap.put(cache.MAP_KEY_PATH, newPath);
+                                                result.success(resultMap);
+                                            }
+                                        });
+                            }
+                        });
+        if (!submitted) {
+            result.error(PROCESSING_CANCELLED_ERROR, PROCESSING_CANCELLED_MESSAGE, null);
         }
-        cache.clear();
     }
 
-    public void getLatestPhoto(MethodCall methodCall, MethodChannel.Result result) {
-        Pair<Long, String> pair = getLatestPhoto(activity);
-        if (pair == null) {
-            if (BuildConfig.DEBUG) {
-                Log.d("获得图片", "数据为空");
-            }
-            result.success(null);
-        } else {
-            if (BuildConfig.DEBUG) {
-                Log.d("ImagePickerDelegate",
-                        "获得图片数据: longId : " + pair.first + " , path : " + pair.second);
-            }
-            result.success(pair.second);
-        }
+    /** Finishes with the path of the most recently taken image of the gallery, or null. */
+    public void getLatestPhoto(MethodCall methodCall, final MethodChannel.Result result) {
+        queryGalleryImages(
+                0,
+                1,
+                result,
+                new GalleryResultListener() {
+                    @Override
+                    public void onImages(List<Map<String, Object>> images) {
+                        result.success(images.isEmpty() ? null : images.get(0).get("path"));
+                    }
+                });
     }
 
     /**
-     * 获取相册中最新一张图片
+     * Finishes with a page of the images of the gallery, the most recently taken first.
      *
-     * @param context
-     * @return
+     * @see GalleryQuery#queryImages
      */
-    private Pair<Long, String> getLatestPhoto(Context context) {
-        //检查camera文件夹，查询并排序
-        Pair<Long, String> cameraPair = null;
-        Cursor cursor = null;
-        try {
-            cursor = MediaStore.Images.Thumbnails.query(context.getContentResolver(),
-                    MediaStore.Images.Thumbnails.EXTERNAL_CONTENT_URI,
-                    //                    MediaStore.Images.Thumbnails.MICRO_KIND,
-                    new String[] {MediaStore.Images.Thumbnails.IMAGE_ID,
-                            MediaStore.Images.Thumbnails.DATA});
-            if (cursor != null && cursor.moveToLast()) {
-                cameraPair = new Pair(cursor.getInt(0), cursor.getString(1));
-                if (BuildConfig.DEBUG) {
-                    Log.d("图片查询数据", "获得数据 : " + cameraPair.second);
-                }
-            }
-        } catch (Exception exception) {
-            exception.printStackTrace();
-        } finally {
-            if (cursor != null && !cursor.isClosed()) {
-                cursor.close();
-            }
-            cursor = null;
+    public void queryGalleryImages(MethodCall methodCall, final MethodChannel.Result result) {
+        final Integer offset = methodCall.argument("offset");
+        final Integer limit = methodCall.argument("limit");
+        queryGalleryImages(
+                offset == null ? 0 : offset,
+                limit == null ? 0 : limit,
+                result,
+                new GalleryResultListener() {
+                    @Override
+                    public void onImages(List<Map<String, Object>> images) {
+                        result.success(images);
+                    }
+                });
+    }
+
+    /**
+     * Finishes with the thumbnail of an image, as JPEG bytes or as the path of a file.
+     *
+     * @see ThumbnailLoader#load
+     */
+    public void loadThumbnail(MethodCall methodCall, MethodChannel.Result result) {
+        final Integer requestId = methodCall.argument("requestId");
+        final String uri = methodCall.argument("uri");
+        final Integer width = methodCall.argument("width");
+        final Integer height = methodCall.argument("height");
+        final Integer priority = methodCall.argument("priority");
+        final Boolean toFile = methodCall.argument("toFile");
+        if (requestId == null || uri == null || width == null || height == null) {
+            result.error(
+                    "invalid_arguments",
+                    "loadThumbnail requires a requestId, a uri, a width and a height.",
+                    null);
+            return;
+        }
+        getThumbnailLoader()
+                .load(
+                        requestId,
+                        uri,
+                        width,
+                        height,
+                        priority == null ? 0 : priority,
+                        toFile != null && toFile,
+                        result);
+    }
+
+    public void cancelThumbnail(MethodCall methodCall, MethodChannel.Result result) {
+        final Integer requestId = methodCall.argument("requestId");
+        if (requestId == null) {
+            result.error("invalid_arguments", "cancelThumbnail requires a requestId.", null);
+            return;
+        }
+        getThumbnailLoader().cancel(requestId);
+        result.success(null);
+    }
+
+    private ThumbnailLoader getThumbnailLoader() {
+        if (thumbnailLoader == null) {
+            thumbnailLoader =
+                    new ThumbnailLoader(
+                            activity.getContentResolver(),
+                            new File(activity.getCacheDir(), "image_picker_thumbnails"));
         }
+        return thumbnailLoader;
+    }
 
-        return cameraPair;
+    private interface GalleryResultListener {
+        void onImages(List<Map<String, Object>> images);
     }
 
+    // Queries on the background executor; the result replies on the main thread.
+    private void queryGalleryImages(
+            final int offset,
+            final int limit,
+            final MethodChannel.Result result,
+            final GalleryResultListener listener) {
+        final GalleryQuery query = new GalleryQuery(activity.getContentResolver());
+        final boolean submitted =
+                processInBackground(
+                        new Runnable() {
+                            @Override
+                            public void run() {
+                                try {
+                                    listener.onImages(query.queryImages(offset, limit));
+                                } catch (SecurityException e) {
+                                    result.error("photo_access_denied", e.getMessage(), null);
+                                }
+                            }
+                        });
+        if (!submitted) {
+            result.error(PROCESSING_CANCELLED_ERROR, PROCESSING_CANCELLED_MESSAGE, null);
+        }
+    }
 
+    /**
+     * Lets the user create a document and writes a file to it.
+     *
+     * <p>The file is either given by its {@code filePath}, or as {@code fileData} bytes that are
+     * written to a temporary file right away, so that only the path of the file is held until the
+     * document is created.
+     */
     @RequiresApi(api = Build.VERSION_CODES.KITKAT)
-    public void saveImageToGallery(MethodCall methodCall, MethodChannel.Result result)
+    public void saveImageToGallery(final MethodCall methodCall, MethodChannel.Result result)
             throws IOException {
+        final String filePath = methodCall.argument("filePath");
+        final byte[] fileData = methodCall.argument("fileData");
+        if (filePath == null && fileData == null) {
+            result.error("invalid_arguments", "saveFile requires a filePath or fileData.", null);
+            return;
+        }
         if (!setPendingMethodCallAndResult(methodCall, result)) {
             finishWithAlreadyActiveError(result);
             return;
         }
 
+        if (filePath != null) {
+            launchCreateDocumentIntent(methodCall, filePath);
+            return;
+        }
+        final File cacheDirectory = activity.getCacheDir();
+        processPendingResultInBackground(
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        final File file;
+                        try {
+                            file = writeTemporarySaveFile(cacheDirectory, fileData);
+                        } catch (IOException e) {
+                            finishWithErrorOnMainThread(
+                                    "document_failure", "Could not create the document.");
+                            return;
+                        }
+                        mainThreadExecutor.execute(
+                                new Runnable() {
+                                    @Override
+                                    public void run() {
+                                        launchCreateDocumentIntent(methodCall, file.getPath());
+                                    }
+                                });
+                    }
+                });
+    }
+
+    @RequiresApi(api = Build.VERSION_CODES.KITKAT)
+    private void launchCreateDocumentIntent(MethodCall methodCall, String sourcePath) {
         String title = methodCall.argument("title");
         if (title == null) {
             title = "Camera";
         }
 
-        mData.clear();
-        mData.putByteArray("bytes", (byte[]) methodCall.argument("fileData"));
-
+        pendingSaveSourcePath = sourcePath;
         Intent intent = new Intent(Intent.ACTION_CREATE_DOCUMENT)
                 .addCategory(Intent.CATEGORY_OPENABLE)
                 .setType((String) methodCall.argument("mimeType"))
@@ -335,6 +549,20 @@ public class ImagePickerDelegate
         activity.startActivityForResult(intent, REQUEST_CREATE_DOCUMENT);
     }
 
+    private static File writeTemporarySaveFile(File directory, byte[] data) throws IOException {
+        final File file = File.createTempFile(TEMPORARY_SAVE_FILE_PREFIX, ".tmp", directory);
+        final FileOutputStream output = new FileOutputStream(file);
+        try {
+            output.write(data);
+        } catch (IOException e) {
+            file.delete();
+            throw e;
+        } finally {
+            output.close();
+        }
+        return file;
+    }
+
 
     public void chooseVideoFromGallery(MethodCall methodCall, MethodChannel.Result result) {
         if (!setPendingMethodCallAndResult(methodCall, result)) {
@@ -408,6 +636,33 @@ public class ImagePickerDelegate
         launchPickImageFromGalleryIntent();
     }
 
+    public void chooseMultiImageFromGallery(MethodCall methodCall, MethodChannel.Result result) {
+        if (!setPendingMethodCallAndResult(methodCall, result)) {
+            finishWithAlreadyActiveError(result);
+            return;
+        }
+
+        if (!permissionManager.isPermissionGranted(Manifest.permission.READ_EXTERNAL_STORAGE)) {
+            permissionManager.askForPermission(
+                    Manifest.permission.READ_EXTERNAL_STORAGE,
+                    REQUEST_EXTERNAL_MULTI_IMAGE_STORAGE_PERMISSION);
+            return;
+        }
+
+        launchPickMultiImageFromGalleryIntent();
+    }
+
+    private void launchPickMultiImageFromGalleryIntent() {
+        Intent pickImageIntent = new Intent(Intent.ACTION_GET_CONTENT);
+        pickImageIntent.setType("image/*");
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            pickImageIntent.putExtra(Intent.EXTRA_ALLOW_MULTIPLE, true);
+        }
+
+        activity.startActivityForResult(
+                pickImageIntent, REQUEST_CODE_CHOOSE_MULTI_IMAGE_FROM_GALLERY);
+    }
+
     private void launchPickImageFromGalleryIntent() {
         Intent pickImageIntent = new Intent(Intent.ACTION_GET_CONTENT);
         pickImageIntent.setType("image/*");
@@ -503,6 +758,11 @@ public class ImagePickerDelegate
                     launchPickImageFromGalleryIntent();
                 }
                 break;
+            case REQUEST_EXTERNAL_MULTI_IMAGE_STORAGE_PERMISSION:
+                if (permissionGranted) {
+                    launchPickMultiImageFromGalleryIntent();
+                }
+                break;
             case REQUEST_EXTERNAL_VIDEO_STORAGE_PERMISSION:
                 if (permissionGranted) {
                     launchPickVideoFromGalleryIntent();
@@ -525,6 +785,7 @@ public class ImagePickerDelegate
         if (!permissionGranted) {
             switch (requestCode) {
                 case REQUEST_EXTERNAL_IMAGE_STORAGE_PERMISSION:
+                case REQUEST_EXTERNAL_MULTI_IMAGE_STORAGE_PERMISSION:
                 case REQUEST_EXTERNAL_VIDEO_STORAGE_PERMISSION:
                     finishWithError("photo_access_denied", "The user did not allow photo access.");
                     break;
@@ -547,6 +808,9 @@ public class ImagePickerDelegate
             case REQUEST_CODE_TAKE_IMAGE_WITH_CAMERA:
                 handleCaptureImageResult(resultCode);
                 break;
+            case REQUEST_CODE_CHOOSE_MULTI_IMAGE_FROM_GALLERY:
+                handleChooseMultiImageResult(resultCode, data);
+                break;
             case REQUEST_CODE_CHOOSE_VIDEO_FROM_GALLERY:
                 handleChooseVideoResult(resultCode, data);
                 break;
@@ -565,8 +829,15 @@ public class ImagePickerDelegate
 
     private void handleChooseImageResult(int resultCode, Intent data) {
         if (resultCode == Activity.RESULT_OK && data != null) {
-            String path = fileUtils.getPathFromUri(activity, data.getData());
-            handleImageResult(path, false);
+            final Uri uri = data.getData();
+            final MethodCall call = methodCall;
+            processPendingResultInBackground(
+                    new Runnable() {
+                        @Override
+                        public void run() {
+                            processImage(call, fileUtils.getPathFromUri(activity, uri), false);
+                        }
+                    });
             return;
         }
 
@@ -574,10 +845,104 @@ public class ImagePickerDelegate
         finishWithSuccess(null);
     }
 
+    private void handleChooseMultiImageResult(int resultCode, Intent data) {
+        if (resultCode != Activity.RESULT_OK || data == null) {
+            // User cancelled choosing pictures.
+            finishWithSuccessPaths(null);
+            return;
+        }
+
+        final List<Uri> uris = new ArrayList<>();
+        ClipData clipData = data.getClipData();
+        if (clipData != null) {
+            for (int i = 0; i < clipData.getItemCount(); i++) {
+                uris.add(clipData.getItemAt(i).getUri());
+            }
+        } else if (data.getData() != null) {
+            uris.add(data.getData());
+        }
+        if (uris.isEmpty()) {
+            finishWithSuccessPaths(new ArrayList<String>());
+            return;
+        }
+
+        // The method call is null when the activity was recreated while picking, then the images
+        // are only copied, and the first of them is saved to the cache.
+        final MethodCall call = methodCall;
+        final String[] paths = new String[uris.size()];
+        final int[] processedCount = {0};
+        // Whether an image failed to be processed, in which case the result finishes with an error.
+        final boolean[] failed = {false};
+        for (int i = 0; i < uris.size(); i++) {
+            final int index = i;
+            final boolean submitted =
+                    processInBackground(
+                            new Runnable() {
+                                @Override
+                                public void run() {
+                                    String path;
+                                    boolean success = true;
+                                    try {
+                                        path = fileUtils.getPathFromUri(activity, uris.get(index));
+                                        if (path != null && call != null) {
+                                            path = resizeImage(call, path);
+                                        }
+                                    } catch (RuntimeException e) {
+                                        path = null;
+                                        success = false;
+                                    }
+                                    final String finalImagePath = path;
+                                    final boolean finalSuccess = success;
+                                    mainThreadExecutor.execute(
+                                            new Runnable() {
+                                                @Override
+                                                public void run() {
+                                                    paths[index] = finalImagePath;
+                                                    failed[0] |= !finalSuccess;
+                                                    onMultiImageProcessed(
+                                                            paths, ++processedCount[0], failed[0]);
+                                                }
+                                            });
+                                }
+                            });
+            if (!submitted) {
+                finishWithError(PROCESSING_CANCELLED_ERROR, PROCESSING_CANCELLED_MESSAGE);
+                return;
+            }
+        }
+    }
+
+    private void onMultiImageProcessed(String[] paths, int processedCount, boolean failed) {
+        if (progressListener != null) {
+            progressListener.onProgress(processedCount, paths.length);
+        }
+        if (processedCount < paths.length) {
+            return;
+        }
+        if (failed) {
+            finishWithError(PROCESSING_FAILED_ERROR, "Could not process the picked images.");
+            return;
+        }
+        List<String> imagePaths = new ArrayList<>();
+        for (String path : paths) {
+            // Images that couldn't be read or decoded are skipped.
+            if (path != null) {
+                imagePaths.add(path);
+            }
+        }
+        finishWithSuccessPaths(imagePaths);
+    }
+
     private void handleChooseVideoResult(int resultCode, Intent data) {
         if (resultCode == Activity.RESULT_OK && data != null) {
-            String path = fileUtils.getPathFromUri(activity, data.getData());
-            handleVideoResult(path);
+            final Uri uri = data.getData();
+            processPendingResultInBackground(
+                    new Runnable() {
+                        @Override
+                        public void run() {
+                            finishWithSuccessOnMainThread(fileUtils.getPathFromUri(activity, uri));
+                        }
+                    });
             return;
         }
 
@@ -587,14 +952,21 @@ public class ImagePickerDelegate
 
     private void handleCaptureImageResult(int resultCode) {
         if (resultCode == Activity.RESULT_OK) {
+            final MethodCall call = methodCall;
             fileUriResolver.getFullImagePath(
                     pendingCameraMediaUri != null
                             ? pendingCameraMediaUri
                             : Uri.parse(cache.retrievePendingCameraMediaUriPath()),
                     new OnPathReadyListener() {
                         @Override
-                        public void onPathReady(String path) {
-                            handleImageResult(path, true);
+                        public void onPathReady(final String path) {
+                            processPendingResultInBackground(
+                                    new Runnable() {
+                                        @Override
+                                        public void run() {
+                                            processImage(call, path, true);
+                                        }
+                                    });
                         }
                     });
             return;
@@ -623,49 +995,132 @@ public class ImagePickerDelegate
         finishWithSuccess(null);
     }
 
-    private void handleImageResult(String path, boolean shouldDeleteOriginalIfScaled) {
-        if (methodCall != null) {
-            Double maxWidth = methodCall.argument("maxWidth");
-            Double maxHeight = methodCall.argument("maxHeight");
-            Integer imageQuality = methodCall.argument("imageQuality");
-
-            String finalImagePath =
-                    imageResizer.resizeImageIfNeeded(path, maxWidth, maxHeight, imageQuality);
-
-            finishWithSuccess(finalImagePath);
+    // Called on the background executor, with the method call read on the main thread, which is
+    // null when the activity was recreated while picking.
+    private void processImage(MethodCall call, String path, boolean shouldDeleteOriginalIfScaled) {
+        if (path == null) {
+            finishWithErrorOnMainThread(
+                    PROCESSING_FAILED_ERROR, "Could not read the picked image.");
+            return;
+        }
+        if (call != null) {
+            String finalImagePath = resizeImage(call, path);
 
             //delete original file if scaled
             if (finalImagePath != null && !finalImagePath.equals(path) && shouldDeleteOriginalIfScaled) {
                 new File(path).delete();
             }
+
+            finishWithSuccessOnMainThread(finalImagePath);
         } else {
-            finishWithSuccess(path);
+            finishWithSuccessOnMainThread(path);
+        }
+    }
+
+    // Resizes an image with the arguments of the method call, on the background executor.
+    private String resizeImage(MethodCall call, String path) {
+        Double maxWidth = call.argument("maxWidth");
+        Double maxHeight = call.argument("maxHeight");
+        Integer imageQuality = call.argument("imageQuality");
+        return imageResizer.resizeImageIfNeeded(path, maxWidth, maxHeight, imageQuality);
+    }
+
+    /**
+     * Runs a task that finishes the pending result on the background executor, finishing the result
+     * with an error instead if the task throws, or if the activity was destroyed.
+     */
+    private void processPendingResultInBackground(final Runnable runnable) {
+        final boolean submitted =
+                processInBackground(
+                        new Runnable() {
+                            @Override
+                            public void run() {
+                                try {
+                                    runnable.run();
+                                } catch (RuntimeException e) {
+                                    finishWithErrorOnMainThread(
+                                            PROCESSING_FAILED_ERROR,
+                                            "Could not process the picked file.");
+                                }
+                            }
+                        });
+        if (!submitted) {
+            finishWithErrorOnMainThread(PROCESSING_CANCELLED_ERROR, PROCESSING_CANCELLED_MESSAGE);
         }
     }
 
+    // Returns false if the activity was destroyed, and the runnable won't run.
+    private boolean processInBackground(Runnable runnable) {
+        try {
+            backgroundExecutor.execute(runnable);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    private void finishWithSuccessOnMainThread(final String imagePath) {
+        mainThreadExecutor.execute(
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        finishWithSuccess(imagePath);
+                    }
+                });
+    }
+
     private void handleVideoResult(String path) {
         finishWithSuccess(path);
     }
 
     private void handleCreateDocumentResult(int resultCode, Intent data) {
-        if (resultCode == Activity.RESULT_OK && data != null) {
-            Uri uri = data.getData();
-            try {
-                ParcelFileDescriptor pfd =
-                        activity.getContentResolver().openFileDescriptor(uri, "w");
-                FileOutputStream fos = new FileOutputStream(pfd.getFileDescriptor());
-                fos.write(mData.getByteArray("bytes"));
-                fos.close();
-                pfd.close();
-                finishWithSuccess(uri.getPath());
-            } catch (Throwable t) {
-                finishWithError("document_failure", "Could not create the document.");
-            }
-        } else {
+        final String sourcePath =
+                pendingSaveSourcePath != null
+                        ? pendingSaveSourcePath
+                        : cache.retrievePendingSaveSourcePath();
+        // The source path is consumed whatever the result, so that it isn't read again.
+        pendingSaveSourcePath = null;
+        cache.removePendingSaveSourcePath();
+        if (resultCode != Activity.RESULT_OK || data == null || sourcePath == null) {
+            deleteTemporarySaveFile(sourcePath);
             // User cancelled.
             finishWithError("user_cancelled", "Could not create the document.");
+            return;
+        }
+        final Uri uri = data.getData();
+        final boolean submitted =
+                processInBackground(
+                        new Runnable() {
+                            @Override
+                            public void run() {
+                                try {
+                                    ParcelFileDescriptor pfd =
+                                            activity.getContentResolver().openFileDescriptor(uri, "w");
+                                    try {
+                                        FileUtils.copyFile(sourcePath, pfd.getFileDescriptor());
+                                    } finally {
+                                        pfd.close();
+                                    }
+                                    finishWithSuccessOnMainThread(uri.getPath());
+                                } catch (Throwable t) {
+                                    finishWithErrorOnMainThread(
+                                            "document_failure", "Could not create the document.");
+                                } finally {
+                                    deleteTemporarySaveFile(sourcePath);
+                                }
+                            }
+                        });
+        if (!submitted) {
+            deleteTemporarySaveFile(sourcePath);
+            finishWithError(PROCESSING_CANCELLED_ERROR, PROCESSING_CANCELLED_MESSAGE);
+        }
+    }
+
+    // Deletes the file holding the bytes given to saveImageToGallery, but not a file of the app.
+    private static void deleteTemporarySaveFile(String path) {
+        if (path != null && new File(path).getName().startsWith(TEMPORARY_SAVE_FILE_PREFIX)) {
+            new File(path).delete();
         }
-        mData.clear();
     }
 
     private boolean setPendingMethodCallAndResult(
@@ -692,6 +1147,28 @@ public class ImagePickerDelegate
         clearMethodCallAndResult();
     }
 
+    private void finishWithSuccessPaths(List<String> imagePaths) {
+        if (pendingResult == null) {
+            // Only a single path can be retrieved after the activity is recreated.
+            final String firstPath =
+                    imagePaths == null || imagePaths.isEmpty() ? null : imagePaths.get(0);
+            cache.saveResult(firstPath, null, null);
+            return;
+        }
+        pendingResult.success(imagePaths);
+        clearMethodCallAndResult();
+    }
+
+    private void finishWithErrorOnMainThread(final String errorCode, final String errorMessage) {
+        mainThreadExecutor.execute(
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        finishWithError(errorCode, errorMessage);
+                    }
+                });
+    }
+
     private void finishWithAlreadyActiveError(MethodChannel.Result result) {
         result.error("already_active", "Image picker is already active", null);
     }
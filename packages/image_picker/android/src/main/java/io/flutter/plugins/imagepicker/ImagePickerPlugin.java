@@ -22,17 +22,25 @@ import io.flutter.plugin.common.PluginRegistry;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
 
 public class ImagePickerPlugin implements MethodChannel.MethodCallHandler {
 
     private static final int REQUEST_ID = 1001010;
 
     static final String METHOD_CALL_IMAGE = "pickImage";
+    static final String METHOD_CALL_MULTI_IMAGE = "pickMultiImage";
     static final String METHOD_CALL_VIDEO = "pickVideo";
 
     static final String METHOD_CALL_REQUEST_FOR_PERMISSION = "requestForPermission";
     static final String METHOD_CALL_GET_LATEST_IMAGE = "getLatestImage";
+    static final String METHOD_CALL_QUERY_GALLERY_IMAGES = "queryGalleryImages";
+    static final String METHOD_CALL_LOAD_THUMBNAIL = "loadThumbnail";
+    static final String METHOD_CALL_CANCEL_THUMBNAIL = "cancelThumbnail";
     static final String METHOD_CALL_SAVE_FILE = "saveFile";
+    static final String METHOD_CALL_SET_CACHE_MAX_BYTES = "setCacheMaxBytes";
+    static final String METHOD_CALL_GET_IMPORT_STATS = "getImportStats";
 
 
     private static final String METHOD_CALL_RETRIEVE = "retrieve";
@@ -63,6 +71,17 @@ public class ImagePickerPlugin implements MethodChannel.MethodCallHandler {
         final ImagePickerDelegate delegate =
                 new ImagePickerDelegate(registrar.activity(), externalFilesDirectory, imageResizer, cache);
 
+        delegate.setProgressListener(
+                new ImagePickerDelegate.ProgressListener() {
+                    @Override
+                    public void onProgress(int processedCount, int totalCount) {
+                        final Map<String, Object> arguments = new HashMap<>();
+                        arguments.put("processedCount", processedCount);
+                        arguments.put("totalCount", totalCount);
+                        channel.invokeMethod("onPickProgress", arguments);
+                    }
+                });
+
         registrar.addActivityResultListener(delegate);
         registrar.addRequestPermissionsResultListener(delegate);
         final ImagePickerPlugin instance = new ImagePickerPlugin(registrar, delegate);
@@ -100,6 +119,9 @@ public class ImagePickerPlugin implements MethodChannel.MethodCallHandler {
 
                     @Override
                     public void onActivityDestroyed(Activity activity) {
+                        if (activity == registrar.activity()) {
+                            delegate.cancelImageProcessing();
+                        }
                         if (activity == registrar.activity()
                                 && registrar.activity().getApplicationContext() != null) {
                             ((Application) registrar.activity().getApplicationContext())
@@ -215,6 +237,15 @@ public class ImagePickerPlugin implements MethodChannel.MethodCallHandler {
             case METHOD_CALL_GET_LATEST_IMAGE:
                 delegate.getLatestPhoto(call, result);
                 break;
+            case METHOD_CALL_QUERY_GALLERY_IMAGES:
+                delegate.queryGalleryImages(call, result);
+                break;
+            case METHOD_CALL_LOAD_THUMBNAIL:
+                delegate.loadThumbnail(call, result);
+                break;
+            case METHOD_CALL_CANCEL_THUMBNAIL:
+                delegate.cancelThumbnail(call, result);
+                break;
             case METHOD_CALL_SAVE_FILE:
                 try {
                     delegate.saveImageToGallery(call, result);
@@ -236,6 +267,9 @@ public class ImagePickerPlugin implements MethodChannel.MethodCallHandler {
                         throw new IllegalArgumentException("Invalid image source: " + imageSource);
                 }
                 break;
+            case METHOD_CALL_MULTI_IMAGE:
+                delegate.chooseMultiImageFromGallery(call, result);
+                break;
             case METHOD_CALL_VIDEO:
                 imageSource = call.argument("source");
                 switch (imageSource) {
@@ -249,6 +283,14 @@ public class ImagePickerPlugin implements MethodChannel.MethodCallHandler {
                         throw new IllegalArgumentException("Invalid video source: " + imageSource);
                 }
                 break;
+            case METHOD_CALL_SET_CACHE_MAX_BYTES:
+                final Number maxBytes = call.argument("maxBytes");
+                delegate.setCacheMaxBytes(maxBytes.longValue());
+                result.success(null);
+                break;
+            case METHOD_CALL_GET_IMPORT_STATS:
+                result.success(delegate.getImportStats());
+                break;
             case METHOD_CALL_RETRIEVE:
                 delegate.retrieveLostImage(result);
                 break;
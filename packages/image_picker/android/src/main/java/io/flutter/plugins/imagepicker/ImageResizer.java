@@ -8,18 +8,25 @@ import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.util.Log;
 import androidx.annotation.Nullable;
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 
 class ImageResizer {
   private final File externalFilesDirectory;
   private final ExifDataCopier exifDataCopier;
+  private final FileCache cache;
 
   ImageResizer(File externalFilesDirectory, ExifDataCopier exifDataCopier) {
     this.externalFilesDirectory = externalFilesDirectory;
     this.exifDataCopier = exifDataCopier;
+    this.cache = new FileCache(externalFilesDirectory, "scaled_", FileCache.DEFAULT_MAX_BYTES);
+  }
+
+  void setCacheMaxBytes(long maxBytes) {
+    cache.setMaxBytes(maxBytes);
   }
 
   /**
@@ -27,26 +34,67 @@ class ImageResizer {
    * image.
    *
    * <p>If no resizing is needed, returns the path for the original image.
+   *
+   * <p>The image is decoded with a power of two sample size close to the requested size before it
+   * is scaled precisely, so that the memory used is proportional to the size of the scaled image
+   * rather than the size of the original one.
+   *
+   * <p>Scaled images are cached by the path, size and modification time of the original image and
+   * by the scaling parameters, so resizing the same image again returns the existing file.
+   *
+   * <p>The EXIF data of JPEG images is written along with the scaled image, so that it is written
+   * only once.
    */
   String resizeImageIfNeeded(
       String imagePath,
       @Nullable Double maxWidth,
       @Nullable Double maxHeight,
       @Nullable Integer imageQuality) {
-    Bitmap bmp = decodeFile(imagePath);
-    if (bmp == null) {
-      return null;
-    }
     boolean shouldScale =
         maxWidth != null || maxHeight != null || isImageQualityValid(imageQuality);
+    String[] pathParts = imagePath.split("/");
+    String imageName = pathParts[pathParts.length - 1];
+    File original = new File(imagePath);
+    String cacheKey =
+        original.getAbsolutePath()
+            + "\n"
+            + original.length()
+            + "\n"
+            + original.lastModified()
+            + "\n"
+            + maxWidth
+            + "\n"
+            + maxHeight
+            + "\n"
+            + imageQuality;
+    if (shouldScale) {
+      File cached = cache.get(cacheKey, "_" + imageName);
+      if (cached != null) {
+        return cached.getPath();
+      }
+    }
+    BitmapFactory.Options bounds = decodeBounds(imagePath);
+    if (bounds.outWidth <= 0 || bounds.outHeight <= 0) {
+      return null;
+    }
     if (!shouldScale) {
       return imagePath;
     }
     try {
-      String[] pathParts = imagePath.split("/");
-      String imageName = pathParts[pathParts.length - 1];
-      File file = resizedImage(bmp, maxWidth, maxHeight, imageQuality, imageName);
-      copyExif(imagePath, file.getPath());
+      File file =
+          resizedImage(
+              imagePath,
+              bounds.outWidth,
+              bounds.outHeight,
+              maxWidth,
+              maxHeight,
+              imageQuality,
+              cache.getFile(cacheKey, "_" + imageName).getName(),
+              exifDataCopier.readExifSegment(imagePath));
+      if (file == null) {
+        return null;
+      }
+      cache.onFileAdded(file);
       return file.getPath();
     } catch (IOException e) {
       throw new RuntimeException(e);
@@ -54,10 +102,17 @@ class ImageResizer {
   }
 
   private File resizedImage(
-      Bitmap bmp, Double maxWidth, Double maxHeight, Integer imageQuality, String outputImageName)
+      String imagePath,
+      int imageWidth,
+      int imageHeight,
+      Double maxWidth,
+      Double maxHeight,
+      Integer imageQuality,
+      String outputImageName,
+      @Nullable byte[] exifSegment)
       throws IOException {
-    double originalWidth = bmp.getWidth() * 1.0;
-    double originalHeight = bmp.getHeight() * 1.0;
+    double originalWidth = imageWidth * 1.0;
+    double originalHeight = imageHeight * 1.0;
 
     if (!isImageQualityValid(imageQuality)) {
       imageQuality = 100;
@@ -98,26 +153,75 @@ class ImageResizer {
       }
     }
 
-    Bitmap scaledBmp = createScaledBitmap(bmp, width.intValue(), height.intValue(), false);
+    int targetWidth = Math.max(1, width.intValue());
+    int targetHeight = Math.max(1, height.intValue());
+    Bitmap bmp =
+        decodeFile(
+            imagePath,
+            calculateInSampleSize(imageWidth, imageHeight, targetWidth, targetHeight));
+    if (bmp == null) {
+      return null;
+    }
+    Bitmap scaledBmp = bmp;
+    if (bmp.getWidth() != targetWidth || bmp.getHeight() != targetHeight) {
+      scaledBmp = createScaledBitmap(bmp, targetWidth, targetHeight, false);
+      if (scaledBmp != bmp) {
+        bmp.recycle();
+      }
+    }
+    byte[] resizedExifSegment =
+        exifSegment == null || scaledBmp.hasAlpha()
+            ? null
+            : exifDataCopier.resizeExifSegment(exifSegment, targetWidth, targetHeight);
     File file =
-        createImageOnExternalDirectory("/scaled_" + outputImageName, scaledBmp, imageQuality);
+        createImageOnExternalDirectory(
+            "/" + outputImageName, scaledBmp, imageQuality, resizedExifSegment);
+    scaledBmp.recycle();
+    if (resizedExifSegment == null) {
+      // Images without an EXIF segment that can be spliced, because they aren't JPEG or it can't be
+      // parsed, get the tags that ExifInterface reads.
+      copyExif(imagePath, file.getPath());
+    }
     return file;
   }
 
+  /**
+   * Returns the largest power of two by which the image can be subsampled while staying at least as
+   * large as the target size.
+   */
+  static int calculateInSampleSize(
+      int imageWidth, int imageHeight, int targetWidth, int targetHeight) {
+    int inSampleSize = 1;
+    while (imageWidth / (inSampleSize * 2) >= targetWidth
+        && imageHeight / (inSampleSize * 2) >= targetHeight) {
+      inSampleSize *= 2;
+    }
+    return inSampleSize;
+  }
+
   private File createFile(File externalFilesDirectory, String child) {
     return new File(externalFilesDirectory, child);
   }
 
-  private FileOutputStream createOutputStream(File imageFile) throws IOException {
-    return new FileOutputStream(imageFile);
+  private OutputStream createOutputStream(File imageFile) throws IOException {
+    return new BufferedOutputStream(new FileOutputStream(imageFile));
   }
 
   private void copyExif(String filePathOri, String filePathDest) {
     exifDataCopier.copyExif(filePathOri, filePathDest);
   }
 
-  private Bitmap decodeFile(String path) {
-    return BitmapFactory.decodeFile(path);
+  private BitmapFactory.Options decodeBounds(String path) {
+    BitmapFactory.Options options = new BitmapFactory.Options();
+    options.inJustDecodeBounds = true;
+    BitmapFactory.decodeFile(path, options);
+    return options;
+  }
+
+  private Bitmap decodeFile(String path, int inSampleSize) {
+    BitmapFactory.Options options = new BitmapFactory.Options();
+    options.inSampleSize = inSampleSize;
+    return BitmapFactory.decodeFile(path, options);
   }
 
   private Bitmap createScaledBitmap(Bitmap bmp, int width, int height, boolean filter) {
@@ -128,23 +232,51 @@ class ImageResizer {
     return imageQuality != null && imageQuality > 0 && imageQuality < 100;
   }
 
-  private File createImageOnExternalDirectory(String name, Bitmap bitmap, int imageQuality)
+  /**
+   * Compresses the bitmap straight into a temporary file next to the image file, which is then
+   * renamed to the image file so that it's never seen partially written.
+   *
+   * <p>The EXIF segment, if any, is spliced into the JPEG stream as it is written. It must describe
+   * the size of the bitmap, see {@link ExifDataCopier#resizeExifSegment}.
+   */
+  private File createImageOnExternalDirectory(
+      String name, Bitmap bitmap, int imageQuality, @Nullable byte[] exifSegment)
       throws IOException {
-    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
     boolean saveAsPNG = bitmap.hasAlpha();
     if (saveAsPNG) {
       Log.d(
           "ImageResizer",
           "image_picker: compressing is not supported for type PNG. Returning the image with original quality");
     }
-    bitmap.compress(
-        saveAsPNG ? Bitmap.CompressFormat.PNG : Bitmap.CompressFormat.JPEG,
-        imageQuality,
-        outputStream);
     File imageFile = createFile(externalFilesDirectory, name);
-    FileOutputStream fileOutput = createOutputStream(imageFile);
-    fileOutput.write(outputStream.toByteArray());
-    fileOutput.close();
+    File temporaryFile = createFile(externalFilesDirectory, name + FileCache.TEMPORARY_SUFFIX);
+    boolean success = false;
+    try {
+      OutputStream outputStream = createOutputStream(temporaryFile);
+      if (!saveAsPNG && exifSegment != null) {
+        outputStream = exifDataCopier.spliceExif(outputStream, exifSegment);
+      }
+      try {
+        success =
+            bitmap.compress(
+                saveAsPNG ? Bitmap.CompressFormat.PNG : Bitmap.CompressFormat.JPEG,
+                imageQuality,
+                outputStream);
+      } finally {
+        outputStream.close();
+      }
+      if (!success) {
+        throw new IOException("Could not compress the image " + name);
+      }
+      success = temporaryFile.renameTo(imageFile);
+      if (!success) {
+        throw new IOException("Could not write the image " + imageFile.getPath());
+      }
+    } finally {
+      if (!success) {
+        temporaryFile.delete();
+      }
+    }
     return imageFile;
   }
 }
@@ -0,0 +1,382 @@
+// Copyright 2019 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.imagepicker;
+
+import android.annotation.SuppressLint;
+import android.content.ContentResolver;
+import android.database.Cursor;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Matrix;
+import android.media.ThumbnailUtils;
+import android.net.Uri;
+import android.os.Build;
+import android.os.CancellationSignal;
+import android.provider.MediaStore;
+import android.util.LruCache;
+import android.util.Size;
+import io.flutter.plugin.common.MethodChannel;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates the thumbnails of images on a bounded pool of threads, the requests of highest priority
+ * first.
+ *
+ * <p>Thumbnails are center-cropped to the requested size and encoded as JPEG. They are cached in
+ * memory, keyed by URI and size, and on disk. Requests can be cancelled until their thumbnail is
+ * generated, in which case they finish with null.
+ */
+class ThumbnailLoader {
+  private static final int THREAD_COUNT = 2;
+  private static final int MEMORY_CACHE_BYTES = 8 * 1024 * 1024;
+  private static final long DISK_CACHE_BYTES = 50 * 1024 * 1024;
+  private static final int JPEG_QUALITY = 85;
+  // Build.VERSION_CODES.Q, which the compile SDK doesn't define.
+  private static final int ANDROID_Q = 29;
+
+  private final ContentResolver contentResolver;
+  private final ThreadPoolExecutor executor =
+      new ThreadPoolExecutor(
+          THREAD_COUNT,
+          THREAD_COUNT,
+          0,
+          TimeUnit.MILLISECONDS,
+          new PriorityBlockingQueue<Runnable>());
+  private final LruCache<String, byte[]> memoryCache =
+      new LruCache<String, byte[]>(MEMORY_CACHE_BYTES) {
+        @Override
+        protected int sizeOf(String key, byte[] value) {
+          return value.length;
+        }
+      };
+  private final FileCache diskCache;
+  // Pending and running requests by id, guarded by the instance.
+  private final Map<Integer, Request> requests = new HashMap<>();
+  private long nextSequence;
+
+  ThumbnailLoader(ContentResolver contentResolver, File cacheDirectory) {
+    this.contentResolver = contentResolver;
+    cacheDirectory.mkdirs();
+    this.diskCache = new FileCache(cacheDirectory, "thumbnail_", DISK_CACHE_BYTES);
+  }
+
+  /**
+   * Finishes {@code result} with the thumbnail of the image at {@code uri}, as encoded bytes or as
+   * the path of a file, or with null if the image can't be read.
+   */
+  synchronized void load(
+      int requestId,
+      String uri,
+      int width,
+      int height,
+      int priority,
+      boolean toFile,
+      MethodChannel.Result result) {
+    final String key = uri + "@" + width + "x" + height;
+    if (!toFile) {
+      final byte[] bytes = memoryCache.get(key);
+      if (bytes != null) {
+        result.success(bytes);
+        return;
+      }
+    }
+    final Request request =
+        new Request(requestId, key, uri, width, height, priority, nextSequence++, toFile, result);
+    requests.put(requestId, request);
+    try {
+      executor.execute(request);
+    } catch (RejectedExecutionException e) {
+      requests.remove(requestId);
+      result.success(null);
+    }
+  }
+
+  /** Cancels a request, which finishes with null unless its thumbnail has been generated. */
+  synchronized void cancel(int requestId) {
+    final Request request = requests.remove(requestId);
+    if (request == null) {
+      return;
+    }
+    request.cancellationSignal.cancel();
+    if (executor.remove(request)) {
+      request.result.success(null);
+    }
+  }
+
+  /** Stops generating thumbnails, finishing the requests that haven't started with null. */
+  synchronized void dispose() {
+    for (Runnable runnable : executor.shutdownNow()) {
+      final Request request = (Request) runnable;
+      requests.remove(request.id);
+      request.result.success(null);
+    }
+    memoryCache.evictAll();
+  }
+
+  private synchronized void finish(Request request) {
+    requests.remove(request.id);
+  }
+
+  private final class Request implements Runnable, Comparable<Request> {
+    final int id;
+    final String key;
+    final String uri;
+    final int width;
+    final int height;
+    final int priority;
+    final long sequence;
+    final boolean toFile;
+    final MethodChannel.Result result;
+    final CancellationSignal cancellationSignal = new CancellationSignal();
+
+    Request(
+        int id,
+        String key,
+        String uri,
+        int width,
+        int height,
+        int priority,
+        long sequence,
+        boolean toFile,
+        MethodChannel.Result result) {
+      this.id = id;
+      this.key = key;
+      this.uri = uri;
+      this.width = width;
+      this.height = height;
+      this.priority = priority;
+      this.sequence = sequence;
+      this.toFile = toFile;
+      this.result = result;
+    }
+
+    // Highest priority first, then in the order of the requests.
+    @Override
+    public int compareTo(Request other) {
+      if (priority != other.priority) {
+        return priority > other.priority ? -1 : 1;
+      }
+      return sequence < other.sequence ? -1 : (sequence > other.sequence ? 1 : 0);
+    }
+
+    @Override
+    public void run() {
+      Object value = null;
+      try {
+        if (!cancellationSignal.isCanceled()) {
+          value = toFile ? loadFile() : loadBytes();
+        }
+      } catch (IOException | RuntimeException e) {
+        // Unreadable images finish with null, as cancelled requests.
+      } finally {
+        finish(this);
+      }
+      result.success(value);
+    }
+
+    private byte[] loadBytes() throws IOException {
+      byte[] bytes = memoryCache.get(key);
+      if (bytes != null) {
+        return bytes;
+      }
+      final File file = diskCache.get(key, ".jpg");
+      bytes = file != null ? readFile(file) : generate();
+      if (bytes != null) {
+        memoryCache.put(key, bytes);
+        if (file == null) {
+          writeFile(bytes);
+        }
+      }
+      return bytes;
+    }
+
+    private String loadFile() throws IOException {
+      File file = diskCache.get(key, ".jpg");
+      if (file == null) {
+        byte[] bytes = memoryCache.get(key);
+        if (bytes == null) {
+          bytes = generate();
+          if (bytes == null) {
+            return null;
+          }
+          memoryCache.put(key, bytes);
+        }
+        file = writeFile(bytes);
+      }
+      return file.getPath();
+    }
+
+    private byte[] generate() throws IOException {
+      Bitmap bitmap = decode();
+      if (bitmap == null || cancellationSignal.isCanceled()) {
+        return null;
+      }
+      final Bitmap thumbnail =
+          ThumbnailUtils.extractThumbnail(
+              bitmap, width, height, ThumbnailUtils.OPTIONS_RECYCLE_INPUT);
+      final ByteArrayOutputStream output = new ByteArrayOutputStream();
+      thumbnail.compress(Bitmap.CompressFormat.JPEG, JPEG_QUALITY, output);
+      thumbnail.recycle();
+      return output.toByteArray();
+    }
+
+    private Bitmap decode() throws IOException {
+      final Uri parsedUri = Uri.parse(uri);
+      if (Build.VERSION.SDK_INT >= ANDROID_Q
+          && ContentResolver.SCHEME_CONTENT.equals(parsedUri.getScheme())) {
+        final Bitmap thumbnail = loadThumbnail(parsedUri);
+        if (thumbnail != null) {
+          return thumbnail;
+        }
+      }
+      final BitmapFactory.Options options = new BitmapFactory.Options();
+      options.inJustDecodeBounds = true;
+      decodeStream(parsedUri, options);
+      if (options.outWidth <= 0 || options.outHeight <= 0) {
+        return null;
+      }
+      final int orientation = getOrientation(parsedUri);
+      final boolean rotated = orientation == 90 || orientation == 270;
+      options.inJustDecodeBounds = false;
+      options.inSampleSize =
+          ImageResizer.calculateInSampleSize(
+              options.outWidth,
+              options.outHeight,
+              rotated ? height : width,
+              rotated ? width : height);
+      final Bitmap bitmap = decodeStream(parsedUri, options);
+      if (bitmap == null || orientation == 0) {
+        return bitmap;
+      }
+      final Matrix matrix = new Matrix();
+      matrix.postRotate(orientation);
+      final Bitmap rotatedBitmap =
+          Bitmap.createBitmap(bitmap, 0, 0, bitmap.getWidth(), bitmap.getHeight(), matrix, true);
+      if (rotatedBitmap != bitmap) {
+        bitmap.recycle();
+      }
+      return rotatedBitmap;
+    }
+
+    // Calls ContentResolver#loadThumbnail, which the compile SDK doesn't define, returning null if
+    // it can't be called.
+    @SuppressLint("NewApi")
+    private Bitmap loadThumbnail(Uri uri) throws IOException {
+      final Method method;
+      try {
+        method =
+            ContentResolver.class.getMethod(
+                "loadThumbnail", Uri.class, Size.class, CancellationSignal.class);
+      } catch (NoSuchMethodException e) {
+        return null;
+      }
+      try {
+        return (Bitmap)
+            method.invoke(contentResolver, uri, new Size(width, height), cancellationSignal);
+      } catch (IllegalAccessException e) {
+        return null;
+      } catch (InvocationTargetException e) {
+        final Throwable cause = e.getCause();
+        if (cause instanceof IOException) {
+          throw (IOException) cause;
+        }
+        if (cause instanceof RuntimeException) {
+          throw (RuntimeException) cause;
+        }
+        throw new IOException(cause);
+      }
+    }
+
+    private Bitmap decodeStream(Uri uri, BitmapFactory.Options options) throws IOException {
+      final InputStream input = contentResolver.openInputStream(uri);
+      if (input == null) {
+        return null;
+      }
+      try {
+        return BitmapFactory.decodeStream(input, null, options);
+      } finally {
+        input.close();
+      }
+    }
+
+    // Returns the rotation of the image recorded by the MediaStore, in degrees.
+    private int getOrientation(Uri uri) {
+      Cursor cursor = null;
+      try {
+        cursor =
+            contentResolver.query(
+                uri, new String[] {MediaStore.Images.ImageColumns.ORIENTATION}, null, null, null);
+        if (cursor != null && cursor.moveToFirst() && !cursor.isNull(0)) {
+          return cursor.getInt(0);
+        }
+      } catch (RuntimeException e) {
+        // Not a MediaStore image.
+      } finally {
+        if (cursor != null) {
+          cursor.close();
+        }
+      }
+      return 0;
+    }
+
+    private File writeFile(byte[] bytes) throws IOException {
+      final File file = diskCache.getFile(key, ".jpg");
+      final File temporaryFile =
+          File.createTempFile("thumbnail_", FileCache.TEMPORARY_SUFFIX, file.getParentFile());
+      boolean success = false;
+      try {
+        final OutputStream output = new BufferedOutputStream(new FileOutputStream(temporaryFile));
+        try {
+          output.write(bytes);
+        } finally {
+          output.close();
+        }
+        success = temporaryFile.renameTo(file);
+        if (!success) {
+          throw new IOException("Could not write the thumbnail " + file.getPath());
+        }
+      } finally {
+        if (!success) {
+          temporaryFile.delete();
+        }
+      }
+      diskCache.onFileAdded(file);
+      return file;
+    }
+
+    private byte[] readFile(File file) throws IOException {
+      final byte[] bytes = new byte[(int) file.length()];
+      final FileInputStream input = new FileInputStream(file);
+      try {
+        int offset = 0;
+        while (offset < bytes.length) {
+          final int read = input.read(bytes, offset, bytes.length - offset);
+          if (read < 0) {
+            throw new IOException("Truncated thumbnail " + file.getPath());
+          }
+          offset += read;
+        }
+      } finally {
+        input.close();
+      }
+      return bytes;
+    }
+  }
+}
@@ -0,0 +1,115 @@
+// Copyright 2019 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.imagepicker;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ExifDataCopierTest {
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private final ExifDataCopier exifDataCopier = new ExifDataCopier();
+  private final File pngFile =
+      new File(getClass().getClassLoader().getResource("pngImage.png").getFile());
+
+  @Test
+  public void spliceExif_ShouldWriteTheExifSegmentReadFromTheOriginalJpeg() throws IOException {
+    byte[] exifSegment = {
+      (byte) 0xFF, (byte) 0xE1, 0, 12, 'E', 'x', 'i', 'f', 0, 0, 1, 2, 3, 4
+    };
+    byte[] jfifSegment = {(byte) 0xFF, (byte) 0xE0, 0, 4, 5, 6};
+    byte[] imageData = {(byte) 0xFF, (byte) 0xDA, 7, 8, (byte) 0xFF, (byte) 0xD9};
+    File jpegFile = temporaryFolder.newFile("exif.jpg");
+    FileOutputStream fileOutput = new FileOutputStream(jpegFile);
+    fileOutput.write(new byte[] {(byte) 0xFF, (byte) 0xD8});
+    fileOutput.write(jfifSegment);
+    fileOutput.write(exifSegment);
+    fileOutput.write(imageData);
+    fileOutput.close();
+
+    byte[] segment = exifDataCopier.readExifSegment(jpegFile.getPath());
+    assertThat(segment, equalTo(exifSegment));
+
+    ByteArrayOutputStream splicedOutput = new ByteArrayOutputStream();
+    OutputStream output = exifDataCopier.spliceExif(splicedOutput, segment);
+    output.write(new byte[] {(byte) 0xFF, (byte) 0xD8, 5, 6});
+    output.close();
+    ByteArrayOutputStream expected = new ByteArrayOutputStream();
+    expected.write(new byte[] {(byte) 0xFF, (byte) 0xD8});
+    expected.write(exifSegment);
+    expected.write(new byte[] {5, 6});
+    assertThat(splicedOutput.toByteArray(), equalTo(expected.toByteArray()));
+  }
+
+  @Test
+  public void readExifSegment_WhenNotAJpeg_ShouldReturnNull() {
+    assertThat(exifDataCopier.readExifSegment(pngFile.getPath()), equalTo(null));
+  }
+
+  @Test
+  public void resizeExifSegment_ShouldUpdateTheDimensionsAndDropTheThumbnail() {
+    ByteBuffer segment = ByteBuffer.allocate(112);
+    segment.putShort((short) 0xFFE1).putShort((short) 110);
+    segment.put(new byte[] {'E', 'x', 'i', 'f', 0, 0});
+    ByteBuffer tiff = segment.slice();
+    tiff.put(new byte[] {'M', 'M'}).putShort((short) 42).putInt(8);
+    // IFD0, ending at 50.
+    tiff.putShort((short) 3);
+    putEntry(tiff, 0x0100, 3, 4000);
+    putEntry(tiff, 0x0101, 4, 3000);
+    putEntry(tiff, 0x8769, 4, 50);
+    tiff.putInt(80);
+    // The EXIF IFD, ending at 80.
+    tiff.putShort((short) 2);
+    putEntry(tiff, 0xA002, 3, 4000);
+    putEntry(tiff, 0xA003, 3, 3000);
+    tiff.putInt(0);
+    // IFD1 and its thumbnail.
+    tiff.putShort((short) 1);
+    putEntry(tiff, 0x0103, 3, 6);
+    tiff.putInt(0);
+    tiff.put(new byte[] {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xD9});
+
+    byte[] resized = exifDataCopier.resizeExifSegment(segment.array(), 100, 75);
+
+    ByteBuffer resizedSegment = ByteBuffer.wrap(resized);
+    assertThat(resized.length, equalTo(90));
+    assertThat(resizedSegment.getShort(2), equalTo((short) 88));
+    ByteBuffer resizedTiff = ByteBuffer.wrap(resized, 10, 80).slice();
+    assertThat(resizedTiff.getShort(8 + 2 + 8), equalTo((short) 100));
+    assertThat(resizedTiff.getInt(8 + 2 + 12 + 8), equalTo(75));
+    assertThat(resizedTiff.getInt(8 + 2 + 36), equalTo(0));
+    assertThat(resizedTiff.getShort(50 + 2 + 8), equalTo((short) 100));
+    assertThat(resizedTiff.getShort(50 + 2 + 12 + 8), equalTo((short) 75));
+  }
+
+  @Test
+  public void resizeExifSegment_WhenNotATiffHeader_ShouldReturnNull() {
+    byte[] exifSegment = {
+      (byte) 0xFF, (byte) 0xE1, 0, 12, 'E', 'x', 'i', 'f', 0, 0, 1, 2, 3, 4
+    };
+    assertThat(exifDataCopier.resizeExifSegment(exifSegment, 100, 75), equalTo(null));
+  }
+
+  // Puts an IFD entry of a single SHORT or LONG value.
+  private static void putEntry(ByteBuffer tiff, int tag, int type, int value) {
+    tiff.putShort((short) tag).putShort((short) type).putInt(1);
+    if (type == 3) {
+      tiff.putShort((short) value).putShort((short) 0);
+    } else {
+      tiff.putInt(value);
+    }
+  }
+}
@@ -3,6 +3,7 @@ package io.flutter.plugins.imagepicker;
 import static org.hamcrest.core.IsEqual.equalTo;
 import static org.junit.Assert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -11,6 +12,7 @@ import static org.mockito.Mockito.when;
 
 import android.Manifest;
 import android.app.Activity;
+import android.content.ClipData;
 import android.content.Context;
 import android.content.Intent;
 import android.content.pm.PackageManager;
@@ -18,6 +20,13 @@ import android.net.Uri;
 import io.flutter.plugin.common.MethodCall;
 import io.flutter.plugin.common.MethodChannel;
 import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
@@ -52,6 +61,45 @@ public class ImagePickerDelegateTest {
     }
   }
 
+  // Runs the image processing synchronously, so that results can be verified right away.
+  private static class DirectExecutorService extends AbstractExecutorService {
+    private boolean shutdown;
+
+    @Override
+    public void execute(Runnable command) {
+      if (shutdown) {
+        throw new RejectedExecutionException();
+      }
+      command.run();
+    }
+
+    @Override
+    public void shutdown() {
+      shutdown = true;
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+      shutdown = true;
+      return Collections.emptyList();
+    }
+
+    @Override
+    public boolean isShutdown() {
+      return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+      return shutdown;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) {
+      return true;
+    }
+  }
+
   @Before
   public void setUp() {
     MockitoAnnotations.initMocks(this);
@@ -312,6 +360,82 @@ public class ImagePickerDelegateTest {
     verifyNoMoreInteractions(mockResult);
   }
 
+  @Test
+  public void onActivityResult_WhenMultipleImagesPicked_FinishesWithScaledImagePaths() {
+    when(mockMethodCall.argument("maxWidth")).thenReturn(WIDTH);
+    ClipData mockClipData = mock(ClipData.class);
+    ClipData.Item mockItem = mock(ClipData.Item.class);
+    when(mockItem.getUri()).thenReturn(mock(Uri.class));
+    when(mockClipData.getItemCount()).thenReturn(2);
+    when(mockClipData.getItemAt(anyInt())).thenReturn(mockItem);
+    when(mockIntent.getClipData()).thenReturn(mockClipData);
+
+    ImagePickerDelegate delegate = createDelegateWithPendingResultAndMethodCall();
+    delegate.onActivityResult(
+        ImagePickerDelegate.REQUEST_CODE_CHOOSE_MULTI_IMAGE_FROM_GALLERY,
+        Activity.RESULT_OK,
+        mockIntent);
+
+    verify(mockResult).success(Arrays.asList("scaledPath", "scaledPath"));
+    verifyNoMoreInteractions(mockResult);
+  }
+
+  @Test
+  public void onActivityResult_WhenMultipleImagesPickedAfterRecreation_SavesTheFirstPath() {
+    ClipData mockClipData = mock(ClipData.class);
+    ClipData.Item mockItem = mock(ClipData.Item.class);
+    when(mockItem.getUri()).thenReturn(mock(Uri.class));
+    when(mockClipData.getItemCount()).thenReturn(2);
+    when(mockClipData.getItemAt(anyInt())).thenReturn(mockItem);
+    when(mockIntent.getClipData()).thenReturn(mockClipData);
+
+    ImagePickerDelegate delegate = createDelegate();
+    delegate.onActivityResult(
+        ImagePickerDelegate.REQUEST_CODE_CHOOSE_MULTI_IMAGE_FROM_GALLERY,
+        Activity.RESULT_OK,
+        mockIntent);
+
+    verify(cache).saveResult("pathFromUri", null, null);
+    verifyNoMoreInteractions(mockImageResizer);
+  }
+
+  @Test
+  public void onActivityResult_WhenResizingFails_FinishesWithError() {
+    when(mockImageResizer.resizeImageIfNeeded("pathFromUri", null, null, null))
+        .thenThrow(new RuntimeException("Could not compress the image"));
+
+    ImagePickerDelegate delegate = createDelegateWithPendingResultAndMethodCall();
+    delegate.onActivityResult(
+        ImagePickerDelegate.REQUEST_CODE_CHOOSE_IMAGE_FROM_GALLERY, Activity.RESULT_OK, mockIntent);
+
+    verify(mockResult).error("processing_failed", "Could not process the picked file.", null);
+    verifyNoMoreInteractions(mockResult);
+  }
+
+  @Test
+  public void onActivityResult_WhenThePickedImageCannotBeRead_FinishesWithError() {
+    when(mockFileUtils.getPathFromUri(any(Context.class), any(Uri.class))).thenReturn(null);
+
+    ImagePickerDelegate delegate = createDelegateWithPendingResultAndMethodCall();
+    delegate.onActivityResult(
+        ImagePickerDelegate.REQUEST_CODE_CHOOSE_IMAGE_FROM_GALLERY, Activity.RESULT_OK, mockIntent);
+
+    verify(mockResult).error("processing_failed", "Could not read the picked image.", null);
+    verifyNoMoreInteractions(mockResult);
+  }
+
+  @Test
+  public void onActivityResult_WhenImageProcessingIsCancelled_FinishesWithError() {
+    ImagePickerDelegate delegate = createDelegateWithPendingResultAndMethodCall();
+    delegate.cancelImageProcessing();
+    delegate.onActivityResult(
+        ImagePickerDelegate.REQUEST_CODE_CHOOSE_IMAGE_FROM_GALLERY, Activity.RESULT_OK, mockIntent);
+
+    verify(mockResult).error("processing_cancelled", "The activity was destroyed.", null);
+    verifyNoMoreInteractions(mockImageResizer);
+    verifyNoMoreInteractions(mockResult);
+  }
+
   @Test
   public void
       onActivityResult_WhenVideoPickedFromGallery_AndResizeParametersSupplied_FinishesWithFilePath() {
@@ -373,6 +497,56 @@ public class ImagePickerDelegateTest {
     verifyNoMoreInteractions(mockResult);
   }
 
+  @Test
+  public void onActivityResult_WhenCreatingADocumentIsCancelled_RemovesThePendingSourcePath() {
+    when(cache.retrievePendingSaveSourcePath()).thenReturn("sourcePath");
+
+    ImagePickerDelegate delegate = createDelegateWithPendingResultAndMethodCall();
+    delegate.onActivityResult(
+        ImagePickerDelegate.REQUEST_CREATE_DOCUMENT, Activity.RESULT_CANCELED, null);
+
+    verify(cache).removePendingSaveSourcePath();
+    verify(mockResult).error("user_cancelled", "Could not create the document.", null);
+    verifyNoMoreInteractions(mockResult);
+  }
+
+  @Test
+  public void saveImageToGallery_WhenNoFileIsGiven_FinishesWithInvalidArgumentsError()
+      throws IOException {
+    ImagePickerDelegate delegate = createDelegate();
+    delegate.saveImageToGallery(mockMethodCall, mockResult);
+
+    verify(mockResult)
+        .error("invalid_arguments", "saveFile requires a filePath or fileData.", null);
+    verifyNoMoreInteractions(mockResult);
+  }
+
+  @Test
+  public void loadThumbnail_WhenRequestIdIsMissing_FinishesWithInvalidArgumentsError() {
+    when(mockMethodCall.argument("uri")).thenReturn("content://media/external/images/1");
+    when(mockMethodCall.argument("width")).thenReturn(100);
+    when(mockMethodCall.argument("height")).thenReturn(100);
+
+    ImagePickerDelegate delegate = createDelegate();
+    delegate.loadThumbnail(mockMethodCall, mockResult);
+
+    verify(mockResult)
+        .error(
+            "invalid_arguments",
+            "loadThumbnail requires a requestId, a uri, a width and a height.",
+            null);
+    verifyNoMoreInteractions(mockResult);
+  }
+
+  @Test
+  public void cancelThumbnail_WhenRequestIdIsMissing_FinishesWithInvalidArgumentsError() {
+    ImagePickerDelegate delegate = createDelegate();
+    delegate.cancelThumbnail(mockMethodCall, mockResult);
+
+    verify(mockResult).error("invalid_arguments", "cancelThumbnail requires a requestId.", null);
+    verifyNoMoreInteractions(mockResult);
+  }
+
   private ImagePickerDelegate createDelegate() {
     return new ImagePickerDelegate(
         mockActivity,
@@ -384,7 +558,9 @@ public class ImagePickerDelegateTest {
         mockPermissionManager,
         mockIntentResolver,
         mockFileUriResolver,
-        mockFileUtils);
+        mockFileUtils,
+        new DirectExecutorService(),
+        new DirectExecutorService());
   }
 
   private ImagePickerDelegate createDelegateWithPendingResultAndMethodCall() {
@@ -398,7 +574,9 @@ public class ImagePickerDelegateTest {
         mockPermissionManager,
         mockIntentResolver,
         mockFileUriResolver,
-        mockFileUtils);
+        mockFileUtils,
+        new DirectExecutorService(),
+        new DirectExecutorService());
   }
 
   private void verifyFinishedWithAlreadyActiveError() {
@@ -4,13 +4,21 @@
 
 package io.flutter.plugins.imagepicker;
 
+import static org.hamcrest.core.AllOf.allOf;
 import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.StringEndsWith.endsWith;
+import static org.hamcrest.core.StringStartsWith.startsWith;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import java.io.File;
 import java.io.IOException;
+import org.hamcrest.Matcher;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
@@ -48,18 +56,71 @@ public class ImageResizerTest {
   @Test
   public void onResizeImageIfNeeded_WhenQualityIsNotNull_ShoulResize_ReturnResizedFile() {
     String outoutFile = resizer.resizeImageIfNeeded(imageFile.getPath(), null, null, 50);
-    assertThat(outoutFile, equalTo(externalDirectory.getPath() + "/scaled_pngImage.png"));
+    assertThat(outoutFile, isScaledFile());
   }
 
   @Test
   public void onResizeImageIfNeeded_WhenWidthIsNotNull_ShoulResize_ReturnResizedFile() {
     String outoutFile = resizer.resizeImageIfNeeded(imageFile.getPath(), 50.0, null, null);
-    assertThat(outoutFile, equalTo(externalDirectory.getPath() + "/scaled_pngImage.png"));
+    assertThat(outoutFile, isScaledFile());
   }
 
   @Test
   public void onResizeImageIfNeeded_WhenHeightIsNotNull_ShoulResize_ReturnResizedFile() {
     String outoutFile = resizer.resizeImageIfNeeded(imageFile.getPath(), null, 50.0, null);
-    assertThat(outoutFile, equalTo(externalDirectory.getPath() + "/scaled_pngImage.png"));
+    assertThat(outoutFile, isScaledFile());
+  }
+
+  @Test
+  public void onResizeImageIfNeeded_WhenResized_ShouldNotLeaveTemporaryFile() {
+    String outoutFile = resizer.resizeImageIfNeeded(imageFile.getPath(), null, null, 50);
+    assertThat(new File(outoutFile).exists(), equalTo(true));
+    assertThat(new File(outoutFile + ".tmp").exists(), equalTo(false));
+  }
+
+  @Test
+  public void calculateInSampleSize_ReturnsLargestPowerOfTwoAboveTarget() {
+    assertThat(ImageResizer.calculateInSampleSize(8000, 6000, 8000, 6000), equalTo(1));
+    assertThat(ImageResizer.calculateInSampleSize(8000, 6000, 1000, 750), equalTo(8));
+    assertThat(ImageResizer.calculateInSampleSize(8000, 6000, 1001, 750), equalTo(4));
+    assertThat(ImageResizer.calculateInSampleSize(8000, 6000, 1000, 6000), equalTo(1));
+  }
+
+  @Test
+  public void onResizeImageIfNeeded_WhenResizedTwice_ShouldReturnTheCachedFile() {
+    String firstFile = resizer.resizeImageIfNeeded(imageFile.getPath(), 50.0, null, null);
+    String secondFile = resizer.resizeImageIfNeeded(imageFile.getPath(), 50.0, null, null);
+    String otherFile = resizer.resizeImageIfNeeded(imageFile.getPath(), 40.0, null, null);
+    assertThat(secondFile, equalTo(firstFile));
+    assertThat(otherFile, not(equalTo(firstFile)));
+  }
+
+  @Test
+  public void onResizeImageIfNeeded_WhenTheExifSegmentIsMalformed_ShouldCopyTheExifTags() {
+    ExifDataCopier exifDataCopier = spy(new ExifDataCopier());
+    // An EXIF segment whose IFD0 is out of the segment.
+    byte[] malformedSegment = {
+      (byte) 0xFF, (byte) 0xE1, 0, 16, 'E', 'x', 'i', 'f', 0, 0,
+      'M', 'M', 0, 42, 0x7F, 0, 0, 0
+    };
+    doReturn(malformedSegment).when(exifDataCopier).readExifSegment(imageFile.getPath());
+    resizer = new ImageResizer(externalDirectory, exifDataCopier);
+
+    String outputFile = resizer.resizeImageIfNeeded(imageFile.getPath(), 50.0, null, null);
+
+    assertThat(exifDataCopier.resizeExifSegment(malformedSegment, 50, 50), equalTo(null));
+    verify(exifDataCopier).copyExif(imageFile.getPath(), outputFile);
+  }
+
+  @Test
+  public void setCacheMaxBytes_ShouldEvictScaledFiles() {
+    String outoutFile = resizer.resizeImageIfNeeded(imageFile.getPath(), 50.0, null, null);
+    resizer.setCacheMaxBytes(0);
+    assertThat(new File(outoutFile).exists(), equalTo(false));
+  }
+
+  private Matcher<String> isScaledFile() {
+    return allOf(
+        startsWith(externalDirectory.getPath() + "/scaled_"), endsWith("_pngImage.png"));
   }
 }
@@ -24,11 +24,31 @@ enum ImageSource {
   gallery,
 }
 
+/// Signature for the progress of [ImagePicker.pickMultiImage], reporting how
+/// many of the picked images have been processed.
+typedef PickProgressCallback = void Function(
+    int processedCount, int totalCount);
+
 /// Provides an easy way to pick an image/video from the image library,
 /// or to take a picture/video with the camera.
 class ImagePicker {
   static const MethodChannel _channel = MethodChannel('plugins.flutter.io/image_picker');
 
+  static PickProgressCallback _onPickProgress;
+
+  static int _nextThumbnailRequestId = 0;
+
+  static Future<dynamic> _handleMethodCall(MethodCall call) async {
+    switch (call.method) {
+      case 'onPickProgress':
+        if (_onPickProgress != null) {
+          _onPickProgress(
+              call.arguments['processedCount'], call.arguments['totalCount']);
+        }
+        break;
+    }
+  }
+
   /// 获取权限情况 true 允许， false 为不允许拒绝
   static Future<bool> requestForPhonePermission() {
     return _channel.invokeMethod('requestForPermission');
@@ -84,6 +104,76 @@ class ImagePicker {
     return path == null ? null : File(path);
   }
 
+  /// Returns a list of [File] objects pointing to the images that were picked
+  /// from the gallery.
+  ///
+  /// The `maxWidth`, `maxHeight` and `imageQuality` arguments apply to every
+  /// image, as in [pickImage]. The images are copied and resized in parallel,
+  /// and `onProgress` is called each time one of them has been processed.
+  /// Images that can't be read are left out of the list.
+  ///
+  /// Returns null if the user cancelled picking. If the MainActivity is
+  /// destroyed, only the first image can be retrieved with [retrieveLostData].
+  ///
+  /// Supported on Android only.
+  static Future<List<File>> pickMultiImage(
+      {double maxWidth,
+      double maxHeight,
+      int imageQuality,
+      PickProgressCallback onProgress}) async {
+    assert(imageQuality == null || (imageQuality >= 0 && imageQuality <= 100));
+
+    if (maxWidth != null && maxWidth < 0) {
+      throw ArgumentError.value(maxWidth, 'maxWidth cannot be negative');
+    }
+
+    if (maxHeight != null && maxHeight < 0) {
+      throw ArgumentError.value(maxHeight, 'maxHeight cannot be negative');
+    }
+
+    _channel.setMethodCallHandler(_handleMethodCall);
+    _onPickProgress = onProgress;
+    try {
+      final List<String> paths = await _channel.invokeListMethod<String>(
+        'pickMultiImage',
+        <String, dynamic>{
+          'maxWidth': maxWidth,
+          'maxHeight': maxHeight,
+          'imageQuality': imageQuality
+        },
+      );
+      return paths?.map((String path) => File(path))?.toList();
+    } finally {
+      _onPickProgress = null;
+    }
+  }
+
+  /// Sets the maximum size in bytes of the cache of picked images.
+  ///
+  /// Images copied from other apps and resized images are kept in a cache, so
+  /// that picking or resizing the same image again returns the existing file.
+  /// Once the cached files take more than `maxBytes`, the least recently used
+  /// ones are deleted, so apps should copy the files they keep. The budget
+  /// applies to the copies and to the resized images separately, and defaults
+  /// to 100 MB.
+  ///
+  /// Supported on Android only.
+  static Future<void> setCacheMaxBytes(int maxBytes) {
+    assert(maxBytes != null && maxBytes >= 0);
+    return _channel.invokeMethod<void>(
+        'setCacheMaxBytes', <String, dynamic>{'maxBytes': maxBytes});
+  }
+
+  /// Returns the totals of the copies of images and videos picked from other
+  /// apps, such as cloud storage providers, since the plugin was attached.
+  ///
+  /// Supported on Android only.
+  static Future<ImportStats> getImportStats() async {
+    final Map<dynamic, dynamic> json =
+        await _channel.invokeMapMethod<dynamic, dynamic>('getImportStats');
+    return ImportStats._fromJson(json);
+  }
+
   /// Returns a [File] object pointing to the video that was picked.
   ///
   /// The [source] argument controls where the video comes from. This can
@@ -104,6 +194,85 @@ class ImagePicker {
     return path == null ? null : File(path);
   }
 
+  /// Returns up to `limit` images of the gallery, skipping the `offset` most
+  /// recent ones.
+  ///
+  /// Images are sorted by the date they were taken, the most recent first. The
+  /// paging is done by the platform, so a page costs the same whatever the size
+  /// of the gallery.
+  ///
+  /// Throws a [PlatformException] with the `photo_access_denied` code if the
+  /// app isn't allowed to read the external storage.
+  ///
+  /// Supported on Android only.
+  static Future<List<GalleryImage>> queryGalleryImages(
+      {int offset = 0, int limit = 100}) async {
+    assert(offset != null && offset >= 0);
+    assert(limit != null && limit > 0);
+    final List<Map<dynamic, dynamic>> images =
+        await _channel.invokeListMethod<Map<dynamic, dynamic>>(
+      'queryGalleryImages',
+      <String, dynamic>{'offset': offset, 'limit': limit},
+    );
+    return images
+        .map<GalleryImage>(
+            (Map<dynamic, dynamic> json) => GalleryImage._fromJson(json))
+        .toList();
+  }
+
+  /// Returns the images of the gallery in pages of `pageSize` images, the most
+  /// recent first.
+  ///
+  /// Each page is only queried once the previous one has been listened to, and
+  /// the stream closes after the last page.
+  ///
+  /// Supported on Android only.
+  static Stream<List<GalleryImage>> galleryImagePages(
+      {int pageSize = 100}) async* {
+    assert(pageSize != null && pageSize > 0);
+    int offset = 0;
+    while (true) {
+      final List<GalleryImage> page =
+          await queryGalleryImages(offset: offset, limit: pageSize);
+      if (page.isNotEmpty) {
+        yield page;
+      }
+      if (page.length < pageSize) {
+        return;
+      }
+      offset += page.length;
+    }
+  }
+
+  /// Requests the thumbnail of the image at `uri`, such as the
+  /// [GalleryImage.uri] of a gallery image, as JPEG bytes.
+  ///
+  /// The thumbnail is center-cropped to `width` x `height` pixels. Thumbnails
+  /// are generated on a small pool of threads, the requests of highest
+  /// `priority` first, and cached in memory and on disk. The result is null if
+  /// the image can't be read or the request is cancelled.
+  ///
+  /// Supported on Android only.
+  static ThumbnailRequest<Uint8List> requestThumbnail(String uri,
+      {int width = 256, int height = 256, int priority = 0}) {
+    return ThumbnailRequest<Uint8List>._start(uri, width, height, priority,
+        toFile: false, convert: (dynamic bytes) => bytes);
+  }
+
+  /// Requests the thumbnail of the image at `uri` as a JPEG file of the disk
+  /// cache.
+  ///
+  /// The file can be deleted when the cache is trimmed, so it should be copied
+  /// if it needs to be kept. See [requestThumbnail].
+  ///
+  /// Supported on Android only.
+  static ThumbnailRequest<File> requestThumbnailFile(String uri,
+      {int width = 256, int height = 256, int priority = 0}) {
+    return ThumbnailRequest<File>._start(uri, width, height, priority,
+        toFile: true,
+        convert: (dynamic path) => path == null ? null : File(path));
+  }
+
   /// 获取用户最后一张图片路径
   static Future<File> getLatestImage({double maxWidth, double maxHeight}) async {
     final String path = await _channel.invokeMethod('getLatestImage', <String, dynamic>{
@@ -113,17 +282,30 @@ class ImagePicker {
     return path == null ? null : File(path);
   }
 
+  /// Lets the user create a document named `name`, and writes either
+  /// `fileData` or the content of `file` to it.
+  ///
+  /// On Android, `file` is streamed to the document without being loaded in
+  /// memory, and `fileData` is written to a temporary file until the document
+  /// is created. Prefer `file` for large images and videos.
   static Future<String> saveFile(
-      {@required Uint8List fileData,
+      {Uint8List fileData,
+      File file,
       @required String name,
       String mimeType = 'image/*',
       String description}) async {
-    assert(fileData != null);
+    assert((fileData == null) != (file == null));
+
+    if (file != null && !Platform.isAndroid) {
+      fileData = await file.readAsBytes();
+      file = null;
+    }
 
     String filePath = await _channel.invokeMethod(
       'saveFile',
       <String, dynamic>{
         'fileData': fileData,
+        'filePath': file?.path,
         'title': name,
         'description': description,
         'mimeType': mimeType
@@ -186,6 +368,141 @@ class ImagePicker {
   }
 }
 
+/// An image of the gallery, returned by [ImagePicker.queryGalleryImages].
+@immutable
+class GalleryImage {
+  /// Creates an immutable representation of an image of the gallery.
+  const GalleryImage({
+    @required this.id,
+    @required this.uri,
+    this.path,
+    this.dateTaken,
+    this.width,
+    this.height,
+    this.mimeType,
+  });
+
+  /// The MediaStore id of the image.
+  final int id;
+
+  /// The content URI of the image.
+  final String uri;
+
+  /// The path of the image file, if known.
+  final String path;
+
+  /// When the image was taken, if known.
+  final DateTime dateTaken;
+
+  /// Width of the image in pixels, if known.
+  final int width;
+
+  /// Height of the image in pixels, if known.
+  final int height;
+
+  /// MIME type of the image, such as `image/jpeg`, if known.
+  final String mimeType;
+
+  static GalleryImage _fromJson(Map<dynamic, dynamic> json) {
+    final int dateTaken = json['dateTaken'];
+    return GalleryImage(
+      id: json['id'],
+      uri: json['uri'],
+      path: json['path'],
+      dateTaken: dateTaken == null
+          ? null
+          : DateTime.fromMillisecondsSinceEpoch(dateTaken),
+      width: json['width'],
+      height: json['height'],
+      mimeType: json['mimeType'],
+    );
+  }
+
+  @override
+  String toString() => 'GalleryImage{id: $id, uri: $uri, path: $path}';
+}
+
+/// The totals of the copies of picked content, returned by
+/// [ImagePicker.getImportStats].
+@immutable
+class ImportStats {
+  /// Creates an immutable representation of the totals of the copies.
+  const ImportStats({
+    @required this.copyCount,
+    @required this.copiedBytes,
+    @required this.copyDuration,
+  });
+
+  /// The number of files copied, excluding the ones found in the cache.
+  final int copyCount;
+
+  /// The total size of the copied files in bytes.
+  final int copiedBytes;
+
+  /// The total time spent copying the files.
+  final Duration copyDuration;
+
+  /// The average throughput of the copies in bytes per second, or null if
+  /// nothing was copied.
+  double get bytesPerSecond {
+    final int micros = copyDuration.inMicroseconds;
+    return micros == 0
+        ? null
+        : copiedBytes * Duration.microsecondsPerSecond / micros;
+  }
+
+  static ImportStats _fromJson(Map<dynamic, dynamic> json) {
+    return ImportStats(
+      copyCount: json['copyCount'],
+      copiedBytes: json['copiedBytes'],
+      copyDuration: Duration(milliseconds: json['copyMillis']),
+    );
+  }
+
+  @override
+  String toString() => 'ImportStats{copyCount: $copyCount, '
+      'copiedBytes: $copiedBytes, copyDuration: $copyDuration}';
+}
+
+/// A pending request of the thumbnail of an image, returned by
+/// [ImagePicker.requestThumbnail] and [ImagePicker.requestThumbnailFile].
+class ThumbnailRequest<T> {
+  ThumbnailRequest._(this._id, this.result);
+
+  factory ThumbnailRequest._start(
+      String uri, int width, int height, int priority,
+      {bool toFile, T Function(dynamic value) convert}) {
+    assert(uri != null);
+    assert(width != null && width > 0);
+    assert(height != null && height > 0);
+    final int id = ImagePicker._nextThumbnailRequestId++;
+    final Future<T> result = ImagePicker._channel.invokeMethod<dynamic>(
+      'loadThumbnail',
+      <String, dynamic>{
+        'requestId': id,
+        'uri': uri,
+        'width': width,
+        'height': height,
+        'priority': priority,
+        'toFile': toFile,
+      },
+    ).then<T>(convert);
+    return ThumbnailRequest<T>._(id, result);
+  }
+
+  final int _id;
+
+  /// Completes with the thumbnail, or with null if the image can't be read or
+  /// the request was cancelled before the thumbnail was generated.
+  final Future<T> result;
+
+  /// Cancels the request, for instance when its image scrolls out of view.
+  Future<void> cancel() {
+    return ImagePicker._channel.invokeMethod<void>(
+        'cancelThumbnail', <String, dynamic>{'requestId': _id});
+  }
+}
+
 /// The response object of [ImagePicker.retrieveLostData].
 ///
 /// Only applies to Android.
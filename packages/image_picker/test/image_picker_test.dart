@@ -2,6 +2,9 @@
 // Use of this source code is governed by a BSD-style license that can be
 // found in the LICENSE file.
 
+import 'dart:io';
+import 'dart:typed_data';
+
 import 'package:flutter/services.dart';
 import 'package:flutter_test/flutter_test.dart';
 import 'package:image_picker/image_picker.dart';
@@ -143,6 +146,204 @@ void main() {
       });
     });
 
+    group('#pickMultiImage', () {
+      test('passes the arguments and returns the files', () async {
+        channel.setMockMethodCallHandler((MethodCall methodCall) async {
+          log.add(methodCall);
+          return <String>['/a.jpg', '/b.jpg'];
+        });
+
+        final List<File> files =
+            await ImagePicker.pickMultiImage(maxWidth: 10.0, imageQuality: 70);
+
+        expect(files.map((File file) => file.path),
+            <String>['/a.jpg', '/b.jpg']);
+        expect(
+          log,
+          <Matcher>[
+            isMethodCall('pickMultiImage', arguments: <String, dynamic>{
+              'maxWidth': 10.0,
+              'maxHeight': null,
+              'imageQuality': 70
+            }),
+          ],
+        );
+      });
+
+      test('handles a null result', () async {
+        channel.setMockMethodCallHandler((MethodCall methodCall) => null);
+
+        expect(await ImagePicker.pickMultiImage(), isNull);
+      });
+
+      test('does not accept a negative width or height argument', () {
+        expect(
+          ImagePicker.pickMultiImage(maxWidth: -1.0),
+          throwsArgumentError,
+        );
+      });
+    });
+
+    group('#setCacheMaxBytes', () {
+      test('passes the byte budget', () async {
+        await ImagePicker.setCacheMaxBytes(1024);
+
+        expect(
+          log,
+          <Matcher>[
+            isMethodCall('setCacheMaxBytes',
+                arguments: <String, dynamic>{'maxBytes': 1024}),
+          ],
+        );
+      });
+    });
+
+    group('#getImportStats', () {
+      test('returns the totals of the copies', () async {
+        channel.setMockMethodCallHandler((MethodCall methodCall) async {
+          log.add(methodCall);
+          return <String, dynamic>{
+            'copyCount': 2,
+            'copiedBytes': 4096,
+            'copyMillis': 2000,
+          };
+        });
+
+        final ImportStats stats = await ImagePicker.getImportStats();
+
+        expect(log, <Matcher>[isMethodCall('getImportStats', arguments: null)]);
+        expect(stats.copyCount, 2);
+        expect(stats.copiedBytes, 4096);
+        expect(stats.copyDuration, const Duration(seconds: 2));
+        expect(stats.bytesPerSecond, 2048);
+      });
+    });
+
+    group('#queryGalleryImages', () {
+      test('passes the paging arguments and returns the images', () async {
+        channel.setMockMethodCallHandler((MethodCall methodCall) async {
+          log.add(methodCall);
+          return <Map<String, dynamic>>[
+            <String, dynamic>{
+              'id': 7,
+              'uri': 'content://media/external/images/media/7',
+              'path': '/a.jpg',
+              'dateTaken': 1000,
+              'width': 40,
+              'height': 30,
+              'mimeType': 'image/jpeg',
+            },
+          ];
+        });
+
+        final List<GalleryImage> images =
+            await ImagePicker.queryGalleryImages(offset: 10, limit: 5);
+
+        expect(images.single.id, 7);
+        expect(images.single.path, '/a.jpg');
+        expect(images.single.dateTaken,
+            DateTime.fromMillisecondsSinceEpoch(1000));
+        expect(
+          log,
+          <Matcher>[
+            isMethodCall('queryGalleryImages',
+                arguments: <String, dynamic>{'offset': 10, 'limit': 5}),
+          ],
+        );
+      });
+
+      test('streams pages until a short page', () async {
+        channel.setMockMethodCallHandler((MethodCall methodCall) async {
+          log.add(methodCall);
+          final int offset = methodCall.arguments['offset'];
+          final int count = offset == 0 ? 2 : 1;
+          return List<Map<String, dynamic>>.generate(
+              count,
+              (int i) => <String, dynamic>{
+                    'id': offset + i,
+                    'uri': 'content://media/external/images/media/$i',
+                  });
+        });
+
+        final List<List<GalleryImage>> pages =
+            await ImagePicker.galleryImagePages(pageSize: 2).toList();
+
+        expect(pages.map((List<GalleryImage> page) => page.length),
+            <int>[2, 1]);
+        expect(log, hasLength(2));
+      });
+    });
+
+    group('#requestThumbnail', () {
+      test('passes the arguments and cancels the request', () async {
+        channel.setMockMethodCallHandler((MethodCall methodCall) async {
+          log.add(methodCall);
+          return methodCall.method == 'loadThumbnail'
+              ? Uint8List.fromList(<int>[1, 2, 3])
+              : null;
+        });
+
+        final ThumbnailRequest<Uint8List> request =
+            ImagePicker.requestThumbnail(
+                'content://media/external/images/media/7',
+                width: 64,
+                height: 48,
+                priority: 2);
+        expect(await request.result, <int>[1, 2, 3]);
+        await request.cancel();
+
+        expect(log, hasLength(2));
+        expect(log[0].method, 'loadThumbnail');
+        expect(log[0].arguments['uri'],
+            'content://media/external/images/media/7');
+        expect(log[0].arguments['width'], 64);
+        expect(log[0].arguments['height'], 48);
+        expect(log[0].arguments['priority'], 2);
+        expect(log[0].arguments['toFile'], isFalse);
+        expect(
+            log[1],
+            isMethodCall('cancelThumbnail', arguments: <String, dynamic>{
+              'requestId': log[0].arguments['requestId'],
+            }));
+      });
+
+      test('returns thumbnail files', () async {
+        channel.setMockMethodCallHandler((MethodCall methodCall) async {
+          log.add(methodCall);
+          return '/thumbnail.jpg';
+        });
+
+        final File file = await ImagePicker.requestThumbnailFile(
+                'content://media/external/images/media/7')
+            .result;
+
+        expect(file.path, '/thumbnail.jpg');
+        expect(log.single.arguments['toFile'], isTrue);
+      });
+    });
+
+    group('#saveFile', () {
+      test('passes the file data', () async {
+        await ImagePicker.saveFile(
+            fileData: Uint8List.fromList(<int>[1, 2, 3]),
+            name: 'image.png',
+            mimeType: 'image/png');
+
+        expect(
+          log,
+          <Matcher>[
+            isMethodCall('saveFile', arguments: <String, dynamic>{
+              'fileData': Uint8List.fromList(<int>[1, 2, 3]),
+              'filePath': null,
+              'title': 'image.png',
+              'description': null,
+              'mimeType': 'image/png'
+            }),
+          ],
+        );
+      });
+    });
+
     group('#pickVideo', () {
       test('passes the image source argument correctly', () async {
         await ImagePicker.pickVideo(source: ImageSource.camera);